@@ -0,0 +1,241 @@
+package org.logisticPlanning.tsp.benchmarking.dist;
+
+import java.io.PrintWriter;
+
+/**
+ * <p>
+ * A bounded cache for distances which wraps another
+ * {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer
+ * distance computer}. It is intended for coordinate-based instances which
+ * are too large to be converted to a distance matrix: here, each call to
+ * {@link #distance(int, int)} requires a (comparably expensive)
+ * computation, such as a square root. Local search algorithms, however,
+ * tend to query the same few edges between nearby nodes again and again.
+ * </p>
+ * <p>
+ * The cache is organized as
+ * {@link #WAYS}-way set-associative table with open addressing: The pair
+ * of nodes is packed into a single {@code long} key, which is hashed to a
+ * set of {@link #WAYS} consecutive slots. Within each set, the entries are
+ * kept in least-recently-used order, i.e., a hit moves the entry to the
+ * front and a miss evicts the last entry of the set. Keys and values are
+ * stored in primitive arrays, so no objects are allocated after
+ * construction.
+ * </p>
+ * <p>
+ * The cache is not thread-safe. It is intended to be used by one thread
+ * only, e.g., by one
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction
+ * objective function}, while the wrapped distance computer may be shared.
+ * The methods {@link #evaluate(int[])}, {@link #evaluate(int[][], long[])},
+ * and {@link #evaluateAdj(int[])} are passed through to the wrapped
+ * computer directly, as they already are specialized for fast sequential
+ * access.
+ * </p>
+ */
+public final class DistanceCache extends DistanceComputer {
+
+  /** the number of slots per set: {@value} */
+  public static final int WAYS = 4;
+
+  /** the wrapped distance computer */
+  private final DistanceComputer m_dist;
+
+  /** is the wrapped distance computer symmetric? */
+  private final boolean m_symmetric;
+
+  /** the keys, {@code 0} marks an empty slot */
+  private final long[] m_keys;
+
+  /** the cached distances */
+  private final int[] m_values;
+
+  /** the mask for the set index */
+  private final int m_mask;
+
+  /** the number of cache hits */
+  private long m_hits;
+
+  /** the number of cache misses */
+  private long m_misses;
+
+  /**
+   * Create a new distance cache.
+   *
+   * @param dist
+   *          the distance computer to wrap
+   * @param capacity
+   *          the maximum number of distances to cache, will be rounded up
+   *          to a power of two that is at least {@link #WAYS}
+   * @param symmetric
+   *          is the wrapped distance computer symmetric? If so, both
+   *          directions of an edge share one cache entry.
+   */
+  public DistanceCache(final DistanceComputer dist, final int capacity,
+      final boolean symmetric) {
+    super(dist.n());
+
+    int cap;
+
+    if ((capacity <= 0) || (capacity > (1 << 30))) {
+      throw new IllegalArgumentException(//
+          "Invalid cache capacity: " + capacity); //$NON-NLS-1$
+    }
+
+    cap = DistanceCache.WAYS;
+    while (cap < capacity) {
+      cap <<= 1;
+    }
+
+    this.m_dist = dist;
+    this.m_symmetric = symmetric;
+    this.m_keys = new long[cap];
+    this.m_values = new int[cap];
+    this.m_mask = ((cap / DistanceCache.WAYS) - 1);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final int distance(final int i, final int j) {
+    final long[] keys;
+    final int[] values;
+    final long key;
+    final int base, end;
+    int k, v;
+
+    if (this.m_symmetric && (i < j)) {
+      key = ((((long) j) << 32) | i);
+    } else {
+      key = ((((long) i) << 32) | j);
+    }
+
+    keys = this.m_keys;
+    values = this.m_values;
+    base = (((int) ((key * 0x9e3779b97f4a7c15L) >>> 32)) & this.m_mask)
+        * DistanceCache.WAYS;
+    end = (base + DistanceCache.WAYS);
+
+    for (k = base; k < end; k++) {
+      if (keys[k] == key) {
+        // hit: move the entry to the front of its set
+        v = values[k];
+        for (; k > base; k--) {
+          keys[k] = keys[k - 1];
+          values[k] = values[k - 1];
+        }
+        keys[base] = key;
+        values[base] = v;
+        this.m_hits++;
+        return v;
+      }
+    }
+
+    // miss: evict the least recently used entry of the set
+    v = this.m_dist.distance(i, j);
+    for (k = (end - 1); k > base; k--) {
+      keys[k] = keys[k - 1];
+      values[k] = values[k - 1];
+    }
+    keys[base] = key;
+    values[base] = v;
+    this.m_misses++;
+    return v;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final long evaluate(final int[] nodes) {
+    return this.m_dist.evaluate(nodes);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void evaluate(final int[][] tours, final long[] out) {
+    this.m_dist.evaluate(tours, out);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final long evaluateAdj(final int[] adjacencyList) {
+    return this.m_dist.evaluateAdj(adjacencyList);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final long nearestNeighbors(final int m, final int[] dest) {
+    return this.m_dist.nearestNeighbors(m, dest);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final long quadrantNeighbors(final int m, final int[] dest) {
+    return this.m_dist.quadrantNeighbors(m, dest);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void print(final PrintWriter out) {
+    this.m_dist.print(out);
+  }
+
+  /**
+   * Get the maximum number of distances held in this cache
+   *
+   * @return the maximum number of distances held in this cache
+   */
+  public final int capacity() {
+    return this.m_keys.length;
+  }
+
+  /**
+   * Get the number of cache hits since the last call of
+   * {@link #resetCounters()}
+   *
+   * @return the number of cache hits
+   */
+  public final long getHits() {
+    return this.m_hits;
+  }
+
+  /**
+   * Get the number of cache misses since the last call of
+   * {@link #resetCounters()}
+   *
+   * @return the number of cache misses
+   */
+  public final long getMisses() {
+    return this.m_misses;
+  }
+
+  /** Reset the hit and miss counters. The cached data is kept. */
+  public final void resetCounters() {
+    this.m_hits = 0l;
+    this.m_misses = 0l;
+  }
+
+  /**
+   * Wrap a distance computer into a cache, if this can be expected to be
+   * beneficial. Distance matrices are returned as is, since a look-up in
+   * them is already cheaper than a cache access. All other distance
+   * computers provided by this package compute their distances from
+   * coordinate lists and are symmetric.
+   *
+   * @param dist
+   *          the distance computer
+   * @param capacity
+   *          the cache capacity, or {@code 0} for no cache
+   * @return either a new cache wrapping {@code dist}, or {@code dist}
+   *         itself
+   */
+  public static final DistanceComputer wrap(final DistanceComputer dist,
+      final int capacity) {
+    if ((capacity <= 0) || (dist instanceof _DistanceMatrix) || //
+        (dist instanceof _DistanceMatrixMapped) || //
+        (dist instanceof DistanceCache) || //
+        (!(dist.getClass().getPackage().equals(//
+            DistanceCache.class.getPackage())))) {
+      return dist;
+    }
+    return new DistanceCache(dist, capacity, true);
+  }
+}
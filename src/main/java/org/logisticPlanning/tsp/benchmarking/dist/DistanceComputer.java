@@ -412,9 +412,21 @@ import java.util.ArrayList;
  */
 public abstract class DistanceComputer extends _Constants {
 
+  /**
+   * the suffix ({@value} ) of the binary distance matrix files created by
+   * {@link #toMatrixFile(DistanceComputer, File)}
+   */
+  public static final String MATRIX_FILE_SUFFIX = ".dmat"; //$NON-NLS-1$
+
   /** the number of nodes */
   protected final int m_n;
 
+  /**
+   * the scratch buffer of the batched evaluation, see
+   * {@link #_claimScratch()}
+   */
+  private transient Object m_scratch;
+
   /**
    * the distance computer
    *
@@ -476,6 +488,69 @@ public abstract class DistanceComputer extends _Constants {
     return x;
   }
 
+  /**
+   * <p>
+   * Compute the total round-trip distances of a batch of complete
+   * candidate solutions in path representation, i.e., set
+   * {@code out[i]=evaluate(tours[i])} for all {@code i} in
+   * {@code 0..tours.length-1}.
+   * </p>
+   * <p>
+   * Population-based algorithms usually evaluate many tours at once.
+   * Distance computers which compute the distances from coordinates
+   * override this method: They first gather the coordinates of the nodes
+   * of a tour into contiguous arrays and then compute the tour length in a
+   * simple loop over sequential memory, which is friendlier to the cache
+   * and to the optimizations of the JIT compiler than the indirect
+   * accesses of {@link #evaluate(int[])}. The results are always exactly
+   * the same as those of {@link #evaluate(int[])}.
+   * </p>
+   *
+   * @param tours
+   *          the tours, each being a permutation of the nodes from
+   *          {@code 1..n}
+   * @param out
+   *          the destination array for the total distance sums, must have
+   *          at least the length of {@code tours}
+   */
+  public void evaluate(final int[][] tours, final long[] out) {
+    int i;
+
+    for (i = 0; i < tours.length; i++) {
+      out[i] = this.evaluate(tours[i]);
+    }
+  }
+
+  /**
+   * Claim the scratch buffer used by the batched evaluation
+   * {@link #evaluate(int[][], long[])} of this distance computer. A
+   * distance computer may be shared by several threads, so the buffer is
+   * handed out to one caller at a time: While it is in use, other callers
+   * get {@code null} and must allocate their own buffer.
+   *
+   * @return the scratch buffer, or {@code null} if there is none yet or it
+   *         is currently in use
+   */
+  final synchronized Object _claimScratch() {
+    final Object scratch;
+
+    scratch = this.m_scratch;
+    this.m_scratch = null;
+    return scratch;
+  }
+
+  /**
+   * Hand back a scratch buffer obtained via {@link #_claimScratch()}, or
+   * allocated because the buffer was in use, so that it can be re-used by
+   * the next batched evaluation.
+   *
+   * @param scratch
+   *          the scratch buffer
+   */
+  final synchronized void _releaseScratch(final Object scratch) {
+    this.m_scratch = scratch;
+  }
+
   /**
    * <p>
    * Evaluate a given candidate solution in adjacency list
@@ -522,6 +597,105 @@ public abstract class DistanceComputer extends _Constants {
     return sum;
   }
 
+  /**
+   * <p>
+   * Compute the {@code m} nearest neighbors of every node, i.e., the
+   * {@code m} other nodes with the smallest distance to it. Of two nodes
+   * at the same distance, the one with the smaller index is preferred.
+   * The neighbors of node {@code i} are stored at the indexes
+   * {@code (i-1)*m} to {@code i*m-1} of {@code dest}, sorted by their node
+   * index.
+   * </p>
+   * <p>
+   * Computing all {@code n*(n-1)} distances and sorting them for every
+   * node takes {@code O(n<sup>2</sup> log n)} time. Distance computers
+   * which compute the distances from coordinates and whose distances grow
+   * with the coordinate differences instead put the nodes into a uniform
+   * grid and only search the cells around each node, which takes roughly
+   * {@code O(n log n)} time. The searches for different nodes are
+   * distributed over all available processors. The result is exactly the
+   * same as if all distances had been computed. Distance matrices which
+   * were computed from such coordinates, including their binary matrix
+   * files, keep the coordinates and use the grid, too. All other distance
+   * computers, e.g., those with explicit edge weights, do not support this
+   * method and return {@code -1}.
+   * </p>
+   *
+   * @param m
+   *          the number of neighbors per node, in {@code 1..n-1}
+   * @param dest
+   *          the destination array, of length at least {@code n*m}
+   * @return the number of distance evaluations performed, or {@code -1}
+   *         if the neighbors cannot be computed faster than by computing
+   *         all distances, in which case {@code dest} is not changed
+   * @throws IllegalArgumentException
+   *           if {@code m} is not in {@code 1..n-1} or {@code dest} is too
+   *           short
+   */
+  public long nearestNeighbors(final int m, final int[] dest) {
+    return _NeighborGrid._compute(this, m, false, dest);
+  }
+
+  /**
+   * <p>
+   * Compute {@code m} quadrant neighbors of every node: The space around
+   * a node is divided into its quadrants (octants for three-dimensional
+   * coordinates) and the <code>m/2<sup>d</sup></code> nearest nodes are
+   * taken from each of the <code>2<sup>d</sup></code> quadrants, where
+   * {@code d} is the number of dimensions. If a quadrant holds fewer
+   * nodes, the remaining neighbors are the nearest nodes not chosen yet.
+   * Quadrant neighbors make sure that the candidate edges of a node do
+   * not all lead into the same direction, which is helpful for clustered
+   * instances. The result is stored like the result of
+   * {@link #nearestNeighbors(int, int[])}.
+   * </p>
+   * <p>
+   * Only distance computers which support
+   * {@link #nearestNeighbors(int, int[])} support this method, all others
+   * return {@code -1}.
+   * </p>
+   *
+   * @param m
+   *          the number of neighbors per node, in {@code 1..n-1}
+   * @param dest
+   *          the destination array, of length at least {@code n*m}
+   * @return the number of distance evaluations performed, or {@code -1}
+   *         if the neighbors cannot be computed, in which case
+   *         {@code dest} is not changed
+   * @throws IllegalArgumentException
+   *           if {@code m} is not in {@code 1..n-1} or {@code dest} is too
+   *           short
+   */
+  public long quadrantNeighbors(final int m, final int[] dest) {
+    return _NeighborGrid._compute(this, m, true, dest);
+  }
+
+  /**
+   * Get the coordinates of the nodes for the computation of
+   * {@link #nearestNeighbors(int, int[]) nearest neighbors}, dimension by
+   * dimension, node by node.
+   *
+   * @return the coordinates, or {@code null} if the distances are not
+   *         computed from coordinates or do not grow with the coordinate
+   *         differences
+   */
+  double[] _neighborCoords() {
+    return null;
+  }
+
+  /**
+   * Get the scale factor {@code s} for the computation of
+   * {@link #nearestNeighbors(int, int[]) nearest neighbors}: If two nodes
+   * differ by {@code x} in any of their
+   * {@link #_neighborCoords() coordinates}, their distance must be at
+   * least {@code floor(s*x)}.
+   *
+   * @return the scale factor
+   */
+  double _neighborScale() {
+    return 1d;
+  }
+
   /**
    * Obtain the number of cities.
    *
@@ -678,7 +852,7 @@ public abstract class DistanceComputer extends _Constants {
     ArrayList<String> pb;
     int dimension, have, i;
     DistanceComputer chosen;
-    _DistanceMatrixSymmetric chosen2;
+    _DistanceMatrix chosen2;
 
     dimension = -1;
     pb = null;
@@ -833,7 +1007,7 @@ public abstract class DistanceComputer extends _Constants {
 
         if (_Constants.FULL_MATRIX_STR.equalsIgnoreCase(ewf)) {
           if (symmetricHint) {
-            chosen = new _DistanceMatrixSymmetric(dimension);
+            chosen = _DistanceMatrix._symmetric(dimension);
           } else {
             chosen = new _DistanceMatrixAsymmetric(dimension);
           }
@@ -848,7 +1022,7 @@ public abstract class DistanceComputer extends _Constants {
             _Constants.UPPER_COL_STR.equalsIgnoreCase(ewf) || //
             _Constants.LOWER_DIAG_COL_STR.equalsIgnoreCase(ewf) || //
             _Constants.UPPER_DIAG_COL_STR.equalsIgnoreCase(ewf)) {
-          chosen = new _DistanceMatrixSymmetric(dimension);
+          chosen = _DistanceMatrix._symmetric(dimension);
           break choose;
         }
       }
@@ -858,8 +1032,8 @@ public abstract class DistanceComputer extends _Constants {
         if (!(chosen instanceof _DistanceMatrix)) {
           if (dimension <= matrixLimitDim) {
             try {
-              chosen2 = new _DistanceMatrixSymmetric(dimension);
-              chosen2.fillFrom(chosen);
+              chosen2 = _DistanceMatrix._symmetric(dimension);
+              chosen2._fillFromCoordinates(chosen);
               chosen = chosen2;
             } catch (final OutOfMemoryError ome) {
               //
@@ -992,4 +1166,104 @@ public abstract class DistanceComputer extends _Constants {
           symmetricHint);
     }
   }
+
+  /**
+   * <p>
+   * Open a binary distance matrix file previously created with
+   * {@link #toMatrixFile(DistanceComputer, File)}. The file is mapped into
+   * memory via {@link java.nio.channels.FileChannel#map(java.nio.channels.FileChannel.MapMode, long, long)
+   * FileChannel.map} in read-only mode, i.e., the distance data is neither
+   * parsed nor copied to the Java heap, and all threads and processes
+   * opening the same file share the same physical memory pages.
+   * </p>
+   * <p>
+   * If the file does not exist, was created for a different dimension or
+   * symmetry, or stems from a machine with a different byte order,
+   * {@code null} is returned.
+   * </p>
+   *
+   * @param f
+   *          the file
+   * @param n
+   *          the expected number of nodes
+   * @param symmetric
+   *          is the matrix expected to be symmetric?
+   * @return the distance computer, or {@code null} if the file cannot be
+   *         used
+   * @throws IOException
+   *           if i/o fails
+   */
+  public static final DistanceComputer openMatrixFile(final File f,
+      final int n, final boolean symmetric) throws IOException {
+    return DistanceComputer.openMatrixFile(f, n, symmetric,
+        Integer.MAX_VALUE);
+  }
+
+  /**
+   * Open a binary distance matrix file like
+   * {@link #openMatrixFile(File, int, boolean)}, but only if the file
+   * holds what {@link #read(BufferedReader, int, boolean, boolean)} would
+   * return for the given {@code matrixLimitDim}: A matrix which was
+   * computed from a coordinate list is only used if {@code n} does not
+   * exceed {@code matrixLimitDim}, since otherwise the coordinate list
+   * would not have been converted. Matrices with explicit edge weights
+   * are always used.
+   *
+   * @param f
+   *          the file
+   * @param n
+   *          the expected number of nodes
+   * @param symmetric
+   *          is the matrix expected to be symmetric?
+   * @param matrixLimitDim
+   *          the highest dimension for which coordinate lists will
+   *          automatically be transformed to matrices.
+   * @return the distance computer, or {@code null} if the file cannot be
+   *         used
+   * @throws IOException
+   *           if i/o fails
+   */
+  public static final DistanceComputer openMatrixFile(final File f,
+      final int n, final boolean symmetric, final int matrixLimitDim)
+      throws IOException {
+    return _DistanceMatrixMapped._open(f, n, symmetric, matrixLimitDim);
+  }
+
+  /**
+   * Compile a distance computer into a binary distance matrix file which
+   * can later be opened with {@link #openMatrixFile(File, int, boolean)}.
+   * This is only done if {@code dist} is a distance matrix, i.e., if it
+   * either stems from an instance with explicit edge weights or from a
+   * coordinate list whose dimension was small enough to be converted (see
+   * {@link #read(BufferedReader, int, boolean, boolean)}). In this case,
+   * the memory-mapped version of the file is returned and {@code dist} can
+   * be discarded. Otherwise, {@code dist} is returned as is. The file is
+   * written atomically, so several processes may try to compile the same
+   * file concurrently.
+   *
+   * @param dist
+   *          the distance computer
+   * @param f
+   *          the destination file
+   * @return the distance computer to use instead of {@code dist}
+   * @throws IOException
+   *           if i/o fails
+   */
+  public static final DistanceComputer toMatrixFile(
+      final DistanceComputer dist, final File f) throws IOException {
+    final DistanceComputer mapped;
+
+    if (dist instanceof _DistanceMatrix) {
+      _DistanceMatrixMapped._compile(((_DistanceMatrix) dist), f);
+      mapped = _DistanceMatrixMapped._open(f, dist.m_n,
+          ((dist instanceof _DistanceMatrixSymmetric) || //
+          (dist instanceof _DistanceMatrixSymmetricChunked)),
+          Integer.MAX_VALUE);
+      if (mapped != null) {
+        return mapped;
+      }
+    }
+
+    return dist;
+  }
 }
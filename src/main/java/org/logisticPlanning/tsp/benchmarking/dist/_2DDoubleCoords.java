@@ -415,6 +415,63 @@ abstract class _2DDoubleCoords extends DistanceComputer {
     c[a] = y;
   }
 
+  /**
+   * Get a scratch buffer for
+   * {@link #_gather(int[], double[], double[])}: the arrays for the x- and
+   * y-coordinates, each of length {@code n+1}. The buffer should be handed
+   * back via {@link #_releaseScratch(Object)} after use.
+   *
+   * @return the scratch buffer
+   */
+  final double[][] _scratch() {
+    final Object scratch;
+
+    scratch = this._claimScratch();
+    if (scratch != null) {
+      return ((double[][]) scratch);
+    }
+    return new double[2][this.m_n + 1];
+  }
+
+  /**
+   * Gather the coordinates of the nodes of a tour in path representation
+   * into contiguous arrays, in tour order. The coordinates of the first
+   * node are repeated at the end, so that edge {@code k} of the tour
+   * leads from index {@code k} to index {@code k+1}.
+   *
+   * @param tour
+   *          the tour
+   * @param xs
+   *          the destination for the x-coordinates, of length at least
+   *          {@code tour.length+1}
+   * @param ys
+   *          the destination for the y-coordinates, of length at least
+   *          {@code tour.length+1}
+   * @return the number of edges, i.e., {@code tour.length}
+   */
+  final int _gather(final int[] tour, final double[] xs, final double[] ys) {
+    final double[] m;
+    final int len;
+    int k, a;
+
+    m = this.m_coords;
+    len = tour.length;
+    for (k = 0; k < len; k++) {
+      a = ((tour[k] - 1) << 1);
+      xs[k] = m[a++];
+      ys[k] = m[a];
+    }
+    xs[len] = xs[0];
+    ys[len] = ys[0];
+    return len;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  double[] _neighborCoords() {
+    return this.m_coords;
+  }
+
   /**
    * Print to a print writer.
    *
@@ -501,7 +558,7 @@ abstract class _2DDoubleCoords extends DistanceComputer {
 
   /** {@inheritDoc} */
   @Override
-  final void load(final BufferedReader in) throws IOException {
+  void load(final BufferedReader in) throws IOException {
     String s;
     final NumberReader nums;
     int i;
@@ -538,6 +538,34 @@ final class _2DEuclideanDistanceInt extends _2DIntCoords {
     }
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public final void evaluate(final int[][] tours, final long[] out) {
+    final int[] xs, ys;
+    final int[][] scratch;
+    int i, k, len;
+    int xd, yd;
+    long totalDist;
+
+    scratch = this._scratch();
+    xs = scratch[0];
+    ys = scratch[1];
+    try {
+      for (i = 0; i < tours.length; i++) {
+        len = this._gather(tours[i], xs, ys);
+        totalDist = 0l;
+        for (k = 0; k < len; k++) {
+          xd = (xs[k + 1] - xs[k]);
+          yd = (ys[k + 1] - ys[k]);
+          totalDist += ((int) (0.5d + (Math.sqrt((xd * xd) + (yd * yd)))));
+        }
+        out[i] = totalDist;
+      }
+    } finally {
+      this._releaseScratch(scratch);
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public final void print(final PrintWriter out) {
@@ -1,5 +1,7 @@
 package org.logisticPlanning.tsp.benchmarking.dist;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.PrintWriter;
 
 /**
@@ -526,6 +528,12 @@ import java.io.PrintWriter;
  */
 final class _2DGeoDistanceDouble extends _2DDoubleCoords {
 
+  /**
+   * the latitude and longitude of each node in radians, interleaved in the
+   * same way as the coordinates
+   */
+  transient double[] m_rad;
+
   /**
    * create
    *
@@ -536,6 +544,45 @@ final class _2DGeoDistanceDouble extends _2DDoubleCoords {
     super(n);
   }
 
+  /**
+   * Load the coordinates and convert them to radians. The conversion is
+   * done exactly as specified in TSPLib, so the distances are the same as
+   * when converting the coordinates in each distance computation.
+   *
+   * @param in
+   *          the {@link java.io.BufferedReader}
+   * @throws IOException
+   *           on failure
+   */
+  @Override
+  final void load(final BufferedReader in) throws IOException {
+    final double[] c, r;
+    double x;
+    int a, deg;
+
+    super.load(in);
+
+    c = this.m_coords;
+    this.m_rad = r = new double[c.length];
+    for (a = c.length; (--a) >= 0;) {
+      x = c[a];
+      deg = ((int) x);
+      r[a] = ((3.141592d * (deg + ((5.0d * (x - deg)) / 3d))) / 180d);
+    }
+  }
+
+  /**
+   * Geographical distances do not grow with the differences of the
+   * latitudes and longitudes in a way that could be used for a
+   * {@link #nearestNeighbors(int, int[]) grid search}.
+   *
+   * @return {@code null}
+   */
+  @Override
+  final double[] _neighborCoords() {
+    return null;
+  }
+
   /** {@inheritDoc} */
   @Override
   public final int distance(final int i, final int j) {
@@ -546,27 +593,17 @@ final class _2DGeoDistanceDouble extends _2DDoubleCoords {
 
     final double[] m;
     int a;
-    double x, y;
-    int deg;
     final double latA, longA, latB, longB, q1, q2, q3;
 
-    m = this.m_coords;
+    m = this.m_rad;
 
     a = ((i - 1) << 1);
-    x = m[a++];
-    y = m[a];
-    deg = ((int) x);
-    latA = ((3.141592d * (deg + ((5.0d * (x - deg)) / 3d))) / 180d);
-    deg = ((int) y);
-    longA = ((3.141592d * (deg + ((5.0d * (y - deg)) / 3d))) / 180d);
+    latA = m[a++];
+    longA = m[a];
 
     a = ((j - 1) << 1);
-    x = m[a++];
-    y = m[a];
-    deg = ((int) x);
-    latB = ((3.141592d * (deg + ((5.0d * (x - deg)) / 3d))) / 180d);
-    deg = ((int) y);
-    longB = ((3.141592d * (deg + ((5.0d * (y - deg)) / 3d))) / 180d);
+    latB = m[a++];
+    longB = m[a];
 
     q1 = Math.cos(longA - longB);
     q2 = Math.cos(latA - latB);
@@ -596,31 +633,21 @@ final class _2DGeoDistanceDouble extends _2DDoubleCoords {
     int a, old_i;
     long totalDist;
     final double[] m;
-    double x, y;
-    int deg;
     double lat1, long1, lat2, long2, q1, q2, q3;
 
     old_i = nodes[nodes.length - 1];
     totalDist = 0l;
-    m = this.m_coords;
+    m = this.m_rad;
 
     a = ((old_i - 1) << 1);
-    x = m[a++];
-    y = m[a];
-    deg = ((int) x);
-    lat2 = ((3.141592d * (deg + ((5.0d * (x - deg)) / 3d))) / 180d);
-    deg = ((int) y);
-    long2 = ((3.141592d * (deg + ((5.0d * (y - deg)) / 3d))) / 180d);
+    lat2 = m[a++];
+    long2 = m[a];
 
     for (final int cur_i : nodes) {
       a = ((cur_i - 1) << 1);
 
-      x = m[a++];
-      y = m[a];
-      deg = ((int) x);
-      lat1 = ((3.141592d * (deg + ((5.0d * (x - deg)) / 3d))) / 180d);
-      deg = ((int) y);
-      long1 = ((3.141592d * (deg + ((5.0d * (y - deg)) / 3d))) / 180d);
+      lat1 = m[a++];
+      long1 = m[a];
 
       q1 = Math.cos(long2 - long1);
       q2 = Math.cos(lat2 - lat1);
@@ -660,32 +687,22 @@ final class _2DGeoDistanceDouble extends _2DDoubleCoords {
     int a, old_i, cur_i;
     long totalDist;
     final double[] m;
-    double x, y;
-    int deg;
     double lat1, long1, lat2, long2, q1, q2, q3;
 
     old_i = 1;
     totalDist = 0l;
-    m = this.m_coords;
+    m = this.m_rad;
 
     a = ((old_i - 1) << 1);
-    x = m[a++];
-    y = m[a];
-    deg = ((int) x);
-    lat2 = ((3.141592d * (deg + ((5.0d * (x - deg)) / 3d))) / 180d);
-    deg = ((int) y);
-    long2 = ((3.141592d * (deg + ((5.0d * (y - deg)) / 3d))) / 180d);
+    lat2 = m[a++];
+    long2 = m[a];
 
     for (;;) {
       cur_i = adj[old_i - 1];
       a = ((cur_i - 1) << 1);
 
-      x = m[a++];
-      y = m[a];
-      deg = ((int) x);
-      lat1 = ((3.141592d * (deg + ((5.0d * (x - deg)) / 3d))) / 180d);
-      deg = ((int) y);
-      long1 = ((3.141592d * (deg + ((5.0d * (y - deg)) / 3d))) / 180d);
+      lat1 = m[a++];
+      long1 = m[a];
 
       q1 = Math.cos(long2 - long1);
       q2 = Math.cos(lat2 - lat1);
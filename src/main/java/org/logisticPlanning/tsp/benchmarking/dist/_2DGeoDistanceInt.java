@@ -1,5 +1,7 @@
 package org.logisticPlanning.tsp.benchmarking.dist;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.PrintWriter;
 
 /**
@@ -525,6 +527,12 @@ import java.io.PrintWriter;
  */
 final class _2DGeoDistanceInt extends _2DIntCoords {
 
+  /**
+   * the latitude and longitude of each node in radians, interleaved in the
+   * same way as the coordinates
+   */
+  transient double[] m_rad;
+
   /**
    * create
    *
@@ -535,6 +543,43 @@ final class _2DGeoDistanceInt extends _2DIntCoords {
     super(n);
   }
 
+  /**
+   * Load the coordinates and convert them to radians. The conversion is
+   * done exactly as specified in TSPLib, so the distances are the same as
+   * when converting the coordinates in each distance computation.
+   *
+   * @param in
+   *          the {@link java.io.BufferedReader}
+   * @throws IOException
+   *           on failure
+   */
+  @Override
+  final void load(final BufferedReader in) throws IOException {
+    final int[] c;
+    final double[] r;
+    int a;
+
+    super.load(in);
+
+    c = this.m_coords;
+    this.m_rad = r = new double[c.length];
+    for (a = c.length; (--a) >= 0;) {
+      r[a] = ((3.141592d * c[a]) / 180d);
+    }
+  }
+
+  /**
+   * Geographical distances do not grow with the differences of the
+   * latitudes and longitudes in a way that could be used for a
+   * {@link #nearestNeighbors(int, int[]) grid search}.
+   *
+   * @return {@code null}
+   */
+  @Override
+  final double[] _neighborCoords() {
+    return null;
+  }
+
   /** {@inheritDoc} */
   @Override
   public final int distance(final int i, final int j) {
@@ -543,25 +588,19 @@ final class _2DGeoDistanceInt extends _2DIntCoords {
       return 0;
     }
 
-    final int[] m;
+    final double[] m;
     int a;
-    int x, y;
-
     final double latA, longA, latB, longB, q1, q2, q3;
 
-    m = this.m_coords;
+    m = this.m_rad;
 
     a = ((i - 1) << 1);
-    x = m[a++];
-    y = m[a];
-    latA = ((3.141592d * x) / 180d);
-    longA = ((3.141592d * y) / 180d);
+    latA = m[a++];
+    longA = m[a];
 
     a = ((j - 1) << 1);
-    x = m[a++];
-    y = m[a];
-    latB = ((3.141592d * x) / 180d);
-    longB = ((3.141592d * y) / 180d);
+    latB = m[a++];
+    longB = m[a];
 
     q1 = Math.cos(longA - longB);
     q2 = Math.cos(latA - latB);
@@ -590,28 +629,22 @@ final class _2DGeoDistanceInt extends _2DIntCoords {
   public final long evaluate(final int[] nodes) {
     int a, old_i;
     long totalDist;
-    final int[] m;
-    int x, y;
-
+    final double[] m;
     double lat1, long1, lat2, long2, q1, q2, q3;
 
     old_i = nodes[nodes.length - 1];
     totalDist = 0l;
-    m = this.m_coords;
+    m = this.m_rad;
 
     a = ((old_i - 1) << 1);
-    x = m[a++];
-    y = m[a];
-    lat2 = ((3.141592d * x) / 180d);
-    long2 = ((3.141592d * y) / 180d);
+    lat2 = m[a++];
+    long2 = m[a];
 
     for (final int cur_i : nodes) {
       a = ((cur_i - 1) << 1);
 
-      x = m[a++];
-      y = m[a];
-      lat1 = ((3.141592d * x) / 180d);
-      long1 = ((3.141592d * y) / 180d);
+      lat1 = m[a++];
+      long1 = m[a];
 
       q1 = Math.cos(long2 - long1);
       q2 = Math.cos(lat2 - lat1);
@@ -650,29 +683,23 @@ final class _2DGeoDistanceInt extends _2DIntCoords {
   public final long evaluateAdj(final int[] adj) {
     int a, old_i, cur_i;
     long totalDist;
-    final int[] m;
-    int x, y;
-
+    final double[] m;
     double lat1, long1, lat2, long2, q1, q2, q3;
 
     old_i = 1;
     totalDist = 0l;
-    m = this.m_coords;
+    m = this.m_rad;
 
     a = ((old_i - 1) << 1);
-    x = m[a++];
-    y = m[a];
-    lat2 = ((3.141592d * x) / 180d);
-    long2 = ((3.141592d * y) / 180d);
+    lat2 = m[a++];
+    long2 = m[a];
 
     for (;;) {
       cur_i = adj[old_i - 1];
       a = ((cur_i - 1) << 1);
 
-      x = m[a++];
-      y = m[a];
-      lat1 = ((3.141592d * x) / 180d);
-      long1 = ((3.141592d * y) / 180d);
+      lat1 = m[a++];
+      long1 = m[a];
 
       q1 = Math.cos(long2 - long1);
       q2 = Math.cos(lat2 - lat1);
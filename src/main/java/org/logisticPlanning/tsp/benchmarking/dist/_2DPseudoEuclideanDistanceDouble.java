@@ -28,11 +28,11 @@ import java.io.PrintWriter;
  * </p>
  *
  * <pre>
- * xd = x1 - x2<br/>
- * yd = y1 - y2<br/>
- * r  = sqrt( (x2<sup>2</sup> + y2<sup>2</sup>) / 10.0 )<br/>
- * t  = nint(r)<br/>
- * if (t < r) return (t + 1)<br/>
+ * xd = x1 - x2<br/>
+ * yd = y1 - y2<br/>
+ * r  = sqrt( (x2<sup>2</sup> + y2<sup>2</sup>) / 10.0 )<br/>
+ * t  = nint(r)<br/>
+ * if (t < r) return (t + 1)<br/>
  * return t;
  * </pre>
  * <p>
@@ -426,6 +426,18 @@ final class _2DPseudoEuclideanDistanceDouble extends _2DDoubleCoords {
     super(n);
   }
 
+  /**
+   * The pseudo-Euclidean distance is at least the Euclidean distance
+   * divided by {@code sqrt(10)}, so it is at least the largest coordinate
+   * difference times a factor slightly below {@code 1/sqrt(10)}.
+   *
+   * @return the scale factor
+   */
+  @Override
+  final double _neighborScale() {
+    return 0.3162d;
+  }
+
   /** {@inheritDoc} */
   @Override
   public final int distance(final int i, final int j) {
@@ -566,6 +578,38 @@ final class _2DPseudoEuclideanDistanceDouble extends _2DDoubleCoords {
     }
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public final void evaluate(final int[][] tours, final long[] out) {
+    final double[] xs, ys;
+    final double[][] scratch;
+    int i, k, len;
+    double xd, yd;
+    double rij;
+    int tij;
+    long totalDist;
+
+    scratch = this._scratch();
+    xs = scratch[0];
+    ys = scratch[1];
+    try {
+      for (i = 0; i < tours.length; i++) {
+        len = this._gather(tours[i], xs, ys);
+        totalDist = 0l;
+        for (k = 0; k < len; k++) {
+          xd = (xs[k + 1] - xs[k]);
+          yd = (ys[k + 1] - ys[k]);
+          rij = Math.sqrt(((xd * xd) + (yd * yd)) * 0.1d);
+          tij = ((int) (0.5d + (rij)));
+          totalDist += ((tij < rij) ? (tij + 1) : tij);
+        }
+        out[i] = totalDist;
+      }
+    } finally {
+      this._releaseScratch(scratch);
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public final void print(final PrintWriter out) {
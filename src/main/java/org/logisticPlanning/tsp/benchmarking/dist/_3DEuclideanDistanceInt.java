@@ -551,6 +551,37 @@ final class _3DEuclideanDistanceInt extends _3DIntCoords {
     }
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public final void evaluate(final int[][] tours, final long[] out) {
+    final int[] xs, ys, zs;
+    final int[][] scratch;
+    int i, k, len;
+    int xd, yd, zd;
+    long totalDist;
+
+    scratch = this._scratch();
+    xs = scratch[0];
+    ys = scratch[1];
+    zs = scratch[2];
+    try {
+      for (i = 0; i < tours.length; i++) {
+        len = this._gather(tours[i], xs, ys, zs);
+        totalDist = 0l;
+        for (k = 0; k < len; k++) {
+          xd = (xs[k + 1] - xs[k]);
+          yd = (ys[k + 1] - ys[k]);
+          zd = (zs[k + 1] - zs[k]);
+          totalDist += ((int) (0.5d + (Math.sqrt((xd * xd) + (yd * yd)
+              + (zd * zd)))));
+        }
+        out[i] = totalDist;
+      }
+    } finally {
+      this._releaseScratch(scratch);
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public final void print(final PrintWriter out) {
@@ -416,6 +416,78 @@ abstract class _3DIntCoords extends DistanceComputer {
     c[a] = z;
   }
 
+  /**
+   * Get a scratch buffer for
+   * {@link #_gather(int[], int[], int[], int[])}: the arrays for the x-,
+   * y-, and z-coordinates, each of length {@code n+1}. The buffer should
+   * be handed back via {@link #_releaseScratch(Object)} after use.
+   *
+   * @return the scratch buffer
+   */
+  final int[][] _scratch() {
+    final Object scratch;
+
+    scratch = this._claimScratch();
+    if (scratch != null) {
+      return ((int[][]) scratch);
+    }
+    return new int[3][this.m_n + 1];
+  }
+
+  /**
+   * Gather the coordinates of the nodes of a tour in path representation
+   * into contiguous arrays, in tour order. The coordinates of the first
+   * node are repeated at the end, so that edge {@code k} of the tour
+   * leads from index {@code k} to index {@code k+1}.
+   *
+   * @param tour
+   *          the tour
+   * @param xs
+   *          the destination for the x-coordinates, of length at least
+   *          {@code tour.length+1}
+   * @param ys
+   *          the destination for the y-coordinates, of length at least
+   *          {@code tour.length+1}
+   * @param zs
+   *          the destination for the z-coordinates, of length at least
+   *          {@code tour.length+1}
+   * @return the number of edges, i.e., {@code tour.length}
+   */
+  final int _gather(final int[] tour, final int[] xs, final int[] ys,
+      final int[] zs) {
+    final int[] m;
+    final int len;
+    int k, a;
+
+    m = this.m_coords;
+    len = tour.length;
+    for (k = 0; k < len; k++) {
+      a = ((tour[k] - 1) * 3);
+      xs[k] = m[a++];
+      ys[k] = m[a++];
+      zs[k] = m[a];
+    }
+    xs[len] = xs[0];
+    ys[len] = ys[0];
+    zs[len] = zs[0];
+    return len;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  double[] _neighborCoords() {
+    final int[] c;
+    final double[] d;
+    int i;
+
+    c = this.m_coords;
+    d = new double[c.length];
+    for (i = c.length; (--i) >= 0;) {
+      d[i] = c[i];
+    }
+    return d;
+  }
+
   /**
    * Print to a print writer.
    *
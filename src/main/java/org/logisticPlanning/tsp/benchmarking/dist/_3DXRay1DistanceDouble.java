@@ -506,6 +506,18 @@ final class _3DXRay1DistanceDouble extends _3DDoubleCoords {
     super(n);
   }
 
+  /**
+   * The first coordinate is an angle which wraps around at 360 degrees,
+   * so nodes whose coordinates differ much may still be close and a
+   * {@link #nearestNeighbors(int, int[]) grid search} cannot be used.
+   *
+   * @return {@code null}
+   */
+  @Override
+  final double[] _neighborCoords() {
+    return null;
+  }
+
   /** {@inheritDoc} */
   @Override
   public final int distance(final int i, final int j) {
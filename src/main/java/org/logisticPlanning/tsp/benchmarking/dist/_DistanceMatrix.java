@@ -1,6 +1,11 @@
 package org.logisticPlanning.tsp.benchmarking.dist;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.IntBuffer;
+
+import org.logisticPlanning.utils.NumberReader;
 
 /**
  * <p>
@@ -30,9 +35,46 @@ abstract class _DistanceMatrix extends DistanceComputer implements
   /** the maximum numbers per line */
   static final int MAX_NUMBERS_PER_LINE = 16;
 
+  /**
+   * the binary logarithm of the number of integers per chunk in chunked
+   * matrices, see
+   * {@link org.logisticPlanning.tsp.benchmarking.dist._DistanceMatrixSymmetricChunked}
+   */
+  static final int CHUNK_SHIFT = 28;
+
+  /** the maximum number of integers in one chunk */
+  static final int CHUNK_SIZE = (1 << _DistanceMatrix.CHUNK_SHIFT);
+
+  /** the mask for the index within a chunk */
+  static final long CHUNK_MASK = (_DistanceMatrix.CHUNK_SIZE - 1);
+
+  /**
+   * the largest dimension for which a symmetric matrix can be backed by a
+   * single array, see
+   * {@link org.logisticPlanning.tsp.benchmarking.dist._DistanceMatrixSymmetric}
+   */
+  static final int MAX_SYMMETRIC_ARRAY_DIM = 46342;
+
   /** the data */
   int[] m_data;
 
+  /**
+   * was this matrix computed from a coordinate list instead of being read
+   * from explicit edge weights?
+   */
+  boolean m_fromCoordinates;
+
+  /**
+   * the coordinates of the nodes if this matrix was computed from a
+   * coordinate list which supports the computation of
+   * {@link #nearestNeighbors(int, int[]) nearest neighbors}, {@code null}
+   * otherwise
+   */
+  double[] m_coords;
+
+  /** the scale factor belonging to {@link #m_coords} */
+  double m_scale;
+
   /**
    * create
    *
@@ -73,4 +115,186 @@ abstract class _DistanceMatrix extends DistanceComputer implements
     }
   }
 
+  /**
+   * Fill this matrix from a distance computer working on a coordinate
+   * list and keep the coordinates, so that nearest neighbors can still be
+   * found without computing all distances.
+   *
+   * @param src
+   *          the source
+   */
+  final void _fillFromCoordinates(final DistanceComputer src) {
+    this.fillFrom(src);
+    this.m_fromCoordinates = true;
+    this.m_coords = src._neighborCoords();
+    this.m_scale = src._neighborScale();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  final double[] _neighborCoords() {
+    return this.m_coords;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  final double _neighborScale() {
+    return this.m_scale;
+  }
+
+  /**
+   * Copy the data of this matrix into a sequence of buffers. Each buffer
+   * except the last one holds exactly {@link #CHUNK_SIZE} integers.
+   *
+   * @param dest
+   *          the destination buffers
+   */
+  void _copyTo(final IntBuffer[] dest) {
+    int i, start, len;
+
+    start = 0;
+    for (i = 0; i < dest.length; i++) {
+      len = dest[i].remaining();
+      dest[i].put(this.m_data, start, len);
+      start += len;
+    }
+  }
+
+  /**
+   * Create a symmetric distance matrix of the given dimension. For
+   * dimensions up to {@link #MAX_SYMMETRIC_ARRAY_DIM}, the matrix is
+   * backed by a single array, otherwise a chunked matrix with
+   * {@code long} indices is used.
+   *
+   * @param n
+   *          the dimension
+   * @return the matrix
+   */
+  static final _DistanceMatrix _symmetric(final int n) {
+    if (n <= _DistanceMatrix.MAX_SYMMETRIC_ARRAY_DIM) {
+      return new _DistanceMatrixSymmetric(n);
+    }
+    return new _DistanceMatrixSymmetricChunked(n);
+  }
+
+  /**
+   * Load the contents of a symmetric distance matrix, which may be stored
+   * in any of the TSPLib edge weight formats.
+   *
+   * @param in
+   *          the {@link java.io.BufferedReader}
+   * @throws IOException
+   *           on failure
+   */
+  @SuppressWarnings("incomplete-switch")
+  final void _loadSymmetric(final BufferedReader in) throws IOException {
+    String s, t;
+    int edgeType;
+    final NumberReader nr;
+    int i, j, v;
+
+    edgeType = 0;
+    outer: while ((s = in.readLine()) != null) {
+      s = s.trim();
+      if (s.length() <= 0) {
+        continue;
+      }
+
+      i = s.indexOf(':');
+      if (i > 0) {
+        t = s.substring(0, i).trim();
+
+        if (t.length() <= 0) {
+          continue outer;
+        }
+
+        if (_Constants.EDGE_WEIGHT_FORMAT_STR.equalsIgnoreCase(t)) {
+          t = s.substring(i + 1).trim();
+          if (t.length() <= 0) {
+            continue outer;
+          }
+          for (edgeType = _Constants.FORMATS.length; (--edgeType) >= 0;) {
+            if (_Constants.FORMATS[edgeType].equalsIgnoreCase(t)) {
+              continue outer;
+            }
+          }
+          continue outer;
+        }
+      }
+
+      if (_Constants.EDGE_WEIGHT_SECTION_STR.equalsIgnoreCase(s)) {
+        nr = new NumberReader(in);
+        switch (edgeType) {
+          case _Constants.FULL_MATRIX: {
+            for (i = 1; i <= this.m_n; i++) {
+              for (j = 1; j <= this.m_n; j++) {
+                v = nr.nextInt();
+                if (i != j) {
+                  if (j > i) {
+                    this.setDistance(j, i, v);
+                  } else {
+                    if (this.distance(i, j) != v) {
+                      throw new IOException("The matrix is not symmetric."); //$NON-NLS-1$
+                    }
+                  }
+                }
+              }
+            }
+            return;
+          }
+
+          case _Constants.UPPER_COL:
+          case _Constants.LOWER_ROW: {
+            for (i = 1; i <= this.m_n; i++) {
+              for (j = 1; j < i; j++) {
+                v = nr.nextInt();
+                this.setDistance(i, j, v);
+              }
+            }
+            return;
+          }
+          case _Constants.LOWER_COL:
+          case _Constants.UPPER_ROW: {
+            for (i = 1; i <= this.m_n; i++) {
+              for (j = i + 1; j <= this.m_n; j++) {
+                v = nr.nextInt();
+                this.setDistance(j, i, v);
+              }
+            }
+            return;
+          }
+          case _Constants.UPPER_DIAG_COL:
+          case _Constants.LOWER_DIAG_ROW: {
+            for (i = 1; i <= this.m_n; i++) {
+              for (j = 1; j <= i; j++) {
+                v = nr.nextInt();
+                if (i != j) {
+                  this.setDistance(i, j, v);
+                }
+              }
+            }
+            return;
+          }
+          case _Constants.LOWER_DIAG_COL:
+          case _Constants.UPPER_DIAG_ROW: {
+            for (i = 1; i <= this.m_n; i++) {
+              for (j = i; j <= this.m_n; j++) {
+                v = nr.nextInt();
+                if (i != j) {
+                  this.setDistance(j, i, v);
+                }
+              }
+            }
+            return;
+          }
+        }
+
+        return;
+      }
+
+      if (_Constants.EOF_STR.equalsIgnoreCase(s)) {
+        return;
+      }
+    }
+  }
 }
@@ -0,0 +1,514 @@
+package org.logisticPlanning.tsp.benchmarking.dist;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * A distance matrix which is not stored on the Java heap but in a binary
+ * file that is memory-mapped via
+ * {@link java.nio.channels.FileChannel#map(java.nio.channels.FileChannel.MapMode, long, long)}
+ * . The file is compiled once from a heap-based distance matrix (see
+ * {@link #_compile(_DistanceMatrix, File)}) and afterwards can be
+ * {@link #_open(File, int, boolean, int) opened} by any number of runs,
+ * threads, or Java processes: the operating system shares the read-only
+ * pages among all of them and no text parsing is necessary anymore.
+ * </p>
+ * <p>
+ * The layout of the data is the same as in
+ * {@link org.logisticPlanning.tsp.benchmarking.dist._DistanceMatrixSymmetric}
+ * (lower triangle without diagonal) and
+ * {@link org.logisticPlanning.tsp.benchmarking.dist._DistanceMatrixAsymmetric}
+ * (full matrix without diagonal), respectively. The index computation is
+ * performed with {@code long} arithmetic and the file is mapped in chunks
+ * of at most {@link _DistanceMatrix#CHUNK_SIZE} integers, so the dimension
+ * is not limited by the size of a single mapping.
+ * </p>
+ * <p>
+ * The file starts with a header of {@link #HEADER_SIZE} bytes in
+ * {@link java.nio.ByteOrder#BIG_ENDIAN big endian} order: the magic
+ * number {@link #MAGIC}, the format {@link #VERSION}, a flag word, and the
+ * dimension {@code n}. The flags tell whether the matrix is symmetric,
+ * in which byte order it is stored, and whether it was computed from a
+ * coordinate list, in which case it is only valid if the limit of the
+ * automatic matrix conversion is at least {@code n}. The matrix data
+ * follows in the {@link java.nio.ByteOrder#nativeOrder() native byte
+ * order} of the machine that compiled the file. If the flag
+ * {@link #FLAG_NEIGHBOR_COORDS} is set, the matrix data is followed by
+ * the number of coordinates, the scale factor, and the coordinates used
+ * to compute {@link #nearestNeighbors(int, int[]) nearest neighbors}, in
+ * the same byte order. A file that does not fit
+ * to the current machine or the requested instance is simply ignored,
+ * i.e., {@link #_open(File, int, boolean, int)} returns {@code null} and
+ * the caller will compile it anew.
+ * </p>
+ */
+final class _DistanceMatrixMapped extends DistanceComputer {
+
+  /** the magic number identifying distance matrix files */
+  static final int MAGIC = 0x54535044;
+
+  /** the version of the file format */
+  static final int VERSION = 3;
+
+  /** the size of the file header in bytes */
+  static final int HEADER_SIZE = 16;
+
+  /** the flag indicating a symmetric (triangular) matrix */
+  static final int FLAG_SYMMETRIC = 1;
+
+  /** the flag indicating that the data is stored in little endian order */
+  static final int FLAG_LITTLE_ENDIAN = 2;
+
+  /**
+   * the flag indicating that the matrix was computed from a coordinate
+   * list
+   */
+  static final int FLAG_FROM_COORDINATES = 4;
+
+  /**
+   * the flag indicating that the coordinates of the nodes are appended to
+   * the matrix data
+   */
+  static final int FLAG_NEIGHBOR_COORDS = 8;
+
+  /**
+   * the size of the fixed part of the appended coordinate data in bytes:
+   * the number of coordinates and the scale factor
+   */
+  private static final int COORDS_HEADER_SIZE = 12;
+
+  /** the mapped chunks */
+  private final IntBuffer[] m_chunks;
+
+  /** is the matrix symmetric? */
+  private final boolean m_symmetric;
+
+  /** the coordinates of the nodes, or {@code null} if not known */
+  private final double[] m_coords;
+
+  /** the scale factor belonging to {@link #m_coords} */
+  private final double m_scale;
+
+  /**
+   * create the memory-mapped distance matrix
+   *
+   * @param n
+   *          the number of nodes
+   * @param symmetric
+   *          is the matrix symmetric?
+   * @param chunks
+   *          the mapped chunks
+   * @param coords
+   *          the coordinates of the nodes, or {@code null} if not known
+   * @param scale
+   *          the scale factor belonging to {@code coords}
+   */
+  private _DistanceMatrixMapped(final int n, final boolean symmetric,
+      final IntBuffer[] chunks, final double[] coords, final double scale) {
+    super(n);
+    this.m_symmetric = symmetric;
+    this.m_chunks = chunks;
+    this.m_coords = coords;
+    this.m_scale = scale;
+  }
+
+  /**
+   * Get the number of integers stored for a matrix of the given dimension.
+   *
+   * @param n
+   *          the dimension
+   * @param symmetric
+   *          is the matrix symmetric?
+   * @return the number of stored integers
+   */
+  private static final long __count(final int n, final boolean symmetric) {
+    final long l;
+    l = n;
+    return (symmetric ? ((l * (l - 1l)) >>> 1) : (l * (l - 1l)));
+  }
+
+  /**
+   * Get the number of integers in a given chunk.
+   *
+   * @param count
+   *          the total number of integers
+   * @param chunk
+   *          the chunk index
+   * @return the number of integers in that chunk
+   */
+  private static final int __chunkLength(final long count, final int chunk) {
+    return ((int) (Math.min(count,//
+        (((long) (chunk + 1)) << _DistanceMatrix.CHUNK_SHIFT)) - //
+    (((long) chunk) << _DistanceMatrix.CHUNK_SHIFT)));
+  }
+
+  /**
+   * Get the number of chunks needed for the given number of integers.
+   *
+   * @param count
+   *          the total number of integers
+   * @return the number of chunks
+   */
+  private static final int __chunkCount(final long count) {
+    return ((int) ((count + _DistanceMatrix.CHUNK_MASK) >>> _DistanceMatrix.CHUNK_SHIFT));
+  }
+
+  /**
+   * Map all chunks of a file.
+   *
+   * @param fc
+   *          the file channel
+   * @param mode
+   *          the map mode
+   * @param count
+   *          the number of integers in the file
+   * @param order
+   *          the byte order of the data
+   * @return the chunks
+   * @throws IOException
+   *           if mapping fails
+   */
+  private static final IntBuffer[] __map(final FileChannel fc,
+      final FileChannel.MapMode mode, final long count,
+      final ByteOrder order) throws IOException {
+    final IntBuffer[] chunks;
+    MappedByteBuffer mbb;
+    int i, len;
+
+    chunks = new IntBuffer[_DistanceMatrixMapped.__chunkCount(count)];
+    for (i = 0; i < chunks.length; i++) {
+      len = _DistanceMatrixMapped.__chunkLength(count, i);
+      mbb = fc.map(mode, (_DistanceMatrixMapped.HEADER_SIZE + //
+          ((((long) i) << _DistanceMatrix.CHUNK_SHIFT) << 2l)),//
+          (((long) len) << 2l));
+      mbb.order(order);
+      chunks[i] = mbb.asIntBuffer();
+    }
+    return chunks;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final int distance(final int a, final int b) {
+    final long i, j, idx;
+
+    if (a == b) {
+      return 0;
+    }
+
+    if (this.m_symmetric) {
+      if (a > b) {
+        i = a;
+        j = b;
+      } else {
+        i = b;
+        j = a;
+      }
+      idx = ((((i - 1l) * (i - 2l)) >>> 1l) + j - 1l);
+    } else {
+      idx = (((a - 1l) * (this.m_n - 1l)) + ((b > a) ? (b - 2l)
+          : (b - 1l)));
+    }
+
+    return this.m_chunks[(int) (idx >>> _DistanceMatrix.CHUNK_SHIFT)]
+        .get((int) (idx & _DistanceMatrix.CHUNK_MASK));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  final double[] _neighborCoords() {
+    return this.m_coords;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  final double _neighborScale() {
+    return this.m_scale;
+  }
+
+  /**
+   * Read a given number of bytes from a file channel.
+   *
+   * @param fc
+   *          the channel
+   * @param position
+   *          the position of the first byte
+   * @param length
+   *          the number of bytes
+   * @param order
+   *          the byte order
+   * @return the bytes, or {@code null} if the file ends before
+   * @throws IOException
+   *           if i/o fails
+   */
+  private static final ByteBuffer __read(final FileChannel fc,
+      final long position, final int length, final ByteOrder order)
+      throws IOException {
+    final ByteBuffer buffer;
+
+    buffer = ByteBuffer.allocate(length);
+    buffer.order(order);
+    while (buffer.hasRemaining()) {
+      if (fc.read(buffer, (position + buffer.position())) < 0) {
+        return null;
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void print(final PrintWriter out) {
+    int i, j, f;
+
+    super.print(out);
+    _Constants.putTuple(_Constants.TYPE_STR, _Constants.TSP_STR, out);
+    _Constants.putTuple(_Constants.EDGE_WEIGHT_FORMAT_STR,
+        (this.m_symmetric ? _Constants.LOWER_ROW_STR
+            : _Constants.FULL_MATRIX_STR), out);
+    out.println(_Constants.EDGE_WEIGHT_SECTION_STR);
+
+    f = 0;
+    for (i = 1; i <= this.m_n; i++) {
+      for (j = 1; j <= this.m_n; j++) {
+        if (this.m_symmetric) {
+          if (j >= i) {
+            break;
+          }
+        }
+        f++;
+        out.print('\t');
+        out.print(this.distance(i, j));
+        if ((f % _DistanceMatrix.MAX_NUMBERS_PER_LINE) == 0) {
+          out.println();
+        }
+      }
+    }
+
+    if ((f % _DistanceMatrix.MAX_NUMBERS_PER_LINE) != 0) {
+      out.println();
+    }
+    out.println(_Constants.EOF_STR);
+  }
+
+  /**
+   * Open a memory-mapped distance matrix file.
+   *
+   * @param file
+   *          the file
+   * @param n
+   *          the expected dimension
+   * @param symmetric
+   *          is the matrix expected to be symmetric?
+   * @param matrixLimitDim
+   *          the highest dimension for which coordinate lists are
+   *          automatically transformed to matrices
+   * @return the mapped matrix, or {@code null} if the file does not exist
+   *         or does not fit to the requested instance, the matrix limit,
+   *         or the current machine
+   * @throws IOException
+   *           if i/o fails
+   */
+  static final _DistanceMatrixMapped _open(final File file, final int n,
+      final boolean symmetric, final int matrixLimitDim)
+      throws IOException {
+    final ByteBuffer header;
+    final ByteOrder order;
+    final long count, size;
+    final int flags;
+    final double[] coords;
+    final double scale;
+    ByteBuffer data;
+    int length;
+
+    if ((file == null) || (!(file.isFile()))) {
+      return null;
+    }
+
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) { //$NON-NLS-1$
+      try (FileChannel fc = raf.getChannel()) {
+
+        count = _DistanceMatrixMapped.__count(n, symmetric);
+        size = (_DistanceMatrixMapped.HEADER_SIZE + (count << 2l));
+        if (fc.size() < size) {
+          return null;
+        }
+
+        header = ByteBuffer.allocate(_DistanceMatrixMapped.HEADER_SIZE);
+        header.order(ByteOrder.BIG_ENDIAN);
+        while (header.hasRemaining()) {
+          if (fc.read(header) < 0) {
+            return null;
+          }
+        }
+        header.flip();
+
+        if ((header.getInt() != _DistanceMatrixMapped.MAGIC) || //
+            (header.getInt() != _DistanceMatrixMapped.VERSION)) {
+          return null;
+        }
+
+        flags = header.getInt();
+        order = (((flags & _DistanceMatrixMapped.FLAG_LITTLE_ENDIAN) != 0) ? ByteOrder.LITTLE_ENDIAN
+            : ByteOrder.BIG_ENDIAN);
+        if ((order != ByteOrder.nativeOrder()) || //
+            (((flags & _DistanceMatrixMapped.FLAG_SYMMETRIC) != 0) != symmetric) || //
+            (((flags & _DistanceMatrixMapped.FLAG_FROM_COORDINATES) != 0) && //
+            (n > matrixLimitDim)) || //
+            (header.getInt() != n)) {
+          return null;
+        }
+
+        if ((flags & _DistanceMatrixMapped.FLAG_NEIGHBOR_COORDS) != 0) {
+          data = _DistanceMatrixMapped.__read(fc, size,
+              _DistanceMatrixMapped.COORDS_HEADER_SIZE, order);
+          if (data == null) {
+            return null;
+          }
+          length = data.getInt();
+          scale = data.getDouble();
+          if ((length <= 0) || ((length % n) != 0) || //
+              (fc.size() != (size + _DistanceMatrixMapped.COORDS_HEADER_SIZE + //
+              (((long) length) << 3l)))) {
+            return null;
+          }
+          data = _DistanceMatrixMapped.__read(fc,
+              (size + _DistanceMatrixMapped.COORDS_HEADER_SIZE),
+              (length << 3), order);
+          if (data == null) {
+            return null;
+          }
+          coords = new double[length];
+          data.asDoubleBuffer().get(coords);
+        } else {
+          if (fc.size() != size) {
+            return null;
+          }
+          coords = null;
+          scale = 1d;
+        }
+
+        // the mapping remains valid after the channel has been closed
+        return new _DistanceMatrixMapped(n, symmetric,//
+            _DistanceMatrixMapped.__map(fc, FileChannel.MapMode.READ_ONLY,
+                count, order), coords, scale);
+      }
+    }
+  }
+
+  /**
+   * Compile a heap-based distance matrix into a binary file. The data is
+   * first written into a temporary file in the same directory, which is
+   * then atomically moved to the destination. This way, concurrently
+   * running processes will never see an incomplete file.
+   *
+   * @param src
+   *          the source matrix
+   * @param file
+   *          the destination file
+   * @throws IOException
+   *           if i/o fails
+   */
+  static final void _compile(final _DistanceMatrix src, final File file)
+      throws IOException {
+    final boolean symmetric;
+    final ByteOrder order;
+    final long count, size;
+    final File dir, temp;
+    final ByteBuffer header;
+    final double[] coords;
+    ByteBuffer data;
+    IntBuffer[] chunks;
+
+    symmetric = ((src instanceof _DistanceMatrixSymmetric) || //
+    (src instanceof _DistanceMatrixSymmetricChunked));
+    order = ByteOrder.nativeOrder();
+    count = _DistanceMatrixMapped.__count(src.m_n, symmetric);
+    size = (_DistanceMatrixMapped.HEADER_SIZE + (count << 2l));
+    coords = src.m_coords;
+
+    dir = file.getParentFile();
+    if (dir != null) {
+      dir.mkdirs();
+    }
+    temp = File.createTempFile(file.getName(), ".tmp", dir); //$NON-NLS-1$
+
+    try {
+      try (RandomAccessFile raf = new RandomAccessFile(temp, "rw")) { //$NON-NLS-1$
+        try (FileChannel fc = raf.getChannel()) {
+          raf.setLength((coords != null) ? //
+          (size + _DistanceMatrixMapped.COORDS_HEADER_SIZE + //
+          (((long) coords.length) << 3l))
+              : size);
+
+          header = ByteBuffer.allocate(_DistanceMatrixMapped.HEADER_SIZE);
+          header.order(ByteOrder.BIG_ENDIAN);
+          header.putInt(_DistanceMatrixMapped.MAGIC);
+          header.putInt(_DistanceMatrixMapped.VERSION);
+          header.putInt((symmetric ? _DistanceMatrixMapped.FLAG_SYMMETRIC
+              : 0)
+              | ((order == ByteOrder.LITTLE_ENDIAN) ? _DistanceMatrixMapped.FLAG_LITTLE_ENDIAN
+                  : 0)
+              | (src.m_fromCoordinates ? _DistanceMatrixMapped.FLAG_FROM_COORDINATES
+                  : 0)
+              | ((coords != null) ? _DistanceMatrixMapped.FLAG_NEIGHBOR_COORDS
+                  : 0));
+          header.putInt(src.m_n);
+          header.flip();
+          while (header.hasRemaining()) {
+            fc.write(header, header.position());
+          }
+
+          chunks = _DistanceMatrixMapped.__map(fc,
+              FileChannel.MapMode.READ_WRITE, count, order);
+          src._copyTo(chunks);
+          chunks = null;
+
+          if (coords != null) {
+            data = ByteBuffer.allocate(_DistanceMatrixMapped.COORDS_HEADER_SIZE
+                + (coords.length << 3));
+            data.order(order);
+            data.putInt(coords.length);
+            data.putDouble(src.m_scale);
+            data.asDoubleBuffer().put(coords);
+            data.position(data.limit());
+            data.flip();
+            while (data.hasRemaining()) {
+              fc.write(data, (size + data.position()));
+            }
+          }
+          fc.force(true);
+        }
+      }
+
+      try {
+        Files.move(temp.toPath(), file.toPath(),
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (final AtomicMoveNotSupportedException amnse) {
+        Files.move(temp.toPath(), file.toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      if (temp.exists()) {
+        temp.delete();
+      }
+    }
+  }
+}
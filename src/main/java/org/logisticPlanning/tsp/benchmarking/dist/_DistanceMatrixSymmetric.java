@@ -4,8 +4,6 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 
-import org.logisticPlanning.utils.NumberReader;
-
 /**
  * <p>
  * A symmetric distance matrix. All unnecessary data elements are omitted.
@@ -43,6 +41,10 @@ import org.logisticPlanning.utils.NumberReader;
  * Thus, if {@code n} rises or you allocate many objects, you may get an
  * {@link java.lang.OutOfMemoryError}.
  * </p>
+ * <p>
+ * Larger symmetric matrices are represented by
+ * {@link org.logisticPlanning.tsp.benchmarking.dist._DistanceMatrixSymmetricChunked}
+ * .
  * </p>
  */
 final class _DistanceMatrixSymmetric extends _DistanceMatrix {
@@ -57,7 +59,7 @@ final class _DistanceMatrixSymmetric extends _DistanceMatrix {
    */
   _DistanceMatrixSymmetric(final int n) {
     super(n);
-    if (n > 46342) {
+    if (n > _DistanceMatrix.MAX_SYMMETRIC_ARRAY_DIM) {
       // The maximum size is calculated such that 32-bit integer index
       // computations
       // cannot overflow.
@@ -156,116 +158,8 @@ final class _DistanceMatrixSymmetric extends _DistanceMatrix {
 
   /** {@inheritDoc} */
   @Override
-  @SuppressWarnings("incomplete-switch")
   final void load(final BufferedReader in) throws IOException {
-    String s, t;
-    int edgeType;
-    final NumberReader nr;
-    int i, j, v;
-
-    edgeType = 0;
-    outer: while ((s = in.readLine()) != null) {
-      s = s.trim();
-      if (s.length() <= 0) {
-        continue;
-      }
-
-      i = s.indexOf(':');
-      if (i > 0) {
-        t = s.substring(0, i).trim();
-
-        if (t.length() <= 0) {
-          continue outer;
-        }
-
-        if (_Constants.EDGE_WEIGHT_FORMAT_STR.equalsIgnoreCase(t)) {
-          t = s.substring(i + 1).trim();
-          if (t.length() <= 0) {
-            continue outer;
-          }
-          for (edgeType = _Constants.FORMATS.length; (--edgeType) >= 0;) {
-            if (_Constants.FORMATS[edgeType].equalsIgnoreCase(t)) {
-              continue outer;
-            }
-          }
-          continue outer;
-        }
-      }
-
-      if (_Constants.EDGE_WEIGHT_SECTION_STR.equalsIgnoreCase(s)) {
-        nr = new NumberReader(in);
-        switch (edgeType) {
-          case _Constants.FULL_MATRIX: {
-            for (i = 1; i <= this.m_n; i++) {
-              for (j = 1; j <= this.m_n; j++) {
-                v = nr.nextInt();
-                if (i != j) {
-                  if (j > i) {
-                    this.setDistance(j, i, v);
-                  } else {
-                    if (this.distance(i, j) != v) {
-                      throw new IOException("The matrix is not symmetric."); //$NON-NLS-1$
-                    }
-                  }
-                }
-              }
-            }
-            return;
-          }
-
-          case _Constants.UPPER_COL:
-          case _Constants.LOWER_ROW: {
-            for (i = 1; i <= this.m_n; i++) {
-              for (j = 1; j < i; j++) {
-                v = nr.nextInt();
-                this.setDistance(i, j, v);
-              }
-            }
-            return;
-          }
-          case _Constants.LOWER_COL:
-          case _Constants.UPPER_ROW: {
-            for (i = 1; i <= this.m_n; i++) {
-              for (j = i + 1; j <= this.m_n; j++) {
-                v = nr.nextInt();
-                this.setDistance(j, i, v);
-              }
-            }
-            return;
-          }
-          case _Constants.UPPER_DIAG_COL:
-          case _Constants.LOWER_DIAG_ROW: {
-            for (i = 1; i <= this.m_n; i++) {
-              for (j = 1; j <= i; j++) {
-                v = nr.nextInt();
-                if (i != j) {
-                  this.setDistance(i, j, v);
-                }
-              }
-            }
-            return;
-          }
-          case _Constants.LOWER_DIAG_COL:
-          case _Constants.UPPER_DIAG_ROW: {
-            for (i = 1; i <= this.m_n; i++) {
-              for (j = i; j <= this.m_n; j++) {
-                v = nr.nextInt();
-                if (i != j) {
-                  this.setDistance(j, i, v);
-                }
-              }
-            }
-            return;
-          }
-        }
-
-        return;
-      }
-
-      if (_Constants.EOF_STR.equalsIgnoreCase(s)) {
-        return;
-      }
-    }
+    this._loadSymmetric(in);
   }
 
 }
@@ -0,0 +1,201 @@
+package org.logisticPlanning.tsp.benchmarking.dist;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.IntBuffer;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * A symmetric distance matrix for dimensions {@code n} larger than
+ * {@link _DistanceMatrix#MAX_SYMMETRIC_ARRAY_DIM}, i.e., for matrices that
+ * cannot be handled by
+ * {@link org.logisticPlanning.tsp.benchmarking.dist._DistanceMatrixSymmetric}
+ * . The layout of the data is exactly the same (the lower triangle without
+ * the diagonal, row by row), but the indices are computed with 64 bit
+ * {@code long} arithmetic and the data is split into several arrays
+ * (chunks) of {@link _DistanceMatrix#CHUNK_SIZE} integers each. This
+ * allows for matrices of any dimension, as long as there is enough
+ * memory: Be aware that for {@code n=85'900}, such a matrix occupies
+ * 3&prime;689&prime;362&prime;550 integers, i.e., about 14&nbsp;GiB.
+ * </p>
+ */
+final class _DistanceMatrixSymmetricChunked extends _DistanceMatrix {
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the chunks */
+  private final int[][] m_chunks;
+
+  /** the binary logarithm of the number of integers per chunk */
+  private final int m_shift;
+
+  /** the mask for the index within a chunk */
+  private final long m_mask;
+
+  /**
+   * create the _DistanceMatrixSymmetricChunked
+   *
+   * @param n
+   *          the number of nodes
+   */
+  _DistanceMatrixSymmetricChunked(final int n) {
+    this(n, _DistanceMatrix.CHUNK_SHIFT);
+  }
+
+  /**
+   * create the _DistanceMatrixSymmetricChunked with a given chunk size,
+   * which allows testing the index computations across chunk boundaries
+   * with small matrices
+   *
+   * @param n
+   *          the number of nodes
+   * @param shift
+   *          the binary logarithm of the number of integers per chunk, at
+   *          most {@link _DistanceMatrix#CHUNK_SHIFT}
+   */
+  _DistanceMatrixSymmetricChunked(final int n, final int shift) {
+    super(n);
+
+    final long count;
+    final int chunkCount;
+    int i;
+
+    if ((shift <= 0) || (shift > _DistanceMatrix.CHUNK_SHIFT)) {
+      throw new IllegalArgumentException("Invalid chunk shift: " + shift); //$NON-NLS-1$
+    }
+    this.m_shift = shift;
+    this.m_mask = ((1l << shift) - 1l);
+
+    count = ((((long) n) * (n - 1l)) >>> 1l);
+    chunkCount = ((int) ((count + this.m_mask) >>> shift));
+    this.m_chunks = new int[chunkCount][];
+    for (i = 0; i < chunkCount; i++) {
+      this.m_chunks[i] = new int[(int) (Math.min(count,
+          (((long) (i + 1)) << shift)) - //
+      (((long) i) << shift))];
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  final void setDistance(final int a, final int b, final int dist) {
+    final long i, j, idx;
+
+    if (a > b) {
+      i = a;
+      j = b;
+    } else {
+      if (a == b) {
+        if (dist == 0) {
+          return;
+        }
+        throw new IllegalArgumentException("Invalid index"); //$NON-NLS-1$
+      }
+      i = b;
+      j = a;
+    }
+
+    idx = ((((i - 1l) * (i - 2l)) >>> 1l) + j - 1l);
+    this.m_chunks[(int) (idx >>> this.m_shift)][(int) (idx & this.m_mask)] = dist;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final int distance(final int a, final int b) {
+    final long i, j, idx;
+
+    if (a > b) {
+      i = a;
+      j = b;
+    } else {
+      if (a == b) {
+        return 0;
+      }
+      i = b;
+      j = a;
+    }
+
+    idx = ((((i - 1l) * (i - 2l)) >>> 1l) + j - 1l);
+    return this.m_chunks[(int) (idx >>> this.m_shift)][(int) (idx & this.m_mask)];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  final void fillFrom(final DistanceComputer src) {
+    int[] m;
+    int i, j, k, c;
+
+    c = 0;
+    m = this.m_chunks[0];
+    k = 0;
+
+    for (i = 2; i <= this.m_n; i++) {
+      for (j = 1; j < i; j++) {
+        if (k >= m.length) {
+          m = this.m_chunks[++c];
+          k = 0;
+        }
+        m[k++] = src.distance(i, j);
+      }
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  final void _copyTo(final IntBuffer[] dest) {
+    int i, start, len;
+
+    i = 0;
+    for (final int[] chunk : this.m_chunks) {
+      for (start = 0; start < chunk.length; start += len) {
+        while (dest[i].remaining() <= 0) {
+          i++;
+        }
+        len = Math.min(dest[i].remaining(), (chunk.length - start));
+        dest[i].put(chunk, start, len);
+      }
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void print(final PrintWriter out) {
+    long f;
+
+    super.print(out);
+
+    _Constants.putTuple(_Constants.TYPE_STR, _Constants.TSP_STR, out);
+    _Constants.putTuple(_Constants.EDGE_WEIGHT_FORMAT_STR,
+        _Constants.LOWER_ROW_STR, out);
+    out.println(_Constants.EDGE_WEIGHT_SECTION_STR);
+
+    f = 0l;
+    for (final int[] chunk : this.m_chunks) {
+      for (final int z : chunk) {
+        f++;
+        out.print('\t');
+        out.print(z);
+        if ((f % _DistanceMatrix.MAX_NUMBERS_PER_LINE) == 0l) {
+          out.println();
+        }
+      }
+    }
+    if ((f % _DistanceMatrix.MAX_NUMBERS_PER_LINE) != 0l) {
+      out.println();
+    }
+
+    out.println(_Constants.EOF_STR);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  final void load(final BufferedReader in) throws IOException {
+    this._loadSymmetric(in);
+  }
+
+}
@@ -0,0 +1,870 @@
+package org.logisticPlanning.tsp.benchmarking.dist;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * A uniform grid over the coordinates of the nodes, used to compute the
+ * {@link DistanceComputer#nearestNeighbors(int, int[]) nearest neighbors}
+ * and {@link DistanceComputer#quadrantNeighbors(int, int[]) quadrant
+ * neighbors} of all nodes without computing all {@code n*(n-1)}
+ * distances. The grid has cubic cells and about {@link #NODES_PER_CELL}
+ * nodes per cell. The nodes are stored sorted by their cell, so the nodes
+ * of a cell can be found in constant time.
+ * </p>
+ * <p>
+ * The neighbors of a node are searched in rings of cells around its own
+ * cell, ring {@code r} being the cells whose index differs by exactly
+ * {@code r} from the index of the node's cell in at least one dimension.
+ * After ring {@code r} has been searched, all nodes not yet seen differ
+ * by more than {@code r} cell sizes in at least one coordinate. The
+ * distance computer provides a {@link DistanceComputer#_neighborScale()
+ * scale factor} such that the distance of two nodes is at least the
+ * floor of the largest coordinate difference times that factor. Once the
+ * neighbors found so far are all closer than this lower bound, no unseen
+ * node can replace them and the search stops. For instances whose nodes
+ * are reasonably distributed, only a constant number of cells around each
+ * node needs to be inspected, so building the grid and searching the
+ * neighbors of all nodes takes roughly {@code O(n log n)} time instead of
+ * the {@code O(n<sup>2</sup> log n)} needed when computing and sorting all
+ * distances.
+ * </p>
+ * <p>
+ * Neighbors are ranked by their distance and, if the distances are equal,
+ * by their index, so the result is exactly the same as if all distances
+ * were computed, stably sorted, and the first {@code m} nodes were
+ * picked. The searches for different nodes are independent and are
+ * distributed over all available processors.
+ * </p>
+ */
+final class _NeighborGrid {
+
+  /** the number of nodes per cell aimed at: {@value} */
+  private static final int NODES_PER_CELL = 2;
+
+  /** the minimum number of nodes per search thread: {@value} */
+  private static final int MIN_NODES_PER_THREAD = 2048;
+
+  /** the number of nodes a search thread claims at once: {@value} */
+  private static final int BLOCK = 64;
+
+  /**
+   * the factor applied to the lower bounds on the distances to protect
+   * them against rounding errors in the cell computation: {@value}
+   */
+  private static final double SAFETY = (1d - 1e-9d);
+
+  /** the distance computer */
+  private final DistanceComputer m_dist;
+
+  /** the coordinates of the nodes, dimension by dimension */
+  private final double[] m_coords;
+
+  /** the number of nodes */
+  private final int m_n;
+
+  /** the number of dimensions */
+  private final int m_dims;
+
+  /** the number of cells per dimension */
+  private final int[] m_cells;
+
+  /** the cell coordinates of the nodes, dimension by dimension */
+  private final int[] m_cellOf;
+
+  /** the index of the first node of each cell in {@link #m_nodes} */
+  private final int[] m_start;
+
+  /** the nodes, sorted by cell and, inside each cell, by index */
+  private final int[] m_nodes;
+
+  /**
+   * the lower bound of the distance between nodes whose coordinates
+   * differ by at least one cell size
+   */
+  private final double m_bound;
+
+  /**
+   * create the grid
+   *
+   * @param dist
+   *          the distance computer
+   * @param coords
+   *          the coordinates of the nodes, dimension by dimension
+   * @param scale
+   *          the scale factor of the lower bound of the distances
+   */
+  private _NeighborGrid(final DistanceComputer dist, final double[] coords,
+      final double scale) {
+    super();
+
+    final int n, dims;
+    final double[] min, max;
+    final int[] cells, cellOf, start, nodes;
+    double size, volume, ext;
+    long total;
+    int a, i, b, c, cell, active;
+
+    this.m_dist = dist;
+    this.m_coords = coords;
+    this.m_n = n = dist.m_n;
+    this.m_dims = dims = (coords.length / n);
+
+    // find the bounding box of the nodes
+    min = new double[dims];
+    max = new double[dims];
+    Arrays.fill(min, Double.POSITIVE_INFINITY);
+    Arrays.fill(max, Double.NEGATIVE_INFINITY);
+    b = 0;
+    for (i = n; (--i) >= 0;) {
+      for (a = 0; a < dims; a++) {
+        ext = coords[b++];
+        if (ext < min[a]) {
+          min[a] = ext;
+        }
+        if (ext > max[a]) {
+          max[a] = ext;
+        }
+      }
+    }
+
+    // choose the cell size such that there are about NODES_PER_CELL nodes
+    // per cell, ignoring the dimensions in which all nodes are equal
+    volume = 1d;
+    active = 0;
+    for (a = 0; a < dims; a++) {
+      ext = (max[a] - min[a]);
+      if (ext > 0d) {
+        volume *= ext;
+        active++;
+      }
+    }
+    size = ((active > 0) ? Math.pow(
+        ((volume * _NeighborGrid.NODES_PER_CELL) / n), (1d / active)) : 1d);
+    if ((size <= 0d) || (size != size) || (size >= Double.POSITIVE_INFINITY)) {
+      size = 1d;
+    }
+
+    // make sure that the number of cells stays linear in n, even for
+    // oddly shaped instances
+    cells = new int[dims];
+    for (;;) {
+      total = 1l;
+      for (a = 0; a < dims; a++) {
+        cells[a] = ((int) (Math.min(n,
+            (1l + ((long) ((max[a] - min[a]) / size))))));
+        total *= cells[a];
+      }
+      if (total <= (((long) n) << 2)) {
+        break;
+      }
+      size *= 2d;
+    }
+    this.m_cells = cells;
+    this.m_bound = (size * scale * _NeighborGrid.SAFETY);
+
+    // assign the nodes to the cells
+    this.m_cellOf = cellOf = new int[coords.length];
+    this.m_start = start = new int[((int) total) + 1];
+    b = 0;
+    for (i = 0; i < n; i++) {
+      cell = 0;
+      for (a = dims; (--a) >= 0;) {
+        c = ((int) ((coords[b + a] - min[a]) / size));
+        if (c >= cells[a]) {
+          c = (cells[a] - 1);
+        } else {
+          if (c < 0) {
+            c = 0;
+          }
+        }
+        cellOf[b + a] = c;
+        cell = ((cell * cells[a]) + c);
+      }
+      start[cell + 1]++;
+      b += dims;
+    }
+
+    // sort the nodes by cell
+    for (i = 1; i < start.length; i++) {
+      start[i] += start[i - 1];
+    }
+    this.m_nodes = nodes = new int[n];
+    b = 0;
+    for (i = 1; i <= n; i++) {
+      cell = 0;
+      for (a = dims; (--a) >= 0;) {
+        cell = ((cell * cells[a]) + cellOf[b + a]);
+      }
+      nodes[start[cell]++] = i;
+      b += dims;
+    }
+    for (i = (start.length - 1); i > 0; i--) {
+      start[i] = start[i - 1];
+    }
+    start[0] = 0;
+  }
+
+  /**
+   * Compute the nearest or quadrant neighbors of all nodes.
+   *
+   * @param dist
+   *          the distance computer
+   * @param m
+   *          the number of neighbors per node
+   * @param quadrants
+   *          {@code true} for quadrant neighbors, {@code false} for
+   *          nearest neighbors
+   * @param dest
+   *          the destination array
+   * @return the number of distance evaluations performed, or {@code -1}
+   *         if the neighbors cannot be computed with a grid
+   */
+  static final long _compute(final DistanceComputer dist, final int m,
+      final boolean quadrants, final int[] dest) {
+    final double[] coords;
+    final double scale;
+    final int n;
+
+    n = dist.m_n;
+    if ((m <= 0) || (m >= n)) {
+      throw new IllegalArgumentException(//
+          "The number of neighbors must be in 1.." + (n - 1) + //$NON-NLS-1$
+              ", but is " + m); //$NON-NLS-1$
+    }
+    if (dest.length < (n * ((long) m))) {
+      throw new IllegalArgumentException(//
+          "The destination array must have at least length " + //$NON-NLS-1$
+              (n * ((long) m)) + ", but has length " + dest.length); //$NON-NLS-1$
+    }
+
+    coords = dist._neighborCoords();
+    if (coords == null) {
+      return (-1l);
+    }
+    scale = dist._neighborScale();
+    if ((scale <= 0d) || (scale != scale)) {
+      return (-1l);
+    }
+
+    return new _NeighborGrid(dist, coords, scale).__search(m, quadrants,
+        dest);
+  }
+
+  /**
+   * Search the neighbors of all nodes, using several threads if the
+   * number of nodes is large enough.
+   *
+   * @param m
+   *          the number of neighbors per node
+   * @param quadrants
+   *          {@code true} for quadrant neighbors, {@code false} for
+   *          nearest neighbors
+   * @param dest
+   *          the destination array
+   * @return the number of distance evaluations performed
+   */
+  private final long __search(final int m, final boolean quadrants,
+      final int[] dest) {
+    final AtomicInteger next;
+    final __Search[] searches;
+    final Thread[] threads;
+    final int count, k;
+    boolean interrupted;
+    Throwable error;
+    long des;
+    int i;
+
+    // in each quadrant (orthant) of a node, k neighbors are chosen
+    k = (quadrants ? (m >>> this.m_dims) : 0);
+
+    count = Math.max(1, Math.min(Runtime.getRuntime()
+        .availableProcessors(),
+        (this.m_n / _NeighborGrid.MIN_NODES_PER_THREAD)));
+    next = new AtomicInteger(1);
+    searches = new __Search[count];
+    for (i = count; (--i) >= 0;) {
+      searches[i] = new __Search(this, m, k, dest, next);
+    }
+
+    threads = new Thread[count - 1];
+    for (i = threads.length; (--i) >= 0;) {
+      threads[i] = new Thread(searches[i + 1], "NeighborGrid"); //$NON-NLS-1$
+      threads[i].setDaemon(true);
+      threads[i].start();
+    }
+    searches[0].run();
+
+    interrupted = false;
+    for (final Thread t : threads) {
+      for (;;) {
+        try {
+          t.join();
+          break;
+        } catch (final InterruptedException ie) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+
+    des = 0l;
+    for (final __Search s : searches) {
+      error = s.m_error;
+      if (error != null) {
+        if (error instanceof RuntimeException) {
+          throw ((RuntimeException) error);
+        }
+        if (error instanceof Error) {
+          throw ((Error) error);
+        }
+        throw new RuntimeException(error);
+      }
+      des += s.m_des;
+    }
+    return des;
+  }
+
+  /**
+   * Is the neighbor {@code (distA, nodeA)} worse than the neighbor
+   * {@code (distB, nodeB)}?
+   *
+   * @param distA
+   *          the distance of the first neighbor
+   * @param nodeA
+   *          the first neighbor
+   * @param distB
+   *          the distance of the second neighbor
+   * @param nodeB
+   *          the second neighbor
+   * @return {@code true} if the first neighbor is farther away or as far
+   *         away but has the higher index
+   */
+  static final boolean __worse(final int distA, final int nodeA,
+      final int distB, final int nodeB) {
+    return ((distA > distB) || ((distA == distB) && (nodeA > nodeB)));
+  }
+
+  /**
+   * Offer a neighbor to a bounded heap which keeps the best neighbors
+   * found so far, with the worst of them at the top.
+   *
+   * @param nodes
+   *          the nodes in the heap
+   * @param dists
+   *          the distances of the nodes in the heap
+   * @param off
+   *          the offset of the heap in the arrays
+   * @param size
+   *          the current size of the heap
+   * @param cap
+   *          the capacity of the heap
+   * @param node
+   *          the neighbor
+   * @param dist
+   *          the distance of the neighbor
+   * @return the new size of the heap
+   */
+  static final int __offer(final int[] nodes, final int[] dists,
+      final int off, final int size, final int cap, final int node,
+      final int dist) {
+    int i, p, c;
+
+    if (size < cap) {
+      // the heap is not full: sift the new neighbor up
+      i = size;
+      while (i > 0) {
+        p = ((i - 1) >>> 1);
+        if (!(_NeighborGrid.__worse(dist, node, dists[off + p], nodes[off
+            + p]))) {
+          break;
+        }
+        nodes[off + i] = nodes[off + p];
+        dists[off + i] = dists[off + p];
+        i = p;
+      }
+      nodes[off + i] = node;
+      dists[off + i] = dist;
+      return (size + 1);
+    }
+
+    if (!(_NeighborGrid.__worse(dists[off], nodes[off], dist, node))) {
+      return size;
+    }
+
+    // the new neighbor replaces the worst one: sift it down
+    i = 0;
+    for (;;) {
+      c = ((i << 1) + 1);
+      if (c >= size) {
+        break;
+      }
+      if (((c + 1) < size)
+          && _NeighborGrid.__worse(dists[off + c + 1], nodes[off + c + 1],
+              dists[off + c], nodes[off + c])) {
+        c++;
+      }
+      if (!(_NeighborGrid.__worse(dists[off + c], nodes[off + c], dist,
+          node))) {
+        break;
+      }
+      nodes[off + i] = nodes[off + c];
+      dists[off + i] = dists[off + c];
+      i = c;
+    }
+    nodes[off + i] = node;
+    dists[off + i] = dist;
+    return size;
+  }
+
+  /** the search for the neighbors of a range of nodes */
+  private static final class __Search implements Runnable {
+
+    /** the grid */
+    private final _NeighborGrid m_grid;
+
+    /** the number of neighbors per node */
+    private final int m_m;
+
+    /**
+     * the number of neighbors per quadrant, {@code 0} for plain nearest
+     * neighbors
+     */
+    private final int m_k;
+
+    /** the destination array */
+    private final int[] m_dest;
+
+    /** the next node to be claimed */
+    private final AtomicInteger m_next;
+
+    /** the nearest nodes */
+    private final int[] m_nodes;
+
+    /** the distances of the nearest nodes */
+    private final int[] m_dists;
+
+    /** the nearest nodes per quadrant */
+    private final int[] m_qNodes;
+
+    /** the distances of the nearest nodes per quadrant */
+    private final int[] m_qDists;
+
+    /** the number of nodes found per quadrant */
+    private final int[] m_qSize;
+
+    /** is the search in a quadrant still going on? */
+    private final boolean[] m_qActive;
+
+    /** the maximum ring that can contain nodes of a quadrant */
+    private final int[] m_qReach;
+
+    /** the sort keys of the nearest nodes */
+    private final long[] m_keys;
+
+    /** the cell of the current node */
+    private final int[] m_center;
+
+    /** the lowest cell index to search per dimension */
+    private final int[] m_lo;
+
+    /** the highest cell index to search per dimension */
+    private final int[] m_hi;
+
+    /** the lowest cell index of the current face per dimension */
+    private final int[] m_from;
+
+    /** the highest cell index of the current face per dimension */
+    private final int[] m_to;
+
+    /** the current cell index per dimension */
+    private final int[] m_cur;
+
+    /** the number of distance evaluations */
+    long m_des;
+
+    /** the error, if any */
+    Throwable m_error;
+
+    /**
+     * create the search
+     *
+     * @param grid
+     *          the grid
+     * @param m
+     *          the number of neighbors per node
+     * @param k
+     *          the number of neighbors per quadrant
+     * @param dest
+     *          the destination array
+     * @param next
+     *          the next node to be claimed
+     */
+    __Search(final _NeighborGrid grid, final int m, final int k,
+        final int[] dest, final AtomicInteger next) {
+      super();
+
+      final int dims, q;
+
+      this.m_grid = grid;
+      this.m_m = m;
+      this.m_k = k;
+      this.m_dest = dest;
+      this.m_next = next;
+
+      dims = grid.m_dims;
+      q = (1 << dims);
+      this.m_nodes = new int[m];
+      this.m_dists = new int[m];
+      this.m_keys = new long[m];
+      this.m_qNodes = new int[q * k];
+      this.m_qDists = new int[q * k];
+      this.m_qSize = new int[q];
+      this.m_qActive = new boolean[q];
+      this.m_qReach = new int[q];
+      this.m_center = new int[dims];
+      this.m_lo = new int[dims];
+      this.m_hi = new int[dims];
+      this.m_from = new int[dims];
+      this.m_to = new int[dims];
+      this.m_cur = new int[dims];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void run() {
+      final int n;
+      int start, end;
+
+      n = this.m_grid.m_n;
+      try {
+        for (;;) {
+          start = this.m_next.getAndAdd(_NeighborGrid.BLOCK);
+          if (start > n) {
+            return;
+          }
+          end = Math.min(n, ((start + _NeighborGrid.BLOCK) - 1));
+          for (; start <= end; start++) {
+            this.__searchNode(start);
+          }
+        }
+      } catch (final Throwable t) {
+        this.m_error = t;
+        // make the other searches stop
+        this.m_next.set(n + 1);
+      }
+    }
+
+    /**
+     * search the neighbors of one node
+     *
+     * @param node
+     *          the node
+     */
+    private final void __searchNode(final int node) {
+      final _NeighborGrid grid;
+      final int[] cells, center, lo, hi, qSize, qReach;
+      final boolean[] qActive;
+      final int dims, base, quads, k;
+      boolean all;
+      int a, q, r, reach, active, c, size;
+      long bound;
+
+      grid = this.m_grid;
+      cells = grid.m_cells;
+      dims = grid.m_dims;
+      base = ((node - 1) * dims);
+      center = this.m_center;
+      lo = this.m_lo;
+      hi = this.m_hi;
+      qSize = this.m_qSize;
+      qActive = this.m_qActive;
+      qReach = this.m_qReach;
+      k = this.m_k;
+      quads = ((k > 0) ? (1 << dims) : 0);
+
+      // ring r+1 is beyond the grid if r>=reach
+      reach = 0;
+      for (a = dims; (--a) >= 0;) {
+        center[a] = c = grid.m_cellOf[base + a];
+        reach = Math.max(reach, Math.max(c, (cells[a] - 1 - c)));
+      }
+      for (q = quads; (--q) >= 0;) {
+        qSize[q] = 0;
+        qActive[q] = true;
+        r = 0;
+        for (a = dims; (--a) >= 0;) {
+          r = Math.max(r, ((((q >>> a) & 1) != 0) ? //
+              (cells[a] - 1 - center[a])
+              : center[a]));
+        }
+        qReach[q] = r;
+      }
+
+      all = true;
+      active = quads;
+      size = 0;
+      for (r = 0;; r++) {
+
+        // the cells to search: all cells of the ring if the nearest
+        // neighbors are still searched, otherwise only those in the
+        // quadrants still searched
+        for (a = dims; (--a) >= 0;) {
+          c = center[a];
+          if (all) {
+            lo[a] = Math.max(0, (c - r));
+            hi[a] = Math.min((cells[a] - 1), (c + r));
+          } else {
+            lo[a] = hi[a] = c;
+            for (q = quads; (--q) >= 0;) {
+              if (qActive[q]) {
+                if (((q >>> a) & 1) != 0) {
+                  hi[a] = Math.min((cells[a] - 1), (c + r));
+                } else {
+                  lo[a] = Math.max(0, (c - r));
+                }
+              }
+            }
+          }
+        }
+        size = this.__searchRing(node, r, all, size);
+
+        // all nodes not yet seen are at least this far away
+        bound = ((long) (r * grid.m_bound));
+
+        if (all) {
+          if (((size >= this.m_m) && (this.m_dists[0] < bound))
+              || (r >= reach)) {
+            all = false;
+          }
+        }
+        for (q = quads; (--q) >= 0;) {
+          if (qActive[q]) {
+            if (((qSize[q] >= k) && (this.m_qDists[q * k] < bound))
+                || (r >= qReach[q])) {
+              qActive[q] = false;
+              active--;
+            }
+          }
+        }
+        if ((!all) && (active <= 0)) {
+          break;
+        }
+      }
+
+      this.__store(node, size);
+    }
+
+    /**
+     * Search the cells of a ring, restricted to the cells between
+     * {@link #m_lo} and {@link #m_hi}. The ring is searched as its faces:
+     * face {@code (a, side)} contains the cells whose index in dimension
+     * {@code a} differs by exactly {@code r} from the center, and whose
+     * indexes in the dimensions before {@code a} differ by less than
+     * {@code r}, so that no cell is searched twice.
+     *
+     * @param node
+     *          the node
+     * @param r
+     *          the ring
+     * @param all
+     *          are the nearest neighbors still searched?
+     * @param size
+     *          the number of nearest neighbors found so far
+     * @return the new number of nearest neighbors found
+     */
+    private final int __searchRing(final int node, final int r,
+        final boolean all, final int size) {
+      final int[] center, lo, hi, from, to, cur;
+      final int dims;
+      int a, b, side, v, s;
+
+      center = this.m_center;
+      lo = this.m_lo;
+      hi = this.m_hi;
+      from = this.m_from;
+      to = this.m_to;
+      cur = this.m_cur;
+      dims = this.m_grid.m_dims;
+
+      if (r <= 0) {
+        System.arraycopy(center, 0, cur, 0, dims);
+        return this.__searchCell(node, cur, all, size);
+      }
+
+      s = size;
+      for (a = 0; a < dims; a++) {
+        faces: for (side = (-r); side <= r; side += (r << 1)) {
+          v = (center[a] + side);
+          if ((v < lo[a]) || (v > hi[a])) {
+            continue faces;
+          }
+          for (b = 0; b < dims; b++) {
+            if (b == a) {
+              from[b] = to[b] = v;
+            } else {
+              if (b < a) {
+                from[b] = Math.max(lo[b], ((center[b] - r) + 1));
+                to[b] = Math.min(hi[b], ((center[b] + r) - 1));
+              } else {
+                from[b] = lo[b];
+                to[b] = hi[b];
+              }
+              if (from[b] > to[b]) {
+                continue faces;
+              }
+            }
+          }
+
+          System.arraycopy(from, 0, cur, 0, dims);
+          for (;;) {
+            s = this.__searchCell(node, cur, all, s);
+            for (b = 0; b < dims; b++) {
+              if ((++cur[b]) <= to[b]) {
+                break;
+              }
+              cur[b] = from[b];
+            }
+            if (b >= dims) {
+              break;
+            }
+          }
+        }
+      }
+      return s;
+    }
+
+    /**
+     * search the nodes in a cell
+     *
+     * @param node
+     *          the node
+     * @param cell
+     *          the cell index per dimension
+     * @param all
+     *          are the nearest neighbors still searched?
+     * @param size
+     *          the number of nearest neighbors found so far
+     * @return the new number of nearest neighbors found
+     */
+    private final int __searchCell(final int node, final int[] cell,
+        final boolean all, final int size) {
+      final _NeighborGrid grid;
+      final double[] coords;
+      final int[] cells, nodes;
+      final int dims, base, k, end;
+      boolean quad;
+      int a, idx, i, other, otherBase, q, dist, s;
+
+      grid = this.m_grid;
+      cells = grid.m_cells;
+      dims = grid.m_dims;
+
+      idx = 0;
+      for (a = dims; (--a) >= 0;) {
+        idx = ((idx * cells[a]) + cell[a]);
+      }
+
+      coords = grid.m_coords;
+      nodes = grid.m_nodes;
+      base = ((node - 1) * dims);
+      k = this.m_k;
+      s = size;
+      end = grid.m_start[idx + 1];
+      for (i = grid.m_start[idx]; i < end; i++) {
+        other = nodes[i];
+        if (other == node) {
+          continue;
+        }
+
+        q = 0;
+        quad = false;
+        if (k > 0) {
+          otherBase = ((other - 1) * dims);
+          for (a = dims; (--a) >= 0;) {
+            if (coords[otherBase + a] >= coords[base + a]) {
+              q |= (1 << a);
+            }
+          }
+          quad = this.m_qActive[q];
+        }
+        if (!(all || quad)) {
+          continue;
+        }
+
+        dist = grid.m_dist.distance(node, other);
+        this.m_des++;
+        if (all) {
+          s = _NeighborGrid.__offer(this.m_nodes, this.m_dists, 0, s,
+              this.m_m, other, dist);
+        }
+        if (quad) {
+          this.m_qSize[q] = _NeighborGrid.__offer(this.m_qNodes,
+              this.m_qDists, (q * k), this.m_qSize[q], k, other, dist);
+        }
+      }
+      return s;
+    }
+
+    /**
+     * Store the neighbors of a node, sorted by their index. For quadrant
+     * neighbors, the neighbors found in the quadrants are taken first and
+     * the remaining slots are filled with the nearest other nodes.
+     *
+     * @param node
+     *          the node
+     * @param size
+     *          the number of nearest neighbors found
+     */
+    private final void __store(final int node, final int size) {
+      final int[] dest, nodes, dists;
+      final long[] keys;
+      final int m, k, start, end;
+      int i, q, used, p;
+
+      dest = this.m_dest;
+      nodes = this.m_nodes;
+      m = this.m_m;
+      k = this.m_k;
+      start = ((node - 1) * m);
+      end = (start + m);
+
+      if (k <= 0) {
+        System.arraycopy(nodes, 0, dest, start, m);
+        Arrays.sort(dest, start, end);
+        return;
+      }
+
+      p = start;
+      for (q = this.m_qSize.length; (--q) >= 0;) {
+        System.arraycopy(this.m_qNodes, (q * k), dest, p, this.m_qSize[q]);
+        p += this.m_qSize[q];
+      }
+      used = p;
+      Arrays.sort(dest, start, used);
+
+      // fill up with the nearest nodes not yet chosen, in the order of
+      // their distance
+      dists = this.m_dists;
+      keys = this.m_keys;
+      for (i = size; (--i) >= 0;) {
+        keys[i] = ((((long) (dists[i])) << 32) | nodes[i]);
+      }
+      Arrays.sort(keys, 0, size);
+      for (i = 0; (i < size) && (p < end); i++) {
+        q = ((int) (keys[i]));
+        if (Arrays.binarySearch(dest, start, used, q) < 0) {
+          dest[p++] = q;
+        }
+      }
+      Arrays.sort(dest, start, end);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package org.logisticPlanning.tsp.benchmarking.instances;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
@@ -2137,6 +2138,52 @@ public final class Instance extends Configurable implements
     }
   }
 
+  /**
+   * Load the benchmark case and make use of a directory with binary
+   * distance matrix files. If a matrix file for this instance exists in
+   * {@code cacheDir}, it is memory-mapped and returned directly, without
+   * parsing the TSPLib text resource. Otherwise, the instance is
+   * {@link #load(int) loaded normally} and, if the result is a distance
+   * matrix, compiled into a matrix file in {@code cacheDir} which is then
+   * used by all subsequent calls, also from other processes. A matrix file
+   * computed from a coordinate list is ignored if {@code matrixLimitDim}
+   * is smaller than the dimension of the instance, since a normal load
+   * would not have converted the coordinates to a matrix then. If
+   * {@code cacheDir} is {@code null}, this method is equivalent to
+   * {@link #load(int)}.
+   *
+   * @return the distance computer
+   * @param matrixLimitDim
+   *          the highest dimension for which coordinate lists will
+   *          automatically be transformed to matrices.
+   * @param cacheDir
+   *          the directory holding the binary distance matrix files, or
+   *          {@code null} to not use such files
+   * @throws IOException
+   *           the io exception if io fails
+   */
+  public final DistanceComputer load(final int matrixLimitDim,
+      final File cacheDir) throws IOException {
+    final File file;
+    DistanceComputer c;
+
+    if (cacheDir == null) {
+      return this.load(matrixLimitDim);
+    }
+
+    file = new File(cacheDir, this.name()
+        + (this.m_symmetric ? ".tsp" : ".atsp") //$NON-NLS-1$//$NON-NLS-2$
+        + DistanceComputer.MATRIX_FILE_SUFFIX);
+
+    c = DistanceComputer.openMatrixFile(file, this.m_n, this.m_symmetric,
+        matrixLimitDim);
+    if (c != null) {
+      return c;
+    }
+
+    return DistanceComputer.toMatrixFile(this.load(matrixLimitDim), file);
+  }
+
   /** {@inheritDoc} */
   @Override
   public final int compareTo(final Instance o) {
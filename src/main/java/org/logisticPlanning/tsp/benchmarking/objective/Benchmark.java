@@ -1,6 +1,7 @@
 package org.logisticPlanning.tsp.benchmarking.objective;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
 
 import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
@@ -164,9 +165,21 @@ public final class Benchmark extends Configurable {
   /** the default maximum time per run: 1h */
   public static final long DEFAULT_MAX_TIME_PER_RUN = (3600000l);
 
+  /** the default checkpoint interval: 5min */
+  public static final long DEFAULT_CHECKPOINT_INTERVAL = (300000l);
+
+  /**
+   * the assumed time needed for one distance evaluation in nanoseconds,
+   * used when {@link #estimateRunCost() estimating run costs}: {@value}
+   */
+  private static final double ESTIMATE_NANOS_PER_DE = 10d;
+
   /** the destination directors param: {@value} */
   public static final String PARAM_DEST_DIR = "outputDir"; //$NON-NLS-1$
 
+  /** the default destination directory: {@value} */
+  public static final String DEFAULT_DEST_DIR = "./results"; //$NON-NLS-1$
+
   /**
    * the maximum DEs parameter ({@value} , defaults to {@code n}
    * <sup>4</sup>*100)
@@ -197,6 +210,54 @@ public final class Benchmark extends Configurable {
    */
   public static final String PARAM_LIMIT_DIM = "maxAutoDistanceMatrixConversionDim"; //$NON-NLS-1$
 
+  /**
+   * the number of distances ({@value} , defaults to {@code 0}, i.e., no
+   * cache) that each objective function may cache if the distances are
+   * computed from coordinates
+   */
+  public static final String PARAM_DISTANCE_CACHE_SIZE = "distanceCacheSize"; //$NON-NLS-1$
+
+  /**
+   * the number of log points ({@value} , defaults to {@code 0}, i.e., the
+   * log file is written only at the end of a run) after which the log
+   * points are appended to the log file while the run is still in
+   * progress
+   */
+  public static final String PARAM_LOG_STREAM_BATCH_SIZE = "logStreamBatchSize"; //$NON-NLS-1$
+
+  /**
+   * the directory for binary, memory-mapped distance matrix files ({@value}
+   * , defaults to {@code null}, i.e., no such files are used)
+   */
+  public static final String PARAM_MATRIX_CACHE_DIR = "distanceMatrixCacheDir"; //$NON-NLS-1$
+
+  /**
+   * should immutable data structures computed from the distances, such as
+   * candidate sets, be shared by all objective functions for the same
+   * instance, instead of being computed anew in each run ({@value} ,
+   * defaults to {@code false})? See
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#getSharedData(Object)}
+   * .
+   */
+  public static final String PARAM_SHARE_PRECOMPUTATIONS = "sharePrecomputations"; //$NON-NLS-1$
+
+  /**
+   * the directory where the calibration of the <a
+   * href="ObjectiveFunction.html#runtimeNormalization">runtime
+   * normalization</a> is stored and loaded from ({@value} , defaults to
+   * the {@link #PARAM_DEST_DIR destination directory})
+   */
+  public static final String PARAM_CALIBRATION_DIR = "calibrationDir"; //$NON-NLS-1$
+
+  /**
+   * the interval in milliseconds in which algorithms supporting <a
+   * href="ObjectiveFunction.html#checkpoints">checkpoints</a> store a
+   * snapshot of their run, so that the run can be resumed if the process
+   * dies ({@value} , defaults to {@link #DEFAULT_CHECKPOINT_INTERVAL},
+   * {@code 0} for no checkpoints)
+   */
+  public static final String PARAM_CHECKPOINT_INTERVAL = "checkpointInterval"; //$NON-NLS-1$
+
   /**
    * the root directory for all results
    *
@@ -250,7 +311,10 @@ public final class Benchmark extends Configurable {
    * the matrix limit dimension. If more than {@link #m_limitDim} cities
    * are in a benchmark instance, distances will be computed based on
    * coordinate lists if possible to save memory. If fewer cities are in
-   * the instance, the distance lists will automatically be used.
+   * the instance, the distance lists will automatically be used. There is
+   * no upper bound for this value apart from the available memory:
+   * symmetric matrices with more than 46'342 nodes are stored in chunks.
+   * If a matrix does not fit into memory, the coordinate list is used.
    *
    * @serial an int with the largest number of cities for which distance
    *         matrices will be used
@@ -264,14 +328,66 @@ public final class Benchmark extends Configurable {
    */
   int m_maxRuns;
 
+  /**
+   * the directory for the binary distance matrix files, or {@code null} if
+   * the instances should always be loaded from their text representation
+   *
+   * @serial a file pointing to the distance matrix cache directory, or
+   *         {@code null}
+   */
+  private File m_cacheDir;
+
+  /**
+   * the number of distances each objective function may cache, see
+   * {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceCache}
+   *
+   * @serial an int with the cache capacity, {@code 0} for no cache
+   */
+  int m_cacheSize;
+
+  /**
+   * the number of log points after which they are appended to the log
+   * file during a run, or {@code 0} if the log file should only be
+   * written at the end of the run
+   *
+   * @serial an int with the batch size, {@code 0} for no streaming
+   */
+  int m_logBatchSize;
+
+  /**
+   * should precomputed data structures be shared between runs?
+   *
+   * @serial a boolean which is {@code true} if the data is shared
+   */
+  boolean m_sharePrecomputations;
+
+  /**
+   * the directory for the runtime calibration, or {@code null} if the
+   * destination directory should be used
+   *
+   * @serial a file pointing to the calibration directory, or {@code null}
+   */
+  private File m_calibrationDir;
+
+  /**
+   * the interval in milliseconds in which checkpoints of runs are stored,
+   * or {@code 0} if no checkpoints are stored
+   *
+   * @serial a long with the checkpoint interval, {@code 0} for none
+   */
+  long m_checkpointInterval;
+
   /** the values to log */
   transient long[] m_valuesToLog;
 
   /** the FEs and DEs to log */
   transient long[] m_FEsDEsToLog;
 
-  /** the internal, shared distance computer */
-  transient DistanceComputer m_dist;
+  /**
+   * the shared distance computer used by the most recently created
+   * objective function
+   */
+  private transient volatile _SharedDistance m_shared;
 
   /**
    * Create a setup
@@ -297,7 +413,7 @@ public final class Benchmark extends Configurable {
     long z;
 
     this.m_dir = FileUtils.canonicalize(//
-        (baseDir != null) ? baseDir : new File("./results"));//$NON-NLS-1$
+        (baseDir != null) ? baseDir : new File(Benchmark.DEFAULT_DEST_DIR));
 
     this.m_instance = instance;
 
@@ -309,6 +425,7 @@ public final class Benchmark extends Configurable {
     this.m_maxTime = Benchmark.DEFAULT_MAX_TIME_PER_RUN;
     this.m_limitDim = Benchmark.DEFAULT_MATRIX_LIMIT_DIM;
     this.m_maxRuns = Benchmark.DEFAULT_MAX_RUNS;
+    this.m_checkpointInterval = Benchmark.DEFAULT_CHECKPOINT_INTERVAL;
   }
 
   /** {@inheritDoc} */
@@ -335,11 +452,35 @@ public final class Benchmark extends Configurable {
 
     this.m_dir = config.getFile(Benchmark.PARAM_DEST_DIR, this.m_dir);
     this.m_realDir = null;
+
+    this.m_cacheDir = config.getFile(Benchmark.PARAM_MATRIX_CACHE_DIR,
+        this.m_cacheDir);
+
+    this.m_cacheSize = config.getInt(Benchmark.PARAM_DISTANCE_CACHE_SIZE,
+        0, (1 << 30), this.m_cacheSize);
+
+    this.m_logBatchSize = config.getInt(
+        Benchmark.PARAM_LOG_STREAM_BATCH_SIZE, 0, (1 << 20),
+        this.m_logBatchSize);
+
+    this.m_sharePrecomputations = config.getBoolean(
+        Benchmark.PARAM_SHARE_PRECOMPUTATIONS,
+        this.m_sharePrecomputations);
+
+    this.m_calibrationDir = config.getFile(Benchmark.PARAM_CALIBRATION_DIR,
+        this.m_calibrationDir);
+
+    this.m_checkpointInterval = config.getLong(
+        Benchmark.PARAM_CHECKPOINT_INTERVAL, 0l, Long.MAX_VALUE,
+        this.m_checkpointInterval);
   }
 
   /** {@inheritDoc} */
   @Override
   public final void printConfiguration(final PrintStream ps) {
+    final _SharedDistance shared;
+    final DistanceComputer dist;
+
     super.printConfiguration(ps);
 
     this.m_instance.printConfiguration(ps);
@@ -356,9 +497,32 @@ public final class Benchmark extends Configurable {
     Configurable.printKey(Benchmark.PARAM_LIMIT_DIM, ps);
     ps.println(this.m_limitDim);
 
-    if (this.m_dist != null) {
-      Configurable.printKey(Benchmark.DISTANCE_COMPUTER_TYPE, ps);
-      Configurable.printlnClass(this.m_dist.getClass(), ps);
+    Configurable.printKey(Benchmark.PARAM_MATRIX_CACHE_DIR, ps);
+    ps.println((this.m_cacheDir != null) ? this.m_cacheDir
+        .getAbsolutePath() : null);
+
+    Configurable.printKey(Benchmark.PARAM_DISTANCE_CACHE_SIZE, ps);
+    ps.println(this.m_cacheSize);
+
+    Configurable.printKey(Benchmark.PARAM_LOG_STREAM_BATCH_SIZE, ps);
+    ps.println(this.m_logBatchSize);
+
+    Configurable.printKey(Benchmark.PARAM_SHARE_PRECOMPUTATIONS, ps);
+    ps.println(this.m_sharePrecomputations);
+
+    Configurable.printKey(Benchmark.PARAM_CALIBRATION_DIR, ps);
+    ps.println(this.__getCalibrationDir().getAbsolutePath());
+
+    Configurable.printKey(Benchmark.PARAM_CHECKPOINT_INTERVAL, ps);
+    ps.println(this.m_checkpointInterval);
+
+    shared = this.m_shared;
+    if (shared != null) {
+      dist = shared._get();
+      if (dist != null) {
+        Configurable.printKey(Benchmark.DISTANCE_COMPUTER_TYPE, ps);
+        Configurable.printlnClass(dist.getClass(), ps);
+      }
     }
 
     Configurable.printKey(Benchmark.PARAM_DEST_DIR, ps);
@@ -389,6 +553,30 @@ public final class Benchmark extends Configurable {
     ps.println(//
     "The maximum problem dimension at which a coordinate list is still translated to a distance matrix."); //$NON-NLS-1$
 
+    Configurable.printKey(Benchmark.PARAM_MATRIX_CACHE_DIR, ps);
+    ps.println(//
+    "The directory where distance matrices are stored in a binary format and memory-mapped from. If not specified, instances are always loaded from text."); //$NON-NLS-1$
+
+    Configurable.printKey(Benchmark.PARAM_DISTANCE_CACHE_SIZE, ps);
+    ps.println(//
+    "The number of distances each run may cache if they are computed from coordinates, 0 for no cache."); //$NON-NLS-1$
+
+    Configurable.printKey(Benchmark.PARAM_LOG_STREAM_BATCH_SIZE, ps);
+    ps.println(//
+    "The number of log points after which they are appended to the log file while a run is still in progress, so that crashed runs can be evaluated. 0 means that log files are only written at the end of a run."); //$NON-NLS-1$
+
+    Configurable.printKey(Benchmark.PARAM_SHARE_PRECOMPUTATIONS, ps);
+    ps.println(//
+    "Should data structures computed from the distances, such as candidate sets, be computed only once and shared by all runs on the same instance? The distance evaluations needed to compute them are still counted in each run."); //$NON-NLS-1$
+
+    Configurable.printKey(Benchmark.PARAM_CALIBRATION_DIR, ps);
+    ps.println(//
+    "The directory where the runtime normalization factors measured on this machine are stored, so that they can be re-used by later processes. Defaults to the destination directory."); //$NON-NLS-1$
+
+    Configurable.printKey(Benchmark.PARAM_CHECKPOINT_INTERVAL, ps);
+    ps.println(//
+    "The interval in milliseconds in which algorithms supporting checkpoints store a snapshot of their run, so that an unfinished run can be resumed when the benchmark is started again. 0 means that no checkpoints are stored."); //$NON-NLS-1$
+
     Configurable.printKey(Benchmark.PARAM_DEST_DIR, ps);
     ps.println(//
     "The destination directory to store the log files."); //$NON-NLS-1$
@@ -408,46 +596,160 @@ public final class Benchmark extends Configurable {
   }
 
   /**
-   * get a final file to use
+   * Get the log file for a new run. The run is recorded in the
+   * {@link org.logisticPlanning.tsp.benchmarking.objective._RunLedger run
+   * ledger} of the result directory. If a run has been
+   * {@link #reserveRun() reserved}, it is used, otherwise a new run is
+   * claimed even if the maximum number of runs has been reached.
    *
    * @param prefix
    *          a prefix or {@code null}
-   * @return the temporary file
+   * @return the log file
    */
   synchronized final File _getFile(final String prefix) {
-    int i;
-    File f;
     String base_name;
 
-    // this.init();
-
-    try {
-      base_name = (this.name() + "_");//$NON-NLS-1$
-      if (prefix != null) {
-        base_name = (prefix + "_" + base_name);//$NON-NLS-1$
-      }
-      for (i = 1;; i++) {
-        f = new File(this.__getRealDir(), base_name + i + ".txt");//$NON-NLS-1$
-        if (f.createNewFile()) {
-          return f;
-        }
-      }
-
-    } catch (final Throwable t) {
-      throw new RuntimeException(t);
+    base_name = (this.name() + "_");//$NON-NLS-1$
+    if (prefix != null) {
+      base_name = (prefix + "_" + base_name);//$NON-NLS-1$
     }
+    return _RunLedger._get(this.__getRealDir())._claimFile(base_name);
+  }
+
+  /**
+   * Record that the run writing a given log file has ended.
+   *
+   * @param file
+   *          the log file obtained from {@link #_getFile(String)}
+   * @param success
+   *          {@code true} if the log file has been written completely,
+   *          {@code false} if the run failed and should be performed
+   *          again
+   */
+  final void _endFile(final File file, final boolean success) {
+    _RunLedger._get(this.__getRealDir())._end(file, success);
   }
 
   /**
-   * The number of runs that still need to be performed
+   * The number of runs that still need to be performed, i.e., the
+   * maximum number of runs minus the runs which have been finished or are
+   * being performed, also by other processes on the same machine. This
+   * information is obtained from the
+   * {@link org.logisticPlanning.tsp.benchmarking.objective._RunLedger run
+   * ledger} of the result directory and does not require listing the
+   * directory.
    *
    * @return the number of runs that still need to be performed
    */
   public synchronized final int remainingRunCount() {
-    final File[] fs;
+    return _RunLedger._get(this.__getRealDir())._remaining(this.m_maxRuns);
+  }
+
+  /**
+   * Reserve one of the {@link #remainingRunCount() remaining runs} for
+   * this process. The reservation is atomic across all processes on the
+   * same machine which use the same result directory. The next run begun
+   * by an objective function of this benchmark uses the reservation.
+   *
+   * @return {@code true} if a run has been reserved, {@code false} if all
+   *         runs have already been finished or are being performed
+   */
+  public synchronized final boolean reserveRun() {
+    return _RunLedger._get(this.__getRealDir())._reserve(this.m_maxRuns);
+  }
+
+  /**
+   * Give back a run {@link #reserveRun() reserved} by this process which
+   * will not be performed, e.g., because benchmarking has been cancelled.
+   * The run becomes available to other processes again.
+   */
+  public synchronized final void releaseRun() {
+    _RunLedger._get(this.__getRealDir())._release();
+  }
+
+  /**
+   * <p>
+   * Estimate the runtime of one run on this benchmark in milliseconds.
+   * This estimate is used for scheduling runs, so that the most expensive
+   * runs can be started first. It is the smallest of the
+   * {@link #m_maxTime runtime limit}, the time needed to perform
+   * {@link #m_maxFEs the maximum FEs} (each of which is assumed to need
+   * {@code n} distance evaluations), and the time needed to perform
+   * {@link #m_maxDEs the maximum DEs}, where a distance evaluation is
+   * assumed to take {@value #ESTIMATE_NANOS_PER_DE} nanoseconds. If no
+   * limit is set, {@code n}<sup>2</sup> distance evaluations are assumed.
+   * </p>
+   * <p>
+   * The estimate is rough: Algorithms may stop before a limit is reached
+   * and the real time per distance evaluation differs between machines.
+   * It should therefore only be used to compare runs on different
+   * instances with each other.
+   * </p>
+   *
+   * @return the estimated runtime of one run in milliseconds, at least
+   *         {@code 1}
+   */
+  public synchronized final long estimateRunCost() {
+    final double n;
+    double ms;
+
+    n = this.m_instance.n();
+    ms = Double.POSITIVE_INFINITY;
+    if (this.m_maxTime < Long.MAX_VALUE) {
+      ms = this.m_maxTime;
+    }
+    if (this.m_maxFEs < Long.MAX_VALUE) {
+      ms = Math.min(ms, ((this.m_maxFEs * n * //
+          Benchmark.ESTIMATE_NANOS_PER_DE) / 1e6d));
+    }
+    if (this.m_maxDEs < Long.MAX_VALUE) {
+      ms = Math.min(ms, ((this.m_maxDEs * //
+          Benchmark.ESTIMATE_NANOS_PER_DE) / 1e6d));
+    }
+    if (ms >= Double.POSITIVE_INFINITY) {
+      ms = ((n * n * Benchmark.ESTIMATE_NANOS_PER_DE) / 1e6d);
+    }
 
-    fs = this.__getRealDir().listFiles();
-    return Math.max(0, (this.m_maxRuns - ((fs != null) ? fs.length : 0)));
+    return Math.max(1l, ((long) (Math.ceil(ms))));
+  }
+
+  /**
+   * Estimate the memory in bytes needed to hold the distance data of the
+   * instance, i.e., the data shared by all objective functions created
+   * for this benchmark. Asymmetric instances and symmetric instances with
+   * at most {@link #m_limitDim} nodes are assumed to be represented as
+   * distance matrices of {@code int}s. All other instances are assumed to
+   * be represented by coordinate lists, plus a
+   * {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceCache
+   * distance cache} if one is configured.
+   *
+   * @return the estimated memory needed for the distance data in bytes
+   */
+  public synchronized final long estimateMemory() {
+    final long n;
+
+    n = this.m_instance.n();
+    if (!(this.m_instance.symmetric())) {
+      return ((n * (n - 1l)) << 2l);
+    }
+    if (n <= this.m_limitDim) {
+      return (((n * (n - 1l)) >>> 1l) << 2l);
+    }
+    return ((n * 24l) + (this.m_cacheSize * 12l));
+  }
+
+  /**
+   * Estimate the memory in bytes needed by one objective function created
+   * for this benchmark in addition to the
+   * {@link #estimateMemory() shared distance data}, i.e., the copies of
+   * the best solution found and the buffers used to check the validity of
+   * the evaluated tours.
+   *
+   * @return the estimated memory needed by one objective function in
+   *         bytes
+   */
+  public synchronized final long estimateRunMemory() {
+    return (this.m_instance.n() * 32l);
   }
 
   /** only if not running! */
@@ -518,6 +820,16 @@ public final class Benchmark extends Configurable {
     return f;
   }
 
+  /**
+   * get the directory for the runtime calibration
+   *
+   * @return the directory for the runtime calibration
+   */
+  private final File __getCalibrationDir() {
+    return ((this.m_calibrationDir != null) ? this.m_calibrationDir
+        : this.m_dir);
+  }
+
   /**
    * initialize
    *
@@ -526,6 +838,9 @@ public final class Benchmark extends Configurable {
    */
   synchronized final void _init(final boolean makeDirs) {
     if (this.m_running) {
+      if (makeDirs) { // the first objective may have been a warm-up one
+        this.__getRealDir().mkdirs();
+      }
       return;
     }
 
@@ -535,8 +850,6 @@ public final class Benchmark extends Configurable {
           this.__getRealDir().mkdirs();
         }
 
-        this.m_dist = this.m_instance.load(this.m_limitDim);
-
         this.m_valuesToLog = Benchmark.getLogObjectiveValues(//
             this.m_instance.optimum());
 
@@ -561,12 +874,82 @@ public final class Benchmark extends Configurable {
    * s are not thread-safe: one function must be used only in one single
    * thread. However, you can create arbitrarily many such functions, one
    * for each thread you want to use, for instance.
+   * </p>
+   * <p>
+   * All objective functions for the same problem instance share one single
+   * copy of the distance data, even if they belong to different
+   * benchmarks. This copy is loaded when the first of them is created and
+   * released when the last of them is
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#dispose()
+   * disposed}.
+   * </p>
    *
    * @return the new objective function.
    */
   public final ObjectiveFunction createObjective() {
-    this._init(true);
-    return new ObjectiveFunction(this);
+    return this._createObjective(true, 0l);
+  }
+
+  /**
+   * Create a
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#isWarmUp()
+   * warm-up} objective function: it behaves like the objective functions
+   * created by {@link #createObjective()}, but each run is limited to
+   * {@code maxTime} milliseconds, is not counted as run of this benchmark,
+   * and is not logged. Performing a few runs with such a function before
+   * the first logged run lets the JVM compile the code of the algorithm
+   * before its runtime is measured.
+   *
+   * @param maxTime
+   *          the maximum runtime of a warm-up run in milliseconds
+   * @return the new objective function.
+   */
+  public final ObjectiveFunction createWarmUpObjective(final long maxTime) {
+    if (maxTime <= 0l) {
+      throw new IllegalArgumentException(//
+          "Warm-up time must be positive, but is " + maxTime); //$NON-NLS-1$
+    }
+    return this._createObjective(false, maxTime);
+  }
+
+  /**
+   * Create an objective function
+   *
+   * @param makeDirs
+   *          should we make the directories?
+   * @param warmUpTime
+   *          the maximum runtime of a warm-up run, or {@code 0} if the
+   *          runs should be logged
+   * @return the new objective function.
+   */
+  final ObjectiveFunction _createObjective(final boolean makeDirs,
+      final long warmUpTime) {
+    final _SharedDistance shared;
+    ObjectiveFunction f;
+    boolean ok;
+
+    this._init(makeDirs);
+
+    try {
+      shared = _SharedDistance._acquire(this.m_instance, this.m_limitDim,
+          this.m_cacheDir);
+    } catch (final IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+
+    ok = false;
+    try {
+      this.m_shared = shared;
+      f = new ObjectiveFunction(this, shared,//
+          ((makeDirs || (warmUpTime > 0l)) ? _Calibration._get(this
+              .__getCalibrationDir()) : null), warmUpTime);
+      ok = true;
+      return f;
+    } finally {
+      if (!ok) {
+        _SharedDistance._release(shared);
+      }
+    }
   }
 
   /**
@@ -1,11 +1,19 @@
 package org.logisticPlanning.tsp.benchmarking.objective;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
 
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceCache;
 import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
 import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
 import org.logisticPlanning.tsp.solving.utils.SolutionValidator;
@@ -438,6 +446,21 @@ import org.logisticPlanning.utils.math.random.Randomizer;
  * using the same settings (such as distance information representations).
  * </p>
  * <p>
+ * The measured factor does not change between runs on the same machine.
+ * It is therefore measured only once per machine, instance, and distance
+ * representation and stored in a
+ * {@link org.logisticPlanning.tsp.benchmarking.objective._Calibration
+ * calibration file} in the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_CALIBRATION_DIR
+ * calibration directory}, from where all later runs, also in other
+ * processes, load it. Together with the factor, the runtimes of a few
+ * kernels of TSP algorithms are measured at several problem sizes and
+ * stored in the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#SYSTEM_DATA_SECTION
+ * system data section} of each log file, which allows for comparing the
+ * speed of machines independently of the benchmark instances.
+ * </p>
+ * <p>
  * The &quot;standardized&quot; algorithm (implemented in class
  * {@link org.logisticPlanning.tsp.benchmarking.objective._SpeedBenchmark
  * _SpeedBenchmark}) we use to perform that measurement is the
@@ -1341,16 +1364,16 @@ import org.logisticPlanning.utils.math.random.Randomizer;
  * outputDir}&quot;. It will now iterate through the runs that should be
  * done, from <code>1</code> to
  * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_MAX_RUNS
- * maxRuns}, where <code>maxRuns</code> is 30, by default. Each combination
- * of benchmark instance and run index defines a unique path and file name.
- * The thread tries to create the file with the corresponding name with the
- * {@link java.io.File#createNewFile()} which reports <code>true</code> if
- * a new file was created and <code>false</code> if the file already
- * existed. If the thread managed to create the file as &quot;new&quot;, it
- * will immediately begin to perform the run and after the run is finished,
- * store its results into the file. If the file already existed, the thread
- * will just move to the next run index. If the run index reaches
- * <code>maxRuns</code>, it moves to the next benchmark instance.
+ * maxRuns}, where <code>maxRuns</code> is 30, by default. The runs of a
+ * benchmark instance are recorded in a small append-only ledger file
+ * named {@code .runs} inside its output folder: Before a thread performs
+ * a run, it claims the run in the ledger. The ledger is modified only
+ * while holding a {@link java.nio.channels.FileLock file lock}, so no
+ * two threads or processes can claim the same run. If all
+ * <code>maxRuns</code> runs of an instance have been finished or are
+ * claimed, the thread moves to the next benchmark instance. Each claimed
+ * run gets a unique log file name, into which its results are stored
+ * after the run is finished.
  * </p>
  * <p>
  * This mechanism allows the most primitive and yet surprisingly robust way
@@ -1373,14 +1396,17 @@ import org.logisticPlanning.utils.math.random.Randomizer;
  * an hour, in which case the time would be less, too).
  * </p>
  * <p id="restart">
- * Restarting experiments is also easy because of this mechanism: A
- * completed run will have an associated log file of non-zero size. Since
- * the log information is only written once the run is completed (in order
- * to not bias the time measurements), all runs that have been started but
- * are incomplete will have log files of zero size. Thus, if your computer
- * crashes or something, just delete all zero-sized files and you can
- * restart the benchmarker. It will resume its work and not repeat work
- * that has already been done. Under <a
+ * Restarting experiments is also easy because of this mechanism: Each
+ * process holds a lock for each of its running runs, which is released
+ * by the operating system if the process dies. If your computer crashes
+ * or something, you can simply restart the benchmarker: runs which were
+ * claimed by a dead process are claimed again and their log files are
+ * overwritten. The benchmarker will resume its work and not repeat work
+ * that has already been done. If an output folder has no ledger, e.g.,
+ * because it was created by an older version of this software, all files
+ * in it are considered as completed runs when the ledger is created. In
+ * this case, you should delete all zero-sized files (which belong to
+ * incomplete runs) before restarting. Under <a
  * href="http://en.wikipedia.org/wiki/Linux">Linux</a>, you could do
  * something like
  * <code>find&nbsp;~/{@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_DEST_DIR outputDir}/&nbsp;-type&nbsp;f&nbsp;-empty&nbsp;-delete</code>
@@ -1390,6 +1416,29 @@ import org.logisticPlanning.utils.math.random.Randomizer;
  * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_DEST_DIR
  * outputDir} is the output folder you have defined.
  * </p>
+ * <p id="checkpoints">
+ * Restarting a run from scratch may waste a lot of time if the runs are
+ * long. Algorithms may therefore support checkpoints: During a run, the
+ * algorithm asks the objective function whether a checkpoint
+ * {@link #isCheckpointDue(NamedObject) is due}, which is the case every
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_CHECKPOINT_INTERVAL
+ * checkpointInterval} milliseconds of runtime. If so, it hands its
+ * current state to {@link #checkpoint(NamedObject, Serializable)}, which
+ * stores it together with the state of the objective function, i.e., the
+ * log points collected so far, the consumed FEs, DEs, and runtime, and the
+ * best tour, in a hidden file next to the log file of the run. The file
+ * is written by a background thread, so the run is not slowed down by the
+ * file system. If the run is not completed, e.g., because the process
+ * died or the run was {@link #cancelRun() cancelled}, it is claimed again
+ * later on and {@link #beginRun(NamedObject)} restores the state of the
+ * objective function from the checkpoint: the run continues with the FEs,
+ * DEs, runtime, and log points of the checkpoint, and the algorithm can
+ * obtain its own state via {@link #getResumeState(NamedObject)}. The
+ * number of times a run has been resumed is recorded in its log file
+ * (see {@link #RESUMES}). The checkpoint file is deleted when the run is
+ * completed. Algorithms which do not support checkpoints are simply
+ * restarted.
+ * </p>
  * <h2>Command Line Parameters of the Benchmarking Environment</h2>
  * <p id="jarCommandLine">
  * The benchmarking environment and running can be parameterized via
@@ -1911,6 +1960,9 @@ public final class ObjectiveFunction extends DistanceComputer {
   /** the string indicating the begin of a comment: {@value} */
   public static final String COMMENT_START = "//";//$NON-NLS-1$
 
+  /** the buffer size for streaming log files: {@value} */
+  private static final int LOG_BUFFER_SIZE = 65536;
+
   /**
    * the empty line: an empty line only contains the comment begin mark:
    * {@value #COMMENT_START}
@@ -1936,6 +1988,46 @@ public final class ObjectiveFunction extends DistanceComputer {
    */
   public static final String RUNTIME_NORMALIZATION_FACTOR = "runtimeNormalizationFactor"; //$NON-NLS-1$
 
+  /**
+   * the fingerprint of the machine on which the <a
+   * href="#runtimeNormalization">runtime normalization</a> was calibrated:
+   * {@value}
+   */
+  public static final String CALIBRATION_FINGERPRINT = "calibrationFingerprint"; //$NON-NLS-1$
+
+  /**
+   * a prefix for the runtimes of the calibration kernels in nanoseconds
+   * per operation, followed by the kernel name and the problem size:
+   * {@value}
+   */
+  public static final String CALIBRATION_KERNEL_PREFIX = "calibrationKernel_";//$NON-NLS-1$
+
+  /**
+   * the number of {@link #isWarmUp() warm-up} runs performed with the
+   * algorithm class in this process before the run: {@value}
+   */
+  public static final String WARM_UP_RUNS = "warmUpRuns";//$NON-NLS-1$
+
+  /**
+   * the total runtime in milliseconds of the {@link #isWarmUp() warm-up}
+   * runs performed with the algorithm class in this process before the
+   * run: {@value}
+   */
+  public static final String WARM_UP_TIME = "warmUpTime";//$NON-NLS-1$
+
+  /**
+   * the number of times the run has been resumed from a <a
+   * href="#checkpoints">checkpoint</a>, printed only for resumed runs:
+   * {@value}
+   */
+  public static final String RESUMES = "resumes";//$NON-NLS-1$
+
+  /**
+   * the warm-up runs performed in this process: the number of runs and
+   * their total runtime, per algorithm class
+   */
+  private static final HashMap<Class<?>, long[]> WARM_UPS = new HashMap<>();
+
   /** the comments in the log file header */
   private static final char[][] HEADER_COMMENTS = new char[][] { //
       { '/', '/', ' ', 'T', 'h', 'i', 's', ' ', 'l', 'o', 'g', ' ', 'f',
@@ -2367,6 +2459,12 @@ public final class ObjectiveFunction extends DistanceComputer {
   /** the total memory: {@value} */
   public static final String TOTAL_MEMORY = "totalMemory";//$NON-NLS-1$
 
+  /** the number of hits in the distance cache: {@value} */
+  public static final String DISTANCE_CACHE_HITS = "distanceCacheHits";//$NON-NLS-1$
+
+  /** the number of misses in the distance cache: {@value} */
+  public static final String DISTANCE_CACHE_MISSES = "distanceCacheMisses";//$NON-NLS-1$
+
   /**
    * the beginning of the section with information about the algorithm
    * creator and experimentor: {@value}
@@ -2520,6 +2618,20 @@ public final class ObjectiveFunction extends DistanceComputer {
    */
   private final boolean m_symmetric;
 
+  /**
+   * is this a {@link #isWarmUp() warm-up} objective function?
+   *
+   * @serial a boolean value which is {@code true} for warm-up functions
+   */
+  private final boolean m_warmUp;
+
+  /**
+   * the maximum runtime in ms per run
+   *
+   * @serial a positive long value with the maximum allowed runtime in ms
+   */
+  private final long m_maxTime;
+
   /** the internal state */
   private transient int m_state;
 
@@ -2573,6 +2685,20 @@ public final class ObjectiveFunction extends DistanceComputer {
    */
   private final DistanceComputer m_dist;
 
+  /**
+   * the distance computer used by {@link #distance(int, int)}: either
+   * {@link #m_dist} itself or a thread-local
+   * {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceCache}
+   * wrapping it
+   */
+  private final DistanceComputer m_cachedDist;
+
+  /**
+   * the reference to the shared distance data, or {@code null} if this
+   * objective function has been {@link #dispose() disposed}
+   */
+  private transient _SharedDistance m_shared;
+
   /**
    * the pre-allocated array with log points
    *
@@ -2683,6 +2809,14 @@ public final class ObjectiveFunction extends DistanceComputer {
    */
   volatile boolean m_terminate;
 
+  /**
+   * has the current run been {@link #cancelRun() cancelled}?
+   *
+   * @serial a {@code boolean} value indicating whether the current run has
+   *         been cancelled
+   */
+  private volatile boolean m_cancelled;
+
   /**
    * The seed of the random number generation {@link #m_r}.
    *
@@ -2721,6 +2855,23 @@ public final class ObjectiveFunction extends DistanceComputer {
    */
   private final int[] m_bestX;
 
+  /**
+   * the best candidate solution found, if it was registered in <a
+   * href="#adjacencyRepresentation">adjacency representation</a> and not
+   * yet been converted to {@link #m_bestX}
+   *
+   * @serial an integer array
+   */
+  private final int[] m_bestAdj;
+
+  /**
+   * is the best candidate solution currently stored in {@link #m_bestAdj}
+   * instead of {@link #m_bestX}?
+   *
+   * @serial a boolean
+   */
+  private boolean m_bestIsAdj;
+
   /**
    * Should we take a log point when the next FE or DE boundary is reached?
    * This is only necessary if an improvement was made.
@@ -2874,8 +3025,51 @@ public final class ObjectiveFunction extends DistanceComputer {
    */
   private Throwable m_exceptionDuringRun;
 
-  /** a linked list link */
-  volatile transient ObjectiveFunction m_next;
+  /** the deadline of the current run, if any */
+  transient _Deadline m_deadline;
+
+  /** the raw distance scope, created on demand */
+  private transient RawDistances m_raw;
+
+  /**
+   * the stream to which the log points are appended during the run, or
+   * {@code null} if the log file is only written at the end of the run
+   */
+  private transient PrintStream m_logOut;
+
+  /** the number of log points already written to {@link #m_logOut} */
+  private transient int m_logWritten;
+
+  /**
+   * the runtime in milliseconds between two <a
+   * href="#checkpoints">checkpoints</a>, {@code 0} if no checkpoints
+   * should be taken
+   *
+   * @serial a {@code long} value larger or equal to {@code 0}
+   */
+  private final long m_checkpointInterval;
+
+  /** the consumed runtime at which the next checkpoint is due */
+  private transient long m_nextCheckpoint;
+
+  /**
+   * the checkpoint file of the current run, or {@code null} if no
+   * checkpoints are taken
+   */
+  private transient File m_checkpointFile;
+
+  /**
+   * the algorithm state restored from the checkpoint, or {@code null} if
+   * the run has not been resumed
+   */
+  private transient Serializable m_resumeState;
+
+  /**
+   * the number of times the current run has been resumed
+   *
+   * @serial an integer larger or equal to {@code 0}
+   */
+  private int m_resumes;
 
   /**
    * create the objective function
@@ -2883,8 +3077,20 @@ public final class ObjectiveFunction extends DistanceComputer {
    * @param benchmark
    *          the benchmark instance to which this objective function
    *          belongs
+   * @param shared
+   *          the shared distance data, acquired for this function
+   * @param calibration
+   *          the calibration of the runtime normalization, or
+   *          {@code null} if the normalization factor should be measured
+   *          without storing it
+   * @param warmUpTime
+   *          the maximum runtime of a run on a {@link #isWarmUp() warm-up}
+   *          objective function, or {@code 0} if the runs should be
+   *          logged
    */
-  ObjectiveFunction(final Benchmark benchmark) {
+  ObjectiveFunction(final Benchmark benchmark,
+      final _SharedDistance shared, final _Calibration calibration,
+      final long warmUpTime) {
     super(benchmark.m_instance.n());
 
     int i;
@@ -2895,8 +3101,15 @@ public final class ObjectiveFunction extends DistanceComputer {
     this.m_benchmark = benchmark;
     this.m_maxDEs = benchmark.m_maxDEs;
     this.m_maxFEs = benchmark.m_maxFEs;
+    this.m_warmUp = (warmUpTime > 0l);
+    this.m_maxTime = (this.m_warmUp ? warmUpTime : benchmark.m_maxTime);
+    this.m_checkpointInterval = (this.m_warmUp ? 0l
+        : benchmark.m_checkpointInterval);
     this.m_optimum = benchmark.m_instance.optimum();
-    this.m_dist = benchmark.m_dist;
+    this.m_shared = shared;
+    this.m_dist = shared._get();
+    this.m_cachedDist = DistanceCache.wrap(this.m_dist,
+        benchmark.m_cacheSize);
 
     this.m_valuesToLog = benchmark.m_valuesToLog;
     this.m_FEsDEsToLog = benchmark.m_FEsDEsToLog;
@@ -2912,6 +3125,7 @@ public final class ObjectiveFunction extends DistanceComputer {
 
     i = this.n();
     this.m_bestX = new int[i];
+    this.m_bestAdj = new int[i];
     this.m_i_bestX = new int[i];
     this.m_calendar = new GregorianCalendar();
 
@@ -2925,8 +3139,10 @@ public final class ObjectiveFunction extends DistanceComputer {
     this.m_initLP = new LogPoint();
 
     // compute the time normalization factor
-    this.m_timeNormalizationFactor = _SpeedBenchmark
-        ._timeBenchmarkRun(this);
+    this.m_timeNormalizationFactor = ((calibration != null) ? calibration
+        ._getFactor(this, (benchmark.m_instance.name() + '_'
+            + this.m_dist.getClass().getName() + '_' + benchmark.m_cacheSize))
+        : _SpeedBenchmark._timeBenchmarkRun(this));
   }
 
   /**
@@ -3045,7 +3261,27 @@ public final class ObjectiveFunction extends DistanceComputer {
    * @see #endRun()
    */
   public final void beginRun(final NamedObject algorithm) {
-    this._beginRun(algorithm, true);
+    this._beginRun(algorithm, (!(this.m_warmUp)));
+  }
+
+  /**
+   * Is this a warm-up objective function, created via
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#createWarmUpObjective(long)}
+   * ? The runs performed with a warm-up function let the JVM compile the
+   * code of the algorithm, the objective function, and the distance
+   * computation before the first logged run: they are limited to the
+   * warm-up time, they do not count as runs of the benchmark, and no log
+   * files are written for them. Instead, the number and total runtime of
+   * the warm-up runs of an algorithm class are recorded in the
+   * {@link #SYSTEM_DATA_SECTION system data section} of the log files of
+   * all later runs of that class in the same process (see
+   * {@link #WARM_UP_RUNS} and {@link #WARM_UP_TIME}).
+   *
+   * @return {@code true} if this is a warm-up objective function,
+   *         {@code false} otherwise
+   */
+  public final boolean isWarmUp() {
+    return this.m_warmUp;
   }
 
   /**
@@ -3074,6 +3310,7 @@ public final class ObjectiveFunction extends DistanceComputer {
     this.m_state = ObjectiveFunction.STATE_IN_RUN;
 
     this.m_exceptionDuringRun = null;
+    this.m_cancelled = false;
 
     this.m_algorithm = algorithm;
     if (makeFile) {
@@ -3082,6 +3319,287 @@ public final class ObjectiveFunction extends DistanceComputer {
     }
 
     this.__begin(this.m_initializer != null);
+
+    this.m_resumes = 0;
+    this.m_resumeState = null;
+    this.m_checkpointFile = null;
+    if (makeFile && (this.m_checkpointInterval > 0l)) {
+      this.__resume();
+    }
+
+    if (makeFile && (this.m_benchmark.m_logBatchSize > 0)) {
+      this.__openLog();
+    }
+  }
+
+  /**
+   * Get the identifier of the algorithm (and initializer) of the current
+   * run, which must match the identifier stored in a <a
+   * href="#checkpoints">checkpoint</a>
+   *
+   * @return the identifier
+   */
+  private final String __checkpointId() {
+    return (this.m_algorithm.getClass().getName() + ':' + //
+    ObjectiveFunction.__makeName(this.m_algorithm, this.m_initializer));
+  }
+
+  /**
+   * Resume the current run from its <a href="#checkpoints">checkpoint</a>,
+   * if there is one.
+   */
+  private final void __resume() {
+    final _Checkpoint cp;
+    final long t;
+    final int ls;
+    int i;
+
+    this.m_checkpointFile = _Checkpoint._getFile(this.m_file);
+    this.m_nextCheckpoint = (this.m_time_offset + this.m_checkpointInterval);
+
+    if (this.m_algorithm == null) {
+      return;
+    }
+    cp = _Checkpoint._load(this.m_checkpointFile, this.__checkpointId(),
+        this.n());
+    if ((cp == null) || (cp.m_log.length > this.m_log.length)) {
+      return;
+    }
+
+    ls = cp.m_log.length;
+    for (i = 0; i < ls; i++) {
+      this.m_log[i]._assign(cp.m_log[i]);
+    }
+    this.m_logSize = ls;
+
+    this.m_currentLP._assign(cp.m_current);
+    this.m_lastImprovementLP._assign(cp.m_lastImprovement);
+    this.m_initLP._assign(cp.m_init);
+
+    System.arraycopy(cp.m_best, 0, this.m_bestX, 0, this.m_bestX.length);
+    this.m_bestIsAdj = false;
+
+    this.m_fIdx = cp.m_fIdx;
+    this.m_nextF = cp.m_nextF;
+    this.m_deIdx = cp.m_deIdx;
+    this.m_nextDE = cp.m_nextDE;
+    this.m_feIdx = cp.m_feIdx;
+    this.m_nextFE = cp.m_nextFE;
+    this.m_shouldLog = cp.m_shouldLog;
+    this.m_fimproved = cp.m_fimproved;
+
+    this.m_randSeed = cp.m_randSeed;
+    this.m_r.assign(cp.m_random);
+
+    this.m_resumes = (cp.m_resumes + 1);
+    this.m_resumeState = cp.m_state;
+
+    // continue the runtime measurement where the checkpoint left off
+    _TerminationThread._dequeue(this);
+    t = System.currentTimeMillis();
+    this.m_startTime = t;
+    this.m_time_offset = this.m_currentLP.m_time;
+    this.m_endTime = (t + this.m_maxTime);
+    if (this.m_endTime < t) {
+      this.m_endTime = Long.MAX_VALUE;
+    } else {
+      this.m_endTime -= this.m_time_offset;
+    }
+    this.m_nextCheckpoint = (this.m_time_offset + this.m_checkpointInterval);
+    _TerminationThread._enqueue(this);
+  }
+
+  /**
+   * Is a <a href="#checkpoints">checkpoint</a> due? This is the case if
+   * checkpoints are enabled for the current run of {@code algorithm} and
+   * at least
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_CHECKPOINT_INTERVAL
+   * checkpointInterval} milliseconds of runtime have passed since the last
+   * checkpoint (or the start of the run). Algorithms should call this
+   * method regularly at points where their state is consistent and then
+   * hand their state to {@link #checkpoint(NamedObject, Serializable)}.
+   * This method is cheap, but not free, so it should not be called for
+   * every single FE.
+   *
+   * @param algorithm
+   *          the algorithm, i.e., the object passed to
+   *          {@link #beginRun(NamedObject)}
+   * @return {@code true} if a checkpoint should be taken, {@code false}
+   *         otherwise
+   * @see #checkpoint(NamedObject, Serializable)
+   */
+  public final boolean isCheckpointDue(final NamedObject algorithm) {
+    return ((this.m_checkpointFile != null)
+        && (algorithm == this.m_algorithm)
+        && (this.m_state == ObjectiveFunction.STATE_IN_RUN)
+        && (!(this.m_terminate)) && //
+    (((System.currentTimeMillis() - this.m_startTime) + this.m_time_offset) >= this.m_nextCheckpoint));
+  }
+
+  /**
+   * Take a <a href="#checkpoints">checkpoint</a>: The state of this
+   * objective function and the given state of the algorithm are
+   * serialized right away and written to the checkpoint file of the run
+   * in the background. If the state cannot be serialized, no more
+   * checkpoints are taken in the current run. The state of the random
+   * number generator of this function ({@link #getRandom()}) is stored as
+   * well, so that a resumed run continues with the same random numbers as
+   * the original run, which itself is not affected by the checkpoint.
+   *
+   * @param algorithm
+   *          the algorithm, i.e., the object passed to
+   *          {@link #beginRun(NamedObject)}
+   * @param state
+   *          the state of the algorithm, which is handed back to the
+   *          algorithm by {@link #getResumeState(NamedObject)} when the
+   *          run is resumed
+   * @see #isCheckpointDue(NamedObject)
+   */
+  public final void checkpoint(final NamedObject algorithm,
+      final Serializable state) {
+    final _Checkpoint cp;
+    final long time;
+    final int ls;
+    int i;
+
+    if ((this.m_checkpointFile == null) || (algorithm != this.m_algorithm)
+        || (this.m_state != ObjectiveFunction.STATE_IN_RUN)) {
+      return;
+    }
+
+    time = ((System.currentTimeMillis() - this.m_startTime) + this.m_time_offset);
+
+    cp = new _Checkpoint(this.__checkpointId(), this.n());
+    ls = this.m_logSize;
+    cp.m_log = new LogPoint[ls];
+    for (i = 0; i < ls; i++) {
+      cp.m_log[i] = new LogPoint(this.m_log[i]);
+    }
+    cp.m_current = new LogPoint(this.m_currentLP);
+    cp.m_current.m_time = time;
+    cp.m_lastImprovement = new LogPoint(this.m_lastImprovementLP);
+    cp.m_init = new LogPoint(this.m_initLP);
+    cp.m_best = this.__getBest().clone();
+
+    cp.m_fIdx = this.m_fIdx;
+    cp.m_nextF = this.m_nextF;
+    cp.m_deIdx = this.m_deIdx;
+    cp.m_nextDE = this.m_nextDE;
+    cp.m_feIdx = this.m_feIdx;
+    cp.m_nextFE = this.m_nextFE;
+    cp.m_shouldLog = this.m_shouldLog;
+    cp.m_fimproved = this.m_fimproved;
+
+    cp.m_randSeed = this.m_randSeed;
+    cp.m_random = this.m_r;
+
+    cp.m_resumes = this.m_resumes;
+    cp.m_state = state;
+
+    this.m_nextCheckpoint = (time + this.m_checkpointInterval);
+    try {
+      cp._store(this.m_checkpointFile);
+    } catch (final IOException ioe) {
+      this.m_checkpointFile = null;
+    }
+  }
+
+  /**
+   * Get the state of the algorithm stored in the <a
+   * href="#checkpoints">checkpoint</a> from which the current run was
+   * resumed.
+   *
+   * @param algorithm
+   *          the algorithm, i.e., the object passed to
+   *          {@link #beginRun(NamedObject)}
+   * @return the state handed to {@link #checkpoint(NamedObject, Serializable)}
+   *         , or {@code null} if the current run of {@code algorithm} has
+   *         not been resumed
+   */
+  public final Serializable getResumeState(final NamedObject algorithm) {
+    if ((algorithm == this.m_algorithm)
+        && (this.m_state == ObjectiveFunction.STATE_IN_RUN)) {
+      return this.m_resumeState;
+    }
+    return null;
+  }
+
+  /**
+   * Get the number of times the current (or last) run has been resumed
+   * from a <a href="#checkpoints">checkpoint</a>.
+   *
+   * @return the number of times the current run has been resumed, i.e.,
+   *         {@code 0} if it was started from scratch
+   */
+  public final int getResumeCount() {
+    return this.m_resumes;
+  }
+
+  /**
+   * Open the log file for streaming: the header and all log points except
+   * for the newest one are written right away, and the log data section
+   * is kept open. The newest log point is always held back, because it
+   * may still become the end point of the run. If the process dies during
+   * the run, the log file thus still contains all log points up to the
+   * last batch written, which can be loaded for evaluation.
+   */
+  private final void __openLog() {
+    final PrintStream ps;
+    final int end;
+
+    try {
+      ps = new PrintStream(new BufferedOutputStream(
+          Channels.newOutputStream(FileChannel.open(this.m_file.toPath(),
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)),
+          ObjectiveFunction.LOG_BUFFER_SIZE), false, "UTF-8"); //$NON-NLS-1$
+    } catch (final IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+
+    // set the stream first, so that it is closed if anything goes wrong
+    this.m_logOut = ps;
+    this.__printLogHeader(ps);
+    end = Math.max(0, (this.m_logSize - 1));
+    this.__printLogPoints(0, end, ps);
+    ps.flush();
+    this.m_logWritten = end;
+  }
+
+  /**
+   * Close the log file opened by {@link #__openLog()}, if it is open. This
+   * is done at the end of each run, also if the run ended abnormally.
+   * {@link java.io.PrintStream} does not throw exceptions but only records
+   * whether an error occurred, so this flag is checked here.
+   *
+   * @return {@code true} if the log file was not open or all data has
+   *         been written successfully, {@code false} if an error occurred
+   */
+  private final boolean __closeLog() {
+    final PrintStream ps;
+
+    ps = this.m_logOut;
+    if (ps == null) {
+      return true;
+    }
+    this.m_logOut = null;
+    ps.close();
+    return (!(ps.checkError()));
+  }
+
+  /**
+   * Append the log points collected so far to the log file, if there are
+   * enough of them for a batch.
+   */
+  private final void __streamLog() {
+    final int end;
+
+    end = (this.m_logSize - 1);
+    if ((end - this.m_logWritten) >= this.m_benchmark.m_logBatchSize) {
+      this.__printLogPoints(this.m_logWritten, end, this.m_logOut);
+      this.m_logOut.flush();
+      this.m_logWritten = end;
+    }
   }
 
   /**
@@ -3289,15 +3807,20 @@ public final class ObjectiveFunction extends DistanceComputer {
       this.m_feIdx = (this.m_FEsDEsToLog.length - 1);
       this.m_nextFE = this.m_FEsDEsToLog[this.m_feIdx];
     }
+    this.m_bestIsAdj = false;
 
     this.m_terminate = false;
     this.m_shouldLog = false;
     this.m_fimproved = false;
 
+    if (this.m_cachedDist instanceof DistanceCache) {
+      ((DistanceCache) (this.m_cachedDist)).resetCounters();
+    }
+
     this.m_r.setSeed(this.m_randSeed = this.m_r.nextLong());
 
     this.m_startTime = System.currentTimeMillis();
-    this.m_endTime = (this.m_startTime + this.m_benchmark.m_maxTime);
+    this.m_endTime = (this.m_startTime + this.m_maxTime);
 
     if (this.m_endTime < this.m_startTime) {
       this.m_endTime = Long.MAX_VALUE;
@@ -3370,7 +3893,7 @@ public final class ObjectiveFunction extends DistanceComputer {
       this.m_i_randSeed = this.m_randSeed;
       this.m_i_startTime = this.m_startTime;
 
-      System.arraycopy(this.m_bestX, 0, this.m_i_bestX, //
+      System.arraycopy(this.__getBest(), 0, this.m_i_bestX, //
           0, this.m_bestX.length);
 
       this.m_time_offset = this.m_initLP.m_time;
@@ -3386,12 +3909,10 @@ public final class ObjectiveFunction extends DistanceComputer {
    * the in-memory log data to the output file.
    */
   public final void endRun() {
-    final long opt, t, fm, tm, mm;
-    final double optm;
-    final Runtime rt;
+    final long t;
     final LogPoint cur, lp;
-    int i, ls, type;
-    LogPoint p;
+    boolean written;
+    int ls;
 
     this.m_terminate = true;
     _TerminationThread._dequeue(this);
@@ -3400,6 +3921,17 @@ public final class ObjectiveFunction extends DistanceComputer {
       throw new IllegalStateException(
           "Cannot end run, as no run was started."); //$NON-NLS-1$
     }
+
+    if (this.m_warmUp) {
+      if (this.m_algorithm != null) {
+        ObjectiveFunction.__recordWarmUp(this.m_algorithm.getClass(),
+            (System.currentTimeMillis() - this.m_startTime));
+      }
+      this._clear();
+      return;
+    }
+
+    written = false;
     try {
       cur = this.m_currentLP;
 
@@ -3427,274 +3959,401 @@ public final class ObjectiveFunction extends DistanceComputer {
         this.m_log[ls - 1].m_type |= ObjectiveFunction.TYPE_FLAG_END;
       }
 
-      opt = this.m_optimum;
       try {
-
-        try (PrintStream ps = new PrintStream(this.m_file, "UTF-8")) { //$NON-NLS-1$
-
-          // print the headline comment
-          if (this.m_algorithm != null) {
-            ps.print(ObjectiveFunction.LOG_FILE_START_A);
-            ps.print(this.m_algorithm.name());
-            if (this.m_initializer != null) {
-              ps.print(ObjectiveFunction.LOG_FILE_START_A2);
-              ps.print(this.m_initializer.name());
+        if (this.m_logOut != null) {
+          // the header and most log points have already been written
+          this.__printLogPoints(this.m_logWritten, ls, this.m_logOut);
+          this.__printLogFooter(t, this.m_logOut);
+          if (!(this.__closeLog())) {
+            throw new IOException("Error while writing log file " + //$NON-NLS-1$
+                this.m_file);
+          }
+        } else {
+          try (PrintStream ps = new PrintStream(this.m_file, "UTF-8")) { //$NON-NLS-1$
+            this.__printLogHeader(ps);
+            this.__printLogPoints(0, ls, ps);
+            this.__printLogFooter(t, ps);
+            if (ps.checkError()) {
+              throw new IOException("Error while writing log file " + //$NON-NLS-1$
+                  this.m_file);
             }
-            ps.print(ObjectiveFunction.LOG_FILE_START_B);
-          } else {
-            ps.print(ObjectiveFunction.LOG_FILE_START_X);
           }
+        }
+        written = true;
+      } catch (final Throwable txt) {
+        throw new RuntimeException(txt);
+      }
+    } finally {
+      this.__closeLog();
+      this.m_terminate = true;
+      this.m_logSize = 0;
+      this.m_logWritten = 0;
+      this.m_state = ObjectiveFunction.STATE_NOTHING;
+      this.m_resumeState = null;
+      if (this.m_checkpointFile != null) {
+        // keep the checkpoint of an incomplete run, so it can be resumed
+        if (written && (!(this.m_cancelled))) {
+          _Checkpoint._delete(this.m_checkpointFile);
+        }
+        this.m_checkpointFile = null;
+      }
+      if (this.m_file != null) {
+        this.m_benchmark._endFile(this.m_file,
+            (written && (!(this.m_cancelled))));
+      }
+    }
+  }
 
-          ps.print(this.m_benchmark.m_instance.name());
-          ps.print(ObjectiveFunction.LOG_FILE_START_C);
-          if (this.m_benchmark.m_instance.symmetric()) {
-            ps.print(ObjectiveFunction.LOG_FILE_START_DA);
-          } else {
-            ps.print(ObjectiveFunction.LOG_FILE_START_DB);
-          }
-          ps.println();
+  /**
+   * Print the head of the log file, up to and including the start of the
+   * log data section.
+   *
+   * @param ps
+   *          the print stream
+   */
+  private final void __printLogHeader(final PrintStream ps) {
+    // print the headline comment
+    if (this.m_algorithm != null) {
+      ps.print(ObjectiveFunction.LOG_FILE_START_A);
+      ps.print(this.m_algorithm.name());
+      if (this.m_initializer != null) {
+        ps.print(ObjectiveFunction.LOG_FILE_START_A2);
+        ps.print(this.m_initializer.name());
+      }
+      ps.print(ObjectiveFunction.LOG_FILE_START_B);
+    } else {
+      ps.print(ObjectiveFunction.LOG_FILE_START_X);
+    }
 
-          // print some general comments and start the log data
-          // section
-          for (final char[] chs : ObjectiveFunction.HEADER_COMMENTS) {
-            ps.println(chs);
-          }
+    ps.print(this.m_benchmark.m_instance.name());
+    ps.print(ObjectiveFunction.LOG_FILE_START_C);
+    if (this.m_benchmark.m_instance.symmetric()) {
+      ps.print(ObjectiveFunction.LOG_FILE_START_DA);
+    } else {
+      ps.print(ObjectiveFunction.LOG_FILE_START_DB);
+    }
+    ps.println();
 
-          // print the log data: FE DE Time Normalized_Time F
-          // Rel_Error Reason
-          optm = (1d / opt);
-          for (i = 0; i < ls; i++) {
-            p = this.m_log[i];
-            ps.print(p.m_fe);
-            ps.print('\t');
-            ps.print(p.m_de);
-            ps.print('\t');
-            ps.print(p.m_time);
-            ps.print('\t');
-            ps.print(p.m_time / this.m_timeNormalizationFactor);
-            ps.print('\t');
-            ps.print(p.m_f);
-            ps.print('\t');
-            ps.print((p.m_f - opt) * optm);
-
-            type = p.m_type;
-            if (type != 0) {
-              ps.print('\t');
-              if ((type & ObjectiveFunction.TYPE_FLAG_OBJECTIVE) != 0) {
-                ps.print(ObjectiveFunction.TYPE_FLAG_OBJECTIVE_CHAR);
-              }
-              if ((type & ObjectiveFunction.TYPE_FLAG_FE) != 0) {
-                ps.print(ObjectiveFunction.TYPE_FLAG_FE_CHAR);
-              }
-              if ((type & ObjectiveFunction.TYPE_FLAG_DE) != 0) {
-                ps.print(ObjectiveFunction.TYPE_FLAG_DE_CHAR);
-              }
-              if ((type & ObjectiveFunction.TYPE_FLAG_INIT_END) != 0) {
-                ps.print(ObjectiveFunction.TYPE_FLAG_INIT_END_CHAR);
-              }
-              if ((type & ObjectiveFunction.TYPE_FLAG_END) != 0) {
-                ps.print(ObjectiveFunction.TYPE_FLAG_END_CHAR);
-              }
-            }
-            ps.println();
-          }
-          ps.println(ObjectiveFunction.SECTION_END);
-
-          // print best solution discovered, if at least 1 FE was
-          // performed
-          if ((ls > 0) && (this.m_log[ls - 1].m_fe > 0)) {
-            // print the comments regarding the solution and print
-            // the solution
-            for (final char[] chs : ObjectiveFunction.SOLUTION_COMMENTS) {
-              ps.println(chs);
-            }
+    // print some general comments and start the log data
+    // section
+    for (final char[] chs : ObjectiveFunction.HEADER_COMMENTS) {
+      ps.println(chs);
+    }
+  }
 
-            // print result if at least one fe was performed
-            Configurable.printKey(ObjectiveFunction.BEST_SOLUTION, ps);
-            RepresentationUtils.appendPathInNormalForm(this.m_bestX, ps);
-            ps.println();
-            SolutionValidator.validatePath(this.m_bestX,
-                this.m_currentLP.m_f, this.m_dist, ps);
-            ps.println();
-          }
+  /**
+   * Print a range of log points to the log data section.
+   *
+   * @param from
+   *          the index of the first log point to print
+   * @param to
+   *          the exclusive end index
+   * @param ps
+   *          the print stream
+   */
+  private final void __printLogPoints(final int from, final int to,
+      final PrintStream ps) {
+    final long opt;
+    final double optm;
+    int i, type;
+    LogPoint p;
 
-          // print information about the algorithm
-          if (this.m_algorithm != null) {
-            for (final char[] chs : ObjectiveFunction.ALGORITHM_INFORMATION) {
-              ps.println(chs);
-            }
-            Configurable.printKey(ObjectiveFunction.ALGORITHM_CLASS, ps);
-            Configurable.printlnClass(this.m_algorithm.getClass(), ps);
-            Configurable.printKey(ObjectiveFunction.ALGORITHM_NAME, ps);
-            ps.println(this.m_algorithm.name());
+    // print the log data: FE DE Time Normalized_Time F
+    // Rel_Error Reason
+    opt = this.m_optimum;
+    optm = (1d / opt);
+    for (i = from; i < to; i++) {
+      p = this.m_log[i];
+      ps.print(p.m_fe);
+      ps.print('\t');
+      ps.print(p.m_de);
+      ps.print('\t');
+      ps.print(p.m_time);
+      ps.print('\t');
+      ps.print(p.m_time / this.m_timeNormalizationFactor);
+      ps.print('\t');
+      ps.print(p.m_f);
+      ps.print('\t');
+      ps.print((p.m_f - opt) * optm);
+
+      type = p.m_type;
+      if (type != 0) {
+        ps.print('\t');
+        if ((type & ObjectiveFunction.TYPE_FLAG_OBJECTIVE) != 0) {
+          ps.print(ObjectiveFunction.TYPE_FLAG_OBJECTIVE_CHAR);
+        }
+        if ((type & ObjectiveFunction.TYPE_FLAG_FE) != 0) {
+          ps.print(ObjectiveFunction.TYPE_FLAG_FE_CHAR);
+        }
+        if ((type & ObjectiveFunction.TYPE_FLAG_DE) != 0) {
+          ps.print(ObjectiveFunction.TYPE_FLAG_DE_CHAR);
+        }
+        if ((type & ObjectiveFunction.TYPE_FLAG_INIT_END) != 0) {
+          ps.print(ObjectiveFunction.TYPE_FLAG_INIT_END_CHAR);
+        }
+        if ((type & ObjectiveFunction.TYPE_FLAG_END) != 0) {
+          ps.print(ObjectiveFunction.TYPE_FLAG_END_CHAR);
+        }
+      }
+      ps.println();
+    }
+  }
 
-            if (this.m_algorithm instanceof Configurable) {
-              ((Configurable) (this.m_algorithm)).printConfiguration(ps);
-            }
-          }
-          ps.println(ObjectiveFunction.SECTION_END);
+  /**
+   * Print the rest of the log file after the log points, starting with
+   * the end of the log data section.
+   *
+   * @param endTime
+   *          the end time of the run
+   * @param ps
+   *          the print stream
+   * @throws IOException
+   *           if i/o fails
+   */
+  private final void __printLogFooter(final long endTime,
+      final PrintStream ps) throws IOException {
+    final long fm, tm, mm;
+    final Runtime rt;
+    final int ls;
+    final long[] warmUp;
 
-          // print some information on the benchmark
-          for (final char[] chs : ObjectiveFunction.BENCHMARK_INFORMATION) {
-            ps.println(chs);
-          }
-          this.m_benchmark.printConfiguration(ps);
+    ps.println(ObjectiveFunction.SECTION_END);
 
-          Configurable.printKey(ObjectiveFunction.RAND_SEED, ps);
-          ps.println(this.m_randSeed);
+    // print best solution discovered, if at least 1 FE was
+    // performed
+    ls = this.m_logSize;
+    if ((ls > 0) && (this.m_log[ls - 1].m_fe > 0)) {
+      // print the comments regarding the solution and print
+      // the solution
+      for (final char[] chs : ObjectiveFunction.SOLUTION_COMMENTS) {
+        ps.println(chs);
+      }
 
-          Configurable.printKey(ObjectiveFunction.START_DATE, ps);
-          this.m_calendar.setTimeInMillis(this.m_startTime);
-          Configurable.printlnTimestamp(this.m_calendar, ps);
+      // print result if at least one fe was performed
+      Configurable.printKey(ObjectiveFunction.BEST_SOLUTION, ps);
+      RepresentationUtils.appendPathInNormalForm(this.__getBest(), ps);
+      ps.println();
+      SolutionValidator.validatePath(this.m_bestX,
+          this.m_currentLP.m_f, this.m_dist, ps);
+      ps.println();
+    }
 
-          Configurable.printKey(ObjectiveFunction.END_DATE, ps);
-          this.m_calendar.setTimeInMillis(t);
-          Configurable.printlnTimestamp(this.m_calendar, ps);
+    // print information about the algorithm
+    if (this.m_algorithm != null) {
+      for (final char[] chs : ObjectiveFunction.ALGORITHM_INFORMATION) {
+        ps.println(chs);
+      }
+      Configurable.printKey(ObjectiveFunction.ALGORITHM_CLASS, ps);
+      Configurable.printlnClass(this.m_algorithm.getClass(), ps);
+      Configurable.printKey(ObjectiveFunction.ALGORITHM_NAME, ps);
+      ps.println(this.m_algorithm.name());
 
-          Configurable.printKey(ObjectiveFunction.RUN_TIME, ps);
-          ps.println(this.m_currentLP.m_time);
-          ps.println(ObjectiveFunction.SECTION_END);
+      if (this.m_algorithm instanceof Configurable) {
+        ((Configurable) (this.m_algorithm)).printConfiguration(ps);
+      }
+    }
+    ps.println(ObjectiveFunction.SECTION_END);
 
-          // if an initialization algorithm was used, print
-          // corresponding data
-          if (this.m_initializer != null) {
-            for (final char[] chs : ObjectiveFunction.INITIALIZER_INFORMATION) {
-              ps.println(chs);
-            }
+    // print some information on the benchmark
+    for (final char[] chs : ObjectiveFunction.BENCHMARK_INFORMATION) {
+      ps.println(chs);
+    }
+    this.m_benchmark.printConfiguration(ps);
 
-            Configurable.printKey(ObjectiveFunction.INITIALIZER_CLASS, ps);
-            Configurable.printlnClass(this.m_initializer.getClass(), ps);
-            Configurable.printKey(ObjectiveFunction.INITIALIZER_NAME, ps);
-            ps.println(this.m_initializer.name());
+    Configurable.printKey(ObjectiveFunction.RAND_SEED, ps);
+    ps.println(this.m_randSeed);
 
-            Configurable.printKey(ObjectiveFunction.INITIALIZATION_F, ps);
-            ps.println(this.m_initLP.m_f);
+    Configurable.printKey(ObjectiveFunction.START_DATE, ps);
+    this.m_calendar.setTimeInMillis(this.m_startTime);
+    Configurable.printlnTimestamp(this.m_calendar, ps);
 
-            Configurable
-                .printKey(ObjectiveFunction.INITIALIZATION_DES, ps);
-            ps.println(this.m_initLP.m_de);
+    Configurable.printKey(ObjectiveFunction.END_DATE, ps);
+    this.m_calendar.setTimeInMillis(endTime);
+    Configurable.printlnTimestamp(this.m_calendar, ps);
 
-            Configurable
-                .printKey(ObjectiveFunction.INITIALIZATION_FES, ps);
-            ps.println(this.m_initLP.m_fe);
+    Configurable.printKey(ObjectiveFunction.RUN_TIME, ps);
+    ps.println(this.m_currentLP.m_time);
+    ps.println(ObjectiveFunction.SECTION_END);
 
-            Configurable.printKey(
-                ObjectiveFunction.INITIALIZATION_RUNTIME, ps);
-            ps.println(this.m_initLP.m_time);
+    // if an initialization algorithm was used, print
+    // corresponding data
+    if (this.m_initializer != null) {
+      for (final char[] chs : ObjectiveFunction.INITIALIZER_INFORMATION) {
+        ps.println(chs);
+      }
 
-            Configurable.printKey(
-                ObjectiveFunction.INITIALIZATION_RAND_SEED, ps);
-            ps.println(this.m_i_randSeed);
+      Configurable.printKey(ObjectiveFunction.INITIALIZER_CLASS, ps);
+      Configurable.printlnClass(this.m_initializer.getClass(), ps);
+      Configurable.printKey(ObjectiveFunction.INITIALIZER_NAME, ps);
+      ps.println(this.m_initializer.name());
 
-            Configurable.printKey(
-                ObjectiveFunction.INITIALIZATION_START_TIME, ps);
-            this.m_calendar.setTimeInMillis(this.m_i_startTime);
-            Configurable.printlnTimestamp(this.m_calendar, ps);
+      Configurable.printKey(ObjectiveFunction.INITIALIZATION_F, ps);
+      ps.println(this.m_initLP.m_f);
 
-            Configurable.printKey(
-                ObjectiveFunction.INITIALIZATION_END_TIME, ps);
-            this.m_calendar.setTimeInMillis(this.m_i_endTime);
-            Configurable.printlnTimestamp(this.m_calendar, ps);
+      Configurable
+          .printKey(ObjectiveFunction.INITIALIZATION_DES, ps);
+      ps.println(this.m_initLP.m_de);
 
-            if (this.m_initializer instanceof Configurable) {
-              ((Configurable) (this.m_initializer)).printConfiguration(ps);
-            }
+      Configurable
+          .printKey(ObjectiveFunction.INITIALIZATION_FES, ps);
+      ps.println(this.m_initLP.m_fe);
 
-            ps.println(ObjectiveFunction.SECTION_END);
-
-            // if initializer did perform at least 1 FE, print its
-            // result too
-            if (this.m_initLP.m_fe > 0l) {
-              // print initializer solution, if available
-              ps.println(ObjectiveFunction.COMMENT_START);
-              Configurable.printKey(
-                  ObjectiveFunction.INITIALIZATION_SOLUTION, ps);
-              RepresentationUtils.appendPathInNormalForm(this.m_i_bestX,
-                  ps);
-              ps.println();
-              SolutionValidator.validatePath(this.m_i_bestX,
-                  this.m_initLP.m_f, this.m_dist, ps);
-              ps.println();
-            }
-          }
+      Configurable.printKey(
+          ObjectiveFunction.INITIALIZATION_RUNTIME, ps);
+      ps.println(this.m_initLP.m_time);
 
-          // print potential exception of the initializer
-          if (this.m_exceptionDuringInit != null) {
-            ObjectiveFunction.__printException(this.m_exceptionDuringInit,
-                ObjectiveFunction.INITIALIZATION_EXCEPTION, ps);
-          }
+      Configurable.printKey(
+          ObjectiveFunction.INITIALIZATION_RAND_SEED, ps);
+      ps.println(this.m_i_randSeed);
 
-          // print potential exception of the algorithm
-          if (this.m_exceptionDuringRun != null) {
-            ObjectiveFunction.__printException(this.m_exceptionDuringRun,
-                ObjectiveFunction.ALGORITHM_EXCEPTION, ps);
-            this.m_exceptionDuringRun = null;
-          }
+      Configurable.printKey(
+          ObjectiveFunction.INITIALIZATION_START_TIME, ps);
+      this.m_calendar.setTimeInMillis(this.m_i_startTime);
+      Configurable.printlnTimestamp(this.m_calendar, ps);
 
-          // now let's print system information, such as OS, java
-          // version, etc
-          for (final char[] chs : ObjectiveFunction.SYSTEM_INFORMATION) {
-            ps.println(chs);
-          }
+      Configurable.printKey(
+          ObjectiveFunction.INITIALIZATION_END_TIME, ps);
+      this.m_calendar.setTimeInMillis(this.m_i_endTime);
+      Configurable.printlnTimestamp(this.m_calendar, ps);
 
-          Configurable.printKey(
-              ObjectiveFunction.RUNTIME_NORMALIZATION_FACTOR, ps);
-          ps.println(this.m_timeNormalizationFactor);
+      if (this.m_initializer instanceof Configurable) {
+        ((Configurable) (this.m_initializer)).printConfiguration(ps);
+      }
 
-          for (final String s : ObjectiveFunction.SYS_INFOS) {
-            final String v = System.getProperty(s);
-            if (v != null) {
-              Configurable.printKey(ObjectiveFunction.SYS_PROP_PREFIX + s,
-                  ps);
-              ps.println(v);
-            }
-          }
+      ps.println(ObjectiveFunction.SECTION_END);
+
+      // if initializer did perform at least 1 FE, print its
+      // result too
+      if (this.m_initLP.m_fe > 0l) {
+        // print initializer solution, if available
+        ps.println(ObjectiveFunction.COMMENT_START);
+        Configurable.printKey(
+            ObjectiveFunction.INITIALIZATION_SOLUTION, ps);
+        RepresentationUtils.appendPathInNormalForm(this.m_i_bestX,
+            ps);
+        ps.println();
+        SolutionValidator.validatePath(this.m_i_bestX,
+            this.m_initLP.m_f, this.m_dist, ps);
+        ps.println();
+      }
+    }
 
-          for (final String s : ObjectiveFunction.ENV_INFOS) {
-            final String v = System.getenv(s);
-            if (v != null) {
-              Configurable.printKey(ObjectiveFunction.ENV_VAR_PREFIX + s,
-                  ps);
-              ps.println(v);
-            }
-          }
+    // print potential exception of the initializer
+    if (this.m_exceptionDuringInit != null) {
+      ObjectiveFunction.__printException(this.m_exceptionDuringInit,
+          ObjectiveFunction.INITIALIZATION_EXCEPTION, ps);
+    }
 
-          // print infos such as number of processors and memory
-          rt = Runtime.getRuntime();
-          tm = rt.totalMemory();
-          fm = rt.freeMemory();
-          mm = rt.maxMemory();
-          Configurable.printKey(ObjectiveFunction.PROCESSORS, ps);
-          ps.println(rt.availableProcessors());
+    // print potential exception of the algorithm
+    if (this.m_exceptionDuringRun != null) {
+      ObjectiveFunction.__printException(this.m_exceptionDuringRun,
+          ObjectiveFunction.ALGORITHM_EXCEPTION, ps);
+      this.m_exceptionDuringRun = null;
+    }
 
-          Configurable.printKey(ObjectiveFunction.FREE_MEMORY, ps);
-          ps.println(fm);
+    // now let's print system information, such as OS, java
+    // version, etc
+    for (final char[] chs : ObjectiveFunction.SYSTEM_INFORMATION) {
+      ps.println(chs);
+    }
 
-          Configurable.printKey(ObjectiveFunction.MAX_MEMORY, ps);
-          ps.println(mm);
+    Configurable.printKey(
+        ObjectiveFunction.RUNTIME_NORMALIZATION_FACTOR, ps);
+    ps.println(this.m_timeNormalizationFactor);
+    _Calibration._printKernels(ps);
+
+    if (this.m_algorithm != null) {
+      warmUp = ObjectiveFunction.__getWarmUp(this.m_algorithm.getClass());
+      if (warmUp != null) {
+        Configurable.printKey(ObjectiveFunction.WARM_UP_RUNS, ps);
+        ps.println(warmUp[0]);
+        Configurable.printKey(ObjectiveFunction.WARM_UP_TIME, ps);
+        ps.println(warmUp[1]);
+      }
+    }
 
-          Configurable.printKey(ObjectiveFunction.TOTAL_MEMORY, ps);
-          ps.println(tm);
+    if (this.m_resumes > 0) {
+      Configurable.printKey(ObjectiveFunction.RESUMES, ps);
+      ps.println(this.m_resumes);
+    }
 
-          ps.println(ObjectiveFunction.SECTION_END);
+    for (final String s : ObjectiveFunction.SYS_INFOS) {
+      final String v = System.getProperty(s);
+      if (v != null) {
+        Configurable.printKey(ObjectiveFunction.SYS_PROP_PREFIX + s,
+            ps);
+        ps.println(v);
+      }
+    }
 
-          // print information about the person/group who did this
-          // experiment
-          if ((this.m_creator != null) && (!(this.m_creator.isEmpty()))) {
-            for (final char[] chs : ObjectiveFunction.CREATOR_INFORMATION) {
-              ps.println(chs);
-            }
-            this.m_creator.printConfiguration(ps);
-            ps.println(ObjectiveFunction.SECTION_END);
-          }
-        }
-      } catch (final Throwable txt) {
-        throw new RuntimeException(txt);
+    for (final String s : ObjectiveFunction.ENV_INFOS) {
+      final String v = System.getenv(s);
+      if (v != null) {
+        Configurable.printKey(ObjectiveFunction.ENV_VAR_PREFIX + s,
+            ps);
+        ps.println(v);
       }
-    } finally {
-      this.m_terminate = true;
-      this.m_logSize = 0;
-      this.m_state = ObjectiveFunction.STATE_NOTHING;
+    }
+
+    // print infos such as number of processors and memory
+    rt = Runtime.getRuntime();
+    tm = rt.totalMemory();
+    fm = rt.freeMemory();
+    mm = rt.maxMemory();
+    Configurable.printKey(ObjectiveFunction.PROCESSORS, ps);
+    ps.println(rt.availableProcessors());
+
+    Configurable.printKey(ObjectiveFunction.FREE_MEMORY, ps);
+    ps.println(fm);
+
+    Configurable.printKey(ObjectiveFunction.MAX_MEMORY, ps);
+    ps.println(mm);
+
+    Configurable.printKey(ObjectiveFunction.TOTAL_MEMORY, ps);
+    ps.println(tm);
+
+    if (this.m_cachedDist instanceof DistanceCache) {
+      Configurable.printKey(ObjectiveFunction.DISTANCE_CACHE_HITS,
+          ps);
+      ps.println(((DistanceCache) (this.m_cachedDist)).getHits());
+      Configurable.printKey(
+          ObjectiveFunction.DISTANCE_CACHE_MISSES, ps);
+      ps.println(((DistanceCache) (this.m_cachedDist)).getMisses());
+    }
+
+    ps.println(ObjectiveFunction.SECTION_END);
+
+    // print information about the person/group who did this
+    // experiment
+    if ((this.m_creator != null) && (!(this.m_creator.isEmpty()))) {
+      for (final char[] chs : ObjectiveFunction.CREATOR_INFORMATION) {
+        ps.println(chs);
+      }
+      this.m_creator.printConfiguration(ps);
+      ps.println(ObjectiveFunction.SECTION_END);
+    }
+  }
+
+  /**
+   * Dispose this objective function: return its reference to the distance
+   * data shared by all objective functions for the same problem instance.
+   * When the last objective function for an instance has been disposed,
+   * the distance data is evicted and can be garbage collected. This
+   * method should be called once the objective function will not be used
+   * for any further run. Calling it more than once has no effect.
+   */
+  public final void dispose() {
+    final _SharedDistance shared;
+
+    if (this.m_state != ObjectiveFunction.STATE_NOTHING) {
+      throw new IllegalStateException(
+          "Cannot dispose objective function while a run or deterministic initialization procedure is ongoing."); //$NON-NLS-1$
+    }
+
+    shared = this.m_shared;
+    if (shared != null) {
+      this.m_shared = null;
+      _SharedDistance._release(shared);
     }
   }
 
@@ -3706,6 +4365,8 @@ public final class ObjectiveFunction extends DistanceComputer {
    */
   final void _clear() {
     this.m_terminate = true;
+    _TerminationThread._dequeue(this);
+    this.__closeLog();
 
     this.m_currentLP.initExtreme();
     this.m_lastImprovementLP.initExtreme();
@@ -3713,7 +4374,11 @@ public final class ObjectiveFunction extends DistanceComputer {
 
     this.m_state = ObjectiveFunction.STATE_NOTHING;
     this.m_logSize = 0;
+    this.m_logWritten = 0;
     this.m_file = null;
+    this.m_checkpointFile = null;
+    this.m_resumeState = null;
+    this.m_resumes = 0;
 
     this.m_feIdx = (this.m_FEsDEsToLog.length - 1);
     this.m_nextFE = this.m_FEsDEsToLog[this.m_feIdx];
@@ -3749,6 +4414,46 @@ public final class ObjectiveFunction extends DistanceComputer {
     this.m_exceptionDuringRun = null;
   }
 
+  /**
+   * Record a warm-up run
+   *
+   * @param clazz
+   *          the algorithm class
+   * @param time
+   *          the runtime of the warm-up run in milliseconds
+   */
+  private static final void __recordWarmUp(final Class<?> clazz,
+      final long time) {
+    long[] w;
+
+    synchronized (ObjectiveFunction.WARM_UPS) {
+      w = ObjectiveFunction.WARM_UPS.get(clazz);
+      if (w == null) {
+        w = new long[2];
+        ObjectiveFunction.WARM_UPS.put(clazz, w);
+      }
+      w[0]++;
+      w[1] += time;
+    }
+  }
+
+  /**
+   * Get the warm-up runs performed with an algorithm class
+   *
+   * @param clazz
+   *          the algorithm class
+   * @return the number of warm-up runs and their total runtime, or
+   *         {@code null} if there were none
+   */
+  private static final long[] __getWarmUp(final Class<?> clazz) {
+    final long[] w;
+
+    synchronized (ObjectiveFunction.WARM_UPS) {
+      w = ObjectiveFunction.WARM_UPS.get(clazz);
+      return ((w != null) ? w.clone() : null);
+    }
+  }
+
   /**
    * print an exception to the log
    *
@@ -3788,47 +4493,166 @@ public final class ObjectiveFunction extends DistanceComputer {
     return this.m_creator;
   }
 
+  /**
+   * <p>
+   * Get an immutable data structure computed from the distances of the
+   * problem instance, such as a candidate set, which has been
+   * {@link #putSharedData(Object, Object) stored} by an earlier run. If
+   * the benchmark
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_SHARE_PRECOMPUTATIONS
+   * allows sharing}, such data is shared by all objective functions for
+   * the same instance, even by those of different benchmarks, so that it
+   * needs to be computed only once.
+   * </p>
+   * <p>
+   * An algorithm using shared data must still account for its cost: it
+   * should register the distance evaluations (DEs) it would have needed to
+   * compute the data via {@link #rawDistances()}, so that its results do
+   * not depend on whether sharing is enabled or not. Shared data must
+   * never be modified.
+   * </p>
+   *
+   * @param key
+   *          the key identifying the data, which should include all
+   *          parameters of its computation
+   * @return the shared data, or {@code null} if no data is stored under
+   *         the key or sharing is not allowed
+   */
+  public final Object getSharedData(final Object key) {
+    final _SharedDistance shared;
+
+    shared = this.m_shared;
+    if ((shared == null) || (!(this.m_benchmark.m_sharePrecomputations))) {
+      return null;
+    }
+    return shared._getData(key);
+  }
+
+  /**
+   * Store an immutable data structure computed from the distances of the
+   * problem instance so that other runs can obtain it via
+   * {@link #getSharedData(Object)}. If other data has already been stored
+   * under the same key, e.g., by another thread, the old data is kept and
+   * returned. The stored data must not be modified afterwards.
+   *
+   * @param key
+   *          the key identifying the data, which should include all
+   *          parameters of its computation
+   * @param data
+   *          the data
+   * @return the data now stored under the key, or {@code null} if sharing
+   *         is not allowed and {@code data} has not been stored
+   */
+  public final Object putSharedData(final Object key, final Object data) {
+    final _SharedDistance shared;
+
+    shared = this.m_shared;
+    if ((shared == null) || (!(this.m_benchmark.m_sharePrecomputations))
+        || (data == null)) {
+      return null;
+    }
+    return shared._putData(key, data);
+  }
+
   /** {@inheritDoc} */
   @Override
   public final int distance(final int i, final int j) {
     final long de;
-    final LogPoint cur;
 
-    cur = this.m_currentLP;
-    de = (++cur.m_de);
+    de = (++this.m_currentLP.m_de);
 
     // check if we reached a DE check point
     if (de >= this.m_nextDE) {
-
       // if so, this is a reason for logging, but the logging can only
-      // take
-      // place in the __register function, as here we do not have an
-      // objective
-      // function value
-      this.m_shouldLog = true;
-      cur.m_type |= ObjectiveFunction.TYPE_FLAG_DE;
+      // take place in the __register function, as here we do not have an
+      // objective function value
+      this.__passedDECheckPoint(de);
+    }
 
-      // find the next DE check point
-      do {
-        if ((--this.m_deIdx) < 0) {
-          // ok, no more check points: we should terminate
-          this.m_terminate = true;
-          break;
-        }
-        this.m_nextDE = this.m_FEsDEsToLog[this.m_deIdx];
-      } while (de >= this.m_nextDE);
-
-      // as the maximum DE will also be a check point, we check if we
-      // reached
-      // it. we do not need to check this outside of this if, because, as
-      // said,
-      // it will be a check point DE
-      if (de >= this.m_maxDEs) {
+    return this.m_cachedDist.distance(i, j);
+  }
+
+  /**
+   * A DE check point has been reached or passed: mark that a log point
+   * should be taken at the next registered FE, find the next DE check
+   * point, and check whether the DE limit has been reached.
+   *
+   * @param de
+   *          the current number of DEs
+   */
+  private final void __passedDECheckPoint(final long de) {
+    this.m_shouldLog = true;
+    this.m_currentLP.m_type |= ObjectiveFunction.TYPE_FLAG_DE;
+
+    // find the next DE check point
+    do {
+      if ((--this.m_deIdx) < 0) {
+        // ok, no more check points: we should terminate
         this.m_terminate = true;
+        break;
       }
+      this.m_nextDE = this.m_FEsDEsToLog[this.m_deIdx];
+    } while (de >= this.m_nextDE);
+
+    // as the maximum DE will also be a check point, we check if we
+    // reached it. we do not need to check this outside of this if,
+    // because, as said, it will be a check point DE
+    if (de >= this.m_maxDEs) {
+      this.m_terminate = true;
     }
+  }
+
+  /**
+   * <p>
+   * Open a scope in which the distances can be accessed directly, without
+   * the bookkeeping of {@link #distance(int, int)}. The algorithm counts
+   * the distance evaluations (DEs) it performs inside the scope by itself
+   * and they are registered in bulk when the scope is closed. See
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.RawDistances}
+   * for details.
+   * </p>
+   * <p>
+   * The returned object is re-used for all scopes of this objective
+   * function, so opening a scope does not allocate memory.
+   * </p>
+   *
+   * @return the scope, to be closed after use
+   * @throws IllegalStateException
+   *           if no run or initialization is in progress or if a scope is
+   *           already open
+   */
+  public final RawDistances rawDistances() {
+    RawDistances raw;
 
-    return this.m_dist.distance(i, j);
+    if (this.m_state == ObjectiveFunction.STATE_NOTHING) {
+      throw new IllegalStateException(//
+          "Raw distances can only be used during a run or initialization."); //$NON-NLS-1$
+    }
+
+    raw = this.m_raw;
+    if (raw == null) {
+      this.m_raw = raw = new RawDistances(this);
+    }
+    raw._open(this.m_cachedDist);
+    return raw;
+  }
+
+  /**
+   * Register distance evaluations (DEs) which have been performed inside
+   * a {@link #rawDistances() raw distance scope}.
+   *
+   * @param des
+   *          the number of DEs
+   */
+  final void _registerDEs(final long des) {
+    final long de;
+
+    if (des > 0l) {
+      de = (this.m_currentLP.m_de += des);
+      if (de >= this.m_nextDE) {
+        this.__passedDECheckPoint(de);
+      }
+    }
   }
 
   /**
@@ -3863,6 +4687,50 @@ public final class ObjectiveFunction extends DistanceComputer {
     return f;
   }
 
+  /**
+   * <p>
+   * Evaluate a batch of candidate solutions in <a
+   * href="#pathRepresentation">path representation</a>, i.e., set
+   * {@code out[i]} to the total length of the circular tour
+   * {@code tours[i]} for all {@code i} in {@code 0..tours.length-1}. This
+   * is equivalent to calling {@link #evaluate(int[])} for each tour in
+   * turn: It leads to the registration of {@code tours.length FEs} and
+   * {@code tours.length*n DEs} and improvements are recorded in the order
+   * of the tours. The tour lengths, however, are computed in one batch by
+   * the underlying distance computer, which is faster for coordinate-based
+   * instances (see
+   * {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer#evaluate(int[][], long[])}
+   * ).
+   * </p>
+   *
+   * @param tours
+   *          the candidate solutions to be evaluated
+   * @param out
+   *          the destination array for the total resulting tour lengths,
+   *          must have at least the length of {@code tours}
+   * @see #evaluate(int[])
+   */
+  @Override
+  public final void evaluate(final int[][] tours, final long[] out) {
+    int i, best;
+
+    this.m_dist.evaluate(tours, out);
+
+    // only the last improvement in the batch, i.e., the first occurrence
+    // of its best tour length, needs to be copied
+    best = 0;
+    for (i = 1; i < tours.length; i++) {
+      if (out[i] < out[best]) {
+        best = i;
+      }
+    }
+
+    for (i = 0; i < tours.length; i++) {
+      this.__register(1l, ((i == best) ? tours[i] : null), out[i], true,
+          false);
+    }
+  }
+
   /**
    * <p>
    * Register that a new candidate solution in <a
@@ -4111,7 +4979,56 @@ public final class ObjectiveFunction extends DistanceComputer {
    */
   private final boolean __register(final long fes, final int[] nodes,
       final long f, final boolean countDEs, final boolean adj) {
-    final long fe, de, t;
+    final LogPoint cur;
+    final long fe, de;
+
+    cur = this.m_currentLP;
+
+    // count the function evaluations and, if requested, the DEs
+    fe = (cur.m_fe += fes);
+    de = (countDEs ? (cur.m_de += (fes * this.m_n)) : cur.m_de);
+
+    // fast path: no improvement, no check point passed, and no pending
+    // log point - this is what happens in the vast majority of all calls;
+    // the DEs only matter if they were counted, as in the slow path
+    if ((f >= cur.m_f) & (fe < this.m_nextFE)
+        & ((!countDEs) | (de < this.m_nextDE)) & (!(this.m_shouldLog))) {
+      return false;
+    }
+
+    return this.__registerSlow(nodes, f, fe, de, countDEs, adj);
+  }
+
+  /**
+   * The slow path of
+   * {@link #__register(long, int[], long, boolean, boolean)}, which is
+   * only entered if the solution is an improvement, if an FE or DE check
+   * point has been passed, or if a log point is pending. The FEs and DEs
+   * have already been counted.
+   *
+   * @param nodes
+   *          the solution, or {@code null}
+   * @param f
+   *          its objective value
+   * @param fe
+   *          the new number of FEs
+   * @param de
+   *          the new number of DEs
+   * @param countDEs
+   *          were DEs counted for this registration?
+   * @param adj
+   *          {@code true} if {@code nodes} is in <a
+   *          href="#adjacencyRepresentation">
+   *          <em>adjacency representation</em></a>, {@code false} if it is
+   *          in <a href="#pathRepresentation"><em>path representation</em>
+   *          </a>
+   * @return {@code true} if the registered solution was an improvement,
+   *         {@code false} otherwise
+   */
+  private final boolean __registerSlow(final int[] nodes, final long f,
+      final long fe, final long de, final boolean countDEs,
+      final boolean adj) {
+    final long t;
     final LogPoint cur;
     final boolean improved;
 
@@ -4121,15 +5038,18 @@ public final class ObjectiveFunction extends DistanceComputer {
     improved = (f < cur.m_f);
     if (improved) {
 
-      // then let us remember this improvement and copy the solution
+      // then let us remember this improvement and copy the solution: an
+      // adjacency list is only converted to a path when it is needed
       this.m_fimproved = true;
       cur.m_f = f;
       if (nodes != null) {
         if (adj) {
-          RepresentationUtils.adjacencyListToPath(nodes, this.m_bestX);
+          System.arraycopy(nodes, 0, this.m_bestAdj, 0,
+              this.m_bestAdj.length);
         } else {
           System.arraycopy(nodes, 0, this.m_bestX, 0, this.m_bestX.length);
         }
+        this.m_bestIsAdj = adj;
       }
 
       // did we pass an objective value threshold?
@@ -4154,8 +5074,6 @@ public final class ObjectiveFunction extends DistanceComputer {
       }
     }
 
-    // count the function evaluations
-    fe = (cur.m_fe += fes);
     if (fe >= this.m_nextFE) {// did we pass a check point?
       this.m_shouldLog = true;
       cur.m_type |= ObjectiveFunction.TYPE_FLAG_FE;
@@ -4177,32 +5095,9 @@ public final class ObjectiveFunction extends DistanceComputer {
       }
     }
 
-    // should we count the DEs?
-    if (countDEs) {
-      // if so, we add the DEs
-      de = (cur.m_de += (fes * this.m_n));
-
-      // did we pass a check point?
-      if (de >= this.m_nextDE) {
-        this.m_shouldLog = true;
-        cur.m_type |= ObjectiveFunction.TYPE_FLAG_DE;
-
-        // find the next check point
-        do {
-          if ((--this.m_deIdx) < 0) {// no next check point? quit!
-            this.m_terminate = true;
-            break;
-          }
-          this.m_nextDE = this.m_FEsDEsToLog[this.m_deIdx];
-        } while (de >= this.m_nextDE);
-
-        // the maximum DE limit will always be a check point, so we only
-        // need
-        // to check it here
-        if (de >= this.m_maxDEs) {
-          this.m_terminate = true;
-        }
-      }
+    // did we pass a DE check point?
+    if (countDEs && (de >= this.m_nextDE)) {
+      this.__passedDECheckPoint(de);
     }
 
     // we did not log but found an improvement: update internal point
@@ -4223,6 +5118,9 @@ public final class ObjectiveFunction extends DistanceComputer {
         this.m_fimproved = false;
         this.m_log[this.m_logSize++]._assign(cur);
         cur.m_type = 0;
+        if (this.m_logOut != null) {
+          this.__streamLog();
+        }
       }
 
       if (improved) {
@@ -4233,6 +5131,20 @@ public final class ObjectiveFunction extends DistanceComputer {
     return improved;
   }
 
+  /**
+   * Get the best solution in path representation, converting it from
+   * adjacency representation first if necessary.
+   *
+   * @return the best solution in path representation
+   */
+  private final int[] __getBest() {
+    if (this.m_bestIsAdj) {
+      RepresentationUtils.adjacencyListToPath(this.m_bestAdj, this.m_bestX);
+      this.m_bestIsAdj = false;
+    }
+    return this.m_bestX;
+  }
+
   /**
    * Get a copy of the best candidate solution discovered in this run in <a
    * href="#pathRepresentation"><em>path representation</em></a>. This is
@@ -4251,7 +5163,7 @@ public final class ObjectiveFunction extends DistanceComputer {
    */
   public final void getCopyOfBest(final int[] nodes) {
     if (this.m_currentLP.m_fe > 0l) {
-      System.arraycopy(this.m_bestX, 0, nodes, 0, this.m_bestX.length);
+      System.arraycopy(this.__getBest(), 0, nodes, 0, this.m_bestX.length);
     } else {
       throw new IllegalStateException(//
           "No solution has been generated so far."); //$NON-NLS-1$
@@ -4282,7 +5194,12 @@ public final class ObjectiveFunction extends DistanceComputer {
    */
   public final void getCopyOfBestAdj(final int[] adjacencyList) {
     if (this.m_currentLP.m_fe > 0l) {
-      RepresentationUtils.pathToAdjacencyList(this.m_bestX, adjacencyList);
+      if (this.m_bestIsAdj) {
+        System.arraycopy(this.m_bestAdj, 0, adjacencyList, 0,
+            this.m_bestAdj.length);
+      } else {
+        RepresentationUtils.pathToAdjacencyList(this.m_bestX, adjacencyList);
+      }
     } else {
       throw new IllegalStateException(//
           "No solution has been generated so far."); //$NON-NLS-1$
@@ -4377,6 +5294,37 @@ public final class ObjectiveFunction extends DistanceComputer {
     this.m_terminate = true;
   }
 
+  /**
+   * Cancel the current run from the outside, e.g., because the benchmarking
+   * process is shut down. This method may be called by any thread. As with
+   * {@link #terminate()}, {@link #shouldTerminate()} becomes {@code true}
+   * and the algorithm should return as soon as possible. Different from a
+   * terminated run, a cancelled run does not count as finished: Its log
+   * file is still written by {@link #endRun()}, but the run is marked as
+   * failed in the run ledger of the benchmark, so that it will be
+   * performed again (and its log file overwritten) the next time the
+   * benchmark is resumed. A cancelled run thus never contributes a
+   * truncated result. The cancellation ends with the run, i.e., it is
+   * reset by {@link #beginRun(NamedObject)}.
+   *
+   * @see #terminate()
+   * @see #isRunCancelled()
+   */
+  public final void cancelRun() {
+    this.m_cancelled = true;
+    this.m_terminate = true;
+  }
+
+  /**
+   * Has the current (or last) run been {@link #cancelRun() cancelled}?
+   *
+   * @return {@code true} if the current or last run has been cancelled,
+   *         {@code false} otherwise
+   */
+  public final boolean isRunCancelled() {
+    return this.m_cancelled;
+  }
+
   /**
    * Is the problem symmetric?
    *
@@ -0,0 +1,141 @@
+package org.logisticPlanning.tsp.benchmarking.objective;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+
+/**
+ * <p>
+ * A scope in which an algorithm may access the distances of the problem
+ * instance directly, without the bookkeeping done by
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#distance(int, int)}
+ * . Such a scope is obtained via
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#rawDistances()}
+ * and should be used in a {@code try}-with-resources statement:
+ * </p>
+ *
+ * <pre>
+ * try (final RawDistances raw = f.rawDistances()) {
+ *   dist = raw.getDistanceComputer();
+ *   ... // many calls to dist.distance(i, j)
+ *   raw.addDEs(count);
+ * }
+ * </pre>
+ * <p>
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#distance(int, int)}
+ * counts one distance evaluation (DE) per call and checks whether a log
+ * check point has been reached. In tight inner loops, this prevents the
+ * JIT compiler from inlining the actual (often very cheap) distance
+ * look-up. Inside a scope, the algorithm instead uses the
+ * {@link #getDistanceComputer() distance computer} directly and counts
+ * its distance evaluations by itself via {@link #addDEs(long)}. When the
+ * scope is {@link #close() closed}, all counted DEs are registered at
+ * once. The DE check points and the DE-based termination criterion then
+ * behave exactly as if the DEs had been registered one by one: the next
+ * log point is taken at the next registered function evaluation.
+ * </p>
+ * <p>
+ * An algorithm <em>must</em> honestly count every distance evaluation it
+ * performs inside the scope, otherwise its results are not comparable.
+ * It should close the scope before it registers function evaluations, so
+ * that the log points contain the correct number of DEs. Scopes cannot
+ * be nested and a scope object must not be used after it was closed.
+ * </p>
+ */
+public final class RawDistances implements AutoCloseable {
+
+  /** the owning objective function */
+  private final ObjectiveFunction m_f;
+
+  /** the distance computer, or {@code null} if the scope is closed */
+  private DistanceComputer m_dist;
+
+  /** the DEs counted in the current scope */
+  private long m_des;
+
+  /**
+   * create the raw distance scope
+   *
+   * @param f
+   *          the owning objective function
+   */
+  RawDistances(final ObjectiveFunction f) {
+    super();
+    this.m_f = f;
+  }
+
+  /**
+   * open the scope
+   *
+   * @param dist
+   *          the distance computer
+   */
+  final void _open(final DistanceComputer dist) {
+    if (this.m_dist != null) {
+      throw new IllegalStateException(//
+          "Raw distance scopes cannot be nested."); //$NON-NLS-1$
+    }
+    this.m_des = 0l;
+    this.m_dist = dist;
+  }
+
+  /**
+   * Get the distance computer which can be used directly inside this
+   * scope. Each call to its
+   * {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer#distance(int, int)}
+   * method must be accounted for by {@link #addDEs(long)}. Its
+   * {@code evaluate} methods must not be used.
+   *
+   * @return the distance computer
+   * @throws IllegalStateException
+   *           if the scope has already been closed
+   */
+  public final DistanceComputer getDistanceComputer() {
+    if (this.m_dist == null) {
+      throw new IllegalStateException(//
+          "Raw distance scope has already been closed."); //$NON-NLS-1$
+    }
+    return this.m_dist;
+  }
+
+  /**
+   * Count distance evaluations (DEs) performed inside this scope.
+   *
+   * @param des
+   *          the number of DEs
+   * @throws IllegalArgumentException
+   *           if {@code des<0}
+   */
+  public final void addDEs(final long des) {
+    if (des < 0l) {
+      throw new IllegalArgumentException(//
+          "Number of DEs cannot be negative, but is " + des); //$NON-NLS-1$
+    }
+    this.m_des += des;
+  }
+
+  /**
+   * Get the number of distance evaluations (DEs) counted in this scope so
+   * far.
+   *
+   * @return the number of DEs counted in this scope so far
+   */
+  public final long getDEs() {
+    return this.m_des;
+  }
+
+  /**
+   * Close the scope and register all counted distance evaluations (DEs)
+   * at the objective function. Closing an already closed scope has no
+   * effect.
+   */
+  @Override
+  public final void close() {
+    final long des;
+
+    if (this.m_dist != null) {
+      this.m_dist = null;
+      des = this.m_des;
+      this.m_des = 0l;
+      this.m_f._registerDEs(des);
+    }
+  }
+}
@@ -0,0 +1,716 @@
+package org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.io.FileUtils;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * The calibration of the <a
+ * href="ObjectiveFunction.html#runtimeNormalization">runtime
+ * normalization</a> on the current machine. Measuring the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective._SpeedBenchmark
+ * standardized algorithm} anew for every objective function costs at
+ * least ten times the runtime of the algorithm on the instance, plus a
+ * warm-up phase, and yields slightly different factors for runs on the
+ * same machine. Therefore, the normalization factor of an instance is
+ * measured only once per machine and distance representation and then
+ * re-used by all objective functions in the process. It is also stored in
+ * a calibration file named {@value #FILE_PREFIX} followed by a hash of the
+ * machine fingerprint in the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_CALIBRATION_DIR
+ * calibration directory}, from where it is loaded again in later
+ * processes.
+ * </p>
+ * <p>
+ * The fingerprint of a machine consists of the operating system, the
+ * processor model and number, the JVM, and the maximum heap size, i.e.,
+ * of everything that influences the speed of the standardized algorithm
+ * and does not change between runs. A calibration file whose fingerprint
+ * does not match the current machine is ignored.
+ * </p>
+ * <p>
+ * The normalization factor captures the speed of the machine only for
+ * the instance it was measured on. For comparing machines independently
+ * of instances, the calibration furthermore measures a few kernels which
+ * dominate the runtime of most TSP algorithms, namely random look-ups in
+ * a distance matrix, distance computations from coordinates, the
+ * evaluation of 2-opt moves, and the evaluation of complete tours, each
+ * at several problem sizes, so that both cache-resident and memory-bound
+ * behavior is covered. The kernel runtimes, in nanoseconds per operation,
+ * are stored in the calibration file as well and are printed into the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#SYSTEM_DATA_SECTION
+ * system data section} of each log file.
+ * </p>
+ * <p>
+ * Several processes may share one calibration file: before the file is
+ * written, it is read again and merged, and it is then replaced
+ * atomically. Should two processes nevertheless overwrite each other's
+ * values, the lost values are simply measured again by the next process.
+ * </p>
+ */
+final class _Calibration {
+
+  /** the prefix of the name of the calibration files: {@value} */
+  static final String FILE_PREFIX = ".calibration_"; //$NON-NLS-1$
+
+  /** the key of the machine fingerprint: {@value} */
+  private static final String FINGERPRINT = "fingerprint"; //$NON-NLS-1$
+
+  /** the prefix of the keys of normalization factors: {@value} */
+  private static final String FACTOR_PREFIX = "factor_"; //$NON-NLS-1$
+
+  /** the prefix of the keys of kernel runtimes: {@value} */
+  private static final String KERNEL_PREFIX = "kernel_"; //$NON-NLS-1$
+
+  /** the names of the kernels */
+  private static final String[] KERNELS = { "matrixLookup", //$NON-NLS-1$
+      "coordinateDistance", //$NON-NLS-1$
+      "twoOptDelta", //$NON-NLS-1$
+      "tourEvaluation" //$NON-NLS-1$
+  };
+
+  /** the problem sizes at which the kernels are measured */
+  private static final int[] SIZES = { 100, 1000, 3000 };
+
+  /** the number of kernel operations per timed batch */
+  private static final int BATCH = (1 << 14);
+
+  /** the minimum duration of one kernel measurement in nanoseconds */
+  private static final long MIN_NANOS = 10000000l;
+
+  /** the number of measurements per kernel and size */
+  private static final int REPETITIONS = 5;
+
+  /** the fingerprint of this machine */
+  static final String MACHINE = _Calibration.__fingerprint();
+
+  /** the values known in this process */
+  private static final HashMap<String, String> VALUES = new HashMap<>();
+
+  /** the registry of calibration files, one per directory */
+  private static final HashMap<File, _Calibration> REGISTRY = new HashMap<>();
+
+  /** the lock for measuring the kernels */
+  private static final Object KERNEL_LOCK = new Object();
+
+  /** the results of the kernels, to keep them from being optimized away */
+  private static volatile long s_sink;
+
+  /** the calibration file */
+  private final File m_file;
+
+  /** the values stored in the file */
+  private final HashMap<String, String> m_stored;
+
+  /**
+   * create the calibration file record
+   *
+   * @param dir
+   *          the directory
+   */
+  private _Calibration(final File dir) {
+    super();
+    this.m_file = new File(dir, (_Calibration.FILE_PREFIX + //
+        Integer.toHexString(_Calibration.MACHINE.hashCode())));
+    this.m_stored = new HashMap<>();
+    this.__load();
+  }
+
+  /**
+   * Get the calibration of a directory
+   *
+   * @param dir
+   *          the directory
+   * @return the calibration
+   */
+  static final _Calibration _get(final File dir) {
+    final File d;
+    _Calibration c;
+
+    d = FileUtils.canonicalize(dir);
+    synchronized (_Calibration.REGISTRY) {
+      c = _Calibration.REGISTRY.get(d);
+      if (c == null) {
+        c = new _Calibration(d);
+        _Calibration.REGISTRY.put(d, c);
+      }
+    }
+    return c;
+  }
+
+  /**
+   * Get the runtime normalization factor for an objective function: if
+   * it is not yet known for this machine, the instance, and the distance
+   * representation of the function, it is
+   * {@link org.logisticPlanning.tsp.benchmarking.objective._SpeedBenchmark#_timeBenchmarkRun(ObjectiveFunction)
+   * measured}.
+   *
+   * @param f
+   *          the objective function
+   * @param key
+   *          the key identifying the instance and its distance
+   *          representation
+   * @return the runtime normalization factor
+   */
+  final double _getFactor(final ObjectiveFunction f, final String key) {
+    final String k;
+    final double factor;
+    String v;
+
+    _Calibration.__measureKernels();
+
+    k = (_Calibration.FACTOR_PREFIX + key);
+    synchronized (_Calibration.VALUES) {
+      v = _Calibration.VALUES.get(k);
+    }
+
+    if (v == null) {
+      factor = _SpeedBenchmark._timeBenchmarkRun(f);
+      synchronized (_Calibration.VALUES) {
+        v = _Calibration.VALUES.get(k);
+        if (v == null) {
+          v = String.valueOf(factor);
+          _Calibration.VALUES.put(k, v);
+        }
+      }
+    }
+
+    this.__store();
+    return Double.parseDouble(v);
+  }
+
+  /**
+   * Print the machine fingerprint and the kernel runtimes
+   *
+   * @param ps
+   *          the print stream
+   */
+  static final void _printKernels(final PrintStream ps) {
+    String v;
+
+    Configurable.printKey(ObjectiveFunction.CALIBRATION_FINGERPRINT, ps);
+    ps.println(_Calibration.MACHINE);
+
+    for (final String kernel : _Calibration.KERNELS) {
+      for (final int n : _Calibration.SIZES) {
+        synchronized (_Calibration.VALUES) {
+          v = _Calibration.VALUES.get(_Calibration.__kernelKey(kernel, n));
+        }
+        if (v != null) {
+          Configurable.printKey((ObjectiveFunction.CALIBRATION_KERNEL_PREFIX
+              + kernel + '_' + n), ps);
+          ps.println(v);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the key of a kernel runtime
+   *
+   * @param kernel
+   *          the kernel name
+   * @param n
+   *          the problem size
+   * @return the key
+   */
+  private static final String __kernelKey(final String kernel, final int n) {
+    return (_Calibration.KERNEL_PREFIX + kernel + '_' + n);
+  }
+
+  /**
+   * Read the calibration file, if it exists and belongs to this machine,
+   * and merge its values into the values of the process.
+   *
+   * @return the values in the file, or {@code null} if there are none
+   */
+  private final Properties __read() {
+    final Properties p;
+
+    if (!(this.m_file.exists())) {
+      return null;
+    }
+
+    p = new Properties();
+    try (final InputStream is = new FileInputStream(this.m_file)) {
+      p.load(is);
+    } catch (final IOException ioe) {
+      return null; // the values are measured again
+    }
+
+    if (!(_Calibration.MACHINE.equals(p
+        .getProperty(_Calibration.FINGERPRINT)))) {
+      return null;
+    }
+    p.remove(_Calibration.FINGERPRINT);
+    return p;
+  }
+
+  /** load the calibration file */
+  private final void __load() {
+    final Properties p;
+    String k;
+
+    p = this.__read();
+    if (p == null) {
+      return;
+    }
+
+    synchronized (_Calibration.VALUES) {
+      for (final Map.Entry<Object, Object> e : p.entrySet()) {
+        k = ((String) (e.getKey()));
+        this.m_stored.put(k, ((String) (e.getValue())));
+        if (!(_Calibration.VALUES.containsKey(k))) {
+          _Calibration.VALUES.put(k, ((String) (e.getValue())));
+        }
+      }
+    }
+  }
+
+  /**
+   * Store all values of this process which are not yet in the
+   * calibration file. If the file cannot be written, the values are
+   * measured again in the next process.
+   */
+  private synchronized final void __store() {
+    final Properties p, q;
+    final File temp;
+    boolean changed;
+
+    q = new Properties();
+    changed = false;
+    synchronized (_Calibration.VALUES) {
+      for (final Map.Entry<String, String> e : _Calibration.VALUES
+          .entrySet()) {
+        if (!(e.getValue().equals(this.m_stored.get(e.getKey())))) {
+          changed = true;
+        }
+        q.put(e.getKey(), e.getValue());
+      }
+    }
+    if (!changed) {
+      return;
+    }
+
+    // merge the values written by other processes in the meantime
+    p = this.__read();
+    if (p != null) {
+      for (final Map.Entry<Object, Object> e : p.entrySet()) {
+        if (!(q.containsKey(e.getKey()))) {
+          q.put(e.getKey(), e.getValue());
+        }
+      }
+    }
+
+    for (final Map.Entry<Object, Object> e : q.entrySet()) {
+      this.m_stored.put(((String) (e.getKey())), ((String) (e.getValue())));
+    }
+    q.put(_Calibration.FINGERPRINT, _Calibration.MACHINE);
+
+    temp = new File(this.m_file.getParentFile(),//
+        (this.m_file.getName() + '.' + System.nanoTime()));
+    try {
+      this.m_file.getParentFile().mkdirs();
+      try (final OutputStream os = new FileOutputStream(temp)) {
+        q.store(os, "runtime calibration of the TSP Suite"); //$NON-NLS-1$
+      }
+      Files.move(temp.toPath(), this.m_file.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException ioe) {
+      temp.delete();
+    }
+  }
+
+  /** measure the kernels, if they are not yet known */
+  private static final void __measureKernels() {
+    final Random r;
+    int[] matrix, tour;
+    double[] x, y;
+    String key;
+    int i, j, t;
+    boolean known, warm;
+
+    synchronized (_Calibration.KERNEL_LOCK) {
+      r = new Random(_Calibration.MACHINE.hashCode());
+      warm = false;
+
+      for (final int n : _Calibration.SIZES) {
+        known = true;
+        synchronized (_Calibration.VALUES) {
+          for (final String kernel : _Calibration.KERNELS) {
+            if (!(_Calibration.VALUES.containsKey(_Calibration
+                .__kernelKey(kernel, n)))) {
+              known = false;
+            }
+          }
+        }
+        if (known) {
+          continue;
+        }
+
+        matrix = new int[n * n];
+        for (i = matrix.length; (--i) >= 0;) {
+          matrix[i] = r.nextInt(100000);
+        }
+        x = new double[n];
+        y = new double[n];
+        tour = new int[n];
+        for (i = n; (--i) >= 0;) {
+          x[i] = (r.nextDouble() * 100000d);
+          y[i] = (r.nextDouble() * 100000d);
+          tour[i] = i;
+        }
+        for (i = n; i > 1;) {
+          j = r.nextInt(i);
+          t = tour[--i];
+          tour[i] = tour[j];
+          tour[j] = t;
+        }
+
+        if (!warm) { // let the JIT compile the kernels before timing them
+          for (i = 0; i < _Calibration.KERNELS.length; i++) {
+            _Calibration.__timeKernel(i, n, matrix, x, y, tour);
+          }
+          warm = true;
+        }
+
+        for (i = 0; i < _Calibration.KERNELS.length; i++) {
+          key = _Calibration.__kernelKey(_Calibration.KERNELS[i], n);
+          synchronized (_Calibration.VALUES) {
+            known = _Calibration.VALUES.containsKey(key);
+          }
+          if (!known) {
+            _Calibration.__putKernel(key, _Calibration.__timeKernel(i, n,
+                matrix, x, y, tour));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * store a kernel runtime
+   *
+   * @param key
+   *          the key
+   * @param nanos
+   *          the runtime in nanoseconds per operation
+   */
+  private static final void __putKernel(final String key,
+      final double nanos) {
+    synchronized (_Calibration.VALUES) {
+      if (!(_Calibration.VALUES.containsKey(key))) {
+        _Calibration.VALUES.put(key, String.valueOf(nanos));
+      }
+    }
+  }
+
+  /**
+   * Measure the runtime of a kernel: the kernel is executed repeatedly
+   * in batches until at least {@link #MIN_NANOS} nanoseconds have
+   * passed. This is repeated {@link #REPETITIONS} times and, just like for
+   * the
+   * {@link org.logisticPlanning.tsp.benchmarking.objective._SpeedBenchmark#_timeBenchmarkRun(ObjectiveFunction)
+   * standardized algorithm}, the smallest runtime per operation is
+   * returned, as it is the one least disturbed by the operating system,
+   * the garbage collector, and the compiler.
+   *
+   * @param kernel
+   *          the kernel index
+   * @param n
+   *          the problem size
+   * @param matrix
+   *          the distance matrix
+   * @param x
+   *          the x-coordinates
+   * @param y
+   *          the y-coordinates
+   * @param tour
+   *          the tour
+   * @return the runtime in nanoseconds per operation
+   */
+  private static final double __timeKernel(final int kernel, final int n,
+      final int[] matrix, final double[] x, final double[] y,
+      final int[] tour) {
+    long start, time, ops, state, sink;
+    double best;
+    int rep;
+
+    best = Double.POSITIVE_INFINITY;
+    state = (0x9e3779b97f4a7c15l ^ n);
+    sink = 0l;
+
+    for (rep = _Calibration.REPETITIONS; (--rep) >= 0;) {
+      ops = 0l;
+      start = System.nanoTime();
+      do {
+        switch (kernel) {
+          case 0: {
+            sink += _Calibration.__matrixLookup(n, matrix, state);
+            break;
+          }
+          case 1: {
+            sink += _Calibration.__coordinateDistance(n, x, y, state);
+            break;
+          }
+          case 2: {
+            sink += _Calibration.__twoOptDelta(n, matrix, tour, state);
+            break;
+          }
+          default: {
+            sink += _Calibration.__tourEvaluation(n, matrix, tour);
+          }
+        }
+        state = _Calibration.__next(state + sink);
+        ops += _Calibration.BATCH;
+        time = (System.nanoTime() - start);
+      } while (time < _Calibration.MIN_NANOS);
+
+      best = Math.min(best, (time / ((double) ops)));
+    }
+
+    _Calibration.s_sink += sink;
+    return best;
+  }
+
+  /**
+   * the next state of the xorshift random number generator
+   *
+   * @param state
+   *          the current state
+   * @return the next state
+   */
+  private static final long __next(final long state) {
+    long s;
+
+    s = ((state != 0l) ? state : 1l);
+    s ^= (s << 13);
+    s ^= (s >>> 7);
+    s ^= (s << 17);
+    return s;
+  }
+
+  /**
+   * get a node index from {@code 32} random bits
+   *
+   * @param bits
+   *          the random bits
+   * @param n
+   *          the problem size
+   * @return the node index
+   */
+  private static final int __index(final long bits, final int n) {
+    return ((int) (((bits & 0xffffffffl) * n) >>> 32));
+  }
+
+  /**
+   * look up random distances in a distance matrix
+   *
+   * @param n
+   *          the problem size
+   * @param matrix
+   *          the matrix
+   * @param seed
+   *          the random seed
+   * @return the sum of the distances
+   */
+  private static final long __matrixLookup(final int n, final int[] matrix,
+      final long seed) {
+    long state, sum;
+    int i;
+
+    state = seed;
+    sum = 0l;
+    for (i = _Calibration.BATCH; (--i) >= 0;) {
+      state = _Calibration.__next(state);
+      sum += matrix[(_Calibration.__index(state, n) * n)
+          + _Calibration.__index((state >>> 32), n)];
+    }
+    return sum;
+  }
+
+  /**
+   * compute random rounded Euclidean distances from coordinates
+   *
+   * @param n
+   *          the problem size
+   * @param x
+   *          the x-coordinates
+   * @param y
+   *          the y-coordinates
+   * @param seed
+   *          the random seed
+   * @return the sum of the distances
+   */
+  private static final long __coordinateDistance(final int n,
+      final double[] x, final double[] y, final long seed) {
+    long state, sum;
+    double dx, dy;
+    int i, a, b;
+
+    state = seed;
+    sum = 0l;
+    for (i = _Calibration.BATCH; (--i) >= 0;) {
+      state = _Calibration.__next(state);
+      a = _Calibration.__index(state, n);
+      b = _Calibration.__index((state >>> 32), n);
+      dx = (x[a] - x[b]);
+      dy = (y[a] - y[b]);
+      sum += ((int) (0.5d + Math.sqrt((dx * dx) + (dy * dy))));
+    }
+    return sum;
+  }
+
+  /**
+   * compute the deltas of random 2-opt moves on a tour
+   *
+   * @param n
+   *          the problem size
+   * @param matrix
+   *          the distance matrix
+   * @param tour
+   *          the tour
+   * @param seed
+   *          the random seed
+   * @return the sum of the deltas
+   */
+  private static final long __twoOptDelta(final int n, final int[] matrix,
+      final int[] tour, final long seed) {
+    long state, sum;
+    int i, p, q, a, b, c, d;
+
+    state = seed;
+    sum = 0l;
+    for (i = _Calibration.BATCH; (--i) >= 0;) {
+      state = _Calibration.__next(state);
+      p = _Calibration.__index(state, n);
+      q = _Calibration.__index((state >>> 32), n);
+      a = tour[p];
+      b = tour[((p + 1) < n) ? (p + 1) : 0];
+      c = tour[q];
+      d = tour[((q + 1) < n) ? (q + 1) : 0];
+      sum += (((matrix[(a * n) + c] + matrix[(b * n) + d]) - //
+          matrix[(a * n) + b]) - matrix[(c * n) + d]);
+    }
+    return sum;
+  }
+
+  /**
+   * evaluate the edges of a tour, one edge per operation
+   *
+   * @param n
+   *          the problem size
+   * @param matrix
+   *          the distance matrix
+   * @param tour
+   *          the tour
+   * @return the sum of the edge lengths
+   */
+  private static final long __tourEvaluation(final int n,
+      final int[] matrix, final int[] tour) {
+    long sum;
+    int i, p, prev, next;
+
+    sum = 0l;
+    p = 0;
+    prev = tour[n - 1];
+    for (i = _Calibration.BATCH; (--i) >= 0;) {
+      next = tour[p];
+      sum += matrix[(prev * n) + next];
+      prev = next;
+      if ((++p) >= n) {
+        p = 0;
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Compute the fingerprint of this machine
+   *
+   * @return the fingerprint
+   */
+  private static final String __fingerprint() {
+    final StringBuilder sb;
+    final Runtime rt;
+    String s;
+
+    sb = new StringBuilder();
+    for (final String key : new String[] { "os.name", //$NON-NLS-1$
+        "os.arch", //$NON-NLS-1$
+        "os.version", //$NON-NLS-1$
+        "java.vm.vendor", //$NON-NLS-1$
+        "java.vm.name", //$NON-NLS-1$
+        "java.vm.version" //$NON-NLS-1$
+    }) {
+      s = System.getProperty(key);
+      if (s != null) {
+        sb.append(s);
+      }
+      sb.append(';');
+    }
+
+    s = _Calibration.__processor();
+    if (s != null) {
+      sb.append(s);
+    }
+    sb.append(';');
+
+    rt = Runtime.getRuntime();
+    sb.append(rt.availableProcessors());
+    sb.append(';');
+    sb.append(rt.maxMemory());
+    return sb.toString();
+  }
+
+  /**
+   * Get the processor model
+   *
+   * @return the processor model, or {@code null} if it is unknown
+   */
+  private static final String __processor() {
+    final File info;
+    String s;
+    int i;
+
+    info = new File("/proc/cpuinfo"); //$NON-NLS-1$
+    if (info.canRead()) {
+      try (final BufferedReader br = new BufferedReader(new FileReader(
+          info))) {
+        while ((s = br.readLine()) != null) {
+          if (s.startsWith("model name")) { //$NON-NLS-1$
+            i = s.indexOf(':');
+            if (i > 0) {
+              return s.substring(i + 1).trim();
+            }
+          }
+        }
+      } catch (final IOException ioe) {
+        // the processor model remains unknown
+      }
+    }
+
+    return System.getenv("PROCESSOR_IDENTIFIER"); //$NON-NLS-1$
+  }
+}
@@ -0,0 +1,314 @@
+package org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * A <a href="ObjectiveFunction.html#checkpoints">checkpoint</a> of a run:
+ * the state of the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction
+ * objective function}, i.e., the log points collected so far, the
+ * current log point with the consumed FEs, DEs, and runtime, and the best
+ * tour, together with the state of the algorithm. The checkpoint of a run
+ * is stored in a hidden file next to its log file. If the run is claimed
+ * again after its process died or it was cancelled, it is resumed from
+ * the checkpoint.
+ * </p>
+ * <p>
+ * The checkpoint is serialized into a byte array by the thread performing
+ * the run, so that it captures a consistent state, but it is written to
+ * disk by a single background thread, so that the run does not wait for
+ * the file system. If a newer checkpoint of the same run arrives before
+ * the older one has been written, only the newer one is written. Each
+ * checkpoint file is written to a temporary file first, which is then
+ * moved atomically, so a process dying while writing leaves the previous
+ * checkpoint intact.
+ * </p>
+ */
+final class _Checkpoint implements Serializable {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the suffix of the checkpoint files: {@value} */
+  private static final String SUFFIX = ".checkpoint"; //$NON-NLS-1$
+
+  /** the serialized checkpoints still to be written */
+  private static final LinkedHashMap<File, byte[]> PENDING = new LinkedHashMap<>();
+
+  /** the lock held while writing or deleting checkpoint files */
+  private static final Object IO = new Object();
+
+  /** the writer thread, {@code null} if not yet started */
+  private static __Writer s_writer;
+
+  /** the class and name of the algorithm */
+  final String m_algorithm;
+
+  /** the number of nodes */
+  final int m_n;
+
+  /** the log points collected so far */
+  LogPoint[] m_log;
+
+  /** the current log point */
+  LogPoint m_current;
+
+  /** the log point of the last improvement */
+  LogPoint m_lastImprovement;
+
+  /** the log point at the end of the initialization */
+  LogPoint m_init;
+
+  /** the best tour, in path representation */
+  int[] m_best;
+
+  /** the index of the next objective value to log */
+  int m_fIdx;
+
+  /** the next objective value to log */
+  long m_nextF;
+
+  /** the index of the next DE to log */
+  int m_deIdx;
+
+  /** the next DE to log */
+  long m_nextDE;
+
+  /** the index of the next FE to log */
+  int m_feIdx;
+
+  /** the next FE to log */
+  long m_nextFE;
+
+  /**
+   * should a log point be taken at the next improvement? The pending type
+   * bits of this log point are kept in {@link #m_current}.
+   */
+  boolean m_shouldLog;
+
+  /** has the objective value improved since the last log point? */
+  boolean m_fimproved;
+
+  /** the random seed of the run */
+  long m_randSeed;
+
+  /**
+   * the random number generator of the objective function, whose state is
+   * serialized when the checkpoint is stored
+   */
+  Randomizer m_random;
+
+  /** the number of times the run has been resumed before */
+  int m_resumes;
+
+  /** the state of the algorithm */
+  Serializable m_state;
+
+  /**
+   * create the checkpoint
+   *
+   * @param algorithm
+   *          the class and name of the algorithm
+   * @param n
+   *          the number of nodes
+   */
+  _Checkpoint(final String algorithm, final int n) {
+    super();
+    this.m_algorithm = algorithm;
+    this.m_n = n;
+  }
+
+  /**
+   * Get the checkpoint file belonging to a log file
+   *
+   * @param log
+   *          the log file
+   * @return the checkpoint file
+   */
+  static final File _getFile(final File log) {
+    return new File(log.getParentFile(),//
+        ('.' + log.getName() + _Checkpoint.SUFFIX));
+  }
+
+  /**
+   * Load a checkpoint
+   *
+   * @param file
+   *          the checkpoint file
+   * @param algorithm
+   *          the class and name of the algorithm which must have created
+   *          the checkpoint
+   * @param n
+   *          the number of nodes
+   * @return the checkpoint, or {@code null} if there is no valid
+   *         checkpoint for this algorithm
+   */
+  static final _Checkpoint _load(final File file, final String algorithm,
+      final int n) {
+    final Object o;
+    final _Checkpoint cp;
+    byte[] data;
+
+    synchronized (_Checkpoint.IO) {
+      synchronized (_Checkpoint.PENDING) {
+        data = _Checkpoint.PENDING.get(file);
+      }
+      if ((data == null) && (!(file.exists()))) {
+        return null;
+      }
+      // a checkpoint not yet written is newer than the file
+      try (final ObjectInputStream is = new ObjectInputStream(
+          new BufferedInputStream((data != null) ? //
+          new ByteArrayInputStream(data)
+              : new FileInputStream(file)))) {
+        o = is.readObject();
+      } catch (final Throwable t) {
+        // a checkpoint which cannot be read is useless: start afresh
+        return null;
+      }
+    }
+
+    if (o instanceof _Checkpoint) {
+      cp = ((_Checkpoint) o);
+      if ((cp.m_n == n) && (cp.m_algorithm.equals(algorithm))
+          && (cp.m_best != null) && (cp.m_best.length == n)
+          && (cp.m_random != null)) {
+        return cp;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Serialize this checkpoint and hand it to the writer thread.
+   *
+   * @param file
+   *          the checkpoint file
+   * @throws IOException
+   *           if the checkpoint cannot be serialized, e.g., because the
+   *           algorithm state is not serializable
+   */
+  final void _store(final File file) throws IOException {
+    final ByteArrayOutputStream bos;
+
+    bos = new ByteArrayOutputStream();
+    try (final ObjectOutputStream os = new ObjectOutputStream(bos)) {
+      os.writeObject(this);
+    }
+
+    synchronized (_Checkpoint.PENDING) {
+      _Checkpoint.PENDING.remove(file);
+      _Checkpoint.PENDING.put(file, bos.toByteArray());
+      if (_Checkpoint.s_writer == null) {
+        _Checkpoint.s_writer = new __Writer();
+        _Checkpoint.s_writer.start();
+      }
+      _Checkpoint.PENDING.notifyAll();
+    }
+  }
+
+  /**
+   * Delete a checkpoint file, including a checkpoint not yet written.
+   *
+   * @param file
+   *          the checkpoint file
+   */
+  static final void _delete(final File file) {
+    synchronized (_Checkpoint.IO) {
+      synchronized (_Checkpoint.PENDING) {
+        _Checkpoint.PENDING.remove(file);
+      }
+      file.delete();
+    }
+  }
+
+  /**
+   * Write a serialized checkpoint to its file
+   *
+   * @param file
+   *          the file
+   * @param data
+   *          the serialized checkpoint
+   */
+  static final void __write(final File file, final byte[] data) {
+    final File temp;
+
+    temp = new File(file.getParentFile(),//
+        (file.getName() + '.' + System.nanoTime()));
+    try {
+      try (final OutputStream os = new FileOutputStream(temp)) {
+        os.write(data);
+      }
+      Files.move(temp.toPath(), file.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException ioe) {
+      // the previous checkpoint, if any, remains valid
+      temp.delete();
+    }
+  }
+
+  /** the thread writing the checkpoints */
+  private static final class __Writer extends Thread {
+
+    /** create */
+    __Writer() {
+      super("CheckpointWriter"); //$NON-NLS-1$
+      this.setDaemon(true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void run() {
+      Iterator<Map.Entry<File, byte[]>> it;
+      Map.Entry<File, byte[]> e;
+
+      for (;;) {
+        synchronized (_Checkpoint.PENDING) {
+          while (_Checkpoint.PENDING.isEmpty()) {
+            try {
+              _Checkpoint.PENDING.wait();
+            } catch (final InterruptedException ie) {
+              return;
+            }
+          }
+        }
+
+        synchronized (_Checkpoint.IO) {
+          synchronized (_Checkpoint.PENDING) {
+            it = _Checkpoint.PENDING.entrySet().iterator();
+            if (!(it.hasNext())) {
+              // the checkpoint has been deleted in the meantime
+              continue;
+            }
+            e = it.next();
+            it.remove();
+          }
+          _Checkpoint.__write(e.getKey(), e.getValue());
+        }
+      }
+    }
+  }
+}
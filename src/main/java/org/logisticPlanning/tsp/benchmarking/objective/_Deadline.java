@@ -0,0 +1,124 @@
+package org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * A deadline registered at the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective._TerminationThread
+ * termination thread}: one such record is created for each run (or
+ * deterministic initialization) of an
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction
+ * objective function} which has a runtime limit. Its state moves from
+ * {@link #STATE_PENDING} to either {@link #STATE_CANCELLED} (if the run
+ * ends before the deadline) or, via {@link #STATE_FIRING}, to
+ * {@link #STATE_FIRED} (if the deadline is reached first). The transitions
+ * are made with atomic compare-and-set operations, so cancelling a
+ * deadline never requires a lock and never searches a data structure.
+ * </p>
+ */
+final class _Deadline {
+
+  /** the deadline is pending */
+  static final int STATE_PENDING = 0;
+
+  /** the deadline has been cancelled */
+  static final int STATE_CANCELLED = 1;
+
+  /**
+   * the deadline has been reached and the termination flag of the
+   * objective function is currently being set
+   */
+  static final int STATE_FIRING = 2;
+
+  /**
+   * the deadline has been reached and the objective function was told to
+   * terminate
+   */
+  static final int STATE_FIRED = 3;
+
+  /** the updater for the state */
+  private static final AtomicIntegerFieldUpdater<_Deadline> STATE = AtomicIntegerFieldUpdater
+      .newUpdater(_Deadline.class, "m_state"); //$NON-NLS-1$
+
+  /** the end time, obtained from {@link System#currentTimeMillis()} */
+  final long m_endTime;
+
+  /** the objective function, {@code null} once cancelled */
+  private volatile ObjectiveFunction m_f;
+
+  /** the state */
+  private volatile int m_state;
+
+  /**
+   * the next deadline in the stack of newly registered deadlines, only
+   * written before the deadline is published
+   */
+  _Deadline m_nextNew;
+
+  /**
+   * the next deadline in the same slot of the timer wheel, only accessed
+   * by the termination thread
+   */
+  _Deadline m_nextInSlot;
+
+  /**
+   * create the deadline
+   *
+   * @param f
+   *          the objective function
+   * @param endTime
+   *          the end time
+   */
+  _Deadline(final ObjectiveFunction f, final long endTime) {
+    super();
+    this.m_f = f;
+    this.m_endTime = endTime;
+  }
+
+  /**
+   * Is this deadline still pending?
+   *
+   * @return {@code true} if the deadline is neither cancelled nor fired
+   */
+  final boolean _isPending() {
+    return (this.m_state == _Deadline.STATE_PENDING);
+  }
+
+  /**
+   * Cancel the deadline. If the deadline is just firing, wait until the
+   * termination flag of the objective function has been set, so that a
+   * late firing can never spill over into the next run.
+   */
+  final void _cancel() {
+    if (_Deadline.STATE.compareAndSet(this, _Deadline.STATE_PENDING,
+        _Deadline.STATE_CANCELLED)) {
+      this.m_f = null;
+      return;
+    }
+    while (this.m_state == _Deadline.STATE_FIRING) {
+      Thread.yield();
+    }
+  }
+
+  /**
+   * Fire the deadline: tell the objective function to terminate, unless
+   * the deadline has been cancelled before. Only called by the termination
+   * thread.
+   */
+  final void _fire() {
+    if (_Deadline.STATE.compareAndSet(this, _Deadline.STATE_PENDING,
+        _Deadline.STATE_FIRING)) {
+      try {
+        this.m_f.m_terminate = true;
+      } finally {
+        this.m_f = null;
+        this.m_state = _Deadline.STATE_FIRED;
+      }
+    }
+  }
+}
@@ -0,0 +1,792 @@
+package org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+import org.logisticPlanning.utils.io.FileUtils;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * The run ledger of a result directory: a small append-only text file
+ * named {@value #FILE_NAME} which records which runs have been claimed,
+ * which log file each run writes, and which runs have been finished or
+ * have failed. Each run is identified by a sequence number. The ledger
+ * replaces counting and probing the log files in the directory, which is
+ * slow on network file systems with many files.
+ * </p>
+ * <p>
+ * The ledger can be shared by several processes on the same machine: all
+ * changes are made while holding an exclusive
+ * {@link java.nio.channels.FileLock lock} on a region of the ledger file
+ * far beyond its end, and before each change, the records appended by
+ * other processes are read. Additionally, each process holds a lock on
+ * one region per claimed and not yet finished run. The operating system
+ * releases these locks when a process dies, so a claimed run whose lock
+ * can be obtained belongs to a crashed process and is claimed again,
+ * re-using its log file. Failed runs are claimed again as well. If file
+ * locks are not supported by the file system, the ledger still works
+ * correctly within one process.
+ * </p>
+ * <p>
+ * If a result directory without ledger is opened, the ledger is created
+ * and all files already in the directory are recorded as finished runs.
+ * This is the only time the directory is listed.
+ * </p>
+ */
+final class _RunLedger {
+
+  /** the name of the ledger file: {@value} */
+  static final String FILE_NAME = ".runs"; //$NON-NLS-1$
+
+  /** the record for claiming a run: {@value} */
+  private static final String CLAIM = "claim"; //$NON-NLS-1$
+
+  /** the record for assigning a log file to a run: {@value} */
+  private static final String FILE = "file"; //$NON-NLS-1$
+
+  /** the record for a finished run: {@value} */
+  private static final String FINISH = "finish"; //$NON-NLS-1$
+
+  /** the record for a failed run: {@value} */
+  private static final String FAIL = "fail"; //$NON-NLS-1$
+
+  /** the state of a claimed run */
+  private static final byte STATE_CLAIMED = 1;
+
+  /** the state of a finished run */
+  private static final byte STATE_FINISHED = 2;
+
+  /** the state of a failed run */
+  private static final byte STATE_FAILED = 3;
+
+  /** the start of the locked regions */
+  private static final long LOCK_BASE = (1l << 62l);
+
+  /** the registry of ledgers, one per directory */
+  private static final HashMap<File, _RunLedger> REGISTRY = new HashMap<>();
+
+  /** the directory */
+  private final File m_dir;
+
+  /** the ledger file */
+  private final File m_file;
+
+  /** the channel to the ledger file, {@code null} if not yet opened */
+  private FileChannel m_channel;
+
+  /** the position up to which the ledger has been read */
+  private long m_readPos;
+
+  /** the states of the runs, indexed by sequence number */
+  private byte[] m_states;
+
+  /** the log file names of the runs, indexed by sequence number */
+  private String[] m_names;
+
+  /** the number of known sequence numbers */
+  private int m_count;
+
+  /** the number of finished runs */
+  private int m_finished;
+
+  /** the sequence numbers of all runs which are claimed or failed */
+  private final TreeSet<Integer> m_open;
+
+  /** the locks of the runs claimed by this process */
+  private final HashMap<Integer, FileLock> m_own;
+
+  /** the sequence numbers of the runs of the log files */
+  private final HashMap<String, Integer> m_seqs;
+
+  /**
+   * the sequence numbers of runs reserved by this process which have no
+   * log file yet
+   */
+  private final ArrayDeque<Integer> m_reserved;
+
+  /** the next file index to try for a given base name */
+  private final HashMap<String, Integer> m_nextIndex;
+
+  /**
+   * create the ledger
+   *
+   * @param dir
+   *          the directory
+   */
+  private _RunLedger(final File dir) {
+    super();
+    this.m_dir = dir;
+    this.m_file = new File(dir, _RunLedger.FILE_NAME);
+    this.m_states = new byte[16];
+    this.m_names = new String[16];
+    this.m_open = new TreeSet<>();
+    this.m_own = new HashMap<>();
+    this.m_seqs = new HashMap<>();
+    this.m_reserved = new ArrayDeque<>();
+    this.m_nextIndex = new HashMap<>();
+  }
+
+  /**
+   * Get the ledger of a directory
+   *
+   * @param dir
+   *          the directory
+   * @return the ledger
+   */
+  static final _RunLedger _get(final File dir) {
+    final File d;
+    _RunLedger l;
+
+    d = FileUtils.canonicalize(dir);
+    synchronized (_RunLedger.REGISTRY) {
+      l = _RunLedger.REGISTRY.get(d);
+      if (l == null) {
+        l = new _RunLedger(d);
+        _RunLedger.REGISTRY.put(d, l);
+      }
+    }
+    return l;
+  }
+
+  /**
+   * Get the number of runs which still need to be performed.
+   *
+   * @param maxRuns
+   *          the maximum number of runs
+   * @return the number of runs which still need to be performed
+   */
+  final synchronized int _remaining(final int maxRuns) {
+    final FileLock mutex;
+
+    if (maxRuns <= 0) {
+      return 0;
+    }
+    if ((this.m_channel == null) && (!(this.m_dir.exists()))) {
+      return maxRuns;
+    }
+
+    try {
+      mutex = this.__begin();
+      try {
+        return Math.max(0, (maxRuns - this.m_finished - this.__active(null)));
+      } finally {
+        _RunLedger.__release(mutex);
+      }
+    } catch (final IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  /**
+   * Reserve one run for this process, if the maximum number of runs has
+   * not yet been reached.
+   *
+   * @param maxRuns
+   *          the maximum number of runs
+   * @return {@code true} if a run was reserved, {@code false} otherwise
+   */
+  final synchronized boolean _reserve(final int maxRuns) {
+    final FileLock mutex;
+    final int seq;
+
+    try {
+      mutex = this.__begin();
+      try {
+        seq = this.__claim(maxRuns, false);
+      } finally {
+        _RunLedger.__release(mutex);
+      }
+    } catch (final IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+
+    if (seq < 0) {
+      return false;
+    }
+    this.m_reserved.add(Integer.valueOf(seq));
+    return true;
+  }
+
+  /**
+   * Give back a reserved run without performing it: the run is recorded
+   * as failed, so that it can be claimed again.
+   */
+  final synchronized void _release() {
+    final Integer key;
+    final FileLock mutex;
+
+    key = this.m_reserved.poll();
+    if (key == null) {
+      return;
+    }
+
+    try {
+      mutex = this.__begin();
+      try {
+        this.__append(_RunLedger.FAIL + ' ' + key.intValue());
+        this.__setState(key.intValue(), _RunLedger.STATE_FAILED);
+      } finally {
+        _RunLedger.__release(mutex);
+        _RunLedger.__release(this.m_own.remove(key));
+      }
+    } catch (final IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  /**
+   * Get the log file for a new run: use a reserved run if there is one,
+   * otherwise claim a new run regardless of the maximum number of runs.
+   *
+   * @param baseName
+   *          the base name of the log file, to which the file index and
+   *          {@code .txt} will be appended
+   * @return the log file
+   */
+  final synchronized File _claimFile(final String baseName) {
+    final FileLock mutex;
+    final Integer key;
+    Integer seqObj;
+    String name;
+    File f;
+    int seq, idx;
+
+    try {
+      mutex = this.__begin();
+      try {
+        seqObj = this.m_reserved.poll();
+        if (seqObj != null) {
+          seq = seqObj.intValue();
+        } else {
+          seq = this.__claim(0, true);
+        }
+        key = Integer.valueOf(seq);
+
+        // re-use the log file of a crashed or failed run
+        name = this.m_names[seq];
+        if ((name != null) && _RunLedger.__isFileOf(name, baseName)) {
+          f = new File(this.m_dir, name);
+          f.createNewFile();
+          return f;
+        }
+
+        seqObj = this.m_nextIndex.get(baseName);
+        idx = ((seqObj != null) ? seqObj.intValue() : this
+            .__firstIndex(baseName));
+        for (;; idx++) {
+          name = (baseName + idx + ".txt");//$NON-NLS-1$
+          f = new File(this.m_dir, name);
+          if ((!(this.m_seqs.containsKey(name))) && f.createNewFile()) {
+            break;
+          }
+        }
+        this.m_nextIndex.put(baseName, Integer.valueOf(idx + 1));
+
+        if (this.m_names[seq] != null) {
+          this.m_seqs.remove(this.m_names[seq]);
+        }
+        this.m_names[seq] = name;
+        this.m_seqs.put(name, key);
+        this.__append(_RunLedger.FILE + ' ' + seq + ' ' + name);
+        return f;
+      } finally {
+        _RunLedger.__release(mutex);
+      }
+    } catch (final IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  /**
+   * Record that the run writing a given log file has ended.
+   *
+   * @param file
+   *          the log file
+   * @param success
+   *          {@code true} if the run has been finished and its log file
+   *          has been written, {@code false} if it failed
+   */
+  final synchronized void _end(final File file, final boolean success) {
+    final Integer key;
+    final FileLock mutex;
+    final int seq;
+
+    key = this.m_seqs.get(file.getName());
+    if ((key == null) || (!(this.m_own.containsKey(key)))) {
+      return;
+    }
+    seq = key.intValue();
+
+    try {
+      mutex = this.__begin();
+      try {
+        if (success) {
+          this.__append(_RunLedger.FINISH + ' ' + seq);
+          this.__setState(seq, _RunLedger.STATE_FINISHED);
+        } else {
+          this.__append(_RunLedger.FAIL + ' ' + seq);
+          this.__setState(seq, _RunLedger.STATE_FAILED);
+        }
+      } finally {
+        _RunLedger.__release(mutex);
+        _RunLedger.__release(this.m_own.remove(key));
+      }
+    } catch (final IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  /**
+   * Open the ledger if necessary, obtain the inter-process lock, and read
+   * the records appended by other processes.
+   *
+   * @return the lock, or {@code null} if locks are not supported
+   * @throws IOException
+   *           if io fails
+   */
+  private final FileLock __begin() throws IOException {
+    final File[] fs;
+    FileLock mutex;
+    boolean ok;
+    int seq;
+
+    if ((this.m_channel != null) && (!(this.m_file.exists()))) {
+      // the output directory has been deleted: start from scratch
+      this.__reset();
+    }
+
+    if (this.m_channel == null) {
+      this.m_dir.mkdirs();
+      this.m_channel = FileChannel.open(this.m_file.toPath(),
+          StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+
+      ok = false;
+      mutex = this.__lock();
+      try {
+        if (this.m_channel.size() <= 0l) {
+          // a directory without ledger: record all existing files
+          fs = this.m_dir.listFiles();
+          if (fs != null) {
+            for (final File f : fs) {
+              if (f.getName().startsWith(".")) { //$NON-NLS-1$
+                // skip the ledger itself and hidden files, such as
+                // checkpoints
+                continue;
+              }
+              seq = this.m_count;
+              this.__ensure(seq);
+              this.m_count = (seq + 1);
+              this.__append(_RunLedger.CLAIM + ' ' + seq + '\n' + //
+                  _RunLedger.FILE + ' ' + seq + ' ' + f.getName() + '\n' + //
+                  _RunLedger.FINISH + ' ' + seq);
+              this.m_names[seq] = f.getName();
+              this.m_seqs.put(f.getName(), Integer.valueOf(seq));
+              this.__setState(seq, _RunLedger.STATE_FINISHED);
+            }
+          }
+        }
+        ok = true;
+      } finally {
+        if (!ok) {
+          _RunLedger.__release(mutex);
+        }
+      }
+    } else {
+      mutex = this.__lock();
+    }
+
+    ok = false;
+    try {
+      this.__read();
+      ok = true;
+    } finally {
+      if (!ok) {
+        _RunLedger.__release(mutex);
+      }
+    }
+    return mutex;
+  }
+
+  /**
+   * Forget everything known about the ledger and close its channel.
+   *
+   * @throws IOException
+   *           if io fails
+   */
+  private final void __reset() throws IOException {
+    final FileChannel channel;
+
+    channel = this.m_channel;
+    this.m_channel = null;
+    this.m_readPos = 0l;
+    Arrays.fill(this.m_states, ((byte) 0));
+    Arrays.fill(this.m_names, null);
+    this.m_count = 0;
+    this.m_finished = 0;
+    this.m_open.clear();
+    this.m_own.clear();
+    this.m_seqs.clear();
+    this.m_reserved.clear();
+    this.m_nextIndex.clear();
+    channel.close();
+  }
+
+  /**
+   * Obtain the inter-process lock
+   *
+   * @return the lock, or {@code null} if locks are not supported
+   */
+  private final FileLock __lock() {
+    try {
+      return this.m_channel.lock(_RunLedger.LOCK_BASE, 1l, false);
+    } catch (final IOException ioe) {
+      return null;
+    }
+  }
+
+  /**
+   * release a lock
+   *
+   * @param lock
+   *          the lock, or {@code null}
+   */
+  private static final void __release(final FileLock lock) {
+    if (lock != null) {
+      try {
+        lock.release();
+      } catch (final IOException ioe) {
+        // the lock is released when the channel or process ends
+      }
+    }
+  }
+
+  /**
+   * Claim a run
+   *
+   * @param maxRuns
+   *          the maximum number of runs
+   * @param force
+   *          should a run be claimed even if the maximum number of runs
+   *          has been reached?
+   * @return the sequence number of the claimed run, or {@code -1} if no
+   *         run could be claimed
+   * @throws IOException
+   *           if io fails
+   */
+  private final int __claim(final int maxRuns, final boolean force)
+      throws IOException {
+    final int[] stale;
+    final Integer key;
+    final int active;
+    int seq;
+
+    stale = new int[] { -1 };
+    active = this.__active(stale);
+    if ((!force) && ((this.m_finished + active) >= maxRuns)) {
+      return (-1);
+    }
+
+    seq = stale[0];
+    if (seq < 0) {
+      seq = this.m_count;
+      this.__ensure(seq);
+      this.m_count = (seq + 1);
+    }
+    key = Integer.valueOf(seq);
+
+    this.m_own.put(key, this.__tryLockRun(seq));
+    this.__append(_RunLedger.CLAIM + ' ' + seq);
+    this.__setState(seq, _RunLedger.STATE_CLAIMED);
+    return seq;
+  }
+
+  /**
+   * Count the active runs, i.e., the runs claimed by this process and the
+   * runs claimed by other living processes.
+   *
+   * @param stale
+   *          an array to receive the sequence number of a crashed or
+   *          failed run which may be claimed again, or {@code null}
+   * @return the number of active runs
+   */
+  private final int __active(final int[] stale) {
+    final ArrayList<Integer> candidates;
+    FileLock lock;
+    int active, seq;
+
+    active = 0;
+    candidates = new ArrayList<>();
+    for (final Integer key : this.m_open) {
+      if (this.m_own.containsKey(key)) {
+        active++;
+        continue;
+      }
+      seq = key.intValue();
+      if (this.m_states[seq] == _RunLedger.STATE_FAILED) {
+        candidates.add(key);
+        continue;
+      }
+
+      lock = this.__tryLockRun(seq);
+      if (lock == null) {
+        active++;
+      } else {
+        _RunLedger.__release(lock);
+        candidates.add(key);
+      }
+    }
+
+    if ((stale != null) && (!(candidates.isEmpty()))) {
+      stale[0] = candidates.get(0).intValue();
+    }
+    return active;
+  }
+
+  /**
+   * Try to lock the region of a run.
+   *
+   * @param seq
+   *          the sequence number
+   * @return the lock, or {@code null} if another process holds the lock
+   */
+  private final FileLock __tryLockRun(final int seq) {
+    try {
+      return this.m_channel.tryLock((_RunLedger.LOCK_BASE + 1l + seq), 1l,
+          false);
+    } catch (final IOException | OverlappingFileLockException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Read the records appended since the last read.
+   *
+   * @throws IOException
+   *           if io fails
+   */
+  private final void __read() throws IOException {
+    final long size;
+    final ByteBuffer buf;
+    final String text;
+    int start, end;
+
+    size = this.m_channel.size();
+    if (size <= this.m_readPos) {
+      return;
+    }
+
+    buf = ByteBuffer.allocate((int) (size - this.m_readPos));
+    while (buf.hasRemaining()) {
+      if (this.m_channel.read(buf, (this.m_readPos + buf.position())) < 0) {
+        break;
+      }
+    }
+
+    text = new String(buf.array(), 0, buf.position(),
+        StandardCharsets.UTF_8);
+    start = 0;
+    while ((end = text.indexOf('\n', start)) >= 0) {
+      this.__parse(text.substring(start, end));
+      start = (end + 1);
+    }
+    this.m_readPos += text.substring(0, start).getBytes(
+        StandardCharsets.UTF_8).length;
+  }
+
+  /**
+   * Parse one record
+   *
+   * @param line
+   *          the line
+   */
+  private final void __parse(final String line) {
+    final String[] parts;
+    final int seq;
+    final String old;
+
+    parts = line.trim().split(" ", 3); //$NON-NLS-1$
+    if (parts.length < 2) {
+      return;
+    }
+    try {
+      seq = Integer.parseInt(parts[1]);
+    } catch (final NumberFormatException nfe) {
+      return;
+    }
+    if (seq < 0) {
+      return;
+    }
+
+    this.__ensure(seq);
+    if (seq >= this.m_count) {
+      this.m_count = (seq + 1);
+    }
+
+    switch (parts[0]) {
+      case CLAIM: {
+        this.__setState(seq, _RunLedger.STATE_CLAIMED);
+        return;
+      }
+      case FILE: {
+        if (parts.length > 2) {
+          old = this.m_names[seq];
+          if (old != null) {
+            this.m_seqs.remove(old);
+          }
+          this.m_names[seq] = parts[2];
+          this.m_seqs.put(parts[2], Integer.valueOf(seq));
+        }
+        return;
+      }
+      case FINISH: {
+        this.__setState(seq, _RunLedger.STATE_FINISHED);
+        return;
+      }
+      case FAIL: {
+        this.__setState(seq, _RunLedger.STATE_FAILED);
+        return;
+      }
+      default: {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Append a record to the ledger
+   *
+   * @param record
+   *          the record
+   * @throws IOException
+   *           if io fails
+   */
+  private final void __append(final String record) throws IOException {
+    final ByteBuffer buf;
+    long pos;
+
+    pos = this.m_channel.size();
+    // a process may have died while appending: terminate its record
+    buf = ByteBuffer.wrap((((pos > this.m_readPos) ? "\n" : "") + //$NON-NLS-1$ //$NON-NLS-2$
+        record + '\n').getBytes(StandardCharsets.UTF_8));
+    while (buf.hasRemaining()) {
+      pos += this.m_channel.write(buf, pos);
+    }
+    this.m_channel.force(false);
+    this.m_readPos = pos;
+  }
+
+  /**
+   * Set the state of a run
+   *
+   * @param seq
+   *          the sequence number
+   * @param state
+   *          the new state
+   */
+  private final void __setState(final int seq, final byte state) {
+    final byte old;
+    final Integer key;
+
+    old = this.m_states[seq];
+    if (old == _RunLedger.STATE_FINISHED) {
+      this.m_finished--;
+    }
+    this.m_states[seq] = state;
+
+    key = Integer.valueOf(seq);
+    if (state == _RunLedger.STATE_FINISHED) {
+      this.m_finished++;
+      this.m_open.remove(key);
+    } else {
+      this.m_open.add(key);
+    }
+  }
+
+  /**
+   * make sure that the arrays can hold a given sequence number
+   *
+   * @param seq
+   *          the sequence number
+   */
+  private final void __ensure(final int seq) {
+    final int len;
+    byte[] states;
+    String[] names;
+
+    if (seq < this.m_states.length) {
+      return;
+    }
+    len = Math.max((seq + 1), (this.m_states.length << 1));
+    states = new byte[len];
+    System.arraycopy(this.m_states, 0, states, 0, this.m_count);
+    this.m_states = states;
+    names = new String[len];
+    System.arraycopy(this.m_names, 0, names, 0, this.m_count);
+    this.m_names = names;
+  }
+
+  /**
+   * Find the first file index to try for a base name
+   *
+   * @param baseName
+   *          the base name
+   * @return the first index
+   */
+  private final int __firstIndex(final String baseName) {
+    String name;
+    int i, idx;
+
+    idx = 1;
+    for (i = this.m_count; (--i) >= 0;) {
+      name = this.m_names[i];
+      if ((name != null) && _RunLedger.__isFileOf(name, baseName)) {
+        idx = Math.max(idx, (1 + Integer.parseInt(name.substring(
+            baseName.length(), (name.length() - 4)))));
+      }
+    }
+    return idx;
+  }
+
+  /**
+   * Is a file name of the form {@code baseName+index+".txt"}?
+   *
+   * @param name
+   *          the file name
+   * @param baseName
+   *          the base name
+   * @return {@code true} if it is, {@code false} otherwise
+   */
+  private static final boolean __isFileOf(final String name,
+      final String baseName) {
+    final int end;
+    int i;
+
+    end = (name.length() - 4);
+    if ((end <= baseName.length()) || (end > (baseName.length() + 9))
+        || (!(name.startsWith(baseName))) || (!(name.endsWith(".txt")))) { //$NON-NLS-1$
+      return false;
+    }
+    for (i = baseName.length(); i < end; i++) {
+      if ((name.charAt(i) < '0') || (name.charAt(i) > '9')) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
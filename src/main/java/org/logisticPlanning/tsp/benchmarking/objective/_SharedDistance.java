@@ -0,0 +1,221 @@
+package org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * The process-wide registry of loaded distance computers. Distance
+ * computers are immutable, so all
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction
+ * objective functions} for the same
+ * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance
+ * instance} and loading parameters can use one single copy of the
+ * distance data, regardless to which
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark
+ * benchmark} they belong. Each objective function holds one reference,
+ * which is returned via
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#dispose()}
+ * . Once the last reference is returned, the distance computer is removed
+ * from the registry and can be garbage collected.
+ * </p>
+ * <p>
+ * If the benchmark allows it (see
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_SHARE_PRECOMPUTATIONS}
+ * ), the entry also holds immutable data structures computed from the
+ * distances, such as candidate sets, which are then computed only once
+ * for all objective functions using the entry. These data structures are
+ * discarded together with the distance computer.
+ * </p>
+ */
+final class _SharedDistance {
+
+  /** the registry */
+  private static final HashMap<String, _SharedDistance> REGISTRY = new HashMap<>();
+
+  /** the key */
+  private final String m_key;
+
+  /** the instance */
+  private final Instance m_instance;
+
+  /** the matrix limit dimension */
+  private final int m_limitDim;
+
+  /** the directory for binary distance matrix files */
+  private final File m_cacheDir;
+
+  /** the reference count, guarded by {@link #REGISTRY} */
+  private int m_refCount;
+
+  /** the distance computer, guarded by {@code this} */
+  private volatile DistanceComputer m_dist;
+
+  /** the shared precomputed data, guarded by itself */
+  private final HashMap<Object, Object> m_data;
+
+  /**
+   * create the shared distance entry
+   *
+   * @param key
+   *          the key
+   * @param instance
+   *          the instance
+   * @param limitDim
+   *          the matrix limit dimension
+   * @param cacheDir
+   *          the directory for binary distance matrix files
+   */
+  private _SharedDistance(final String key, final Instance instance,
+      final int limitDim, final File cacheDir) {
+    super();
+    this.m_key = key;
+    this.m_instance = instance;
+    this.m_limitDim = limitDim;
+    this.m_cacheDir = cacheDir;
+    this.m_data = new HashMap<>();
+  }
+
+  /**
+   * Get the distance computer, loading it if necessary.
+   *
+   * @return the distance computer
+   * @throws IOException
+   *           if loading fails
+   */
+  private synchronized final DistanceComputer __load() throws IOException {
+    DistanceComputer dist;
+
+    dist = this.m_dist;
+    if (dist == null) {
+      this.m_dist = dist = this.m_instance.load(this.m_limitDim,
+          this.m_cacheDir);
+    }
+    return dist;
+  }
+
+  /**
+   * Get the distance computer if it is currently loaded.
+   *
+   * @return the distance computer, or {@code null} if it is not loaded
+   */
+  final DistanceComputer _get() {
+    return this.m_dist;
+  }
+
+  /**
+   * Get a precomputed data structure shared by all users of this entry.
+   *
+   * @param key
+   *          the key identifying the data
+   * @return the data, or {@code null} if none has been stored under the
+   *         key
+   */
+  final Object _getData(final Object key) {
+    synchronized (this.m_data) {
+      return this.m_data.get(key);
+    }
+  }
+
+  /**
+   * Store a precomputed data structure, unless another one has already
+   * been stored under the same key.
+   *
+   * @param key
+   *          the key identifying the data
+   * @param data
+   *          the data
+   * @return the data stored under the key, i.e., either {@code data} or
+   *         the data stored before
+   */
+  final Object _putData(final Object key, final Object data) {
+    final Object old;
+
+    synchronized (this.m_data) {
+      old = this.m_data.get(key);
+      if (old != null) {
+        return old;
+      }
+      this.m_data.put(key, data);
+      return data;
+    }
+  }
+
+  /**
+   * Acquire a reference to a shared distance computer. Concurrent requests
+   * for the same data wait until the first request has loaded it, while
+   * requests for different instances are loaded in parallel.
+   *
+   * @param instance
+   *          the instance
+   * @param limitDim
+   *          the matrix limit dimension
+   * @param cacheDir
+   *          the directory for binary distance matrix files, or
+   *          {@code null}
+   * @return the shared distance entry, which must be
+   *         {@link #_release(_SharedDistance) released} later
+   * @throws IOException
+   *           if loading fails
+   */
+  static final _SharedDistance _acquire(final Instance instance,
+      final int limitDim, final File cacheDir) throws IOException {
+    final String key;
+    _SharedDistance entry;
+    boolean ok;
+
+    key = (instance.name() + '|' + limitDim + '|' + //
+    ((cacheDir != null) ? cacheDir.getPath() : null));
+
+    synchronized (_SharedDistance.REGISTRY) {
+      entry = _SharedDistance.REGISTRY.get(key);
+      if (entry == null) {
+        entry = new _SharedDistance(key, instance, limitDim, cacheDir);
+        _SharedDistance.REGISTRY.put(key, entry);
+      }
+      entry.m_refCount++;
+    }
+
+    ok = false;
+    try {
+      entry.__load();
+      ok = true;
+    } finally {
+      if (!ok) {
+        _SharedDistance._release(entry);
+      }
+    }
+
+    return entry;
+  }
+
+  /**
+   * Release a reference to a shared distance computer. If this was the
+   * last reference, the data is evicted from the registry.
+   *
+   * @param entry
+   *          the entry
+   */
+  static final void _release(final _SharedDistance entry) {
+    synchronized (_SharedDistance.REGISTRY) {
+      if ((--entry.m_refCount) <= 0) {
+        entry.m_refCount = 0;
+        if (_SharedDistance.REGISTRY.get(entry.m_key) == entry) {
+          _SharedDistance.REGISTRY.remove(entry.m_key);
+        }
+        entry.m_dist = null;
+        synchronized (entry.m_data) {
+          entry.m_data.clear();
+        }
+      }
+    }
+  }
+}
@@ -47,6 +47,13 @@ import org.logisticPlanning.tsp.solving.TSPAlgorithm;
  * using the same settings (such as distance information representations).
  * </p>
  * <p>
+ * Since the measurement does not change between runs on the same machine,
+ * its result is
+ * {@link org.logisticPlanning.tsp.benchmarking.objective._Calibration
+ * calibrated} only once per machine, instance, and distance
+ * representation and then re-used, also by later processes.
+ * </p>
+ * <p>
  * The &quot;standardized&quot; algorithm (implemented in this class here)
  * we use to perform that measurement is the
  * <em>{@link org.logisticPlanning.tsp.solving.algorithms.heuristics.doubleEndedNearestNeighbor.DoubleEndedNearestNeighborHeuristic double-ended nearest neighbor heuristic}</em>
@@ -442,14 +449,14 @@ final class _SpeedBenchmark extends TSPAlgorithm {
         b.setMaxDEs(Long.MAX_VALUE);
         b.setMaxFEs(Long.MAX_VALUE);
         b.setMaxRuntime(Long.MAX_VALUE);
-        b._init(false);
-        f = new ObjectiveFunction(b);
+        f = b._createObjective(false, 0l);
 
         f._beginRun(_SpeedBenchmark.INSTANCE, false);
         for (i = 200000; (--i) >= 0;) {
           _SpeedBenchmark.INSTANCE.solve(f);
         }
         f._clear();
+        f.dispose();
       }
 
       return _SpeedBenchmark.INSTANCE;
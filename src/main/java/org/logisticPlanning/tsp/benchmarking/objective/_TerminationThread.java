@@ -1,37 +1,78 @@
 package org.logisticPlanning.tsp.benchmarking.objective;
 
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * <p>
  * This class is an internal class. Please do not instantiate it, use it by
  * yourself, or otherwise meddle with it.
  * </p>
+ * <p>
  * This internal {@link java.lang.Thread thread} takes care of end times.
  * We could also check whether a runtime limit is reached by calling
  * {@link java.lang.System#currentTimeMillis()}, but this would be costly
  * (system calls!) and waste time during optimization. Thus, instead, we
- * have this thread which {@link java.lang.Object#wait(long) sleeps} until
- * the time limit of an objective function is reached and then updates its
+ * have this thread which {@link java.util.concurrent.locks.LockSupport
+ * sleeps} until the time limit of an objective function is reached and
+ * then updates its
  * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#shouldTerminate()
  * termination criterion}. As one thread is shared for all instances of
  * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction
  * ObjectiveFunction}, this method is very resource-friendly and saves
- * runtime.</p>
+ * runtime.
+ * </p>
+ * <p>
+ * The {@link org.logisticPlanning.tsp.benchmarking.objective._Deadline
+ * deadlines} are kept in a hashed timer wheel with a resolution of one
+ * millisecond and {@link #WHEEL_SIZE} slots: A deadline is put into the
+ * slot given by its end time modulo {@link #WHEEL_SIZE} and fires when
+ * this slot is visited after the end time has passed. The wheel is only
+ * accessed by this thread. New deadlines are handed over via a lock-free
+ * stack and cancelled deadlines are only marked and removed lazily when
+ * their slot is visited. Thus, both registering and cancelling a deadline
+ * take constant time, need no global monitor, and do not contend with
+ * each other, which matters if many short runs are performed in parallel.
+ * </p>
  */
 final class _TerminationThread extends Thread {
 
-  /** the synchronizer */
-  private static final Object SYNC = new Object();
+  /** the number of slots in the timer wheel: {@value} */
+  static final int WHEEL_SIZE = 1024;
+
+  /** the mask for the slot index */
+  private static final int WHEEL_MASK = (_TerminationThread.WHEEL_SIZE - 1);
+
+  /** the stack of newly registered deadlines */
+  private static final AtomicReference<_Deadline> NEW = new AtomicReference<>();
 
-  /** the queue */
-  private static volatile ObjectiveFunction s_queue = null;
   /** the instance */
-  private static volatile _TerminationThread s_instance = null;
+  private static final _TerminationThread INSTANCE;
+
+  static {
+    INSTANCE = new _TerminationThread();
+    _TerminationThread.INSTANCE.start();
+  }
+
+  /**
+   * the time at which this thread will wake up next, {@code 0l} if it is
+   * awake
+   */
+  private volatile long m_wakeTime;
+
+  /** the timer wheel */
+  private final _Deadline[] m_wheel;
+
+  /** the last time, i.e., wheel tick, which has been processed */
+  private long m_lastTick;
 
   /** create */
   private _TerminationThread() {
-    super();
+    super("TerminationThread"); //$NON-NLS-1$
 
     this.setDaemon(true);
+    this.m_wheel = new _Deadline[_TerminationThread.WHEEL_SIZE];
+    this.m_lastTick = System.currentTimeMillis();
   }
 
   /**
@@ -42,7 +83,8 @@ final class _TerminationThread extends Thread {
    */
   static final void _enqueue(final ObjectiveFunction f) {
     final long t;
-    ObjectiveFunction prev, next;
+    final _Deadline d;
+    _Deadline top;
 
     if (f == null) {
       return;
@@ -51,38 +93,24 @@ final class _TerminationThread extends Thread {
     if ((t >= Long.MAX_VALUE) || (t <= 0l)) {
       return;
     }
-
-    synchronized (_TerminationThread.SYNC) {
-
-      prev = null;
-      next = _TerminationThread.s_queue;
-
-      while (next != null) {
-        if (next == f) {
-          return;
-        }
-        if (next.m_endTime > f.m_endTime) {
-          break;
-        }
-        prev = next;
-        next = next.m_next;
-      }
-
-      f.m_next = next;
-      if (prev != null) {
-        prev.m_next = f;
+    top = f.m_deadline;
+    if (top != null) {
+      if (top._isPending() && (top.m_endTime == t)) {
         return;
       }
+      // a stale deadline of an earlier run must not end this one
+      f.m_deadline = null;
+      top._cancel();
+    }
 
-      _TerminationThread.s_queue = f;
+    f.m_deadline = d = new _Deadline(f, t);
+    do {
+      top = _TerminationThread.NEW.get();
+      d.m_nextNew = top;
+    } while (!(_TerminationThread.NEW.compareAndSet(top, d)));
 
-      if (_TerminationThread.s_instance == null) {
-        _TerminationThread.s_instance = new _TerminationThread();
-        _TerminationThread.s_instance.start();
-        return;
-      }
-
-      _TerminationThread.SYNC.notifyAll();
+    if (t < _TerminationThread.INSTANCE.m_wakeTime) {
+      LockSupport.unpark(_TerminationThread.INSTANCE);
     }
   }
 
@@ -93,62 +121,139 @@ final class _TerminationThread extends Thread {
    *          the function
    */
   static final void _dequeue(final ObjectiveFunction f) {
-    ObjectiveFunction cur, next;
+    final _Deadline d;
+
     if (f == null) {
       return;
     }
+    d = f.m_deadline;
+    if (d != null) {
+      f.m_deadline = null;
+      d._cancel();
+    }
+  }
 
-    synchronized (_TerminationThread.SYNC) {
-      cur = null;
-      next = _TerminationThread.s_queue;
-
-      while (next != null) {
-        if (next == f) {
-          if (cur == null) {
-            _TerminationThread.s_queue = next.m_next;
-            _TerminationThread.SYNC.notifyAll();
-            return;
-          }
-          cur.m_next = next.m_next;
-          return;
+  /**
+   * Insert a deadline into the wheel or fire it right away if its end time
+   * has already been reached.
+   *
+   * @param d
+   *          the deadline
+   * @param time
+   *          the current time
+   */
+  private final void __insert(final _Deadline d, final long time) {
+    final int slot;
+
+    if (d.m_endTime <= time) {
+      d._fire();
+      return;
+    }
+    if (d._isPending()) {
+      slot = (((int) (d.m_endTime)) & _TerminationThread.WHEEL_MASK);
+      d.m_nextInSlot = this.m_wheel[slot];
+      this.m_wheel[slot] = d;
+    }
+  }
+
+  /**
+   * Visit a slot of the wheel: fire all deadlines whose end time has been
+   * reached and remove them as well as all cancelled deadlines.
+   *
+   * @param slot
+   *          the slot index
+   * @param time
+   *          the current time
+   */
+  private final void __visit(final int slot, final long time) {
+    _Deadline prev, cur, next;
+
+    prev = null;
+    for (cur = this.m_wheel[slot]; cur != null; cur = next) {
+      next = cur.m_nextInSlot;
+      if (cur.m_endTime <= time) {
+        cur._fire();
+      } else {
+        if (cur._isPending()) {
+          prev = cur;
+          continue;
         }
-        cur = next;
-        next = next.m_next;
+      }
+
+      cur.m_nextInSlot = null;
+      if (prev == null) {
+        this.m_wheel[slot] = next;
+      } else {
+        prev.m_nextInSlot = next;
+      }
+    }
+  }
+
+  /**
+   * Find the next time at which a slot holding a deadline will be visited.
+   *
+   * @param time
+   *          the current time
+   * @return the next time, or {@link java.lang.Long#MAX_VALUE} if the
+   *         wheel is empty
+   */
+  private final long __next(final long time) {
+    final _Deadline[] wheel;
+    long t;
+
+    wheel = this.m_wheel;
+    for (t = (time + 1l); t <= (time + _TerminationThread.WHEEL_SIZE); t++) {
+      if (wheel[((int) t) & _TerminationThread.WHEEL_MASK] != null) {
+        return t;
       }
     }
+    return Long.MAX_VALUE;
   }
 
   /** {@inheritDoc} */
   @Override
   public final void run() {
-    long time;
+    long time, tick, next;
+    _Deadline d, n;
 
     for (;;) {
+      this.m_wakeTime = 0l;
       time = System.currentTimeMillis();
 
-      synchronized (_TerminationThread.SYNC) {
-
-        inner: for (;;) {
-          if (_TerminationThread.s_queue == null) {
-            _TerminationThread.s_instance = null;
-            return;
-          }
-
-          if (_TerminationThread.s_queue.m_endTime <= time) {
-            _TerminationThread.s_queue.m_terminate = true;
-            _TerminationThread.s_queue = _TerminationThread.s_queue.m_next;
-          } else {
-            break inner;
-          }
+      // advance the wheel to the current time
+      tick = this.m_lastTick;
+      if (time > tick) {
+        if ((time - tick) > _TerminationThread.WHEEL_SIZE) {
+          tick = (time - _TerminationThread.WHEEL_SIZE);
         }
-
-        try {
-          _TerminationThread.SYNC.wait(Math.max(0l,
-              (_TerminationThread.s_queue.m_endTime - time)));
-        } catch (final InterruptedException ie) {
-          continue;
+        while (tick < time) {
+          this.__visit(((int) (++tick)) & _TerminationThread.WHEEL_MASK,
+              time);
         }
       }
+      this.m_lastTick = time;
+
+      // move the newly registered deadlines into the wheel
+      d = _TerminationThread.NEW.getAndSet(null);
+      while (d != null) {
+        n = d.m_nextNew;
+        d.m_nextNew = null;
+        this.__insert(d, time);
+        d = n;
+      }
+
+      // sleep until the next slot with deadlines is due
+      next = this.__next(time);
+      this.m_wakeTime = next;
+      if (_TerminationThread.NEW.get() != null) {
+        continue;
+      }
+      if (next >= Long.MAX_VALUE) {
+        LockSupport.park(this);
+      } else {
+        LockSupport.parkNanos(this,
+            ((next - System.currentTimeMillis()) * 1000000l));
+      }
     }
   }
 }
@@ -1,5 +1,7 @@
 package org.logisticPlanning.tsp.solving;
 
+import java.io.Serializable;
+
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 
 /**
@@ -2320,6 +2322,98 @@ public class TSPAlgorithm extends TSPModule {
     }
   }
 
+  /**
+   * Estimate the memory in bytes which one run of this algorithm needs
+   * on a problem with {@code n} nodes, i.e., the size of the data
+   * structures allocated in
+   * {@link org.logisticPlanning.tsp.solving.TSPModule#beginRun(ObjectiveFunction)
+   * beginRun} and {@link #solve(ObjectiveFunction) solve}. The distance
+   * data of the instance is shared by all runs and not part of this
+   * estimate. The
+   * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner runner}
+   * uses the estimate to perform only as many runs in parallel as fit
+   * into the memory, see
+   * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_RUN_MEMORY}.
+   * The default implementation assumes a few arrays of length {@code n}.
+   * Algorithms whose memory grows faster, e.g., because they hold an
+   * {@code n*n} matrix or a large population, should override this
+   * method. The estimate does not need to be exact, but it should rather
+   * be too large than too small.
+   *
+   * @param n
+   *          the number of nodes
+   * @return the estimated memory needed by one run in bytes
+   */
+  public long estimateMemory(final int n) {
+    return (n * 64l);
+  }
+
+  /**
+   * Create a <a href=
+   * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+   * >checkpoint</a> of the current state of this algorithm. This method is
+   * invoked by {@link #checkpoint(ObjectiveFunction)} whenever a
+   * checkpoint is due. The returned object is handed back by
+   * {@link #getResumeState(ObjectiveFunction)} if the run is resumed
+   * after the process died or the run was cancelled. It must contain
+   * everything the algorithm needs to continue the run, but it should not
+   * contain the best solution or the consumed FEs, DEs, and runtime, since
+   * the objective function checkpoints these by itself. The default
+   * implementation returns {@code null}, meaning that checkpoints are not
+   * supported and runs will be restarted from scratch.
+   *
+   * @param f
+   *          the objective function
+   * @return the state of the algorithm, or {@code null} if checkpoints
+   *         are not supported
+   */
+  protected Serializable createCheckpoint(final ObjectiveFunction f) {
+    return null;
+  }
+
+  /**
+   * Take a <a href=
+   * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+   * >checkpoint</a> if one is due: Algorithms which support checkpoints
+   * should call this method regularly from {@link #solve(ObjectiveFunction)
+   * solve} at points where their state is consistent, e.g., at the
+   * beginning of each generation or iteration. If a checkpoint is due,
+   * {@link #createCheckpoint(ObjectiveFunction)} is invoked and its result
+   * is stored.
+   *
+   * @param f
+   *          the objective function
+   */
+  protected final void checkpoint(final ObjectiveFunction f) {
+    final Serializable state;
+
+    if (f.isCheckpointDue(this)) {
+      state = this.createCheckpoint(f);
+      if (state != null) {
+        f.checkpoint(this, state);
+      }
+    }
+  }
+
+  /**
+   * Get the state which was stored by
+   * {@link #createCheckpoint(ObjectiveFunction)} if the current run has
+   * been resumed from a <a href=
+   * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+   * >checkpoint</a>. An algorithm supporting checkpoints should call this
+   * method at the beginning of {@link #solve(ObjectiveFunction) solve} and,
+   * if it returns a state, continue from that state instead of starting a
+   * new search.
+   *
+   * @param f
+   *          the objective function
+   * @return the state of the algorithm, or {@code null} if the run has not
+   *         been resumed
+   */
+  protected final Serializable getResumeState(final ObjectiveFunction f) {
+    return f.getResumeState(this);
+  }
+
   /**
    * This method creates a deep clone of this object. It is used by the <a
    * href="{@docRoot}
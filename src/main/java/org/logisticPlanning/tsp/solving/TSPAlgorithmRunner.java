@@ -1,6 +1,10 @@
 package org.logisticPlanning.tsp.solving;
 
+import java.io.File;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -9,6 +13,7 @@ import org.logisticPlanning.tsp.benchmarking.objective.CreatorInfo;
 import org.logisticPlanning.utils.collections.lists.ArrayListView;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
+import org.logisticPlanning.utils.config.ListParser;
 import org.logisticPlanning.utils.config.LoggerOwner;
 
 /**
@@ -567,6 +572,67 @@ import org.logisticPlanning.utils.config.LoggerOwner;
  * <li>
  * <p>
  * If &quot;
+ * <code>{@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_PROCESSES maxProcesses}=nnn</code>
+ * &quot; is supplied, the benchmarker does not perform the runs itself but
+ * starts {@code nnn} worker JVMs, each with its own heap, which perform
+ * the runs with
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_THREADS
+ * maxThreads} threads each (by default, the available processors are
+ * divided among the workers). The workers share the runs via the run
+ * ledgers in the output directory, so their results end up in the usual
+ * directory structure. A worker which crashes, e.g., because it runs out
+ * of memory on a large instance, is restarted and its unfinished runs are
+ * performed again. The JVM arguments of the workers, e.g., their maximum
+ * heap size, can be set via &quot;
+ * <code>{@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_PROCESS_JVM_ARGS processJvmArgs}=&quot;-Xmx4g&nbsp;...&quot;</code>
+ * &quot;.
+ * </p>
+ * </li>
+ * <li>
+ * <p>
+ * If the benchmarker is stopped, e.g., via {@code Ctrl-C}, the runs in
+ * progress are
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#cancel()
+ * cancelled}: they end as soon as the algorithms notice that they should
+ * terminate, and they are marked as failed so that they are performed
+ * again from scratch when the benchmarker is started the next time. This
+ * can be turned off via &quot;
+ * <code>{@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_CANCEL_ON_SHUTDOWN cancelOnShutdown}=false</code>
+ * &quot;.
+ * </p>
+ * </li>
+ * <li>
+ * <p>
+ * The first runs of an algorithm in a JVM are slower than the later ones,
+ * as the JIT compiler has not yet compiled its code. If &quot;
+ * <code>{@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_WARM_UP_TIME warmUpTime}=nnn</code>
+ * &quot; is supplied, each thread therefore first performs an unlogged
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#isWarmUp()
+ * warm-up} run of at most {@code nnn} milliseconds with each algorithm,
+ * which is recorded in the system data section of the log files. Worker
+ * processes may additionally be started from a class data sharing archive
+ * via their
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_PROCESS_JVM_ARGS
+ * JVM arguments}.
+ * </p>
+ * </li>
+ * <li>
+ * <p>
+ * Each run needs memory for the data structures of its algorithm, which
+ * may grow much faster than the distance data, e.g., if the algorithm
+ * holds an {@code n*n} matrix. The threads therefore only perform as many
+ * runs at the same time as fit into the maximum heap size, where each run
+ * needs the
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithm#estimateMemory(int)
+ * memory estimated by its algorithm}, and let the other threads wait.
+ * The limit can be changed via &quot;
+ * <code>{@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_RUN_MEMORY maxRunMemory}=nnn</code>
+ * &quot;, where {@code 0} turns it off.
+ * </p>
+ * </li>
+ * <li>
+ * <p>
+ * If &quot;
  * <code>{@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_DEST_DIR outputDir}=dir</code>
  * &quot; is set, the output of the program, i.e., the log files, will be
  * written to the directory {@code dir}. Otherwise, they will be written to
@@ -686,6 +752,17 @@ import org.logisticPlanning.utils.config.LoggerOwner;
  * as if they were directly provided through the command line.
  * </p>
  * </li>
+ * <li>
+ * <p>
+ * If you want to compare many algorithms or configurations of an
+ * algorithm, you can benchmark all of them together with a
+ * {@link org.logisticPlanning.tsp.solving.TSPCampaignRunner campaign}
+ * instead of starting one runner per configuration. The campaign loads
+ * each instance only once for all configurations and performs their runs
+ * interleaved on one pool of threads, while the log files of each
+ * configuration are still stored in a directory of their own.
+ * </p>
+ * </li>
  * </ol>
  * <h2>References</h2>
  * <ol>
@@ -795,9 +872,112 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
    */
   public static final String PARAM_RUNNER_LOGGER = "algoLogger"; //$NON-NLS-1$
 
+  /**
+   * the command line parameter defining whether the runs with the highest
+   * estimated cost should be started first ({@value} ); if {@code false},
+   * the runs are performed in the order of the instances
+   */
+  public static final String PARAM_SCHEDULE_LONGEST_FIRST = "scheduleLongestFirst"; //$NON-NLS-1$
+
+  /**
+   * the command line parameter to define the maximum estimated memory in
+   * bytes for the distance data of all instances used at the same time,
+   * {@code 0} for unlimited ({@value} )
+   */
+  public static final String PARAM_MAX_MATRIX_MEMORY = "maxMatrixMemory"; //$NON-NLS-1$
+
+  /**
+   * the command line parameter to define the maximum estimated memory in
+   * bytes of all runs performed at the same time, {@code 0} for unlimited;
+   * defaults to the {@link java.lang.Runtime#maxMemory() maximum heap
+   * size} ({@value} )
+   */
+  public static final String PARAM_MAX_RUN_MEMORY = "maxRunMemory"; //$NON-NLS-1$
+
+  /**
+   * the command line parameter to define the number of worker processes
+   * (JVMs) performing the runs, {@code 0} for performing the runs in this
+   * process ({@value} )
+   */
+  public static final String PARAM_MAX_PROCESSES = "maxProcesses"; //$NON-NLS-1$
+
+  /**
+   * the command line parameter to define the additional arguments for the
+   * JVMs of the worker processes, separated by white space ({@value} )
+   */
+  public static final String PARAM_PROCESS_JVM_ARGS = "processJvmArgs"; //$NON-NLS-1$
+
+  /**
+   * the command line parameter to define how often a worker process may be
+   * restarted after it ended while runs remained ({@value} )
+   */
+  public static final String PARAM_MAX_PROCESS_RESTARTS = "maxProcessRestarts"; //$NON-NLS-1$
+
+  /**
+   * the command line parameter to define the instances to be used by
+   * {@link #main(String[])}, separated by
+   * {@link org.logisticPlanning.utils.config.ListParser#LIST_ITEM_SEPARATOR}
+   * ({@value} )
+   */
+  public static final String PARAM_INSTANCES = "instances"; //$NON-NLS-1$
+
+  /**
+   * the command line parameter defining whether the runs in progress
+   * should be {@link #cancel() cancelled} if the JVM is shut down, e.g.,
+   * via {@code Ctrl-C}, so that they are performed again when the
+   * benchmark is resumed ({@value} )
+   */
+  public static final String PARAM_CANCEL_ON_SHUTDOWN = "cancelOnShutdown"; //$NON-NLS-1$
+
+  /**
+   * the command line parameter defining the runtime in milliseconds of
+   * the warm-up run each thread performs before its first logged run of
+   * an algorithm, {@code 0} for no warm-up ({@value} )
+   */
+  public static final String PARAM_WARM_UP_TIME = "warmUpTime"; //$NON-NLS-1$
+
+  /** the default number of restarts per worker process */
+  private static final int DEFAULT_MAX_PROCESS_RESTARTS = 3;
+
+  /**
+   * the maximum time in milliseconds the shutdown hook waits for the
+   * cancelled runs to end: {@value}
+   */
+  private static final long SHUTDOWN_WAIT = 30000l;
+
   /** the maximum threads */
   private int m_maxThreads;
 
+  /** the number of worker processes, {@code 0} for none */
+  private int m_maxProcesses;
+
+  /** the additional jvm arguments of the worker processes */
+  private String m_jvmArgs;
+
+  /** the maximum number of restarts per worker process */
+  private int m_maxRestarts;
+
+  /** the instances */
+  private final ArrayListView<Instance> m_instances;
+
+  /** the configuration */
+  private Configuration m_cfg;
+
+  /** should the runs be cancelled if the JVM is shut down? */
+  private boolean m_cancelOnShutdown;
+
+  /** the runtime of the warm-up runs, {@code 0} for no warm-up */
+  private long m_warmUpTime;
+
+  /** the worker threads of the current benchmarking procedure */
+  private volatile _TSPThread[] m_threads;
+
+  /** the worker processes of the current benchmarking procedure */
+  private volatile _TSPProcess[] m_processes;
+
+  /** is the benchmarking procedure running? guarded by {@code this} */
+  private boolean m_running;
+
   /** the algorithm */
   private Class<? extends TSPAlgorithm> m_algo;
 
@@ -813,6 +993,16 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
   /** the initializer instance */
   private TSPAlgorithm m_initInst;
 
+  /**
+   * the algorithm setups of a
+   * {@link org.logisticPlanning.tsp.solving.TSPCampaignRunner campaign},
+   * or {@code null} if a single algorithm is benchmarked
+   */
+  private final _TSPSetup[] m_campaign;
+
+  /** the algorithm setups to benchmark */
+  private _TSPSetup[] m_setups;
+
   /** the internal creator info */
   private final CreatorInfo m_creator;
 
@@ -829,14 +1019,20 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
    *          the initializer
    * @param initInst
    *          the initializer instance
+   * @param campaign
+   *          the algorithm setups of a campaign, or {@code null}
    */
   private TSPAlgorithmRunner(final ArrayListView<Instance> instances,
       final Class<? extends TSPAlgorithm> algo,
       final TSPAlgorithm algoInst,
-      final Class<? extends TSPAlgorithm> init, final TSPAlgorithm initInst) {
+      final Class<? extends TSPAlgorithm> init,
+      final TSPAlgorithm initInst, final _TSPSetup[] campaign) {
     super("algorithmRunner", TSPAlgorithmRunner.PARAM_RUNNER_LOGGER); //$NON-NLS-1$
 
     this.m_maxThreads = Runtime.getRuntime().availableProcessors();
+    this.m_maxRestarts = TSPAlgorithmRunner.DEFAULT_MAX_PROCESS_RESTARTS;
+    this.m_cancelOnShutdown = true;
+    this.m_instances = instances;
     this.m_queue = new _TSPQueue(instances);
 
     this.m_algo = algo;
@@ -851,6 +1047,7 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
       this.m_init = initInst.getClass();
     }
 
+    this.m_campaign = campaign;
     this.m_creator = new CreatorInfo();
   }
 
@@ -878,7 +1075,7 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
   public TSPAlgorithmRunner(final ArrayListView<Instance> instances,
       final Class<? extends TSPAlgorithm> algo,
       final Class<? extends TSPAlgorithm> init) {
-    this(instances, algo, null, init, null);
+    this(instances, algo, null, init, null, null);
   }
 
   /**
@@ -893,7 +1090,7 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
    */
   public TSPAlgorithmRunner(final ArrayListView<Instance> instances,
       final TSPAlgorithm algoInst, final TSPAlgorithm initInst) {
-    this(instances, null, algoInst, null, initInst);
+    this(instances, null, algoInst, null, initInst, null);
   }
 
   /**
@@ -903,26 +1100,73 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
    *          the instances
    */
   public TSPAlgorithmRunner(final ArrayListView<Instance> instances) {
-    this(instances, null, null, null, null);
+    this(instances, null, null, null, null, null);
+  }
+
+  /**
+   * instantiate a runner for the setups of a
+   * {@link org.logisticPlanning.tsp.solving.TSPCampaignRunner campaign}
+   *
+   * @param instances
+   *          the instances
+   * @param campaign
+   *          the algorithm setups
+   */
+  TSPAlgorithmRunner(final ArrayListView<Instance> instances,
+      final _TSPSetup[] campaign) {
+    this(instances, null, null, null, null, campaign);
   }
 
   /** {@inheritDoc} */
   @Override
   public final void configure(final Configuration config) {
     super.configure(config);
+    this.m_cfg = config;
+
+    if (this.m_campaign == null) {
+      // the worker processes can only run a single algorithm
+      this.m_maxProcesses = config.getInt(
+          TSPAlgorithmRunner.PARAM_MAX_PROCESSES, 0, 10000,
+          this.m_maxProcesses);
+    }
+    this.m_jvmArgs = config.getString(
+        TSPAlgorithmRunner.PARAM_PROCESS_JVM_ARGS, this.m_jvmArgs);
+    this.m_maxRestarts = config.getInt(
+        TSPAlgorithmRunner.PARAM_MAX_PROCESS_RESTARTS, 0, 1000000,
+        this.m_maxRestarts);
+    this.m_cancelOnShutdown = config.getBoolean(
+        TSPAlgorithmRunner.PARAM_CANCEL_ON_SHUTDOWN,
+        this.m_cancelOnShutdown);
+    this.m_warmUpTime = config.getLong(TSPAlgorithmRunner.PARAM_WARM_UP_TIME,
+        0l, Long.MAX_VALUE, this.m_warmUpTime);
 
     this.m_maxThreads = config.getInt(
-        TSPAlgorithmRunner.PARAM_MAX_THREADS, 1, 10000, this.m_maxThreads);
+        TSPAlgorithmRunner.PARAM_MAX_THREADS,
+        1,
+        10000,
+        ((this.m_maxProcesses > 0) ? Math.max(1, (Runtime.getRuntime()
+            .availableProcessors() / this.m_maxProcesses))
+            : this.m_maxThreads));
 
     this.m_algoInst = config.getInstance(
         TSPAlgorithmRunner.PARAM_ALGO_CLASS, TSPAlgorithm.class,
         this.m_algo, this.m_algoInst);
+    if (this.m_algoInst != null) {
+      this.m_algo = this.m_algoInst.getClass();
+    }
 
     this.m_initInst = config.getInstance(
         TSPAlgorithmRunner.PARAM_DET_INIT_CLASS, TSPAlgorithm.class,
         this.m_init, this.m_initInst);
+    if (this.m_initInst != null) {
+      this.m_init = this.m_initInst.getClass();
+    }
 
     this.m_queue.configure(config);
+    this.m_setups = ((this.m_campaign != null) ? this.m_campaign
+        : new _TSPSetup[] { new _TSPSetup(this.m_algoInst,
+            this.m_initInst, config) });
+    this.m_queue._schedule(this.m_setups);
     this.m_creator.configure(config);
   }
 
@@ -936,18 +1180,36 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
     Configurable.printKey(TSPAlgorithmRunner.PARAM_MAX_THREADS, ps);
     ps.println(this.m_maxThreads);
 
-    Configurable.printKey(TSPAlgorithmRunner.PARAM_ALGO_CLASS, ps);
-    Configurable.printlnClass(this.m_algo, ps);
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_MAX_PROCESSES, ps);
+    ps.println(this.m_maxProcesses);
 
-    if (this.m_algoInst != null) {
-      this.m_algoInst.printConfiguration(ps);
-    }
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_PROCESS_JVM_ARGS, ps);
+    ps.println(this.m_jvmArgs);
 
-    Configurable.printKey(TSPAlgorithmRunner.PARAM_DET_INIT_CLASS, ps);
-    Configurable.printlnClass(this.m_init, ps);
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_MAX_PROCESS_RESTARTS,
+        ps);
+    ps.println(this.m_maxRestarts);
 
-    if (this.m_initInst != null) {
-      this.m_initInst.printConfiguration(ps);
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_CANCEL_ON_SHUTDOWN, ps);
+    ps.println(this.m_cancelOnShutdown);
+
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_WARM_UP_TIME, ps);
+    ps.println(this.m_warmUpTime);
+
+    if (this.m_campaign == null) {
+      Configurable.printKey(TSPAlgorithmRunner.PARAM_ALGO_CLASS, ps);
+      Configurable.printlnClass(this.m_algo, ps);
+
+      if (this.m_algoInst != null) {
+        this.m_algoInst.printConfiguration(ps);
+      }
+
+      Configurable.printKey(TSPAlgorithmRunner.PARAM_DET_INIT_CLASS, ps);
+      Configurable.printlnClass(this.m_init, ps);
+
+      if (this.m_initInst != null) {
+        this.m_initInst.printConfiguration(ps);
+      }
     }
 
     this.m_creator.printConfiguration(ps);
@@ -963,6 +1225,27 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
     Configurable.printKey(TSPAlgorithmRunner.PARAM_MAX_THREADS, ps);
     ps.println("the number of threads executing runs in parallel."); //$NON-NLS-1$
 
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_MAX_PROCESSES, ps);
+    ps.println(//
+    "the number of worker processes (JVMs) executing runs in parallel, each with maxThreads threads, 0 for executing the runs in this process"); //$NON-NLS-1$
+
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_PROCESS_JVM_ARGS, ps);
+    ps.println(//
+    "the additional JVM arguments of the worker processes, separated by white space"); //$NON-NLS-1$
+
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_MAX_PROCESS_RESTARTS,
+        ps);
+    ps.println(//
+    "how often a worker process may be restarted after ending while runs remain"); //$NON-NLS-1$
+
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_CANCEL_ON_SHUTDOWN, ps);
+    ps.println(//
+    "should the runs in progress be cancelled and repeated later if the JVM is shut down?"); //$NON-NLS-1$
+
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_WARM_UP_TIME, ps);
+    ps.println(//
+    "the runtime in milliseconds of the unlogged warm-up run each thread performs with each algorithm before its first logged run, so that the JIT has compiled the code before the runtime is measured; 0 for no warm-up"); //$NON-NLS-1$
+
     Configurable.printKey(TSPAlgorithmRunner.PARAM_ALGO_CLASS, ps);
     ps.println("the algorithm class"); //$NON-NLS-1$
 
@@ -980,30 +1263,285 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
     this.m_creator.printParameters(ps);
   }
 
+  /**
+   * Cancel the benchmarking procedure. This method may be called from any
+   * thread while {@link #benchmark()} is running. No new runs are begun
+   * and the runs in progress are
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#cancelRun()
+   * cancelled}: their algorithms see
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#shouldTerminate()
+   * shouldTerminate()} become {@code true}, their results do not count,
+   * and they will be performed again when the benchmark is resumed. If
+   * worker processes are used, they are asked to terminate and cancel
+   * their runs in the same way. {@link #benchmark()} returns once all runs
+   * in progress have ended. If {@link #PARAM_CANCEL_ON_SHUTDOWN} is set
+   * (the default), this method is called automatically if the JVM is shut
+   * down during benchmarking.
+   */
+  public final void cancel() {
+    final _TSPThread[] threads;
+    final _TSPProcess[] processes;
+
+    this.m_queue._cancel();
+
+    threads = this.m_threads;
+    if (threads != null) {
+      for (final _TSPThread t : threads) {
+        if (t != null) {
+          t._cancel();
+        }
+      }
+    }
+
+    processes = this.m_processes;
+    if (processes != null) {
+      for (final _TSPProcess p : processes) {
+        if (p != null) {
+          p._cancel();
+        }
+      }
+    }
+  }
+
+  /**
+   * Begin a benchmarking procedure: mark it as running and install the
+   * shutdown hook, if requested.
+   *
+   * @return the shutdown hook, or {@code null} if none was installed
+   */
+  private final Thread __beginBenchmark() {
+    final Thread hook;
+
+    synchronized (this) {
+      this.m_running = true;
+    }
+
+    if (!(this.m_cancelOnShutdown)) {
+      return null;
+    }
+    hook = new __ShutdownHook(this);
+    try {
+      Runtime.getRuntime().addShutdownHook(hook);
+    } catch (final IllegalStateException ise) {
+      return null; // the JVM is already shutting down
+    }
+    return hook;
+  }
+
+  /**
+   * End a benchmarking procedure: mark it as ended and remove the shutdown
+   * hook.
+   *
+   * @param hook
+   *          the shutdown hook, or {@code null} if none was installed
+   */
+  private final void __endBenchmark(final Thread hook) {
+    this.m_threads = null;
+    this.m_processes = null;
+
+    synchronized (this) {
+      this.m_running = false;
+      this.notifyAll();
+    }
+
+    if (hook != null) {
+      try {
+        Runtime.getRuntime().removeShutdownHook(hook);
+      } catch (final IllegalStateException ise) {
+        // the JVM is shutting down and the hook is running
+      }
+    }
+  }
+
+  /**
+   * Wait until the benchmarking procedure has ended.
+   *
+   * @param maxWait
+   *          the maximum time to wait, in milliseconds
+   */
+  final synchronized void _awaitEnd(final long maxWait) {
+    final long end;
+    long rest;
+
+    end = (System.currentTimeMillis() + maxWait);
+    while (this.m_running
+        && ((rest = (end - System.currentTimeMillis())) > 0l)) {
+      try {
+        this.wait(rest);
+      } catch (final InterruptedException ie) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Describe the benchmarked algorithms for the log.
+   *
+   * @return the description
+   */
+  private final String __describe() {
+    if (this.m_campaign != null) {
+      return (this.m_campaign.length + " algorithm setups"); //$NON-NLS-1$
+    }
+    return ("algorithm class " + this.m_algo + //$NON-NLS-1$
+        " and initializer class " + this.m_init); //$NON-NLS-1$
+  }
+
+  /**
+   * Create the command line for a worker process: The worker executes
+   * {@link #main(String[])} in a new JVM with the same class path and
+   * receives the complete configuration of this runner, the algorithm and
+   * initializer class, the instances, and the number of threads.
+   *
+   * @return the command line
+   */
+  private final ArrayList<String> __workerCommand() {
+    final ArrayList<String> cmd;
+    final StringBuilder sb;
+
+    cmd = new ArrayList<>();
+    cmd.add(new File(new File(System.getProperty("java.home"), //$NON-NLS-1$
+        "bin"), "java").getPath()); //$NON-NLS-1$//$NON-NLS-2$
+    if (this.m_jvmArgs != null) {
+      for (final String s : this.m_jvmArgs.split("\\s+")) { //$NON-NLS-1$
+        if (s.length() > 0) {
+          cmd.add(s);
+        }
+      }
+    }
+    cmd.add("-cp"); //$NON-NLS-1$
+    cmd.add(System.getProperty("java.class.path")); //$NON-NLS-1$
+    cmd.add(TSPAlgorithmRunner.class.getName());
+
+    if (this.m_cfg != null) {
+      cmd.addAll(Arrays.asList(this.m_cfg.toCommandLine()));
+    }
+
+    if (this.m_algo != null) {
+      cmd.add(TSPAlgorithmRunner.PARAM_ALGO_CLASS + '='
+          + this.m_algo.getName());
+    }
+    if (this.m_init != null) {
+      cmd.add(TSPAlgorithmRunner.PARAM_DET_INIT_CLASS + '='
+          + this.m_init.getName());
+    }
+
+    sb = new StringBuilder();
+    for (final Instance inst : this.m_instances) {
+      if (sb.length() > 0) {
+        sb.append(ListParser.LIST_ITEM_SEPARATOR);
+      }
+      sb.append(inst.name());
+    }
+    cmd.add(TSPAlgorithmRunner.PARAM_INSTANCES + '=' + sb);
+    cmd.add(TSPAlgorithmRunner.PARAM_MAX_THREADS + '=' + this.m_maxThreads);
+    cmd.add(TSPAlgorithmRunner.PARAM_MAX_PROCESSES + '=' + 0);
+    return cmd;
+  }
+
+  /**
+   * Benchmark the TSP algorithm with
+   * {@link #PARAM_MAX_PROCESSES worker processes}.
+   */
+  private final void __benchmarkProcesses() {
+    final _TSPProcess[] processes;
+    final ArrayList<String> cmd;
+    final Logger log;
+    final long start;
+    final int before;
+    final Thread hook;
+    int i, restarts;
+
+    processes = new _TSPProcess[this.m_maxProcesses];
+    log = this.getLogger();
+    cmd = this.__workerCommand();
+    before = this.m_queue._getRemainingRuns();
+
+    if ((log != null) && (log.isLoggable(Level.INFO))) {
+      log.info("Starting up benchmarking procedure with " + //$NON-NLS-1$
+          this.m_maxProcesses + " worker processes with " + //$NON-NLS-1$
+          this.m_maxThreads + " threads each for algorithm class " + //$NON-NLS-1$
+          this.m_algo + " and initializer class " + //$NON-NLS-1$
+          this.m_init);
+    }
+
+    restarts = 0;
+    start = System.currentTimeMillis();
+    hook = this.__beginBenchmark();
+    try {
+      for (i = processes.length; (--i) >= 0;) {
+        processes[i] = new _TSPProcess(cmd, this.m_queue,
+            this.m_maxRestarts, log);
+      }
+      this.m_processes = processes;
+
+      for (i = processes.length; (--i) >= 0;) {
+        processes[i].start();
+      }
+
+      for (i = processes.length; (--i) >= 0;) {
+        try {
+          try {
+            processes[i].join();
+            restarts += processes[i]._getRestarts();
+          } catch (final Throwable tt) {
+            if ((log != null) && (log.isLoggable(Level.SEVERE))) {
+              log.log(Level.SEVERE,
+                  "Error happened during benchmarking.", tt); //$NON-NLS-1$
+            } else {
+              tt.printStackTrace();
+            }
+          }
+        } finally {
+          processes[i] = null;
+        }
+      }
+    } finally {
+      this.__endBenchmark(hook);
+      if ((log != null) && (log.isLoggable(Level.INFO))) {
+        log.info("Benchmarking procedure performed " + //$NON-NLS-1$
+            (before - this.m_queue._getRemainingRuns()) + " runs with " + //$NON-NLS-1$
+            this.m_maxProcesses + " worker processes, which were restarted " + //$NON-NLS-1$
+            restarts + " times, with a makespan of " + //$NON-NLS-1$
+            Math.max(1l, (System.currentTimeMillis() - start)) + "ms"); //$NON-NLS-1$
+        log.info("Terminating benchmarking procedure with " + //$NON-NLS-1$
+            this.m_maxProcesses + " worker processes for algorithm class " + //$NON-NLS-1$
+            this.m_algo + " and initializer class " + //$NON-NLS-1$
+            this.m_init);
+      }
+    }
+  }
+
   /** Benchmark the TSP algorithm algorithm. */
   public void benchmark() {
     final _TSPThread[] threads;
     final Logger log;
+    final long start;
+    final Thread hook;
+    long makespan, busy;
     int i;
 
+    if (this.m_maxProcesses > 0) {
+      this.__benchmarkProcesses();
+      return;
+    }
+
     threads = new _TSPThread[this.m_maxThreads];
     log = this.getLogger();
 
     if ((log != null) && (log.isLoggable(Level.INFO))) {
       log.info("Starting up benchmarking procedure with " + //$NON-NLS-1$
-          this.m_maxThreads + " threads for algorithm class " + //$NON-NLS-1$
-          this.m_algo + " and initializer class " + //$NON-NLS-1$
-          this.m_init);
+          this.m_maxThreads + " threads for " + this.__describe()); //$NON-NLS-1$
     }
 
+    start = System.currentTimeMillis();
+    hook = this.__beginBenchmark();
     try {
       for (i = threads.length; (--i) >= 0;) {
-        threads[i] = new _TSPThread(
-            //
-            ((this.m_algoInst != null) ? (this.m_algoInst.clone()) : null),//
-            ((this.m_initInst != null) ? (this.m_initInst.clone()) : null),//
-            this.m_queue, this.m_creator, log);
+        threads[i] = new _TSPThread(this.m_setups, this.m_queue,
+            this.m_creator, log, this.m_warmUpTime);
       }
+      this.m_threads = threads;
 
       for (i = threads.length; (--i) >= 0;) {
         threads[i].start();
@@ -1026,11 +1564,17 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
         }
       }
     } finally {
+      this.__endBenchmark(hook);
       if ((log != null) && (log.isLoggable(Level.INFO))) {
+        makespan = Math.max(1l, (System.currentTimeMillis() - start));
+        busy = this.m_queue._getBusyTime();
+        log.info("Benchmarking procedure performed " + //$NON-NLS-1$
+            this.m_queue._getFinishedRuns() + " runs with a makespan of " + //$NON-NLS-1$
+            makespan + "ms and a total time of " + busy + //$NON-NLS-1$
+            "ms spent in runs, i.e., a thread utilization of " + //$NON-NLS-1$
+            ((100d * busy) / (((double) makespan) * this.m_maxThreads)) + '%');
         log.info("Terminating benchmarking procedure with " + //$NON-NLS-1$
-            this.m_maxThreads + " threads for algorithm class " + //$NON-NLS-1$
-            this.m_algo + " and initializer class " + //$NON-NLS-1$
-            this.m_init);
+            this.m_maxThreads + " threads for " + this.__describe()); //$NON-NLS-1$
       }
     }
   }
@@ -1077,4 +1621,98 @@ public final class TSPAlgorithmRunner extends LoggerOwner {
     }
   }
 
+  /**
+   * Get the instances defined by the parameter {@link #PARAM_INSTANCES}.
+   *
+   * @param cfg
+   *          the configuration
+   * @return the instances, by default all
+   *         {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#SYMMETRIC_INSTANCES
+   *         symmetric instances}
+   */
+  static final ArrayListView<Instance> _getInstances(final Configuration cfg) {
+    final List<String> names;
+    final Instance[] instances;
+    int i;
+
+    names = cfg.getStrings(TSPAlgorithmRunner.PARAM_INSTANCES, null);
+    if (names == null) {
+      return Instance.SYMMETRIC_INSTANCES;
+    }
+
+    instances = new Instance[names.size()];
+    for (i = instances.length; (--i) >= 0;) {
+      instances[i] = Instance.forName(names.get(i));
+      if (instances[i] == null) {
+        throw new IllegalArgumentException("Unknown instance: " + //$NON-NLS-1$
+            names.get(i));
+      }
+    }
+    return ArrayListView.makeArrayListView(instances);
+  }
+
+  /**
+   * Benchmark the algorithm defined by the parameter
+   * {@link #PARAM_ALGO_CLASS} on the instances defined by the parameter
+   * {@link #PARAM_INSTANCES} (by default, all
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#SYMMETRIC_INSTANCES
+   * symmetric instances}). This is the entry point of the worker processes
+   * started if {@link #PARAM_MAX_PROCESSES} is set. Different from
+   * {@link #benchmark(ArrayListView, Class, String[])}, this method ends
+   * the JVM with a non-zero exit code if benchmarking fails, so that a
+   * failed worker process can be detected and restarted.
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public static final void main(final String[] args) {
+    final Configuration cfg;
+    final TSPAlgorithmRunner r;
+
+    cfg = new Configuration();
+    try {
+      cfg.configure(args);
+
+      r = new TSPAlgorithmRunner(TSPAlgorithmRunner._getInstances(cfg));
+      r.configure(cfg);
+
+      if (cfg.getBoolean(Configurable.PARAM_HELP, false)) {
+        r.printParameters(System.out);
+        return;
+      }
+
+      r.benchmark();
+    } catch (final Throwable t) {
+      t.printStackTrace();
+      System.exit(1);
+    }
+  }
+
+  /**
+   * The shutdown hook {@link TSPAlgorithmRunner#cancel() cancelling} the
+   * runs in progress if the JVM is shut down during benchmarking.
+   */
+  private static final class __ShutdownHook extends Thread {
+
+    /** the owning runner */
+    private final TSPAlgorithmRunner m_owner;
+
+    /**
+     * create
+     *
+     * @param owner
+     *          the owning runner
+     */
+    __ShutdownHook(final TSPAlgorithmRunner owner) {
+      super("TSPAlgorithmRunnerShutdown"); //$NON-NLS-1$
+      this.m_owner = owner;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void run() {
+      this.m_owner.cancel();
+      this.m_owner._awaitEnd(TSPAlgorithmRunner.SHUTDOWN_WAIT);
+    }
+  }
 }
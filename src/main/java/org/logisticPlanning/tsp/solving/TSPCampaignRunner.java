@@ -0,0 +1,427 @@
+package org.logisticPlanning.tsp.solving;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.utils.collections.lists.ArrayListView;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
+import org.logisticPlanning.utils.config.LoggerOwner;
+import org.logisticPlanning.utils.io.FileUtils;
+
+/**
+ * <p>
+ * A benchmarking campaign: many algorithms, or many configurations of the
+ * same algorithm, are benchmarked together on a list of instances. Using
+ * a campaign instead of one
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner runner} per
+ * configuration has several advantages:
+ * </p>
+ * <ol>
+ * <li>Each instance is loaded only once for all configurations: its runs
+ * for all configurations are performed while it is loaded.</li>
+ * <li>Immutable data structures computed from the distances, such as
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet
+ * candidate sets} or the tour of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.MSTHeuristic
+ * MST heuristic}, are computed only once and
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_SHARE_PRECOMPUTATIONS
+ * shared} by all runs. The distance evaluations needed to compute them
+ * are still counted in every run, so the results are the same as if the
+ * configurations were benchmarked separately.</li>
+ * <li>The runs of all configurations are interleaved on one pool of
+ * threads, so the threads do not idle at the end of one configuration
+ * while the next one has not yet started.</li>
+ * </ol>
+ * <p>
+ * Each configuration is defined by a list of parameters, exactly like the
+ * command line of a runner benchmarking it alone: it must contain the
+ * parameter {@link TSPAlgorithmRunner#PARAM_ALGO_CLASS} and may contain
+ * any other parameter of the algorithm, the initializer, or the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark
+ * benchmark}. These parameters override the parameters of the campaign.
+ * The log files of a configuration are stored in its own
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_DEST_DIR
+ * output directory}. If a configuration does not define one, the folder
+ * named after the simple name of its algorithm class inside the output
+ * directory of the campaign is used. Two configurations may not use the
+ * same directory, so if the same algorithm class is used in several
+ * configurations, all but one must define their output directory
+ * explicitly.
+ * </p>
+ * <p>
+ * The configurations can be {@link #addAlgorithm(String[]) added} by
+ * program or be loaded from a {@link #PARAM_CAMPAIGN_FILE campaign file},
+ * which contains the parameters of one configuration per line, separated
+ * by white space. Empty lines and lines starting with {@code #} are
+ * ignored.
+ * </p>
+ */
+public final class TSPCampaignRunner extends LoggerOwner {
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * the command line parameter to define the campaign file, which contains
+   * the parameters of one algorithm configuration per line ({@value} )
+   */
+  public static final String PARAM_CAMPAIGN_FILE = "campaignFile"; //$NON-NLS-1$
+
+  /** the key for printing the algorithm setups: {@value} */
+  private static final String SETUP_KEY = "setup"; //$NON-NLS-1$
+
+  /** the comment start in the campaign file */
+  private static final char COMMENT = '#';
+
+  /** the instances */
+  private final ArrayListView<Instance> m_instances;
+
+  /** the parameters of the algorithm configurations added by program */
+  private final ArrayList<String[]> m_algorithms;
+
+  /** the campaign file */
+  private File m_file;
+
+  /** the algorithm setups */
+  private _TSPSetup[] m_setups;
+
+  /** the runner performing the runs */
+  private TSPAlgorithmRunner m_runner;
+
+  /**
+   * instantiate
+   *
+   * @param instances
+   *          the instances
+   */
+  public TSPCampaignRunner(final ArrayListView<Instance> instances) {
+    super("campaignRunner", TSPAlgorithmRunner.PARAM_RUNNER_LOGGER); //$NON-NLS-1$
+    this.m_instances = instances;
+    this.m_algorithms = new ArrayList<>();
+  }
+
+  /**
+   * Add an algorithm configuration to the campaign. This method must be
+   * called before {@link #configure(Configuration)}.
+   *
+   * @param params
+   *          the parameters of the configuration, in the form
+   *          {@code key=value}, which must include
+   *          {@link TSPAlgorithmRunner#PARAM_ALGO_CLASS}
+   */
+  public final void addAlgorithm(final String[] params) {
+    this.m_algorithms.add(params.clone());
+  }
+
+  /**
+   * Add an algorithm configuration to the campaign. This method must be
+   * called before {@link #configure(Configuration)}.
+   *
+   * @param algo
+   *          the algorithm class
+   * @param params
+   *          the other parameters of the configuration, in the form
+   *          {@code key=value}
+   */
+  public final void addAlgorithm(final Class<? extends TSPAlgorithm> algo,
+      final String[] params) {
+    final String[] all;
+
+    all = new String[params.length + 1];
+    all[0] = (TSPAlgorithmRunner.PARAM_ALGO_CLASS + '=' + algo.getName());
+    System.arraycopy(params, 0, all, 1, params.length);
+    this.m_algorithms.add(all);
+  }
+
+  /**
+   * Load the algorithm configurations from the campaign file.
+   *
+   * @param list
+   *          the list to add the configurations to
+   * @throws IOException
+   *           if io fails
+   */
+  private final void __loadCampaignFile(final ArrayList<String[]> list)
+      throws IOException {
+    String line;
+
+    try (final BufferedReader br = new BufferedReader(new FileReader(
+        this.m_file))) {
+      while ((line = br.readLine()) != null) {
+        line = line.trim();
+        if ((line.length() > 0)
+            && (line.charAt(0) != TSPCampaignRunner.COMMENT)) {
+          list.add(line.split("\\s+")); //$NON-NLS-1$
+        }
+      }
+    }
+  }
+
+  /**
+   * Create the setup of one algorithm configuration.
+   *
+   * @param base
+   *          the parameters of the campaign
+   * @param share
+   *          the default for sharing precomputed data
+   * @param baseDir
+   *          the output directory of the campaign
+   * @param params
+   *          the parameters of the configuration
+   * @param dirs
+   *          the output directories already in use
+   * @return the setup
+   * @throws IOException
+   *           if io fails
+   */
+  private static final _TSPSetup __makeSetup(final String[] base,
+      final boolean share, final File baseDir, final String[] params,
+      final HashSet<File> dirs) throws IOException {
+    final Configuration own, cfg;
+    final TSPAlgorithm algo, init;
+    final File dir;
+
+    own = new Configuration();
+    own.configure(params);
+
+    cfg = new Configuration();
+    cfg.putCommandLine(base);
+    cfg.putString(Benchmark.PARAM_SHARE_PRECOMPUTATIONS,
+        Boolean.toString(share));
+    cfg.putCommandLine(own.toCommandLine());
+
+    algo = cfg.getInstance(TSPAlgorithmRunner.PARAM_ALGO_CLASS,
+        TSPAlgorithm.class, null, null);
+    if (algo == null) {
+      throw new IllegalArgumentException(//
+          "No algorithm class defined for configuration " + //$NON-NLS-1$
+              Arrays.toString(params));
+    }
+    init = cfg.getInstance(TSPAlgorithmRunner.PARAM_DET_INIT_CLASS,
+        TSPAlgorithm.class, null, null);
+
+    if (own.getString(Benchmark.PARAM_DEST_DIR, null) == null) {
+      cfg.putString(Benchmark.PARAM_DEST_DIR, new File(baseDir, algo
+          .getClass().getSimpleName()).getPath());
+    }
+    dir = FileUtils.canonicalize(cfg.getFile(Benchmark.PARAM_DEST_DIR,
+        null));
+    if (!(dirs.add(dir))) {
+      throw new IllegalArgumentException(//
+          "Two algorithm configurations use the output directory " + //$NON-NLS-1$
+              dir + ", please define the parameter " + //$NON-NLS-1$
+              Benchmark.PARAM_DEST_DIR + " for each of them."); //$NON-NLS-1$
+    }
+
+    return new _TSPSetup(algo, init, cfg);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void configure(final Configuration config) {
+    final ArrayList<String[]> list;
+    final String[] base;
+    final boolean share;
+    final File baseDir;
+    final HashSet<File> dirs;
+    int i;
+
+    super.configure(config);
+
+    this.m_file = config.getFile(TSPCampaignRunner.PARAM_CAMPAIGN_FILE,
+        this.m_file);
+
+    list = new ArrayList<>(this.m_algorithms);
+    try {
+      if (this.m_file != null) {
+        this.__loadCampaignFile(list);
+      }
+
+      base = config.toCommandLine();
+      share = config.getBoolean(Benchmark.PARAM_SHARE_PRECOMPUTATIONS,
+          true);
+      baseDir = config.getFile(Benchmark.PARAM_DEST_DIR, new File(
+          Benchmark.DEFAULT_DEST_DIR));
+      dirs = new HashSet<>();
+
+      this.m_setups = new _TSPSetup[list.size()];
+      for (i = 0; i < this.m_setups.length; i++) {
+        this.m_setups[i] = TSPCampaignRunner.__makeSetup(base, share,
+            baseDir, list.get(i), dirs);
+      }
+    } catch (final IOException ioe) {
+      throw new IllegalArgumentException(ioe);
+    }
+
+    this.m_runner = new TSPAlgorithmRunner(this.m_instances, this.m_setups);
+    this.m_runner.configure(config);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void printConfiguration(final PrintStream ps) {
+    int i;
+
+    super.printConfiguration(ps);
+
+    Configurable.printKey(TSPCampaignRunner.PARAM_CAMPAIGN_FILE, ps);
+    ps.println((this.m_file != null) ? this.m_file.getAbsolutePath()
+        : null);
+
+    if (this.m_runner != null) {
+      this.m_runner.printConfiguration(ps);
+    }
+
+    if (this.m_setups != null) {
+      for (i = 0; i < this.m_setups.length; i++) {
+        Configurable.printKey((TSPCampaignRunner.SETUP_KEY + (i + 1)), ps);
+        ps.println(this.m_setups[i].m_cfg.getFile(Benchmark.PARAM_DEST_DIR,
+            null));
+
+        Configurable.printKey(TSPAlgorithmRunner.PARAM_ALGO_CLASS, ps);
+        Configurable.printlnClass(this.m_setups[i].m_algo.getClass(), ps);
+        this.m_setups[i].m_algo.printConfiguration(ps);
+
+        if (this.m_setups[i].m_init != null) {
+          Configurable.printKey(TSPAlgorithmRunner.PARAM_DET_INIT_CLASS,
+              ps);
+          Configurable.printlnClass(this.m_setups[i].m_init.getClass(), ps);
+          this.m_setups[i].m_init.printConfiguration(ps);
+        }
+      }
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void printParameters(final PrintStream ps) {
+    super.printParameters(ps);
+
+    Configurable.printKey(TSPCampaignRunner.PARAM_CAMPAIGN_FILE, ps);
+    ps.println(//
+    "the file with the parameters of one algorithm configuration per line, separated by white space"); //$NON-NLS-1$
+
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_INSTANCES, ps);
+    ps.println(//
+    "the instances to benchmark, by default all symmetric instances"); //$NON-NLS-1$
+
+    if (this.m_runner != null) {
+      this.m_runner.printParameters(ps);
+    }
+  }
+
+  /**
+   * Cancel the campaign, see {@link TSPAlgorithmRunner#cancel()}. This
+   * method may be called from any thread while {@link #benchmark()} is
+   * running.
+   */
+  public final void cancel() {
+    final TSPAlgorithmRunner r;
+
+    r = this.m_runner;
+    if (r != null) {
+      r.cancel();
+    }
+  }
+
+  /** Benchmark all algorithm configurations of the campaign. */
+  public final void benchmark() {
+    final Logger log;
+
+    if (this.m_runner == null) {
+      throw new IllegalStateException(//
+          "The campaign must be configured before benchmarking."); //$NON-NLS-1$
+    }
+
+    log = this.getLogger();
+    if ((log != null) && (log.isLoggable(Level.INFO))) {
+      log.info("Starting campaign with " + this.m_setups.length + //$NON-NLS-1$
+          " algorithm configurations on " + this.m_instances.size() + //$NON-NLS-1$
+          " instances."); //$NON-NLS-1$
+    }
+
+    this.m_runner.benchmark();
+  }
+
+  /**
+   * benchmark several tsp algorithm configurations in a campaign
+   *
+   * @param instances
+   *          the instances
+   * @param algorithms
+   *          the parameters of the algorithm configurations, see
+   *          {@link #addAlgorithm(String[])}
+   * @param params
+   *          the parameters of the campaign
+   */
+  public static final void benchmark(
+      final ArrayListView<Instance> instances, final String[][] algorithms,
+      final String[] params) {
+    final Configuration cfg;
+    final TSPCampaignRunner r;
+
+    cfg = new Configuration();
+    try {
+      cfg.configure(params);
+
+      r = new TSPCampaignRunner(instances);
+      for (final String[] algo : algorithms) {
+        r.addAlgorithm(algo);
+      }
+      r.configure(cfg);
+
+      if (cfg.getBoolean(Configurable.PARAM_HELP, false)) {
+        r.printParameters(System.out);
+        return;
+      }
+
+      r.benchmark();
+    } catch (final Throwable t) {
+      t.printStackTrace();
+    }
+  }
+
+  /**
+   * Benchmark the algorithm configurations defined in the
+   * {@link #PARAM_CAMPAIGN_FILE campaign file} on the instances defined by
+   * the parameter {@link TSPAlgorithmRunner#PARAM_INSTANCES} (by default,
+   * all
+   * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#SYMMETRIC_INSTANCES
+   * symmetric instances}).
+   *
+   * @param args
+   *          the command line arguments
+   */
+  public static final void main(final String[] args) {
+    final Configuration cfg;
+    final TSPCampaignRunner r;
+
+    cfg = new Configuration();
+    try {
+      cfg.configure(args);
+
+      r = new TSPCampaignRunner(TSPAlgorithmRunner._getInstances(cfg));
+      r.configure(cfg);
+
+      if (cfg.getBoolean(Configurable.PARAM_HELP, false)) {
+        r.printParameters(System.out);
+        return;
+      }
+
+      r.benchmark();
+    } catch (final Throwable t) {
+      t.printStackTrace();
+      System.exit(1);
+    }
+  }
+}
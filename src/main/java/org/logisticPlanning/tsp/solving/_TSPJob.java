@@ -0,0 +1,340 @@
+package org.logisticPlanning.tsp.solving;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * A job of the {@link org.logisticPlanning.tsp.solving._TSPQueue queue}:
+ * the runs still to be performed on one benchmark instance, by all
+ * {@link org.logisticPlanning.tsp.solving._TSPSetup algorithm setups} of
+ * the runner. Runs are {@link #_claim() claimed} with an atomic counter,
+ * so claiming a run never blocks. The runs of the different setups are
+ * {@link #m_schedule interleaved} round-robin, so that all setups
+ * progress evenly while the instance is loaded. The
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction
+ * objective function} of the first scheduled run of a job can be
+ * {@link #_prefetch() prefetched}, i.e., created by a background thread
+ * while the last runs of the previous job are still being performed. The
+ * first worker thread performing a run of that setup then
+ * {@link #_takePrefetched(int) takes} this objective function instead of
+ * loading the instance by itself.
+ * </p>
+ * <p>
+ * Jobs are ordered by their {@link #m_cost estimated cost per run},
+ * largest first, and then by the index of their instance.
+ * </p>
+ */
+final class _TSPJob implements Comparable<_TSPJob> {
+
+  /** the job indicating that there are no more runs to perform */
+  static final _TSPJob END = new _TSPJob(null, null, null,
+      Integer.MAX_VALUE);
+
+  /** the benchmarks, one per setup */
+  final Benchmark[] m_bms;
+
+  /**
+   * the indexes of the setups of the runs, in the order in which the runs
+   * are claimed
+   */
+  final int[] m_schedule;
+
+  /** the index of the instance in the instance list */
+  final int m_idx;
+
+  /**
+   * the maximum estimated cost of one run of any setup in milliseconds,
+   * see
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#estimateRunCost()}
+   */
+  final long m_cost;
+
+  /**
+   * the estimated memory needed by the instance in bytes, see
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#estimateMemory()}
+   */
+  final long m_memory;
+
+  /**
+   * the estimated memory needed by one run of each setup in bytes, in
+   * addition to {@link #m_memory}, see
+   * {@link org.logisticPlanning.tsp.solving.TSPAlgorithm#estimateMemory(int)}
+   */
+  final long[] m_runMemory;
+
+  /** one run in the upper half of {@link #m_runs}: {@value} */
+  private static final long RUN = (1l << 32l);
+
+  /**
+   * the number of runs which have not yet been claimed (upper 32 bits)
+   * and the number of runs which have been claimed but not yet finished
+   * (lower 32 bits), kept in one atomic variable so that the last run to
+   * finish can be detected exactly once
+   */
+  private final AtomicLong m_runs;
+
+  /** the next job, set by the queue before the job is handed out */
+  _TSPJob m_next;
+
+  /**
+   * have all runs of the job been claimed and finished? guarded by the
+   * queue
+   */
+  boolean m_done;
+
+  /**
+   * has the memory for the job been admitted by the queue? guarded by the
+   * queue
+   */
+  boolean m_admitted;
+
+  /** the prefetched objective function */
+  private ObjectiveFunction m_prefetched;
+
+  /** is the prefetching thread currently creating the objective function? */
+  private boolean m_loading;
+
+  /** has the prefetched objective function been taken? */
+  private boolean m_taken;
+
+  /**
+   * create the job
+   *
+   * @param bms
+   *          the benchmarks, one per setup
+   * @param runs
+   *          the number of runs to perform for each setup; this array is
+   *          modified
+   * @param runMemory
+   *          the estimated memory needed by one run of each setup in bytes
+   * @param idx
+   *          the index of the instance in the instance list
+   */
+  _TSPJob(final Benchmark[] bms, final int[] runs, final long[] runMemory,
+      final int idx) {
+    super();
+    int total, i, j;
+    long cost, memory;
+
+    this.m_bms = bms;
+    this.m_runMemory = runMemory;
+    this.m_idx = idx;
+
+    total = 0;
+    cost = memory = 0l;
+    if (bms != null) {
+      for (i = bms.length; (--i) >= 0;) {
+        if (runs[i] > 0) {
+          total += runs[i];
+          cost = Math.max(cost, bms[i].estimateRunCost());
+          memory = Math.max(memory, bms[i].estimateMemory());
+        }
+      }
+    }
+    this.m_cost = cost;
+    this.m_memory = memory;
+
+    this.m_schedule = new int[total];
+    for (j = 0; j < total;) {
+      for (i = 0; i < runs.length; i++) {
+        if (runs[i] > 0) {
+          runs[i]--;
+          this.m_schedule[j++] = i;
+        }
+      }
+    }
+
+    this.m_runs = new AtomicLong(total * _TSPJob.RUN);
+  }
+
+  /**
+   * Get the index of the setup of a claimed run.
+   *
+   * @param remaining
+   *          the number of runs which remained unclaimed after the run was
+   *          claimed, as returned by {@link #_claim()}
+   * @return the index of the setup
+   */
+  final int _getSetup(final int remaining) {
+    return this.m_schedule[this.m_schedule.length - 1 - remaining];
+  }
+
+  /**
+   * Claim one run of this job.
+   *
+   * @return the number of runs which remain unclaimed after the claim, or
+   *         {@code -1} if all runs had already been claimed before
+   */
+  final int _claim() {
+    final AtomicLong runs;
+    long s;
+    int r;
+
+    runs = this.m_runs;
+    for (;;) {
+      s = runs.get();
+      r = ((int) (s >>> 32l));
+      if (r <= 0) {
+        return (-1);
+      }
+      if (runs.compareAndSet(s, ((s - _TSPJob.RUN) + 1l))) {
+        return (r - 1);
+      }
+    }
+  }
+
+  /** Mark all runs of this job as claimed. */
+  final void _exhaust() {
+    final AtomicLong runs;
+    long s;
+
+    runs = this.m_runs;
+    do {
+      s = runs.get();
+    } while (!(runs.compareAndSet(s, (s & (_TSPJob.RUN - 1l)))));
+  }
+
+  /**
+   * Finish a claimed run.
+   *
+   * @return {@code true} if this was the last run of the job, i.e., all
+   *         runs have been claimed and finished
+   */
+  final boolean _finish() {
+    return (this.m_runs.decrementAndGet() == 0l);
+  }
+
+  /**
+   * Start creating the objective function of the setup of the first run
+   * of this job in a background thread. Does nothing for the {@link #END}
+   * job or if prefetching has already been started.
+   */
+  final void _prefetch() {
+    final Thread t;
+
+    if (this.m_bms == null) {
+      return;
+    }
+    synchronized (this) {
+      if (this.m_loading || this.m_taken || (this.m_prefetched != null)) {
+        return;
+      }
+      this.m_loading = true;
+    }
+
+    t = new Thread(new __Prefetcher(),
+        ("Prefetch-" + this.m_bms[0].name())); //$NON-NLS-1$
+    t.setDaemon(true);
+    t.start();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final int compareTo(final _TSPJob o) {
+    if (this.m_cost > o.m_cost) {
+      return (-1);
+    }
+    if (this.m_cost < o.m_cost) {
+      return 1;
+    }
+    return Integer.compare(this.m_idx, o.m_idx);
+  }
+
+  /**
+   * Take the prefetched objective function. If it is still being created,
+   * wait until this is done. Only the first call for the setup of the
+   * first run can obtain the objective function, all later calls and
+   * calls for other setups return {@code null}.
+   *
+   * @param setup
+   *          the index of the setup
+   * @return the prefetched objective function, or {@code null} if there
+   *         is none (anymore) and the caller must create it by itself
+   */
+  final synchronized ObjectiveFunction _takePrefetched(final int setup) {
+    final ObjectiveFunction f;
+
+    if (setup != this.m_schedule[0]) {
+      return null;
+    }
+
+    while (this.m_loading) {
+      try {
+        this.wait();
+      } catch (final InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+    }
+
+    this.m_taken = true;
+    f = this.m_prefetched;
+    this.m_prefetched = null;
+    return f;
+  }
+
+  /**
+   * Dispose the prefetched objective function if it has not been taken,
+   * e.g., because the remaining runs of the job were performed by other
+   * processes. Later calls to {@link #_takePrefetched(int)} return
+   * {@code null} and an objective function whose creation is still in
+   * progress is disposed once it has been created.
+   */
+  final void _disposePrefetched() {
+    final ObjectiveFunction f;
+
+    synchronized (this) {
+      this.m_taken = true;
+      f = this.m_prefetched;
+      this.m_prefetched = null;
+    }
+    if (f != null) {
+      f.dispose();
+    }
+  }
+
+  /** the runnable creating the objective function */
+  private final class __Prefetcher implements Runnable {
+
+    /** create */
+    __Prefetcher() {
+      super();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void run() {
+      final _TSPJob job;
+      ObjectiveFunction f;
+
+      job = _TSPJob.this;
+      f = null;
+      try {
+        f = job.m_bms[job.m_schedule[0]].createObjective();
+      } catch (final Throwable t) {
+        // ignore: the worker thread will try again and report the error
+        f = null;
+      } finally {
+        synchronized (job) {
+          job.m_loading = false;
+          if (job.m_taken) {
+            // the job has ended while the function was created
+            if (f != null) {
+              f.dispose();
+            }
+          } else {
+            job.m_prefetched = f;
+          }
+          job.notifyAll();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package org.logisticPlanning.tsp.solving;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.logisticPlanning.utils.processes.AutoProcess;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * The thread controlling one worker process of a
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner runner} in
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_PROCESSES
+ * process mode}. The thread starts a worker JVM executing
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#main(String[])}
+ * , wraps it into an
+ * {@link org.logisticPlanning.utils.processes.AutoProcess AutoProcess}
+ * which forwards its output to the logger, and waits for its end. The
+ * worker processes do not receive their runs from this thread: they
+ * claim them from the run ledgers of the result directories, exactly like
+ * independent processes working on the same output directory. If a worker
+ * ends while runs remain, e.g., because it crashed or ran out of memory,
+ * the runs it was performing are freed by the ledger and the thread
+ * starts a new worker, up to the given number of restarts. If the queue
+ * is {@link #_cancel() cancelled}, the worker process is asked to
+ * terminate and is not restarted.
+ * </p>
+ */
+final class _TSPProcess extends Thread {
+
+  /** the source class */
+  private static final String SOURCE_CLASS = _TSPProcess.class
+      .getCanonicalName();
+  /** the source class */
+  private static final String SOURCE_METHOD = "run"; //$NON-NLS-1$
+
+  /** the command line of the worker process */
+  private final List<String> m_command;
+
+  /** the queue */
+  private final _TSPQueue m_queue;
+
+  /** the maximum number of restarts */
+  private final int m_maxRestarts;
+
+  /** the logger */
+  private final Logger m_log;
+
+  /** the number of restarts performed */
+  private volatile int m_restarts;
+
+  /** the current worker process */
+  private volatile Process m_process;
+
+  /**
+   * Create
+   *
+   * @param command
+   *          the command line of the worker process
+   * @param queue
+   *          the queue
+   * @param maxRestarts
+   *          the maximum number of restarts
+   * @param log
+   *          the logger
+   */
+  _TSPProcess(final List<String> command, final _TSPQueue queue,
+      final int maxRestarts, final Logger log) {
+    super();
+    this.m_command = command;
+    this.m_queue = queue;
+    this.m_maxRestarts = maxRestarts;
+    this.m_log = log;
+  }
+
+  /**
+   * Get the number of times a worker process was restarted
+   *
+   * @return the number of times a worker process was restarted
+   */
+  final int _getRestarts() {
+    return this.m_restarts;
+  }
+
+  /**
+   * Ask the current worker process to terminate. The queue must have been
+   * {@link _TSPQueue#_cancel() cancelled} before, so that the worker is
+   * not restarted. On most systems, the worker receives a termination
+   * signal and cancels its runs in its shutdown hook.
+   */
+  final void _cancel() {
+    final Process p;
+
+    p = this.m_process;
+    if (p != null) {
+      p.destroy();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final void run() {
+    final Logger log;
+    final ProcessBuilder pb;
+    Process process;
+    AutoProcess p;
+    int code, remaining;
+
+    log = this.m_log;
+    pb = new ProcessBuilder(this.m_command);
+
+    for (;;) {
+      if (this.m_queue._isCancelled()) {
+        return;
+      }
+      if ((log != null) && (log.isLoggable(Level.INFO))) {
+        log.logp(Level.INFO, _TSPProcess.SOURCE_CLASS,
+            _TSPProcess.SOURCE_METHOD, ("Thread #" + this.getId() + //$NON-NLS-1$
+                " starts a worker process.")); //$NON-NLS-1$
+      }
+
+      try {
+        // runs without output may take very long: no hang detection
+        this.m_process = process = pb.start();
+        if (this.m_queue._isCancelled()) {
+          process.destroy();
+        }
+        p = new AutoProcess(log, Level.INFO, log, Level.WARNING, (-1l),
+            process);
+        code = p.waitFor();
+        this.m_process = null;
+      } catch (final Throwable t) {
+        if ((log != null) && (log.isLoggable(Level.SEVERE))) {
+          log.logp(Level.SEVERE, _TSPProcess.SOURCE_CLASS,
+              _TSPProcess.SOURCE_METHOD, ("Thread #" + this.getId() + //$NON-NLS-1$
+                  " could not start a worker process."), t); //$NON-NLS-1$
+        }
+        return;
+      }
+
+      if (this.m_queue._isCancelled()) {
+        return;
+      }
+
+      remaining = this.m_queue._getRemainingRuns();
+      if (remaining <= 0) {
+        if ((log != null) && (log.isLoggable(Level.INFO))) {
+          log.logp(Level.INFO, _TSPProcess.SOURCE_CLASS,
+              _TSPProcess.SOURCE_METHOD, ("Worker process of thread #" + //$NON-NLS-1$
+                  this.getId() + " ended with exit code " + code + //$NON-NLS-1$
+                  " and no runs remain - thread quits.")); //$NON-NLS-1$
+        }
+        return;
+      }
+
+      if (this.m_restarts >= this.m_maxRestarts) {
+        if ((log != null) && (log.isLoggable(Level.SEVERE))) {
+          log.logp(Level.SEVERE, _TSPProcess.SOURCE_CLASS,
+              _TSPProcess.SOURCE_METHOD, ("Worker process of thread #" + //$NON-NLS-1$
+                  this.getId() + " ended with exit code " + code + //$NON-NLS-1$
+                  " while " + remaining + //$NON-NLS-1$
+                  " runs remain, but it has already been restarted " + //$NON-NLS-1$
+                  this.m_restarts + " times - thread quits.")); //$NON-NLS-1$
+        }
+        return;
+      }
+
+      this.m_restarts++;
+      if ((log != null) && (log.isLoggable(Level.WARNING))) {
+        log.logp(Level.WARNING, _TSPProcess.SOURCE_CLASS,
+            _TSPProcess.SOURCE_METHOD, ("Worker process of thread #" + //$NON-NLS-1$
+                this.getId() + " ended with exit code " + code + //$NON-NLS-1$
+                " while " + remaining + //$NON-NLS-1$
+                " runs remain - restarting it.")); //$NON-NLS-1$
+      }
+    }
+  }
+}
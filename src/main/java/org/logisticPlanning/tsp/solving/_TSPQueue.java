@@ -1,6 +1,10 @@
 package org.logisticPlanning.tsp.solving;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.logisticPlanning.tsp.benchmarking.instances.Instance;
 import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
@@ -9,7 +13,57 @@ import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
 
 /**
+ * <p>
  * a queue holding information for running a tsp algorithm
+ * </p>
+ * <p>
+ * The queue is a sequence of {@link org.logisticPlanning.tsp.solving._TSPJob
+ * jobs}, one for each benchmark instance with remaining runs. A job
+ * contains the runs of all
+ * {@link org.logisticPlanning.tsp.solving._TSPSetup algorithm setups} on
+ * its instance, so if several algorithms are benchmarked in a
+ * {@link org.logisticPlanning.tsp.solving.TSPCampaignRunner campaign},
+ * each instance is loaded only once for all of them. Worker threads
+ * {@link #_claim(int[]) claim} runs without holding any lock: Each job
+ * counts its unclaimed runs atomically and the thread finding the current
+ * job exhausted moves the queue on to the next job via a compare-and-set
+ * operation. Loading the instances, i.e., creating the objective
+ * functions, thus happens in parallel outside of the queue. When the last
+ * run of a job is claimed, the objective function of the next job is
+ * {@link org.logisticPlanning.tsp.solving._TSPJob#_prefetch() prefetched}
+ * in the background, so that the threads do not wait for the next
+ * instance to load when they finish the last runs of the current one.
+ * </p>
+ * <p>
+ * By default, the jobs are scheduled longest-first, i.e., sorted by the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#estimateRunCost()
+ * estimated cost} of their runs in decreasing order. Since idle threads
+ * always take the next unclaimed run, this is the classical
+ * longest-processing-time-first list schedule: the long runs on the large
+ * instances are started first and the short runs fill the gaps at the
+ * end, instead of the long runs being started last and all other threads
+ * idling while they finish.
+ * </p>
+ * <p>
+ * If {@link TSPAlgorithmRunner#PARAM_MAX_MATRIX_MEMORY} is set, the
+ * queue only allows a job to load its instance if the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#estimateMemory()
+ * estimated memory} of all instances in use plus the memory of the new
+ * one does not exceed this limit. Threads switching to a job which is not
+ * yet {@link #_admit(_TSPJob) admitted} wait until enough runs have
+ * finished. A job is always admitted if no other instance is in use.
+ * </p>
+ * <p>
+ * Independent of the instances, a thread may only
+ * {@link #_beginRun(_TSPJob, int) begin} a run if the
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithm#estimateMemory(int)
+ * estimated memory} of the runs in progress plus the memory of the new run
+ * and the distance data of its instance does not exceed
+ * {@link TSPAlgorithmRunner#PARAM_MAX_RUN_MEMORY}, which defaults to the
+ * maximum heap size. Otherwise, the thread waits until enough runs have
+ * ended. A run is always begun if no other run is in progress, so an
+ * algorithm needing more memory than available is still run, alone.
+ * </p>
  */
 final class _TSPQueue extends Configurable {
   /** the serial version uid */
@@ -18,14 +72,44 @@ final class _TSPQueue extends Configurable {
   /** the instances */
   private final ArrayListView<Instance> m_instances;
 
-  /** the configuration */
-  private Configuration m_cfg;
+  /** the algorithm setups */
+  private _TSPSetup[] m_setups;
 
-  /** the current benchmark */
-  private volatile Benchmark m_bm;
+  /** should the jobs be scheduled longest-first? */
+  private boolean m_longestFirst;
 
-  /** the index */
-  private volatile int m_idx;
+  /**
+   * the maximum estimated memory of the instances in use in bytes, or
+   * {@code 0} if unlimited
+   */
+  private long m_maxMemory;
+
+  /**
+   * the maximum estimated memory of the runs performed at the same time in
+   * bytes, or {@code 0} if unlimited
+   */
+  private long m_maxRunMemory;
+
+  /** the current job */
+  private transient AtomicReference<_TSPJob> m_current;
+
+  /** the estimated memory of the instances currently in use */
+  private transient long m_memory;
+
+  /** the next job to be admitted */
+  private transient _TSPJob m_admitNext;
+
+  /** the estimated memory of the runs currently performed */
+  private transient long m_runMemory;
+
+  /** the total time spent in runs, in milliseconds */
+  private transient AtomicLong m_busy;
+
+  /** the number of finished runs */
+  private transient AtomicLong m_finished;
+
+  /** has the queue been cancelled? */
+  private transient volatile boolean m_cancelled;
 
   /**
    * instantiate
@@ -36,76 +120,450 @@ final class _TSPQueue extends Configurable {
   _TSPQueue(final ArrayListView<Instance> inst) {
     super("queue"); //$NON-NLS-1$
     this.m_instances = inst;
-    this.m_idx = (-1);
+    this.m_longestFirst = true;
+    this.m_maxRunMemory = Runtime.getRuntime().maxMemory();
   }
 
   /** {@inheritDoc} */
   @Override
   public final void configure(final Configuration config) {
     super.configure(config);
-    this.m_cfg = config;
+
+    this.m_longestFirst = config.getBoolean(
+        TSPAlgorithmRunner.PARAM_SCHEDULE_LONGEST_FIRST,
+        this.m_longestFirst);
+    this.m_maxMemory = config.getLong(
+        TSPAlgorithmRunner.PARAM_MAX_MATRIX_MEMORY, 0l, Long.MAX_VALUE,
+        this.m_maxMemory);
+    this.m_maxRunMemory = config.getLong(
+        TSPAlgorithmRunner.PARAM_MAX_RUN_MEMORY, 0l, Long.MAX_VALUE,
+        this.m_maxRunMemory);
+  }
+
+  /**
+   * Estimate the memory needed by one run of a setup, i.e., by its
+   * objective function, initializer, and algorithm.
+   *
+   * @param setup
+   *          the setup
+   * @param bm
+   *          the benchmark of the setup
+   * @return the estimated memory in bytes
+   */
+  private static final long __estimateRunMemory(final _TSPSetup setup,
+      final Benchmark bm) {
+    final int n;
+    long memory;
+
+    n = bm.getInstance().n();
+    memory = bm.estimateRunMemory();
+    if (setup.m_init != null) {
+      memory += setup.m_init.estimateMemory(n);
+    }
+    if (setup.m_algo != null) {
+      memory += setup.m_algo.estimateMemory(n);
+    }
+    return memory;
+  }
+
+  /**
+   * Create the schedule, i.e., the chain of jobs. This method must be
+   * called after {@link #configure(Configuration)}.
+   *
+   * @param setups
+   *          the algorithm setups
+   */
+  final void _schedule(final _TSPSetup[] setups) {
+    final ArrayList<_TSPJob> jobs;
+    Benchmark[] bms;
+    int[] runs;
+    long[] runMemory;
+    _TSPJob job, next;
+    int i, j, total;
+
+    this.m_setups = setups;
+    jobs = new ArrayList<>(this.m_instances.size());
+    for (i = 0; i < this.m_instances.size(); i++) {
+      bms = new Benchmark[setups.length];
+      runs = new int[setups.length];
+      runMemory = new long[setups.length];
+      total = 0;
+      for (j = 0; j < setups.length; j++) {
+        bms[j] = new Benchmark(this.m_instances.get(i));
+        bms[j].configure(setups[j].m_cfg);
+        total += (runs[j] = bms[j].remainingRunCount());
+        runMemory[j] = _TSPQueue.__estimateRunMemory(setups[j], bms[j]);
+      }
+      if (total > 0) {
+        jobs.add(new _TSPJob(bms, runs, runMemory, i));
+      }
+    }
+
+    if (this.m_longestFirst) {
+      Collections.sort(jobs);
+    }
+
+    next = _TSPJob.END;
+    for (i = jobs.size(); (--i) >= 0;) {
+      job = jobs.get(i);
+      job.m_next = next;
+      next = job;
+    }
+
+    this.m_current = new AtomicReference<>(next);
+    this.m_memory = 0l;
+    this.m_admitNext = next;
+    this.m_runMemory = 0l;
+    this.m_busy = new AtomicLong();
+    this.m_finished = new AtomicLong();
+    this.m_cancelled = false;
+  }
+
+  /**
+   * get the benchmark whose configuration should be printed
+   *
+   * @return the benchmark
+   */
+  private final Benchmark __printBenchmark() {
+    final _TSPJob job;
+    final Benchmark bm;
+
+    job = this.m_current.get();
+    if (job.m_bms != null) {
+      return job.m_bms[0];
+    }
+    bm = new Benchmark(this.m_instances.first());
+    bm.configure(this.m_setups[0].m_cfg);
+    return bm;
   }
 
   /** {@inheritDoc} */
   @Override
   public final void printConfiguration(final PrintStream ps) {
-    Benchmark bm;
-
     super.printConfiguration(ps);
 
-    if (this.m_cfg != null) {
-      bm = this.next();
-      if (bm == null) {
-        bm = new Benchmark(this.m_instances.first());
-        bm.configure(this.m_cfg);
-      }
-      bm.printConfiguration(ps);
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_SCHEDULE_LONGEST_FIRST,
+        ps);
+    ps.println(this.m_longestFirst);
+
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_MAX_MATRIX_MEMORY, ps);
+    ps.println(this.m_maxMemory);
+
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_MAX_RUN_MEMORY, ps);
+    ps.println(this.m_maxRunMemory);
+
+    if (this.m_setups != null) {
+      this.__printBenchmark().printConfiguration(ps);
     }
   }
 
   /** {@inheritDoc} */
   @Override
   public final void printParameters(final PrintStream ps) {
-    Benchmark bm;
-
     super.printParameters(ps);
 
-    if (this.m_cfg != null) {
-      bm = this.next();
-      if (bm == null) {
-        bm = new Benchmark(this.m_instances.first());
-        bm.configure(this.m_cfg);
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_SCHEDULE_LONGEST_FIRST,
+        ps);
+    ps.println(//
+    "should the runs with the highest estimated cost be started first?"); //$NON-NLS-1$
+
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_MAX_MATRIX_MEMORY, ps);
+    ps.println(//
+    "the maximum estimated memory in bytes for the distance data of instances used at the same time, 0 for unlimited"); //$NON-NLS-1$
+
+    Configurable.printKey(TSPAlgorithmRunner.PARAM_MAX_RUN_MEMORY, ps);
+    ps.println(//
+    "the maximum estimated memory in bytes of the runs performed at the same time, 0 for unlimited, defaults to the maximum heap size"); //$NON-NLS-1$
+
+    if (this.m_setups != null) {
+      this.__printBenchmark().printParameters(ps);
+    }
+  }
+
+  /**
+   * Claim the next run to perform. This method does not block.
+   *
+   * @param setup
+   *          an array whose first element receives the index of the
+   *          algorithm setup of the claimed run
+   * @return the job to which the claimed run belongs, or {@code null} if
+   *         there are no more runs to perform or the queue has been
+   *         {@link #_cancel() cancelled}
+   */
+  final _TSPJob _claim(final int[] setup) {
+    final AtomicReference<_TSPJob> current;
+    _TSPJob job, next;
+    int remaining;
+
+    current = this.m_current;
+    for (;;) {
+      job = current.get();
+      if ((job == _TSPJob.END) || this.m_cancelled) {
+        return null;
+      }
+
+      remaining = job._claim();
+      if (remaining >= 0) {
+        setup[0] = job._getSetup(remaining);
+        if (remaining == 0) {
+          // the last run of the job: load the next instance in the
+          // background while the current runs are performed
+          next = job.m_next;
+          if ((next != _TSPJob.END) && this.__tryAdmit(next)) {
+            next._prefetch();
+          }
+        }
+        return job;
       }
-      bm.printParameters(ps);
+
+      current.compareAndSet(job, job.m_next);
     }
   }
 
   /**
-   * get the next benchmark to work on
+   * Cancel the queue: no more runs can be {@link #_claim(int[]) claimed} and
+   * threads {@link #_admit(_TSPJob) waiting for admission} return.
+   */
+  final void _cancel() {
+    this.m_cancelled = true;
+    synchronized (this) {
+      this.notifyAll();
+    }
+  }
+
+  /**
+   * Has the queue been {@link #_cancel() cancelled}?
    *
-   * @return the next benchmark to work on
+   * @return {@code true} if the queue has been cancelled, {@code false}
+   *         otherwise
    */
-  final Benchmark next() {
-    Benchmark bm;
+  final boolean _isCancelled() {
+    return this.m_cancelled;
+  }
+
+  /**
+   * Try to admit a job without waiting.
+   *
+   * @param job
+   *          the job
+   * @return {@code true} if the job is admitted, {@code false} otherwise
+   */
+  private final boolean __tryAdmit(final _TSPJob job) {
+    if (this.m_maxMemory <= 0l) {
+      return true;
+    }
 
-    bm = this.m_bm;
-    if ((bm != null) && (bm.remainingRunCount() > 0)) {
-      return bm;
+    synchronized (this) {
+      if (job.m_admitted) {
+        return true;
+      }
+      if ((job != this.m_admitNext) || //
+          ((this.m_memory > 0l) && //
+          ((this.m_memory + job.m_memory) > this.m_maxMemory))) {
+        return false;
+      }
+      job.m_admitted = true;
+      this.__admitFrom(job.m_next);
+      this.m_memory += job.m_memory;
+      return true;
     }
+  }
 
-    for (;;) {
-      this.m_bm = bm = null;
+  /**
+   * Let the admission continue with the given job or, if it is already
+   * finished, with the first following job which is not. A job can be
+   * finished without ever having been admitted if all of its runs were
+   * {@link #_skip(_TSPJob) skipped}. This method must only be called
+   * while holding the lock of the queue.
+   *
+   * @param job
+   *          the job
+   */
+  private final void __admitFrom(final _TSPJob job) {
+    _TSPJob next;
 
-      if ((++this.m_idx) >= this.m_instances.size()) {
-        return null;
+    for (next = job; next.m_done; next = next.m_next) {
+      // skip the finished jobs
+    }
+    this.m_admitNext = next;
+  }
+
+  /**
+   * Wait until a job is admitted, i.e., until its instance can be loaded
+   * without exceeding the memory limit, or until the queue is
+   * {@link #_cancel() cancelled}. Jobs are admitted in the order of the
+   * schedule.
+   *
+   * @param job
+   *          the job
+   * @throws InterruptedException
+   *           if the thread is interrupted while waiting
+   */
+  final void _admit(final _TSPJob job) throws InterruptedException {
+    if (this.m_maxMemory <= 0l) {
+      return;
+    }
+
+    synchronized (this) {
+      while (!(this.m_cancelled || this.__tryAdmit(job))) {
+        this.wait();
       }
+    }
+  }
 
-      this.m_bm = bm = new Benchmark(this.m_instances.get(this.m_idx));
-      bm.configure(this.m_cfg);
+  /**
+   * Wait until a run of a setup of a job can be performed without the
+   * estimated memory of all runs in progress exceeding the limit, or until
+   * the queue is {@link #_cancel() cancelled}. The run is always admitted
+   * if no other run is in progress. Each call which returns normally must
+   * be followed by a call to {@link #_endRun(_TSPJob, int)} once the run
+   * has ended.
+   *
+   * @param job
+   *          the job
+   * @param setup
+   *          the index of the setup
+   * @throws InterruptedException
+   *           if the thread is interrupted while waiting
+   */
+  final void _beginRun(final _TSPJob job, final int setup)
+      throws InterruptedException {
+    final long memory;
+
+    if (this.m_maxRunMemory <= 0l) {
+      return;
+    }
 
-      if (bm.remainingRunCount() > 0) {
-        return bm;
+    memory = job.m_runMemory[setup];
+    synchronized (this) {
+      while ((!(this.m_cancelled)) && (this.m_runMemory > 0l) && //
+          ((this.m_runMemory + memory + job.m_memory) > this.m_maxRunMemory)) {
+        this.wait();
       }
+      this.m_runMemory += memory;
+    }
+  }
+
+  /**
+   * A run begun via {@link #_beginRun(_TSPJob, int)} has ended: release
+   * its memory and wake up the threads waiting to begin a run.
+   *
+   * @param job
+   *          the job
+   * @param setup
+   *          the index of the setup
+   */
+  final void _endRun(final _TSPJob job, final int setup) {
+    if (this.m_maxRunMemory <= 0l) {
+      return;
     }
+
+    synchronized (this) {
+      this.m_runMemory -= job.m_runMemory[setup];
+      this.notifyAll();
+    }
+  }
+
+  /**
+   * Finish a run claimed via {@link #_claim(int[])}.
+   *
+   * @param job
+   *          the job
+   * @param time
+   *          the time spent in the run, in milliseconds
+   */
+  final void _finish(final _TSPJob job, final long time) {
+    this.m_busy.addAndGet(time);
+    this.m_finished.incrementAndGet();
+    this.__finish(job);
+  }
+
+  /**
+   * Give back a run claimed via {@link #_claim(int[])} which could not be
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#reserveRun()
+   * reserved} because other processes perform the remaining runs of the
+   * benchmark, or which has been cancelled. If the job belongs to a single
+   * algorithm setup, it is marked as exhausted. Otherwise, the runs of the
+   * other setups are still performed.
+   *
+   * @param job
+   *          the job
+   */
+  final void _skip(final _TSPJob job) {
+    if (job.m_bms.length <= 1) {
+      job._exhaust();
+    }
+    this.__finish(job);
+  }
+
+  /**
+   * A claimed run of a job has ended: release the memory of the job if it
+   * was its last run. If the job has never been admitted, e.g., because
+   * all of its runs were skipped, the admission moves on past it, since
+   * otherwise the following jobs would wait for it forever.
+   *
+   * @param job
+   *          the job
+   */
+  private final void __finish(final _TSPJob job) {
+    if (!(job._finish())) {
+      return;
+    }
+    job._disposePrefetched();
+    if (this.m_maxMemory > 0l) {
+      synchronized (this) {
+        job.m_done = true;
+        if (job.m_admitted) {
+          job.m_admitted = false;
+          this.m_memory -= job.m_memory;
+        }
+        if (job == this.m_admitNext) {
+          this.__admitFrom(job.m_next);
+        }
+        this.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Count the runs which still have to be performed on all instances by
+   * all setups, i.e., the runs which have neither been finished nor are being
+   * performed by a living process. Different from the jobs of the queue,
+   * which are created once, this method re-reads the run ledgers and thus
+   * also notices runs given free by crashed processes.
+   *
+   * @return the number of remaining runs
+   */
+  final int _getRemainingRuns() {
+    Benchmark bm;
+    int i, runs;
+
+    runs = 0;
+    for (i = this.m_instances.size(); (--i) >= 0;) {
+      for (final _TSPSetup setup : this.m_setups) {
+        bm = new Benchmark(this.m_instances.get(i));
+        bm.configure(setup.m_cfg);
+        runs += bm.remainingRunCount();
+      }
+    }
+    return runs;
+  }
+
+  /**
+   * Get the total time spent in finished runs
+   *
+   * @return the total time spent in finished runs, in milliseconds
+   */
+  final long _getBusyTime() {
+    return this.m_busy.get();
+  }
+
+  /**
+   * Get the number of finished runs
+   *
+   * @return the number of finished runs
+   */
+  final long _getFinishedRuns() {
+    return this.m_finished.get();
   }
 }
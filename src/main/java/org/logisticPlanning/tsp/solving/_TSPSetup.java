@@ -0,0 +1,51 @@
+package org.logisticPlanning.tsp.solving;
+
+import org.logisticPlanning.utils.config.Configuration;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * One algorithm setup benchmarked by a
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner runner}: the
+ * configured algorithm and initializer, which are cloned by each worker
+ * thread, and the configuration from which the
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark
+ * benchmarks}, e.g., the output directory, are created. A runner for a
+ * single algorithm has one setup, a
+ * {@link org.logisticPlanning.tsp.solving.TSPCampaignRunner campaign} has
+ * one setup per algorithm configuration.
+ * </p>
+ */
+final class _TSPSetup {
+
+  /** the algorithm, or {@code null} if none is defined */
+  final TSPAlgorithm m_algo;
+
+  /** the initialization algorithm, or {@code null} if none is defined */
+  final TSPAlgorithm m_init;
+
+  /** the configuration */
+  final Configuration m_cfg;
+
+  /**
+   * create the setup
+   *
+   * @param algo
+   *          the algorithm, or {@code null} if none is defined
+   * @param init
+   *          the initialization algorithm, or {@code null} if none is
+   *          defined
+   * @param cfg
+   *          the configuration
+   */
+  _TSPSetup(final TSPAlgorithm algo, final TSPAlgorithm init,
+      final Configuration cfg) {
+    super();
+    this.m_algo = algo;
+    this.m_init = init;
+    this.m_cfg = cfg;
+  }
+}
@@ -14,7 +14,32 @@ import org.logisticPlanning.utils.utils.MemoryUtils;
  * yourself, or otherwise meddle with it.
  * </p>
  * <p>
- * The worker thread executing the TSP solving algorithms.
+ * The worker thread executing the TSP solving algorithms. The thread owns
+ * a clone of the algorithm and initializer of each
+ * {@link org.logisticPlanning.tsp.solving._TSPSetup setup} and, while it
+ * performs the runs of a {@link org.logisticPlanning.tsp.solving._TSPJob
+ * job}, one objective function per setup. All of these objective
+ * functions use the same shared distance data.
+ * </p>
+ * <p>
+ * If a warm-up time is defined, the thread performs one
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#isWarmUp()
+ * warm-up} run of the initializer and algorithm of each setup before its
+ * first logged run of that setup, so that the code is already compiled by
+ * the JIT when the runtime is measured.
+ * </p>
+ * <p>
+ * Before a run, including its warm-up run, the thread waits until the
+ * queue {@link org.logisticPlanning.tsp.solving._TSPQueue#_beginRun(_TSPJob, int)
+ * admits} it, i.e., until the estimated memory of the run fits next to the
+ * runs performed by the other threads.
+ * </p>
+ * <p>
+ * If a run was left unfinished by an earlier process or was cancelled,
+ * and its algorithm has written a <a href=
+ * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+ * >checkpoint</a>, the objective function resumes the run from that
+ * checkpoint, with its FEs, DEs, and runtime intact.
  * </p>
  */
 final class _TSPThread extends Thread {
@@ -27,11 +52,11 @@ final class _TSPThread extends Thread {
   /** the constructor */
   private static final String SOURCE_CONSTRUCTOR = "<init>"; //$NON-NLS-1$
 
-  /** the algorithm */
-  private final TSPAlgorithm m_algo;
+  /** the algorithms, one per setup */
+  private final TSPAlgorithm[] m_algos;
 
-  /** the initialization algorithm */
-  private final TSPAlgorithm m_init;
+  /** the initialization algorithms, one per setup */
+  private final TSPAlgorithm[] m_inits;
 
   /** the queue */
   private final _TSPQueue m_queue;
@@ -42,6 +67,12 @@ final class _TSPThread extends Thread {
   /** the logger */
   private final Logger m_log;
 
+  /** the runtime of a warm-up run, {@code 0} for no warm-up */
+  private final long m_warmUpTime;
+
+  /** the objective function currently used by this thread */
+  private volatile ObjectiveFunction m_active;
+
   /** the log string for no more jobs */
   private final String m_noMoreJobs;
   /** the log string for caught errors */
@@ -50,29 +81,45 @@ final class _TSPThread extends Thread {
   private final String m_jobCompleted;
   /** the log string for a severe error */
   private final String m_severe;
+  /** the log string for a failed warm-up */
+  private final String m_warmUpFailed;
+  /** the log string for a resumed run */
+  private final String m_jobResumed;
 
   /**
    * Create
    *
-   * @param algo
-   *          the algorithm
-   * @param init
-   *          the algorithm initializer
+   * @param setups
+   *          the algorithm setups, whose algorithms and initializers are
+   *          cloned
    * @param queue
    *          the queue
    * @param creator
    *          the creator info
    * @param log
    *          the logger
+   * @param warmUpTime
+   *          the runtime of a warm-up run, {@code 0} for no warm-up
    */
-  _TSPThread(final TSPAlgorithm algo, final TSPAlgorithm init,
-      final _TSPQueue queue, final CreatorInfo creator, final Logger log) {
+  _TSPThread(final _TSPSetup[] setups, final _TSPQueue queue,
+      final CreatorInfo creator, final Logger log, final long warmUpTime) {
     super();
-    this.m_algo = algo;
-    this.m_init = init;
+    int i;
+
+    this.m_algos = new TSPAlgorithm[setups.length];
+    this.m_inits = new TSPAlgorithm[setups.length];
+    for (i = setups.length; (--i) >= 0;) {
+      if (setups[i].m_algo != null) {
+        this.m_algos[i] = setups[i].m_algo.clone();
+      }
+      if (setups[i].m_init != null) {
+        this.m_inits[i] = setups[i].m_init.clone();
+      }
+    }
     this.m_queue = queue;
     this.m_creator = creator;
     this.m_log = log;
+    this.m_warmUpTime = warmUpTime;
 
     if ((log != null) && (log.isLoggable(Level.INFO))) {
       log.logp(Level.INFO, _TSPThread.SOURCE_CLASS,
@@ -89,11 +136,130 @@ final class _TSPThread extends Thread {
       this.m_jobCompleted = ("One job completed by thread #" + this.getId() + //$NON-NLS-1$
       " for benchmark ");//$NON-NLS-1$
       this.m_severe = ("Unexpected error caught in thread #" + this.getId());//$NON-NLS-1$
+      this.m_warmUpFailed = ("Warm-up run failed in thread #" + this.getId() + //$NON-NLS-1$
+      " for benchmark ");//$NON-NLS-1$
+      this.m_jobResumed = ("Run resumed from checkpoint by thread #" + this.getId() + //$NON-NLS-1$
+      " for benchmark ");//$NON-NLS-1$
     } else {
       this.m_noMoreJobs = null;
       this.m_errorCaught = null;
       this.m_jobCompleted = null;
       this.m_severe = null;
+      this.m_warmUpFailed = null;
+      this.m_jobResumed = null;
+    }
+  }
+
+  /**
+   * Get the objective function for a setup of a job: take the prefetched
+   * one if possible, otherwise create a new one. This happens outside of
+   * any lock, so several threads may load instances in parallel.
+   *
+   * @param job
+   *          the job
+   * @param setup
+   *          the index of the setup
+   * @return the objective function
+   */
+  private static final ObjectiveFunction __createObjective(
+      final _TSPJob job, final int setup) {
+    final ObjectiveFunction f;
+
+    f = job._takePrefetched(setup);
+    if (f != null) {
+      return f;
+    }
+    return job.m_bms[setup].createObjective();
+  }
+
+  /**
+   * Dispose all objective functions of the current job.
+   *
+   * @param fs
+   *          the objective functions, one per setup, which are set to
+   *          {@code null}
+   */
+  private final void __dispose(final ObjectiveFunction[] fs) {
+    int i;
+
+    this.m_active = null;
+    for (i = fs.length; (--i) >= 0;) {
+      if (fs[i] != null) {
+        try {
+          fs[i].dispose();
+        } finally {
+          fs[i] = null;
+        }
+      }
+    }
+  }
+
+  /**
+   * Perform a warm-up run of the initializer and algorithm of a setup on a
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#createWarmUpObjective(long)
+   * warm-up objective function}. An error during the warm-up is only
+   * logged: it will occur again in the logged run, where it is stored in
+   * the log file.
+   *
+   * @param bm
+   *          the benchmark
+   * @param init
+   *          the initializer, or {@code null}
+   * @param algo
+   *          the algorithm
+   */
+  private final void __warmUp(final Benchmark bm, final TSPAlgorithm init,
+      final TSPAlgorithm algo) {
+    final ObjectiveFunction f;
+
+    f = bm.createWarmUpObjective(this.m_warmUpTime);
+    try {
+      this.m_active = f;
+      if (init != null) {
+        f.beginDeterministicInitialization(init);
+        try {
+          init.call(f);
+        } finally {
+          f.endDeterministicInitialization();
+        }
+      }
+
+      f.beginRun(algo);
+      if (this.m_queue._isCancelled()) {
+        f.cancelRun();
+      }
+      try {
+        algo.call(f);
+      } finally {
+        f.endRun();
+      }
+    } catch (final Throwable t) {
+      try {
+        MemoryUtils.gc();
+      } finally {
+        if ((this.m_log != null) && this.m_log.isLoggable(Level.WARNING)) {
+          this.m_log.logp(Level.WARNING, _TSPThread.SOURCE_CLASS,
+              _TSPThread.SOURCE_METHOD, (this.m_warmUpFailed + bm.name()),
+              t);
+        }
+      }
+    } finally {
+      this.m_active = null;
+      f.dispose();
+    }
+  }
+
+  /**
+   * Cancel the run currently performed by this thread, if any. The queue
+   * must have been {@link _TSPQueue#_cancel() cancelled} before, so that
+   * no new run is begun.
+   */
+  final void _cancel() {
+    final ObjectiveFunction f;
+
+    f = this.m_active;
+    if (f != null) {
+      f.cancelRun();
     }
   }
 
@@ -101,66 +267,116 @@ final class _TSPThread extends Thread {
   @Override
   public final void run() {
     final _TSPQueue q;
-    final TSPAlgorithm init, algo;
     final Logger log;
-    Benchmark bm, nbm;
+    final ObjectiveFunction[] fs;
+    final int[] setup;
+    final boolean[] warm;
+    TSPAlgorithm init, algo;
+    Benchmark nbm;
     ObjectiveFunction f;
+    _TSPJob job, current;
+    long start;
+    int s;
+    boolean cancelled, admitted;
 
     q = this.m_queue;
-    init = this.m_init;
-    algo = this.m_algo;
     log = this.m_log;
+    fs = new ObjectiveFunction[this.m_algos.length];
+    setup = new int[1];
+    warm = new boolean[this.m_algos.length];
 
-    bm = null;
-    f = null;
+    current = null;
     try {
 
-      if (init != null) {
-        for (;;) {
+      for (;;) {
+        job = q._claim(setup);
 
-          synchronized (q) {
-            nbm = q.next();
+        if (job == null) {
+          if ((log != null) && (log.isLoggable(Level.INFO))) {
+            log.logp(Level.INFO, _TSPThread.SOURCE_CLASS,
+                _TSPThread.SOURCE_METHOD, this.m_noMoreJobs);
+          }
+          return;
+        }
 
-            if (nbm == null) {
-              if ((log != null) && (log.isLoggable(Level.INFO))) {
-                log.logp(Level.INFO, _TSPThread.SOURCE_CLASS,
-                    _TSPThread.SOURCE_METHOD, this.m_noMoreJobs);
-              }
-              return;
-            }
+        s = setup[0];
+        nbm = job.m_bms[s];
+        if (!(nbm.reserveRun())) {
+          // the remaining runs are performed by other processes
+          q._skip(job);
+          continue;
+        }
 
-            if ((nbm != bm) || (f == null)) {
-              bm = nbm;
-              f = bm.createObjective();
-              f.setCreatorInfo(this.m_creator);
+        start = System.currentTimeMillis();
+        cancelled = admitted = false;
+        try {
+          if (job != current) {
+            current = null;
+            this.__dispose(fs);
+            q._admit(job);
+            if (q._isCancelled()) {
+              // do not load a new instance if the benchmark is cancelled
+              cancelled = true;
+              nbm.releaseRun();
+              continue;
             }
+            current = job;
+          }
 
+          f = fs[s];
+          if (f == null) {
+            fs[s] = f = _TSPThread.__createObjective(job, s);
+            f.setCreatorInfo(this.m_creator);
+          }
+          init = this.m_inits[s];
+          algo = this.m_algos[s];
+
+          q._beginRun(job, s);
+          admitted = true;
+
+          if ((this.m_warmUpTime > 0l) && (!(warm[s]))) {
+            warm[s] = true;
+            this.__warmUp(nbm, init, algo);
+          }
+          this.m_active = f;
+
+          if (init != null) {
             // initialization procedure is always executed: get
             // better runtime
             // estimate
             f.beginDeterministicInitialization(init);
-          }
-
-          try {
+            if (q._isCancelled()) {
+              f.terminate();
+            }
             try {
-              init.call(f);
-            } catch (final Throwable z) {
               try {
-                f.setExceptionDuringInitalization(z);
-                MemoryUtils.gc();
-              } finally {
-                if ((log != null) && log.isLoggable(Level.SEVERE)) {
-                  log.logp(Level.SEVERE, _TSPThread.SOURCE_CLASS,
-                      _TSPThread.SOURCE_METHOD,
-                      (this.m_errorCaught + nbm.name()), z);
+                init.call(f);
+              } catch (final Throwable z) {
+                try {
+                  f.setExceptionDuringInitalization(z);
+                  MemoryUtils.gc();
+                } finally {
+                  if ((log != null) && log.isLoggable(Level.SEVERE)) {
+                    log.logp(Level.SEVERE, _TSPThread.SOURCE_CLASS,
+                        _TSPThread.SOURCE_METHOD,
+                        (this.m_errorCaught + nbm.name()), z);
+                  }
                 }
               }
+            } finally {
+              f.endDeterministicInitialization();
             }
-          } finally {
-            f.endDeterministicInitialization();
           }
 
           f.beginRun(algo);
+          if (q._isCancelled()) {
+            f.cancelRun();
+          }
+          if ((f.getResumeCount() > 0) && (log != null)
+              && log.isLoggable(Level.INFO)) {
+            log.logp(Level.INFO, _TSPThread.SOURCE_CLASS,
+                _TSPThread.SOURCE_METHOD, (this.m_jobResumed + nbm.name()));
+          }
           try {
             try {
               algo.call(f);
@@ -178,57 +394,20 @@ final class _TSPThread extends Thread {
             }
           } finally {
             f.endRun();
+            cancelled = f.isRunCancelled();
           }
-
-          if ((log != null) && log.isLoggable(Level.INFO)) {
-            log.logp(Level.INFO, _TSPThread.SOURCE_CLASS,
-                _TSPThread.SOURCE_METHOD,
-                (this.m_jobCompleted + nbm.name()));
-          }
-        }
-      }
-
-      for (;;) {
-        synchronized (q) {
-          nbm = q.next();
-
-          if (nbm == null) {
-            if ((log != null) && (log.isLoggable(Level.INFO))) {
-              log.logp(Level.INFO, _TSPThread.SOURCE_CLASS,
-                  _TSPThread.SOURCE_METHOD, this.m_noMoreJobs);
-            }
-            return;
+        } finally {
+          if (admitted) {
+            q._endRun(job, s);
           }
-
-          if ((nbm != bm) || (f == null)) {
-            bm = nbm;
-            f = bm.createObjective();
-            f.setCreatorInfo(this.m_creator);
+          if (cancelled) {
+            q._skip(job);
+          } else {
+            q._finish(job, (System.currentTimeMillis() - start));
           }
-
-          f.beginRun(algo);
-        }
-
-        try {
-          try {
-            algo.call(f);
-          } catch (final Throwable z) {
-            try {
-              f.setExceptionDuringRun(z);
-              MemoryUtils.gc();
-            } finally {
-              if ((log != null) && log.isLoggable(Level.SEVERE)) {
-                log.logp(Level.SEVERE, _TSPThread.SOURCE_CLASS,
-                    _TSPThread.SOURCE_METHOD,
-                    (this.m_errorCaught + nbm.name()), z);
-              }
-            }
-          }
-        } finally {
-          f.endRun();
         }
 
-        if ((log != null) && log.isLoggable(Level.INFO)) {
+        if ((!cancelled) && (log != null) && log.isLoggable(Level.INFO)) {
           log.logp(Level.INFO, _TSPThread.SOURCE_CLASS,
               _TSPThread.SOURCE_METHOD, (this.m_jobCompleted + nbm.name()));
         }
@@ -244,6 +423,8 @@ final class _TSPThread extends Thread {
           t.printStackTrace();
         }
       }
+    } finally {
+      this.__dispose(fs);
     }
   }
 }
@@ -177,6 +177,20 @@ public class BAB_HK extends TSPAlgorithm {
     return r;
   }
 
+  /**
+   * {@inheritDoc} Each node of the search tree holds a Held-Karp solution
+   * (three arrays of length {@code n}) and its own array of rows of the
+   * {@code n*n} exclusion matrix, two rows of which are copied, too. We
+   * assume that up to {@code n} nodes are open at the same time.
+   */
+  @Override
+  public long estimateMemory(final int n) {
+    final long m;
+
+    m = n;
+    return (super.estimateMemory(n) + (m * m) + (m * m * 26l));
+  }
+
   /** {@inheritDoc} */
   @Override
   public void beginRun(final ObjectiveFunction f) {
@@ -2,6 +2,7 @@ package org.logisticPlanning.tsp.solving.algorithms.heuristics.mst;
 
 import org.logisticPlanning.tsp.benchmarking.instances.Instance;
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.benchmarking.objective.RawDistances;
 import org.logisticPlanning.tsp.solving.Individual;
 import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
 import org.logisticPlanning.tsp.solving.algorithms.heuristics.TSPHeuristic;
@@ -143,8 +144,9 @@ public final class MSTHeuristic extends TSPHeuristic {
     _NodeEntry root, best, next, cur, last;
     _NodeEntry[] todo;
     int[] perm;
+    final _MSTTour shared;
     int i, j, bestI, d, p, getBestF;
-    long totalD;
+    long totalD, des;
 
     n = f.n();
     // Initialize: clear destination record and allocate result array. This
@@ -163,99 +165,120 @@ public final class MSTHeuristic extends TSPHeuristic {
     }
     // ok, done initialization
 
-    i = n - 1;
-    todo = new _NodeEntry[i];
+    shared = ((_MSTTour) (f.getSharedData(_MSTTour.class)));
+    if (shared != null) {
+      // the tour has already been constructed in an earlier run: copy it
+      // and account for the distance evaluations needed to construct it
+      try (final RawDistances raw = f.rawDistances()) {
+        raw.addDEs(shared.m_des);
+      }
+      System.arraycopy(shared.m_tour, 0, perm, 0, n);
+      totalD = shared.m_length;
+    } else {
+      des = 0l;
 
-    root = new _NodeEntry(n, -1, null);
+      i = n - 1;
+      todo = new _NodeEntry[i];
 
-    // enqueue all nodes into the heap based on their distance to the
-    // starting
-    // node
-    for (; i > 0;) {
-      next = new _NodeEntry(i, f.distance(root.m_node, i), root);
-      todo[--i] = next;
-    }
+      root = new _NodeEntry(n, -1, null);
+
+      // enqueue all nodes into the heap based on their distance to the
+      // starting
+      // node
+      for (; i > 0;) {
+        next = new _NodeEntry(i, f.distance(root.m_node, i), root);
+        des++;
+        todo[--i] = next;
+      }
 
-    // find the minimum spanning tree
-    // each node now receives a linked list of children (child,
-    // child.m_next,
-    // child.m_next.m_next, ...)
-    // and a link to its parent (m_parent) in the tree
-    // as we have a fully connected graph, using a priority queue
-    // O(E=V*V=V^2)
-    // does not give an advantage compared to going over all nodes directly
-    // O(V^2)
+      // find the minimum spanning tree
+      // each node now receives a linked list of children (child,
+      // child.m_next,
+      // child.m_next.m_next, ...)
+      // and a link to its parent (m_parent) in the tree
+      // as we have a fully connected graph, using a priority queue
+      // O(E=V*V=V^2)
+      // does not give an advantage compared to going over all nodes
+      // directly O(V^2)
 
-    next = best = root;
-    for (i = todo.length; (--i) >= 0;) {
-      getBestF = Integer.MAX_VALUE;
-      bestI = -1;
+      next = best = root;
+      for (i = todo.length; (--i) >= 0;) {
+        getBestF = Integer.MAX_VALUE;
+        bestI = -1;
 
-      for (j = i; j >= 0; j--) {
-        cur = todo[j];
+        for (j = i; j >= 0; j--) {
+          cur = todo[j];
 
-        d = f.distance(next.m_node, cur.m_node);
-        p = cur.m_priority;
-        if (d < p) {
-          cur.m_priority = p = d;
-          cur.m_parent = next;
-        }
-        if (p <= getBestF) {
-          bestI = j;
-          best = cur;
-          getBestF = p;
+          d = f.distance(next.m_node, cur.m_node);
+          des++;
+          p = cur.m_priority;
+          if (d < p) {
+            cur.m_priority = p = d;
+            cur.m_parent = next;
+          }
+          if (p <= getBestF) {
+            bestI = j;
+            best = cur;
+            getBestF = p;
+          }
         }
-      }
 
-      todo[bestI] = todo[i];
-      next = best;
-      next.m_nextChild = next.m_parent.m_child;
-      next.m_parent.m_child = next;
-    }
+        todo[bestI] = todo[i];
+        next = best;
+        next.m_nextChild = next.m_parent.m_child;
+        next.m_parent.m_child = next;
+      }
 
-    todo = null;
-    // ok, we have MST
+      todo = null;
+      // ok, we have MST
 
-    // use the mst to construct a permutation
+      // use the mst to construct a permutation
 
-    // start at the root
-    i = 0;
-    perm[i++] = root.m_node;
-    totalD = 0l;
+      // start at the root
+      i = 0;
+      perm[i++] = root.m_node;
+      totalD = 0l;
 
-    // start at the root of the tree at follow it
-    for (last = cur = root; cur != null;) {
+      // start at the root of the tree at follow it
+      for (last = cur = root; cur != null;) {
 
-      next = cur.m_child;
+        next = cur.m_child;
 
-      // is there such a child?
-      if (next != null) {
-        // add it to the permutation
-        perm[i++] = next.m_node;
+        // is there such a child?
+        if (next != null) {
+          // add it to the permutation
+          perm[i++] = next.m_node;
 
-        cur.m_child = next.m_nextChild;
+          cur.m_child = next.m_nextChild;
 
-        // what is the distance to that child?
-        if (next.m_parent == last) {
-          // the parent is the current node: don't need to re-compute
-          totalD += next.m_priority;
-        } else {// otherwise, take shortcut
-          totalD += f.distance(last.m_node, next.m_node);
-        }
+          // what is the distance to that child?
+          if (next.m_parent == last) {
+            // the parent is the current node: don't need to re-compute
+            totalD += next.m_priority;
+          } else {// otherwise, take shortcut
+            totalD += f.distance(last.m_node, next.m_node);
+            des++;
+          }
 
-        last = cur = next;
+          last = cur = next;
 
-        if (i >= n) {
-          break;
+          if (i >= n) {
+            break;
+          }
+          continue;// next iteration
         }
-        continue;// next iteration
+
+        // no such child exists? go back one step
+        cur = cur.m_parent;
       }
 
-      // no such child exists? go back one step
-      cur = cur.m_parent;
+      totalD += f.distance(last.m_node, root.m_node);
+      des++;
+
+      f.putSharedData(_MSTTour.class, new _MSTTour(perm.clone(), totalD,
+          des));
     }
 
-    totalD += f.distance(last.m_node, root.m_node);
     f.registerFE(perm, totalD);// register solution
 
     // output the result if destination was provided
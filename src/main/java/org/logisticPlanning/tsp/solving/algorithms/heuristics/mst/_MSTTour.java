@@ -0,0 +1,46 @@
+package org.logisticPlanning.tsp.solving.algorithms.heuristics.mst;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * The tour constructed by the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.MSTHeuristic
+ * MST Heuristic} for a problem instance, which is
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#putSharedData(Object, Object)
+ * shared} by all runs on the instance if the benchmark allows it. The
+ * heuristic is deterministic, so each run would construct exactly the
+ * same tour with exactly the same number of distance evaluations.
+ * </p>
+ */
+final class _MSTTour {
+
+  /** the tour */
+  final int[] m_tour;
+
+  /** the tour length */
+  final long m_length;
+
+  /** the number of distance evaluations needed to construct the tour */
+  final long m_des;
+
+  /**
+   * Instantiate the tour record
+   *
+   * @param tour
+   *          the tour
+   * @param length
+   *          the tour length
+   * @param des
+   *          the number of distance evaluations needed to construct the
+   *          tour
+   */
+  _MSTTour(final int[] tour, final long length, final long des) {
+    super();
+    this.m_tour = tour;
+    this.m_length = length;
+    this.m_des = des;
+  }
+}
@@ -1,6 +1,7 @@
 package org.logisticPlanning.tsp.solving.algorithms.localSearch;
 
 import java.io.PrintStream;
+import java.io.Serializable;
 
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 import org.logisticPlanning.tsp.solving.Individual;
@@ -87,6 +88,22 @@ import org.logisticPlanning.utils.text.TextUtils;
  * {@link #loadPathIntoIndividual(Individual, int[], long)} are implemented
  * for {@code P}.
  * </p>
+ * <p>
+ * When used as stand-alone optimization method, a local search supports <a
+ * href=
+ * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+ * >checkpoints</a>: At the beginning of each iteration of the main loop,
+ * the current solution and the number of remaining iterations are
+ * checkpointed if a checkpoint is due. Implementations of
+ * {@link #localSearch(Individual, ObjectiveFunction)} which carry state
+ * from one invocation to the next store it via
+ * {@link #createLocalSearchState(ObjectiveFunction)} and restore it in
+ * {@link #resumeLocalSearchState(Serializable, ObjectiveFunction)}. A
+ * resumed run continues the main loop with the checkpointed solution and
+ * thus performs exactly the same steps as the original run. Checkpoints
+ * are not taken inside {@link #localSearch(Individual, ObjectiveFunction)},
+ * since the state of a descent would be lost.
+ * </p>
  *
  * @param <P>
  *          the final solution representation this algorithm works on
@@ -204,6 +221,15 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
    */
   private final String m_maxIterationsParam;
 
+  /** the individual record worked on by the main loop, for checkpoints */
+  private transient Individual<P> m_current;
+
+  /** the tour length the main loop started with, for checkpoints */
+  private transient long m_originalTourLength;
+
+  /** the remaining iterations of the main loop, for checkpoints */
+  private transient int m_remaining;
+
   /**
    * instantiate the local search algorithm class
    *
@@ -304,8 +330,6 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
   protected void mainLoop(final Individual<P> srcdst,
       final ObjectiveFunction f) {
     final long originalTourLength;
-    final boolean checkIterationLimit;
-    int iterations;
 
     originalTourLength = srcdst.tourLength;
     this.accept(srcdst, f);
@@ -319,8 +343,32 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
       this.m_perturbation.pertube(srcdst, f);
     }
 
-    iterations = this.m_maxIterations;
+    this.__mainLoop(srcdst, f, originalTourLength, this.m_maxIterations);
+  }
+
+  /**
+   * The loop of {@link #mainLoop(Individual, ObjectiveFunction)}, which is
+   * also entered directly when a run is resumed from a checkpoint.
+   *
+   * @param srcdst
+   *          the individual record to work on
+   * @param f
+   *          the objective function
+   * @param originalTourLength
+   *          the tour length the main loop started with
+   * @param maxIterations
+   *          the maximum number of iterations, {@code 0} for no limit
+   */
+  private final void __mainLoop(final Individual<P> srcdst,
+      final ObjectiveFunction f, final long originalTourLength,
+      final int maxIterations) {
+    final boolean checkIterationLimit;
+    int iterations;
+
+    iterations = maxIterations;
     checkIterationLimit = (iterations > 0);
+    this.m_current = srcdst;
+    this.m_originalTourLength = originalTourLength;
 
     // In the main loop, we apply the local search.
     looper: for (;;) {
@@ -328,6 +376,10 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
       if (f.shouldTerminate()) {
         break looper;
       }
+
+      this.m_remaining = iterations;
+      this.checkpoint(f);
+
       // Apply the local search
       this.localSearch(srcdst, f);
 
@@ -359,10 +411,53 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
       this.m_perturbation.pertube(srcdst, f);
     }
 
+    this.m_current = null;
     // Make sure that we are marked as the producer of this solution
     srcdst.producer = this;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  protected Serializable createCheckpoint(final ObjectiveFunction f) {
+    if (this.m_current == null) {
+      return null;
+    }
+    return new _LocalSearchCheckpoint<>(this.m_current,
+        this.m_originalTourLength, this.m_remaining,
+        this.createLocalSearchState(f));
+  }
+
+  /**
+   * Get the state which
+   * {@link #localSearch(Individual, ObjectiveFunction)} carries from one
+   * invocation to the next, e.g., the order of neighborhoods, so that it
+   * can be stored in a checkpoint of the main loop. The default
+   * implementation returns {@code null}, i.e., there is no such state.
+   *
+   * @param f
+   *          the objective function
+   * @return the state, or {@code null} if there is none
+   */
+  protected Serializable createLocalSearchState(final ObjectiveFunction f) {
+    return null;
+  }
+
+  /**
+   * Restore the state created by
+   * {@link #createLocalSearchState(ObjectiveFunction)} when a run is
+   * resumed from a checkpoint. This method is called after
+   * {@link #beginRun(ObjectiveFunction)}.
+   *
+   * @param state
+   *          the state, or {@code null} if there is none
+   * @param f
+   *          the objective function
+   */
+  protected void resumeLocalSearchState(final Serializable state,
+      final ObjectiveFunction f) {
+    //
+  }
+
   /**
    * The newly generated solution has been accepted. The individual record
    * {@code srcdst} should not be modified, but may be copied into some
@@ -439,11 +534,25 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
   }
 
   /** {@inheritDoc} */
+  @SuppressWarnings("unchecked")
   @Override
   public final void solve(final ObjectiveFunction f) {
     final Individual<P> ind;
+    final Serializable state;
+    final _LocalSearchCheckpoint<P> cp;
     int[] path;
 
+    state = this.getResumeState(f);
+    if (state instanceof _LocalSearchCheckpoint) {
+      // continue the main loop where the checkpoint was taken
+      cp = ((_LocalSearchCheckpoint<P>) state);
+      this.resumeLocalSearchState(cp.m_state, f);
+      this.accept(cp.m_current, f);
+      this.__mainLoop(cp.m_current, f, cp.m_originalTourLength,
+          cp.m_iterations);
+      return;
+    }
+
     ind = new Individual<>();
     if (f.getCurrentLogPoint().getConsumedFEs() > 0l) {
       this.loadBestIntoIndividual(ind, f);
@@ -570,6 +679,7 @@ public abstract class TSPLocalSearchAlgorithm<P> extends TSPAlgorithm {
   /** {@inheritDoc} */
   @Override
   public void endRun(final ObjectiveFunction f) {
+    this.m_current = null;
     try {
       this.m_perturbation.endRun(f);
     } finally {
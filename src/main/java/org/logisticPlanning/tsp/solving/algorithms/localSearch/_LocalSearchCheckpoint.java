@@ -0,0 +1,66 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch;
+
+import java.io.Serializable;
+
+import org.logisticPlanning.tsp.solving.Individual;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * The state of a {@link TSPLocalSearchAlgorithm local search} stored in a
+ * <a href=
+ * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+ * >checkpoint</a>: the current solution, the position in the main loop,
+ * and the state carried from one local search to the next.
+ * </p>
+ *
+ * @param <P>
+ *          the solution representation
+ */
+final class _LocalSearchCheckpoint<P> implements Serializable {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the current solution */
+  final Individual<P> m_current;
+
+  /** the tour length of the solution the main loop started with */
+  final long m_originalTourLength;
+
+  /**
+   * the number of remaining iterations, {@code 0} if the number of
+   * iterations is not limited
+   */
+  final int m_iterations;
+
+  /** the state of the local search, or {@code null} if there is none */
+  final Serializable m_state;
+
+  /**
+   * create the checkpoint
+   *
+   * @param current
+   *          the current solution
+   * @param originalTourLength
+   *          the tour length of the solution the main loop started with
+   * @param iterations
+   *          the number of remaining iterations
+   * @param state
+   *          the state of the local search, or {@code null} if there is
+   *          none
+   */
+  _LocalSearchCheckpoint(final Individual<P> current,
+      final long originalTourLength, final int iterations,
+      final Serializable state) {
+    super();
+    this.m_current = new Individual<>();
+    this.m_current.assign(current);
+    this.m_originalTourLength = originalTourLength;
+    this.m_iterations = iterations;
+    this.m_state = state;
+  }
+}
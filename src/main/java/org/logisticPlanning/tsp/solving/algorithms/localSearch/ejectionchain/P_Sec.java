@@ -1,5 +1,7 @@
 package org.logisticPlanning.tsp.solving.algorithms.localSearch.ejectionchain;
 
+import java.io.PrintStream;
+
 import org.logisticPlanning.tsp.benchmarking.instances.Instance;
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 import org.logisticPlanning.tsp.solving.Individual;
@@ -7,6 +9,9 @@ import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
 import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateCanonical;
 import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.tsp.solving.utils.candidates.ECandidateSetType;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
 
 /**
  * In the improved P_Sec, we change the Rego's tabu rules "one edge that is deleted can not be added"
@@ -43,6 +48,8 @@ public class P_Sec extends TSPLocalSearchAlgorithm<int[]> {
 	private int m_rootListLength;
 	/** The neighbor list for PSec in the FSec*/
 	private CandidateSet m_nearestNeighborhood;
+	/** The type of the neighbor list */
+	private ECandidateSetType m_candidateSetType;
 	/** The improvement of the current solution compared with the best solution*/
 	private int m_improvement;
 	/** The information of tour */
@@ -51,6 +58,32 @@ public class P_Sec extends TSPLocalSearchAlgorithm<int[]> {
 	/** create */
 	public P_Sec() {
 		super("P_Sec Algorithm using a Stem-and-Cycle Datastructure");
+		this.m_candidateSetType = ECandidateSetType.DEFAULT;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void printConfiguration(final PrintStream ps) {
+		super.printConfiguration(ps);
+		Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+		Configurable.printlnObject(this.m_candidateSetType, ps);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void printParameters(final PrintStream ps) {
+		super.printParameters(ps);
+		Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+		ps.println("the type of the neighbor list: nearest, quadrant, or alpha-nearest neighbors"); //$NON-NLS-1$
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void configure(final Configuration config) {
+		super.configure(config);
+		this.m_candidateSetType = config.getConstant(
+				CandidateSet.PARAM_CANDIDATE_SET_TYPE, ECandidateSetType.class,
+				ECandidateSetType.class, this.m_candidateSetType);
 	}
 	/**
 	 * The main routine
@@ -81,7 +114,7 @@ public class P_Sec extends TSPLocalSearchAlgorithm<int[]> {
 		// a list or something, you can allocate it here and store it in a
 		// member variable. you can then use this variable in the localSearch
 		// method
-		this.m_nearestNeighborhood = CandidateSet.allocate(this.m_f, 10, this.m_nearestNeighborhood);
+		this.m_nearestNeighborhood = this.m_candidateSetType.allocate(this.m_f, 10, this.m_nearestNeighborhood);
 	}
 	/** {@inheritDoc} */
 	@Override
@@ -1,5 +1,7 @@
 package org.logisticPlanning.tsp.solving.algorithms.localSearch.fundamentalStemAndCycle;
 
+import java.io.PrintStream;
+
 import org.logisticPlanning.tsp.benchmarking.instances.Instance;
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 import org.logisticPlanning.tsp.solving.Individual;
@@ -7,6 +9,9 @@ import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
 import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateCanonical;
 import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.tsp.solving.utils.candidates.ECandidateSetType;
+import org.logisticPlanning.utils.config.Configurable;
+import org.logisticPlanning.utils.config.Configuration;
 
 
 
@@ -49,6 +54,8 @@ public class FundamentalStemAndCycle extends TSPLocalSearchAlgorithm<int[]> {
 	private int m_rootListFSecLength;
 	/** The neighbor list for PSec in the FSec*/
 	private CandidateSet m_nearestNeighborhood;
+	/** The type of the neighbor list */
+	private ECandidateSetType m_candidateSetType;
 	/** The best solution in the loop of FSec , in the embedded PSec*/
 	private int[] m_bestSolutionFSec;
 	/** The length of best solution in the loop of FSec, in the embedded PSec*/
@@ -64,6 +71,32 @@ public class FundamentalStemAndCycle extends TSPLocalSearchAlgorithm<int[]> {
 	/** create */
 	public FundamentalStemAndCycle() {
 		super("Subpath Ejection Algorithm using a fundamental Stem-and-Cycle Datastructure");
+		this.m_candidateSetType = ECandidateSetType.DEFAULT;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void printConfiguration(final PrintStream ps) {
+		super.printConfiguration(ps);
+		Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+		Configurable.printlnObject(this.m_candidateSetType, ps);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void printParameters(final PrintStream ps) {
+		super.printParameters(ps);
+		Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+		ps.println("the type of the neighbor list: nearest, quadrant, or alpha-nearest neighbors"); //$NON-NLS-1$
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void configure(final Configuration config) {
+		super.configure(config);
+		this.m_candidateSetType = config.getConstant(
+				CandidateSet.PARAM_CANDIDATE_SET_TYPE, ECandidateSetType.class,
+				ECandidateSetType.class, this.m_candidateSetType);
 	}
 
 	/**
@@ -95,7 +128,7 @@ public class FundamentalStemAndCycle extends TSPLocalSearchAlgorithm<int[]> {
 		// a list or something, you can allocate it here and store it in a
 		// member variable. you can then use this variable in the localSearch
 		// method
-		this.m_nearestNeighborhood = CandidateSet.allocate(this.m_f, 10, this.m_nearestNeighborhood);
+		this.m_nearestNeighborhood = this.m_candidateSetType.allocate(this.m_f, 10, this.m_nearestNeighborhood);
 	}
 	/** {@inheritDoc} */
 	@Override
@@ -128,6 +161,19 @@ public class FundamentalStemAndCycle extends TSPLocalSearchAlgorithm<int[]> {
 		this.m_f = null;
 		this.m_dst = null;
 	}
+
+	/**
+	 * {@inheritDoc} The deleted edges are stored in an {@code n*n} matrix of
+	 * {@code boolean}s, the nearest neighbors in a candidate set with
+	 * {@code 10} neighbors per node.
+	 */
+	@Override
+	public long estimateMemory(final int n) {
+		final long m;
+
+		m = n;
+		return (super.estimateMemory(n) + (m * (m + 16l)) + (m * 40l));
+	}
 	public void localSearch(final Individual<int[]> srcdst,
 			final ObjectiveFunction f) {
 		// The initialization of the tour
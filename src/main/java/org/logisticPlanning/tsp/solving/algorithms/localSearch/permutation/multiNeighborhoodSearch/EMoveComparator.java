@@ -151,6 +151,25 @@ public enum EMoveComparator implements Comparator<_Move> {
       }
       return Integer.compare(a.m_delta, b.m_delta);
     }
+
+    /** {@inheritDoc} */
+    @Override
+    final boolean _dependsOnType() {
+      return true;
+    }
   },
 
+  ;
+
+  /**
+   * Does the order of the moves depend on their
+   * {@link _Move#m_type type}? If not, the order of a queued move does not
+   * change if its type changes.
+   *
+   * @return {@code true} if the move type matters, {@code false} if only
+   *         the {@link _Move#m_delta delta} is compared
+   */
+  boolean _dependsOnType() {
+    return false;
+  }
 }
@@ -600,7 +600,7 @@ public class MultiNeighborhoodSearch extends
   private transient ObjectiveFunction m_f;
 
   /** the queue of moves */
-  private transient _Move m_queue;
+  private transient _MoveQueue m_queue;
 
   /** old swap moves that can be re-used */
   private transient _Move m_old;
@@ -621,15 +621,17 @@ public class MultiNeighborhoodSearch extends
       final ObjectiveFunction f) {
     final int n;
     final int[] dist;
-    final EMoveComparator cmp;
+    final _MoveQueue queue;
     boolean lastWasIncomplete;
     int changed_range_i, changed_range_j;
-    _Move move, predMove, cur, pred, best, predBest, next;
+    _Move move;
 
     n = f.n();
 
     // clear the queue
     this.disposeQueue();
+    queue = this.m_queue;
+    queue.setComparator(this.m_cmp);
 
     // compute the distances and initialize the internal distance list
     srcdst.tourLength = MultiNeighborhoodSearch.distanceAndLengthInit(f,
@@ -639,69 +641,44 @@ public class MultiNeighborhoodSearch extends
     changed_range_i = 0;
     changed_range_j = n;
     dist = this.m_distances;
-    cmp = this.m_cmp;
 
     // fill the move queue, remember if this hit the allocation limit
     lastWasIncomplete = this.fillMoveQueue(0, n, srcdst.solution,
         this.m_distances);
 
     outer: for (;;) {
-      move = this.m_queue;// move=best and first move in queue
+      move = queue.peek();// move=best move in queue
       if (move == null) {// ok, queue is empty
         break outer;// quit
       }
-      // fillMoveQueue ensures that the first move in the queue is best
-      // move.
-      predMove = null;// so there is no move before
-      // predMove is always the last move before move or null if move is
-      // the
-      // first move in the queue
 
       // [changed_range_i,changed_range_j] hold the range that includes
-      // all
-      // changes that we made so far
+      // all changes that we made so far
       // This is useful when filling the queue after consuming all moves
-      // since
-      // new moves that do not intersect with
-      // [changed_range_i,changed_range_j]
-      // do not need to be checked:
+      // since new moves that do not intersect with
+      // [changed_range_i,changed_range_j] do not need to be checked:
       // They were checked in at least one prior local search / fill queue
-      // run
-      // and were not improving. As nothing outside
-      // [changed_range_i,changed_range_j] has changed, these moves'
-      // deltas
-      // are
-      // still the same (and therefore still >0).
+      // run and were not improving. As nothing outside
+      // [changed_range_i,changed_range_j] has changed, these moves' deltas
+      // are still the same (and therefore still >0).
       changed_range_i = Integer.MAX_VALUE;
       changed_range_j = Integer.MIN_VALUE;
 
       // In the inner loop, we process the queue: We always take the best
-      // move
-      // out of the queue and perform it. Performing a move may lead to
-      // the
-      // invalidation of other moves, which are purged from the queue.
-      // Then
-      // the
-      // next best move is taken from the queue and executed. If the queue
-      // is
-      // empty, this loop ends and the outer loop is executed again to
-      // fill
-      // the
-      // queue.
-      inner: do {
+      // move out of the queue and perform it. Performing a move may lead
+      // to the invalidation of other moves, which are purged from the
+      // queue. Then the next best move is taken from the queue and
+      // executed. If the queue is empty, this loop ends and the outer loop
+      // is executed again to fill the queue.
+      do {
 
         // delete the move from the queue
-        if (predMove == null) {
-          this.m_queue = move.m_next;
-        } else {
-          predMove.m_next = move.m_next;
-        }
+        queue.remove(move);
 
         // apply the move: change the solution and distance list
         move.apply(n, srcdst.solution, dist);
         srcdst.tourLength += move.m_delta; // modify the total tour
-        // length
-        // accordingly
+        // length accordingly
         // we now have a new and better candidate solution: register
         f.registerFE(srcdst.solution, srcdst.tourLength);
 
@@ -712,72 +689,20 @@ public class MultiNeighborhoodSearch extends
         }
 
         // make [changed_range_i,changed_range_j] include the area
-        // touched
-        // by
-        // the performed move: only this range is interesting when
-        // filling
-        // the
-        // queue again at the next "outer" iteration
+        // touched by the performed move: only this range is interesting
+        // when filling the queue again at the next "outer" iteration
         changed_range_i = Math.min(changed_range_i, move.m_i);
         changed_range_j = Math.max(changed_range_j, move.m_j);
 
-        cur = this.m_queue; // cur = beginning of queue
-        if (cur == null) {
-          break inner;// queue is empty: we need to fill the move list
-          // again
-        }
-
-        // The following loop has two purposes:
-        // 1. we need to delete all moves that intersect with "move" in
-        // such a
-        // way that their delta would have changed / they have been
-        // invalidated
-        // by "move"
-        // 2. find the next best move to apply (and its successor)
-        best = predBest = pred = null;
-        while (cur != null) {
-          // pred is the last non-deleted move before cur
-          // best is the best move that was not deleted
-          // predBest is the last non-deleted move before best
-          next = cur.m_next; // iterate through the move queue
-
-          // check if we need to delete the move
-          if (cur.checkDeleteMove(move, n)) {
-            // ok, the move has been invalidated and must be deleted
-            // so we remove it from the queue
-            if (pred == null) {
-              this.m_queue = next;
-            } else {
-              pred.m_next = next;
-            }
-            // pred remains the same, as it was the last non-deleted
-            // move
-
-            // dispose of cur: hang it into the re-use queue
-            cur.m_next = this.m_old;
-            this.m_old = cur;
-          } else {
-            // good, the move can be kept
-
-            if ((best == null) || (cmp.compare(cur, best) < 0)) {
-              // oh, the move is the best move found so far!
-              best = cur;
-              predBest = pred;
-            }
-
-            // the move was not deleted, so it becomes the last
-            // non-deleted
-            // move
-            pred = cur;
-          }
+        // we need to delete all moves that intersect with "move" in such
+        // a way that their delta would have changed / they have been
+        // invalidated by "move" and amend the indices of the moves that
+        // were shifted by it. The queue only visits the moves close to the
+        // changed range and keeps the best remaining move at its top.
+        this.recycle(queue.update(move, n));
 
-          cur = next;// cur becomes cur.m_next
-        }
-
-        move = best; // the next move is the best move found in the
+        move = queue.peek(); // the next move is the best move in the
         // queue
-        predMove = predBest; // and predMove the last non-deleted move
-        // before
       } while (move != null);
 
       // ok, we have emptied the move queue. Now it is time to fill in
@@ -902,27 +827,23 @@ public class MultiNeighborhoodSearch extends
 
   /** dispose all moves in the move queue */
   private final void disposeQueue() {
-    _Move cur, next;
-
-    cur = this.m_queue; // cur = beginning of queue
+    this.recycle(this.m_queue.clear());
+  }
 
-    if (cur == null) {// queue is empty, we can leave directly
-      return;
-    }
+  /**
+   * Put a list of moves into the queue of old moves for re-use.
+   *
+   * @param moves
+   *          the moves, chained via {@link _Move#m_next}
+   */
+  private final void recycle(final _Move moves) {
+    _Move cur, next;
 
-    // moves are left in queue: dispose them
-    dispose: for (;;) {// find the last move in queue
+    for (cur = moves; cur != null; cur = next) {
       next = cur.m_next;
-      if (next == null) {
-        break dispose;
-      }
-      cur = next;
+      cur.m_next = this.m_old;
+      this.m_old = cur;
     }
-
-    // cur now is the last move in the move queue m_queue is the first
-    cur.m_next = this.m_old; //
-    this.m_old = this.m_queue;// put m_queue at beginning
-    this.m_queue = null; // ensure that the queue is really empty
   }
 
   /**
@@ -932,18 +853,7 @@ public class MultiNeighborhoodSearch extends
    *          the move to enqueue
    */
   private final void enqueue(final _Move move) {
-    final _Move q;
-
-    q = this.m_queue;
-    if ((q == null) || ((this.m_cmp.compare(move, q) < 0))) {
-      // move = new best: put at head of queue
-      move.m_next = q;
-      this.m_queue = move;
-    } else {// move is not best: put at 2nd place, regardless how good it
-      // is
-      move.m_next = q.m_next;
-      q.m_next = move;
-    }
+    this.m_queue.add(move);
   }
 
   /**
@@ -973,7 +883,7 @@ public class MultiNeighborhoodSearch extends
    * considered before and thus do not need to tested again.
    * </p>
    * <p>
-   * This function will place the best move found at the head of the queue.
+   * The queue will always provide the best move found at its top.
    * </p>
    * <p>
    * This function returns {@code true} if not all possible moves could be
@@ -1227,6 +1137,7 @@ public class MultiNeighborhoodSearch extends
     this.m_f = f;
     n = f.n();
     this.m_distances = new int[n];
+    this.m_queue = new _MoveQueue(n);
   }
 
   /** {@inheritDoc} */
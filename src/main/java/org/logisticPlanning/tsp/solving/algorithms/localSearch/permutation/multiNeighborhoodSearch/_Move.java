@@ -583,6 +583,30 @@ final class _Move {
   /** the next move in the list */
   _Move m_next;
 
+  /** the index of this move in the heap of the {@link _MoveQueue} */
+  int m_heapIndex;
+
+  /** the index {@link #m_i} under which this move is registered */
+  int m_keyI;
+
+  /** the index {@link #m_j} under which this move is registered */
+  int m_keyJ;
+
+  /** the previous move registered under the same {@link #m_keyI} */
+  _Move m_prevI;
+
+  /** the next move registered under the same {@link #m_keyI} */
+  _Move m_nextI;
+
+  /** the previous move registered under the same {@link #m_keyJ} */
+  _Move m_prevJ;
+
+  /** the next move registered under the same {@link #m_keyJ} */
+  _Move m_nextJ;
+
+  /** has this move already been collected for checking? */
+  boolean m_marked;
+
   /** create the move */
   _Move() {
     super();
@@ -735,7 +759,8 @@ final class _Move {
    * <p>
    * After this method was called, the queue of moves must be updated by
    * calling the {@link #checkDeleteMove(_Move, int)} methods of all
-   * enqeued moves.
+   * enqeued moves that may be affected, see
+   * {@link _MoveQueue#update(_Move, int)}.
    * </p>
    *
    * @param n
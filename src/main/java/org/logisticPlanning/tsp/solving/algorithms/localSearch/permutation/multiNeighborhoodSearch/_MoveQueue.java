@@ -0,0 +1,609 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The queue of moves used by the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.MultiNeighborhoodSearch
+ * MultiNeighborhoodSearch}. This class is an internal class. Please do not
+ * instantiate it, use it by yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * The queue combines two data structures: The moves are held in an
+ * indexed binary heap ordered by the {@link EMoveComparator move
+ * comparator}, so the best move can be found in {@code O(1)} and removed
+ * in {@code O(log q)}, where {@code q} is the number of queued moves.
+ * Additionally, each move is registered in two doubly-linked lists, one
+ * for the index {@link _Move#m_i i} and one for the index
+ * {@link _Move#m_j j} of the tour it modifies.
+ * </p>
+ * <p>
+ * After a move was performed, only the queued moves with
+ * {@link _Move#m_i i} or {@link _Move#m_j j} in the range
+ * {@code [i-2,j+2]} of the performed move (taking its smaller index as
+ * {@code i}, since amended swap moves may have {@code i>j}) may have been
+ * invalidated or may need to be amended by
+ * {@link _Move#checkDeleteMove(_Move, int)}:
+ * All indices that could collide with the performed move are within
+ * {@code [i-1,j+1]}, and a queued move touches at most its indices
+ * {@code i-1} to {@code i+1} and {@code j-1} to {@code j+1}. The lists
+ * allow us to {@link #update(_Move, int) visit} only these moves instead
+ * of the whole queue.
+ * </p>
+ * <p>
+ * Moves added to an empty queue are only collected and the heap is built
+ * in linear time once it is needed, because the queue is always filled
+ * completely before it is processed. The lists are also only built once
+ * they are needed. If a performed move spans a large part of the tour,
+ * e.g., a long reversal, all moves are checked in one pass instead, just
+ * like in a plain list, and only the best remaining move is put at the
+ * top. If a local update invalidates many moves, removing each of them
+ * from the heap would be more expensive than rebuilding the heap from the
+ * remaining moves, which is then done instead.
+ * </p>
+ */
+final class _MoveQueue {
+
+  /** the initial heap capacity: {@value} */
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /** the move comparator */
+  private EMoveComparator m_cmp;
+
+  /** the heap */
+  private _Move[] m_heap;
+
+  /** the number of moves in the heap */
+  private int m_size;
+
+  /** have moves been added without establishing the heap order? */
+  private boolean m_unordered;
+
+  /**
+   * is the best move at the first position of the heap array, even if the
+   * heap order has not been established?
+   */
+  private boolean m_bestFirst;
+
+  /** are the lists of moves per index out of date? */
+  private boolean m_unlisted;
+
+  /** the heads of the lists of moves registered under an index {@code i} */
+  private final _Move[] m_byI;
+
+  /** the heads of the lists of moves registered under an index {@code j} */
+  private final _Move[] m_byJ;
+
+  /** the moves collected for checking */
+  private _Move[] m_check;
+
+  /**
+   * create the move queue
+   *
+   * @param n
+   *          the number of nodes
+   */
+  _MoveQueue(final int n) {
+    super();
+    this.m_heap = new _Move[_MoveQueue.INITIAL_CAPACITY];
+    this.m_check = new _Move[_MoveQueue.INITIAL_CAPACITY];
+    this.m_byI = new _Move[n];
+    this.m_byJ = new _Move[n];
+    this.m_cmp = EMoveComparator.BEST_MOVE_FIRST;
+  }
+
+  /**
+   * Set the move comparator. This must only be done while the queue is
+   * empty.
+   *
+   * @param cmp
+   *          the move comparator
+   */
+  final void setComparator(final EMoveComparator cmp) {
+    this.m_cmp = cmp;
+  }
+
+  /**
+   * Get the best move in the queue without removing it
+   *
+   * @return the best move in the queue, or {@code null} if the queue is
+   *         empty
+   */
+  final _Move peek() {
+    if (this.m_unordered && (!(this.m_bestFirst))) {
+      this.__heapify();
+    }
+    return ((this.m_size > 0) ? this.m_heap[0] : null);
+  }
+
+  /**
+   * Add a move to the queue
+   *
+   * @param move
+   *          the move
+   */
+  final void add(final _Move move) {
+    final int size;
+
+    size = this.m_size;
+    if (size >= this.m_heap.length) {
+      this.m_heap = Arrays.copyOf(this.m_heap, (size << 1));
+    }
+    this.m_size = (size + 1);
+    if ((size <= 0) || this.m_unordered) {
+      // the queue is being filled: build the heap and lists later
+      this.m_unordered = true;
+      this.m_bestFirst = false;
+      this.m_unlisted = true;
+      this.m_heap[size] = move;
+      move.m_heapIndex = size;
+    } else {
+      this.__siftUp(move, size);
+      if (!(this.m_unlisted)) {
+        this.__link(move);
+      }
+    }
+  }
+
+  /**
+   * Remove a move from the queue
+   *
+   * @param move
+   *          the move
+   */
+  final void remove(final _Move move) {
+    final _Move last;
+    final int size;
+
+    if (!(this.m_unlisted)) {
+      this.__unlink(move);
+    }
+    if (this.m_unordered) {
+      // no heap order to maintain: just fill the gap with the last move
+      size = (this.m_size - 1);
+      this.m_size = size;
+      last = this.m_heap[size];
+      this.m_heap[size] = null;
+      if (last != move) {
+        this.m_heap[move.m_heapIndex] = last;
+        last.m_heapIndex = move.m_heapIndex;
+      }
+      this.m_bestFirst = false;
+    } else {
+      this.__removeFromHeap(move);
+    }
+  }
+
+  /**
+   * Remove a move from the heap only
+   *
+   * @param move
+   *          the move
+   */
+  private final void __removeFromHeap(final _Move move) {
+    final _Move last;
+    final int index, size;
+
+    index = move.m_heapIndex;
+    size = (this.m_size - 1);
+    this.m_size = size;
+    last = this.m_heap[size];
+    this.m_heap[size] = null;
+    if (last != move) {
+      this.__fix(last, index);
+    }
+  }
+
+  /**
+   * Remove all moves from the queue.
+   *
+   * @return the removed moves, chained via {@link _Move#m_next}
+   */
+  final _Move clear() {
+    final _Move[] heap;
+    _Move list, move;
+    int i;
+
+    heap = this.m_heap;
+    list = null;
+    for (i = this.m_size; (--i) >= 0;) {
+      move = heap[i];
+      heap[i] = null;
+      move.m_next = list;
+      list = move;
+    }
+    this.m_size = 0;
+    this.m_unordered = false;
+    this.m_bestFirst = false;
+    Arrays.fill(this.m_byI, null);
+    Arrays.fill(this.m_byJ, null);
+    this.m_unlisted = false;
+    return list;
+  }
+
+  /**
+   * Update the queue after {@code performed} has been
+   * {@link _Move#apply(int, int[], int[]) applied}: Each queued move which
+   * may be affected by {@code performed} is checked with
+   * {@link _Move#checkDeleteMove(_Move, int)} and then either removed or
+   * re-positioned.
+   *
+   * @param performed
+   *          the performed move, which must already have been
+   *          {@link #remove(_Move) removed} from the queue
+   * @param n
+   *          the number of nodes
+   * @return the removed moves, chained via {@link _Move#m_next}
+   */
+  final _Move update(final _Move performed, final int n) {
+    final _Move[] byI, byJ, heap;
+    final int low, length, size;
+    final boolean typed;
+    _Move[] check;
+    _Move move, list;
+    int count, changed, deleted, i, index, type;
+
+    low = Math.min(performed.m_i, performed.m_j);
+    length = ((Math.max(performed.m_i, performed.m_j) - low) + 5);
+    if ((length << (this.m_unordered ? 6 : 3)) >= n) {
+      // the performed move spans a large part of the tour, so many moves
+      // will be affected anyway and checking all of them in one pass is
+      // cheaper than collecting them via the lists. If there is no heap
+      // order right now, establishing it and the lists costs another pass
+      // over all moves, which only pays off for very local changes.
+      return this.__updateAll(performed, n);
+    }
+
+    if (this.m_unordered) {
+      this.__heapify();
+    }
+    if (this.m_unlisted) {
+      this.__relist();
+    }
+
+    // collect all moves with i or j in [low-2, high+2], where low and high
+    // are the smaller and larger index of the performed move (swap moves
+    // may have i>j after being amended)
+    byI = this.m_byI;
+    byJ = this.m_byJ;
+    check = this.m_check;
+    count = 0;
+    index = (((low - 2) + n) % n);
+    for (i = length; (--i) >= 0;) {
+      for (move = byI[index]; move != null; move = move.m_nextI) {
+        if (!(move.m_marked)) {
+          if (count >= check.length) {
+            this.m_check = check = Arrays.copyOf(check, (count << 1));
+          }
+          move.m_marked = true;
+          check[count++] = move;
+        }
+      }
+      for (move = byJ[index]; move != null; move = move.m_nextJ) {
+        if (!(move.m_marked)) {
+          if (count >= check.length) {
+            this.m_check = check = Arrays.copyOf(check, (count << 1));
+          }
+          move.m_marked = true;
+          check[count++] = move;
+        }
+      }
+      if ((++index) >= n) {
+        index = 0;
+      }
+    }
+
+    // check the collected moves: delete or amend them, but do not yet
+    // touch the heap. Remember the moves whose type has changed if this
+    // matters for the order.
+    list = null;
+    deleted = changed = 0;
+    typed = this.m_cmp._dependsOnType();
+    for (i = 0; i < count; i++) {
+      move = check[i];
+      check[i] = null;
+      move.m_marked = false;
+      type = move.m_type;
+
+      if (move.checkDeleteMove(performed, n)) {
+        this.__unlink(move);
+        move.m_next = list;
+        list = move;
+        deleted++;
+      } else {
+        if ((move.m_i != move.m_keyI) || (move.m_j != move.m_keyJ)) {
+          this.__unlink(move);
+          this.__link(move);
+        }
+        if (typed && (move.m_type != type)) {
+          check[changed++] = move;
+        }
+      }
+    }
+
+    heap = this.m_heap;
+    size = this.m_size;
+    if ((deleted > 1) && //
+        (deleted > (size / (32 - Integer.numberOfLeadingZeros(size))))) {
+      // removing so many moves one by one from the heap would be more
+      // expensive than rebuilding the heap from the remaining moves
+      for (move = list; move != null; move = move.m_next) {
+        move.m_heapIndex = (-1);
+      }
+      count = 0;
+      for (i = 0; i < size; i++) {
+        move = heap[i];
+        if (move.m_heapIndex >= 0) {
+          heap[count++] = move;
+        }
+      }
+      for (i = count; i < size; i++) {
+        heap[i] = null;
+      }
+      this.m_size = count;
+      this.__heapify();
+      for (i = changed; (--i) >= 0;) {
+        check[i] = null;
+      }
+    } else {
+      for (move = list; move != null; move = move.m_next) {
+        this.__removeFromHeap(move);
+      }
+      for (i = changed; (--i) >= 0;) {
+        move = check[i];
+        check[i] = null;
+        this.__fix(move, move.m_heapIndex);
+      }
+    }
+
+    return list;
+  }
+
+  /**
+   * Check all queued moves against the performed move, the same way the
+   * queue was processed before it used a heap: The surviving moves are
+   * compacted, the best one is put at the first position, and the heap
+   * order and the lists are only re-established when they are needed
+   * again.
+   *
+   * @param performed
+   *          the performed move
+   * @param n
+   *          the number of nodes
+   * @return the removed moves, chained via {@link _Move#m_next}
+   */
+  private final _Move __updateAll(final _Move performed, final int n) {
+    final _Move[] heap;
+    final EMoveComparator cmp;
+    final int size;
+    _Move move, list, best;
+    int i, count, bestIndex;
+
+    heap = this.m_heap;
+    cmp = this.m_cmp;
+    size = this.m_size;
+    list = best = null;
+    count = bestIndex = 0;
+    for (i = 0; i < size; i++) {
+      move = heap[i];
+      if (move.checkDeleteMove(performed, n)) {
+        move.m_next = list;
+        list = move;
+      } else {
+        if ((best == null) || (cmp.compare(move, best) < 0)) {
+          best = move;
+          bestIndex = count;
+        }
+        if (count != i) {
+          move.m_heapIndex = count;
+          heap[count] = move;
+        }
+        count++;
+      }
+    }
+    for (i = count; i < size; i++) {
+      heap[i] = null;
+    }
+    this.m_size = count;
+
+    if (bestIndex > 0) {
+      move = heap[0];
+      heap[0] = best;
+      best.m_heapIndex = 0;
+      heap[bestIndex] = move;
+      move.m_heapIndex = bestIndex;
+    }
+
+    this.m_unordered = true;
+    this.m_bestFirst = true;
+    this.m_unlisted = true;
+    return list;
+  }
+
+  /**
+   * Register a move under its indices {@link _Move#m_i i} and
+   * {@link _Move#m_j j}.
+   *
+   * @param move
+   *          the move
+   */
+  private final void __link(final _Move move) {
+    final _Move headI, headJ;
+    final int i, j;
+
+    i = move.m_i;
+    move.m_keyI = i;
+    headI = this.m_byI[i];
+    move.m_prevI = null;
+    move.m_nextI = headI;
+    if (headI != null) {
+      headI.m_prevI = move;
+    }
+    this.m_byI[i] = move;
+
+    j = move.m_j;
+    move.m_keyJ = j;
+    headJ = this.m_byJ[j];
+    move.m_prevJ = null;
+    move.m_nextJ = headJ;
+    if (headJ != null) {
+      headJ.m_prevJ = move;
+    }
+    this.m_byJ[j] = move;
+  }
+
+  /**
+   * Remove a move from the lists of its registered indices.
+   *
+   * @param move
+   *          the move
+   */
+  private final void __unlink(final _Move move) {
+    final _Move prevI, nextI, prevJ, nextJ;
+
+    prevI = move.m_prevI;
+    nextI = move.m_nextI;
+    if (prevI == null) {
+      this.m_byI[move.m_keyI] = nextI;
+    } else {
+      prevI.m_nextI = nextI;
+    }
+    if (nextI != null) {
+      nextI.m_prevI = prevI;
+    }
+
+    prevJ = move.m_prevJ;
+    nextJ = move.m_nextJ;
+    if (prevJ == null) {
+      this.m_byJ[move.m_keyJ] = nextJ;
+    } else {
+      prevJ.m_nextJ = nextJ;
+    }
+    if (nextJ != null) {
+      nextJ.m_prevJ = prevJ;
+    }
+
+    move.m_prevI = move.m_nextI = move.m_prevJ = move.m_nextJ = null;
+  }
+
+  /** rebuild the lists of moves per index */
+  private final void __relist() {
+    final _Move[] heap;
+    int i;
+
+    Arrays.fill(this.m_byI, null);
+    Arrays.fill(this.m_byJ, null);
+    heap = this.m_heap;
+    for (i = this.m_size; (--i) >= 0;) {
+      this.__link(heap[i]);
+    }
+    this.m_unlisted = false;
+  }
+
+  /** establish the heap order over all moves in the heap array */
+  private final void __heapify() {
+    final _Move[] heap;
+    final int size;
+    int i;
+
+    heap = this.m_heap;
+    size = this.m_size;
+    for (i = size; (--i) >= 0;) {
+      heap[i].m_heapIndex = i;
+    }
+    for (i = ((size >>> 1) - 1); i >= 0; i--) {
+      this.__siftDown(heap[i], i);
+    }
+    this.m_unordered = false;
+    this.m_bestFirst = false;
+  }
+
+  /**
+   * Put a move to the given heap position and restore the heap order by
+   * moving it up or down.
+   *
+   * @param move
+   *          the move
+   * @param index
+   *          the heap position
+   */
+  private final void __fix(final _Move move, final int index) {
+    if ((index > 0)
+        && (this.m_cmp.compare(move, this.m_heap[(index - 1) >>> 1]) < 0)) {
+      this.__siftUp(move, index);
+    } else {
+      this.__siftDown(move, index);
+    }
+  }
+
+  /**
+   * Move a move up in the heap, starting at position {@code index}.
+   *
+   * @param move
+   *          the move
+   * @param index
+   *          the start position
+   */
+  private final void __siftUp(final _Move move, final int index) {
+    final _Move[] heap;
+    final EMoveComparator cmp;
+    _Move parent;
+    int i, p;
+
+    heap = this.m_heap;
+    cmp = this.m_cmp;
+    i = index;
+    while (i > 0) {
+      p = ((i - 1) >>> 1);
+      parent = heap[p];
+      if (cmp.compare(move, parent) >= 0) {
+        break;
+      }
+      heap[i] = parent;
+      parent.m_heapIndex = i;
+      i = p;
+    }
+    heap[i] = move;
+    move.m_heapIndex = i;
+  }
+
+  /**
+   * Move a move down in the heap, starting at position {@code index}.
+   *
+   * @param move
+   *          the move
+   * @param index
+   *          the start position
+   */
+  private final void __siftDown(final _Move move, final int index) {
+    final _Move[] heap;
+    final EMoveComparator cmp;
+    final int size, half;
+    _Move child;
+    int i, c, r;
+
+    heap = this.m_heap;
+    cmp = this.m_cmp;
+    size = this.m_size;
+    half = (size >>> 1);
+    i = index;
+    while (i < half) {
+      c = ((i << 1) + 1);
+      child = heap[c];
+      r = (c + 1);
+      if ((r < size) && (cmp.compare(heap[r], child) < 0)) {
+        c = r;
+        child = heap[c];
+      }
+      if (cmp.compare(move, child) <= 0) {
+        break;
+      }
+      heap[i] = child;
+      child.m_heapIndex = i;
+      i = c;
+    }
+    heap[i] = move;
+    move.m_heapIndex = i;
+  }
+}
@@ -13,6 +13,8 @@ import org.logisticPlanning.tsp.solving.operators.permutation.update.Permutation
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Left;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Right;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Swap;
+import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.tsp.solving.utils.candidates.ECandidateSetType;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
 import org.logisticPlanning.utils.math.random.Randomizer;
@@ -58,6 +60,16 @@ import org.logisticPlanning.utils.math.random.Randomizer;
  * solution and randomly shuffle a part of it. Then, we start the procedure
  * again.
  * </p>
+ * <p>
+ * Like in the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns.PermutationVNS
+ * VNS}, the neighborhoods can be restricted to the index pairs which
+ * bring a node next to one of its candidates by setting the parameter
+ * {@link #PARAM_CANDIDATE_COUNT} to a positive value. Each neighborhood
+ * then only looks at the nodes whose incident edges have changed since
+ * they last offered no improvement there (&quot;don't-look bits&quot;),
+ * which makes the search feasible for large instances.
+ * </p>
  * <h2>References</h2>
  * <ol>
  * <li><div><span id="cite_HM2001VNSPAA" /><a
@@ -149,6 +161,16 @@ public class PermutationRNS extends TSPLocalSearchAlgorithm<int[]> {
    */
   public static final String PARAM_IMPROVEMENT_SELECTION_POLICY = "rnsImprovementSelectionPolicy"; //$NON-NLS-1$
 
+  /**
+   * the parameter governing the number of nearest neighbors in the
+   * candidate list per node: {@value}, {@code -1} means to test all index
+   * pairs instead of using candidate lists
+   */
+  public static final String PARAM_CANDIDATE_COUNT = "rnsCandidateCount"; //$NON-NLS-1$
+
+  /** the default number of candidates: test all index pairs */
+  public static final int DEFAULT_CANDIDATE_COUNT = -1;
+
   /** the default neighborhoods */
   private static final PermutationUpdateOperator[] DEFAULT_NEIGHBORHOODS = new PermutationUpdateOperator[] {//
   PermutationUpdate_Swap.INSTANCE,//
@@ -172,15 +194,35 @@ public class PermutationRNS extends TSPLocalSearchAlgorithm<int[]> {
    */
   private EImprovementSelectionPolicy m_improvementSelectionPolicy;
 
+  /**
+   * the number of candidates per node, or {@code -1} to test all index
+   * pairs
+   *
+   * @serial an integer value
+   */
+  private int m_candidateCount;
+
+  /**
+   * the type of the candidate set
+   *
+   * @serial the non-null candidate set type
+   */
+  private ECandidateSetType m_candidateSetType;
+
   /** the operations to be used */
   private transient PermutationUpdateOperator[] m_useOps;
 
+  /** the neighbor list search, or {@code null} to test all index pairs */
+  private transient _NeighborListSearch m_neighbors;
+
   /** instantiate */
   public PermutationRNS() {
     super("Random Neighborhood Search");//$NON-NLS-1$
 
     this.m_ops = PermutationRNS.DEFAULT_NEIGHBORHOODS;
     this.m_improvementSelectionPolicy = EImprovementSelectionPolicy.DEFAULT;
+    this.m_candidateCount = PermutationRNS.DEFAULT_CANDIDATE_COUNT;
+    this.m_candidateSetType = ECandidateSetType.DEFAULT;
   }
 
   /**
@@ -204,11 +246,17 @@ public class PermutationRNS extends TSPLocalSearchAlgorithm<int[]> {
     final PermutationUpdateOperator[] ops;
     final EImprovementSelectionPolicy policy;
     final boolean firstImpIt;
-    int opsCount, chosen, delta, bestDelta, i, j, bestI, bestJ;
+    final _NeighborListSearch neighbors;
+    int opsCount, chosen, delta, bestDelta, i, j, bestI, bestJ, k;
     PermutationUpdateOperator op;
 
     n = f.n();
     r = f.getRandom();
+    neighbors = this.m_neighbors;
+    if (neighbors != null) {
+      // all nodes are active in all neighborhoods
+      neighbors.begin(srcdst.solution);
+    }
 
     // see which kind of improvement we are looking for
     policy = this.m_improvementSelectionPolicy.getCallPolicy(r);
@@ -230,19 +278,34 @@ public class PermutationRNS extends TSPLocalSearchAlgorithm<int[]> {
 
         bestI = bestJ = bestDelta = Integer.MAX_VALUE;
 
-        // Test all possible modifications that this neighborhood can
-        // offer.
-        findBest: for (j = n; (--j) > 0;) {
-          for (i = j; (--i) >= 0;) {
-
-            // Check operation for indices (i,j)
-            delta = op.delta(srcdst.solution, f, i, j);
-            if (delta < bestDelta) { // Remember best possible move.
-              bestDelta = delta;
-              bestI = i;
-              bestJ = j;
-              if (firstImpIt && (delta < 0)) {
-                break findBest;
+        if (neighbors != null) {
+          // Test only the moves which connect the active nodes to their
+          // candidates. The don't-look bits belong to the neighborhood's
+          // index in m_ops.
+          for (k = this.m_ops.length; (--k) > 0;) {
+            if (this.m_ops[k] == op) {
+              break;
+            }
+          }
+          bestDelta = neighbors.find(k, op, srcdst.solution, f,
+              firstImpIt);
+          bestI = neighbors.m_i;
+          bestJ = neighbors.m_j;
+        } else {
+          // Test all possible modifications that this neighborhood can
+          // offer.
+          findBest: for (j = n; (--j) > 0;) {
+            for (i = j; (--i) >= 0;) {
+
+              // Check operation for indices (i,j)
+              delta = op.delta(srcdst.solution, f, i, j);
+              if (delta < bestDelta) { // Remember best possible move.
+                bestDelta = delta;
+                bestI = i;
+                bestJ = j;
+                if (firstImpIt && (delta < 0)) {
+                  break findBest;
+                }
               }
             }
           }
@@ -253,6 +316,9 @@ public class PermutationRNS extends TSPLocalSearchAlgorithm<int[]> {
         // search operator that would decrease the tour length?
         if (bestDelta < 0) {// Yes! we found one improving move!
           op.update(srcdst.solution, bestI, bestJ);// apply this move
+          if (neighbors != null) {
+            neighbors.update(srcdst.solution, bestI, bestJ);
+          }
           srcdst.tourLength += bestDelta; // modify tour length
           // register new tour length
           f.registerFE(srcdst.solution, srcdst.tourLength);
@@ -289,6 +355,12 @@ public class PermutationRNS extends TSPLocalSearchAlgorithm<int[]> {
     Configurable.printKey(
         PermutationRNS.PARAM_IMPROVEMENT_SELECTION_POLICY, ps);
     Configurable.printlnObject(this.m_improvementSelectionPolicy, ps);
+
+    Configurable.printKey(PermutationRNS.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(this.m_candidateCount);
+
+    Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+    Configurable.printlnObject(this.m_candidateSetType, ps);
   }
 
   /** {@inheritDoc} */
@@ -304,6 +376,13 @@ public class PermutationRNS extends TSPLocalSearchAlgorithm<int[]> {
     ps.println(//
     "the minimum number of nodes shuffled when trying to escape a local optimum"); //$NON-NLS-1$
 
+    Configurable.printKey(PermutationRNS.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(//
+    "the number of nearest neighbors in the candidate sets per node, -1 to test all index pairs"); //$NON-NLS-1$
+
+    Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+    ps.println("the type of the candidate sets: nearest, quadrant, or alpha-nearest neighbors"); //$NON-NLS-1$
+
     for (final Configurable c : this.m_ops) {
       c.printParameters(ps);
     }
@@ -320,6 +399,13 @@ public class PermutationRNS extends TSPLocalSearchAlgorithm<int[]> {
         EImprovementSelectionPolicy.class,
         this.m_improvementSelectionPolicy);
 
+    this.m_candidateCount = config.getInt(
+        PermutationRNS.PARAM_CANDIDATE_COUNT, -1, 1000000,
+        this.m_candidateCount);
+    this.m_candidateSetType = config.getConstant(
+        CandidateSet.PARAM_CANDIDATE_SET_TYPE, ECandidateSetType.class,
+        ECandidateSetType.class, this.m_candidateSetType);
+
     for (final Configurable c : this.m_ops) {
       c.configure(config);
     }
@@ -339,18 +425,39 @@ public class PermutationRNS extends TSPLocalSearchAlgorithm<int[]> {
     }
   }
 
+  /**
+   * Set the number of nearest neighbors in the candidate list per node. If
+   * this is {@code -1}, all index pairs are tested in each neighborhood.
+   *
+   * @param i
+   *          the number of candidates
+   */
+  public final void setCandidateCount(final int i) {
+    this.m_candidateCount = ((i <= 0) ? (-1) : i);
+  }
+
   /** {@inheritDoc} */
   @Override
   public void beginRun(final ObjectiveFunction f) {
+    final CandidateSet candidates;
+
     super.beginRun(f);
     TSPModule.invokeBeginRun(f, this.m_ops);
     this.m_useOps = new PermutationUpdateOperator[this.m_ops.length];
+
+    candidates = this.m_candidateSetType.allocate(f,
+        this.m_candidateCount, null);
+    if (candidates != null) {
+      this.m_neighbors = new _NeighborListSearch(candidates, f.n(),
+          this.m_ops.length);
+    }
   }
 
   /** {@inheritDoc} */
   @Override
   public void endRun(final ObjectiveFunction f) {
     this.m_useOps = null;
+    this.m_neighbors = null;
     try {
       TSPModule.invokeEndRun(f, this.m_ops);
     } finally {
@@ -367,6 +474,7 @@ public class PermutationRNS extends TSPLocalSearchAlgorithm<int[]> {
 
     clo = ((PermutationRNS) (super.clone()));
     clo.m_useOps = null;
+    clo.m_neighbors = null;
     clo.m_ops = ops = clo.m_ops.clone();
     for (i = ops.length; (--i) >= 0;) {
       ops[i] = ops[i].clone();
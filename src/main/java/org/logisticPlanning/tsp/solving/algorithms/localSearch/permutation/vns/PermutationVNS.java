@@ -1,6 +1,7 @@
 package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns;
 
 import java.io.PrintStream;
+import java.io.Serializable;
 
 import org.logisticPlanning.tsp.benchmarking.instances.Instance;
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
@@ -13,6 +14,8 @@ import org.logisticPlanning.tsp.solving.operators.permutation.update.Permutation
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Left;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Rotate_Right;
 import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdate_Swap;
+import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.tsp.solving.utils.candidates.ECandidateSetType;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
 import org.logisticPlanning.utils.math.random.Randomizer;
@@ -84,6 +87,19 @@ import org.logisticPlanning.utils.math.random.Randomizer;
  * </ol>
  * </li>
  * </ol>
+ * <p>
+ * Testing all index pairs {@code (i,j)} takes {@code n²} steps per
+ * neighborhood, which is too slow for large instances. If the parameter
+ * {@link #PARAM_CANDIDATE_COUNT} is set to a positive value, the
+ * neighborhoods are instead only tested for the index pairs which can
+ * bring a node next to one of its nearest neighbors from a
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet
+ * candidate set}, e.g., 2-opt moves (reversals) and Or-opt moves
+ * (rotations). Each neighborhood then keeps &quot;don't-look bits&quot;
+ * and only looks at the nodes whose incident edges have changed since
+ * they last offered no improvement there. The improvement selection
+ * policy is applied in the same way.
+ * </p>
  * <h2>References</h2>
  * <ol>
  * <li><div><span id="cite_HM2001VNSPAA" /><a
@@ -175,6 +191,16 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
    */
   public static final String PARAM_IMPROVEMENT_SELECTION_POLICY = "vnsImprovementSelectionPolicy"; //$NON-NLS-1$
 
+  /**
+   * the parameter governing the number of nearest neighbors in the
+   * candidate list per node: {@value}, {@code -1} means to test all index
+   * pairs instead of using candidate lists
+   */
+  public static final String PARAM_CANDIDATE_COUNT = "vnsCandidateCount"; //$NON-NLS-1$
+
+  /** the default number of candidates: test all index pairs */
+  public static final int DEFAULT_CANDIDATE_COUNT = -1;
+
   /** the default neighborhoods */
   private static final PermutationUpdateOperator[] DEFAULT_NEIGHBORHOODS = new PermutationUpdateOperator[] {//
   PermutationUpdate_Swap.INSTANCE,//
@@ -198,15 +224,35 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
    */
   private EImprovementSelectionPolicy m_improvementSelectionPolicy;
 
+  /**
+   * the number of candidates per node, or {@code -1} to test all index
+   * pairs
+   *
+   * @serial an integer value
+   */
+  private int m_candidateCount;
+
+  /**
+   * the type of the candidate set
+   *
+   * @serial the non-null candidate set type
+   */
+  private ECandidateSetType m_candidateSetType;
+
   /** the operations to be used */
   private transient PermutationUpdateOperator[] m_useOps;
 
+  /** the neighbor list search, or {@code null} to test all index pairs */
+  private transient _NeighborListSearch m_neighbors;
+
   /** instantiate */
   public PermutationVNS() {
     super("Variable Neighborhood Search");//$NON-NLS-1$
 
     this.m_ops = PermutationVNS.DEFAULT_NEIGHBORHOODS;
     this.m_improvementSelectionPolicy = EImprovementSelectionPolicy.DEFAULT;
+    this.m_candidateCount = PermutationVNS.DEFAULT_CANDIDATE_COUNT;
+    this.m_candidateSetType = ECandidateSetType.DEFAULT;
   }
 
   /**
@@ -231,11 +277,13 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
     final PermutationUpdateOperator[] ops;
     final EImprovementSelectionPolicy policy;
     final boolean firstImpIt;
+    final _NeighborListSearch neighbors;
     int chosen, delta, bestDelta, i, j, bestI, bestJ;
     PermutationUpdateOperator op;
 
     n = f.n();
     r = f.getRandom();
+    neighbors = this.m_neighbors;
 
     // see which kind of improvement we are looking for
     policy = this.m_improvementSelectionPolicy.getCallPolicy(r);
@@ -258,6 +306,11 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
     // bottom of this loop.
     chosen = 0;
     r.shuffle(ops);
+    if (neighbors != null) {
+      // all nodes are active in all neighborhoods, whose order stays the
+      // same during this call
+      neighbors.begin(srcdst.solution);
+    }
 
     // Perform the VNS. Chosen will be increased when no improving move can
     // be found.
@@ -265,22 +318,31 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
       op = ops[chosen];
       bestI = bestJ = bestDelta = Integer.MAX_VALUE;
 
-      // Test all possible modifications that the current neighborhood can
-      // offer (or just grab the first improving move).
-      findBest: for (j = n; (--j) > 0;) {
-        for (i = j; (--i) >= 0;) {
-
-          // Check operation for indices (i,j)
-          delta = op.delta(srcdst.solution, f, i, j);
-          if (delta < bestDelta) { // Remember best possible move.
-            bestDelta = delta;
-            bestI = i;
-            bestJ = j;
-            if (firstImpIt && (delta < 0)) {
-              // if configuration says so, we can also stop as
-              // soon as we
-              // have one improving move
-              break findBest;
+      if (neighbors != null) {
+        // Test only the moves which connect the active nodes to their
+        // candidates.
+        bestDelta = neighbors.find(chosen, op, srcdst.solution, f,
+            firstImpIt);
+        bestI = neighbors.m_i;
+        bestJ = neighbors.m_j;
+      } else {
+        // Test all possible modifications that the current neighborhood
+        // can offer (or just grab the first improving move).
+        findBest: for (j = n; (--j) > 0;) {
+          for (i = j; (--i) >= 0;) {
+
+            // Check operation for indices (i,j)
+            delta = op.delta(srcdst.solution, f, i, j);
+            if (delta < bestDelta) { // Remember best possible move.
+              bestDelta = delta;
+              bestI = i;
+              bestJ = j;
+              if (firstImpIt && (delta < 0)) {
+                // if configuration says so, we can also stop as
+                // soon as we
+                // have one improving move
+                break findBest;
+              }
             }
           }
         }
@@ -290,6 +352,9 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
       // search operator that would decrease the tour length?
       if (bestDelta < 0) {// Yes! we found one improving move!
         op.update(srcdst.solution, bestI, bestJ);// apply this move
+        if (neighbors != null) {
+          neighbors.update(srcdst.solution, bestI, bestJ);
+        }
         srcdst.tourLength += bestDelta; // modify tour length
         f.registerFE(srcdst.solution, srcdst.tourLength); // register
         // new tour
@@ -324,6 +389,12 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
     Configurable.printKey(
         PermutationVNS.PARAM_IMPROVEMENT_SELECTION_POLICY, ps);
     Configurable.printlnObject(this.m_improvementSelectionPolicy, ps);
+
+    Configurable.printKey(PermutationVNS.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(this.m_candidateCount);
+
+    Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+    Configurable.printlnObject(this.m_candidateSetType, ps);
   }
 
   /** {@inheritDoc} */
@@ -339,6 +410,13 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
     ps.println(//
     "the minimum number of nodes shuffled when trying to escape a local optimum"); //$NON-NLS-1$
 
+    Configurable.printKey(PermutationVNS.PARAM_CANDIDATE_COUNT, ps);
+    ps.println(//
+    "the number of nearest neighbors in the candidate sets per node, -1 to test all index pairs"); //$NON-NLS-1$
+
+    Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+    ps.println("the type of the candidate sets: nearest, quadrant, or alpha-nearest neighbors"); //$NON-NLS-1$
+
     for (final Configurable c : this.m_ops) {
       c.printParameters(ps);
     }
@@ -355,6 +433,13 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
         EImprovementSelectionPolicy.class,
         this.m_improvementSelectionPolicy);
 
+    this.m_candidateCount = config.getInt(
+        PermutationVNS.PARAM_CANDIDATE_COUNT, -1, 1000000,
+        this.m_candidateCount);
+    this.m_candidateSetType = config.getConstant(
+        CandidateSet.PARAM_CANDIDATE_SET_TYPE, ECandidateSetType.class,
+        ECandidateSetType.class, this.m_candidateSetType);
+
     for (final Configurable c : this.m_ops) {
       c.configure(config);
     }
@@ -374,18 +459,79 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
     }
   }
 
+  /**
+   * Set the number of nearest neighbors in the candidate list per node. If
+   * this is {@code -1}, all index pairs are tested in each neighborhood.
+   *
+   * @param i
+   *          the number of candidates
+   */
+  public final void setCandidateCount(final int i) {
+    this.m_candidateCount = ((i <= 0) ? (-1) : i);
+  }
+
   /** {@inheritDoc} */
   @Override
   public void beginRun(final ObjectiveFunction f) {
+    final CandidateSet candidates;
+
     super.beginRun(f);
     TSPModule.invokeBeginRun(f, this.m_ops);
     this.m_useOps = this.m_ops.clone();
+
+    candidates = this.m_candidateSetType.allocate(f,
+        this.m_candidateCount, null);
+    if (candidates != null) {
+      this.m_neighbors = new _NeighborListSearch(candidates, f.n(),
+          this.m_ops.length);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected Serializable createLocalSearchState(final ObjectiveFunction f) {
+    final PermutationUpdateOperator[] ops, useOps;
+    final int[] order;
+    int i, j;
+
+    // the neighborhoods are shuffled in place, so their current order
+    // determines the next shuffle: store it as indexes into m_ops
+    ops = this.m_ops;
+    useOps = this.m_useOps;
+    order = new int[useOps.length];
+    for (i = useOps.length; (--i) >= 0;) {
+      for (j = ops.length; (--j) >= 0;) {
+        if (ops[j] == useOps[i]) {
+          order[i] = j;
+          break;
+        }
+      }
+    }
+    return order;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void resumeLocalSearchState(final Serializable state,
+      final ObjectiveFunction f) {
+    final int[] order;
+    int i;
+
+    if (state instanceof int[]) {
+      order = ((int[]) state);
+      if (order.length == this.m_useOps.length) {
+        for (i = order.length; (--i) >= 0;) {
+          this.m_useOps[i] = this.m_ops[order[i]];
+        }
+      }
+    }
   }
 
   /** {@inheritDoc} */
   @Override
   public void endRun(final ObjectiveFunction f) {
     this.m_useOps = null;
+    this.m_neighbors = null;
     try {
       TSPModule.invokeEndRun(f, this.m_ops);
     } finally {
@@ -402,6 +548,7 @@ public class PermutationVNS extends TSPLocalSearchAlgorithm<int[]> {
 
     clo = ((PermutationVNS) (super.clone()));
     clo.m_useOps = null;
+    clo.m_neighbors = null;
     clo.m_ops = ops = clo.m_ops.clone();
     for (i = ops.length; (--i) >= 0;) {
       ops[i] = ops[i].clone();
@@ -0,0 +1,268 @@
+package org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.operators.permutation.update.PermutationUpdateOperator;
+import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+
+/**
+ * <p>
+ * A neighbor-list driven search for improving moves in the neighborhoods
+ * of the {@link PermutationVNS} and the {@link PermutationRNS}. This class
+ * is an internal class. Please do not instantiate it, use it by yourself,
+ * or otherwise meddle with it.
+ * </p>
+ * <p>
+ * Instead of testing a neighborhood (search operator) for all
+ * {@code n(n-1)/2} index pairs {@code (i,j)}, only the index pairs which
+ * can bring a node next to one of its {@link CandidateSet candidates} are
+ * tested: For a node at index {@code a} and one of its candidates at index
+ * {@code c}, these are the pairs combining one index of {@code a-1..a+1}
+ * with one of {@code c-1..c+1}. This covers, e.g., the 2-opt moves
+ * (reversals) and Or-opt moves (rotations by one) which create an edge
+ * between a node and one of its candidates. As in the full search, we
+ * always have {@code i<j}.
+ * </p>
+ * <p>
+ * Additionally, each neighborhood has its own queue of active nodes, i.e.,
+ * of the nodes whose &quot;don't-look bit&quot; is not set. A node is
+ * dropped from the queue of a neighborhood if it offers no improving move
+ * there and it is put back into the queues of all neighborhoods once one
+ * of its incident edges has changed. A sweep over a neighborhood therefore
+ * only looks at the nodes close to the recent changes, which makes it
+ * nearly linear instead of quadratic in {@code n}.
+ * </p>
+ * <p>
+ * The search relies on the neighborhoods only changing the nodes at the
+ * indices {@code i..j} when applied to {@code (i,j)} with {@code i<j},
+ * which holds for all the update operators used by the {@link PermutationVNS}
+ * and the {@link PermutationRNS}.
+ * </p>
+ */
+final class _NeighborListSearch {
+
+  /** the candidate set */
+  private final CandidateSet m_candidates;
+
+  /** the index of each node in the current tour */
+  private final int[] m_pos;
+
+  /** the queues of active nodes, one per neighborhood */
+  private final int[][] m_queues;
+
+  /** the index of the first node in each queue */
+  private final int[] m_heads;
+
+  /** the number of nodes in each queue */
+  private final int[] m_sizes;
+
+  /** is a node in the queue of a neighborhood? */
+  private final boolean[][] m_active;
+
+  /** the first index of the best move found */
+  int m_i;
+
+  /** the second index of the best move found */
+  int m_j;
+
+  /**
+   * create the neighbor list search
+   *
+   * @param candidates
+   *          the candidate set
+   * @param n
+   *          the number of nodes
+   * @param neighborhoods
+   *          the number of neighborhoods
+   */
+  _NeighborListSearch(final CandidateSet candidates, final int n,
+      final int neighborhoods) {
+    super();
+    this.m_candidates = candidates;
+    this.m_pos = new int[n + 1];
+    this.m_queues = new int[neighborhoods][n];
+    this.m_heads = new int[neighborhoods];
+    this.m_sizes = new int[neighborhoods];
+    this.m_active = new boolean[neighborhoods][n + 1];
+  }
+
+  /**
+   * Begin a new local search on the given tour: All nodes become active
+   * in all neighborhoods.
+   *
+   * @param tour
+   *          the tour
+   */
+  final void begin(final int[] tour) {
+    final int[] pos;
+    final int n;
+    int i, k, node;
+
+    pos = this.m_pos;
+    n = tour.length;
+    for (k = this.m_queues.length; (--k) >= 0;) {
+      this.m_heads[k] = 0;
+      this.m_sizes[k] = n;
+    }
+    for (i = n; (--i) >= 0;) {
+      node = tour[i];
+      pos[node] = i;
+      for (k = this.m_queues.length; (--k) >= 0;) {
+        this.m_queues[k][i] = node;
+        this.m_active[k][node] = true;
+      }
+    }
+  }
+
+  /**
+   * Search for an improving move in a neighborhood by visiting each of its
+   * active nodes once. Nodes which offer no improving move become inactive
+   * in this neighborhood. If an improving move was found, its indices are
+   * stored in {@link #m_i} and {@link #m_j}.
+   *
+   * @param k
+   *          the index of the neighborhood
+   * @param op
+   *          the search operator of the neighborhood
+   * @param tour
+   *          the current tour
+   * @param f
+   *          the objective function
+   * @param first
+   *          should we return the first improving move discovered
+   *          ({@code true}) or search for the best one ({@code false})?
+   * @return the delta of the best move found, or
+   *         {@link PermutationUpdateOperator#NO_EFFECT} if no move could be
+   *         tested
+   */
+  final int find(final int k, final PermutationUpdateOperator op,
+      final int[] tour, final ObjectiveFunction f, final boolean first) {
+    final CandidateSet candidates;
+    final int[] pos, queue;
+    final boolean[] active;
+    final int n, m;
+    int best, delta, head, size, steps, node, id, a, c, x, y, i, j;
+    boolean improving;
+
+    candidates = this.m_candidates;
+    pos = this.m_pos;
+    queue = this.m_queues[k];
+    active = this.m_active[k];
+    n = tour.length;
+    m = candidates.m();
+    head = this.m_heads[k];
+    size = this.m_sizes[k];
+    best = PermutationUpdateOperator.NO_EFFECT;
+
+    for (steps = size; (--steps) >= 0;) {
+      node = queue[head];
+      if ((++head) >= n) {
+        head = 0;
+      }
+      size--;
+
+      improving = false;
+      a = pos[node];
+      findBest: for (id = 1; id <= m; id++) {
+        c = pos[candidates.getCandidate(node, id)];
+        for (x = Math.max(0, a - 1); x <= Math.min(n - 1, a + 1); x++) {
+          for (y = Math.max(0, c - 1); y <= Math.min(n - 1, c + 1); y++) {
+            if (x < y) {
+              i = x;
+              j = y;
+            } else {
+              if (x == y) {
+                continue;
+              }
+              i = y;
+              j = x;
+            }
+
+            // Check operation for indices (i,j)
+            delta = op.delta(tour, f, i, j);
+            if (delta < best) { // Remember best possible move.
+              best = delta;
+              this.m_i = i;
+              this.m_j = j;
+            }
+            if (delta < 0) {
+              improving = true;
+              if (first) {
+                break findBest;
+              }
+            }
+          }
+        }
+      }
+
+      if (improving) {
+        // the node stays active
+        queue[(head + size) % n] = node;
+        size++;
+        if (first) {
+          break;
+        }
+      } else {
+        // no improving move: set the node's don't-look bit
+        active[node] = false;
+      }
+    }
+
+    this.m_heads[k] = head;
+    this.m_sizes[k] = size;
+    return best;
+  }
+
+  /**
+   * Update the node positions after a move {@code (i,j)} with
+   * {@code i<j} was applied to the tour and activate the nodes whose
+   * incident edges may have changed in all neighborhoods.
+   *
+   * @param tour
+   *          the tour
+   * @param i
+   *          the first index of the move
+   * @param j
+   *          the second index of the move
+   */
+  final void update(final int[] tour, final int i, final int j) {
+    final int[] pos;
+    final int n;
+    int x;
+
+    pos = this.m_pos;
+    n = tour.length;
+    for (x = i; x <= j; x++) {
+      pos[tour[x]] = x;
+    }
+
+    // all edges that may have changed are incident to nodes at the
+    // indices i-1..i+1 or j-1..j+1
+    for (x = (i - 1); x <= (i + 1); x++) {
+      this.__activate(tour[(x + n) % n]);
+    }
+    for (x = (j - 1); x <= (j + 1); x++) {
+      this.__activate(tour[x % n]);
+    }
+  }
+
+  /**
+   * Put a node back into the queues of all neighborhoods where it is not
+   * active.
+   *
+   * @param node
+   *          the node
+   */
+  private final void __activate(final int node) {
+    final int n;
+    int k;
+
+    n = this.m_queues[0].length;
+    for (k = this.m_queues.length; (--k) >= 0;) {
+      if (!(this.m_active[k][node])) {
+        this.m_active[k][node] = true;
+        this.m_queues[k][(this.m_heads[k] + this.m_sizes[k]) % n] = node;
+        this.m_sizes[k]++;
+      }
+    }
+  }
+}
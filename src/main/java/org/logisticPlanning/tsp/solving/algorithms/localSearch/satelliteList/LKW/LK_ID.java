@@ -9,6 +9,7 @@ import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
 import org.logisticPlanning.tsp.solving.algorithms.localSearch.TSPLocalSearchAlgorithm;
 import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateCanonical;
 import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.tsp.solving.utils.candidates.ECandidateSetType;
 import org.logisticPlanning.tsp.solving.utils.satelliteList.UndoableSatelliteList;
 import org.logisticPlanning.tsp.solving.utils.satelliteList.UndoableSatelliteNode;
 import org.logisticPlanning.utils.config.Configurable;
@@ -178,6 +179,9 @@ public class LK_ID extends TSPLocalSearchAlgorithm<int[]> {
   /** the number of candidates */
   private int m_candidateCount;
 
+  /** the type of the candidate set */
+  private ECandidateSetType m_candidateSetType;
+
   /** the starting max depth */
   private int m_startMaxDepth;
 
@@ -225,6 +229,7 @@ public class LK_ID extends TSPLocalSearchAlgorithm<int[]> {
     super("Iterative Deepening Lin-Kerninghan Heuristic");//$NON-NLS-1$
 
     this.m_candidateCount = LK_ID.DEFAULT_CANDIDATE_COUNT;
+    this.m_candidateSetType = ECandidateSetType.DEFAULT;
     this.m_startMaxDepth = LK_ID.DEFAULT_START_MAX_RECURSION_DEPTH;
     this.m_maxMaxDepth = LK_ID.DEFAULT_MAX_MAX_RECURSION_DEPTH;
     this.m_depthIncreasingProbability = LK_ID.DEFAULT_DEPTH_INCREASING_PROBABILITY;
@@ -453,6 +458,9 @@ public class LK_ID extends TSPLocalSearchAlgorithm<int[]> {
     Configurable.printKey(LK_ID.PARAM_CANDIDATE_COUNT, ps);
     ps.println(this.m_candidateCount);
 
+    Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+    Configurable.printlnObject(this.m_candidateSetType, ps);
+
     if (this.m_candidates != null) {
       Configurable.printKey(LK_ID.CONFIG_CANDIDATE_COUNT, ps);
       ps.println(this.m_candidates.m());
@@ -476,6 +484,9 @@ public class LK_ID extends TSPLocalSearchAlgorithm<int[]> {
     Configurable.printKey(LK_ID.PARAM_CANDIDATE_COUNT, ps);
     ps.println("the number of nearest neighbors in the candidate sets per node"); //$NON-NLS-1$
 
+    Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+    ps.println("the type of the candidate sets: nearest, quadrant, or alpha-nearest neighbors"); //$NON-NLS-1$
+
     Configurable.printKey(LK_ID.PARAM_START_MAX_RECURSION_DEPTH, ps);
     ps.println("the start depth limit of the recursion"); //$NON-NLS-1$
 
@@ -493,6 +504,9 @@ public class LK_ID extends TSPLocalSearchAlgorithm<int[]> {
 
     this.m_candidateCount = config.getInt(LK_ID.PARAM_CANDIDATE_COUNT, -1,
         1000000, this.m_candidateCount);
+    this.m_candidateSetType = config.getConstant(
+        CandidateSet.PARAM_CANDIDATE_SET_TYPE, ECandidateSetType.class,
+        ECandidateSetType.class, this.m_candidateSetType);
 
     this.m_maxMaxDepth = config.getInt(
         LK_ID.PARAM_MAXIMUM_MAX_RECURSION_DEPTH, 1, 100000,
@@ -547,8 +561,8 @@ public class LK_ID extends TSPLocalSearchAlgorithm<int[]> {
 
     this.m_f = f;
 
-    this.m_candidates = CandidateSet.allocate(f, this.m_candidateCount,
-        null);
+    this.m_candidates = this.m_candidateSetType.allocate(f,
+        this.m_candidateCount, null);
     this.m_m = this.m_candidates.m();
 
     n = f.n();
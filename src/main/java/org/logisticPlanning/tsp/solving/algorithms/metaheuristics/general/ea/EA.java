@@ -1,6 +1,7 @@
 package org.logisticPlanning.tsp.solving.algorithms.metaheuristics.general.ea;
 
 import java.io.PrintStream;
+import java.io.Serializable;
 
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
 import org.logisticPlanning.tsp.solving.Individual;
@@ -280,6 +281,17 @@ import org.logisticPlanning.utils.math.random.Randomizer;
  * assignment process}, and {@link #getSelectionAlgorithm() selection
  * algorithm} .
  * </p>
+ * <p>
+ * The EA supports <a href=
+ * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+ * >checkpoints</a>: If a checkpoint is due at the beginning of a
+ * generation, the population and the number of completed generations are
+ * checkpointed. A resumed run continues with that population instead of
+ * {@link #createFirstGeneration(Individual[], ObjectiveFunction) creating}
+ * a new one. The internal state of the search operators, the gpm, the
+ * fitness assignment process, and the selection algorithm is not
+ * checkpointed.
+ * </p>
  * <h2>References</h2>
  * <ol>
  * <li><div><span id="cite_WGOEB" /><a
@@ -2268,6 +2280,12 @@ public class EA extends TSPAlgorithm {
    */
   private transient int m_completedGenerations;
 
+  /**
+   * the population at the beginning of the current generation, for
+   * checkpoints
+   */
+  private transient Individual<Object>[] m_population;
+
   /**
    * create the EA an initialize all parameters to default values
    *
@@ -2727,6 +2745,8 @@ public class EA extends TSPAlgorithm {
     final FitnessAssignmentProcess fap;
     final Randomizer r;
     final double cr;
+    final Serializable state;
+    _EACheckpoint cp;
 
     ss = this.doParentsSurvive();
     lambda = this.getLambda();
@@ -2743,15 +2763,27 @@ public class EA extends TSPAlgorithm {
     fap = this.getFitnessAssignmentProcess();
     r = f.getRandom();
 
-    // Produce the first generation of individuals. These individuals will
-    // usually be random, may have also been produced with a heuristic
-    // and/or
-    // refined with a local search
-    this.createFirstGeneration(pop, f);
+    state = this.getResumeState(f);
+    if (state instanceof _EACheckpoint) {
+      // continue with the population of the checkpoint
+      cp = ((_EACheckpoint) state);
+      pop = cp.m_pop;
+      this.m_completedGenerations = cp.m_completedGenerations;
+    } else {
+      // Produce the first generation of individuals. These individuals
+      // will usually be random, may have also been produced with a
+      // heuristic and/or refined with a local search
+      this.createFirstGeneration(pop, f);
+    }
 
     for (;;) {
       // loop forever - termination criterion is checked in loop body
 
+      // the population is consistent here: take a checkpoint if one is
+      // due
+      this.m_population = pop;
+      this.checkpoint(f);
+
       // increase number of completed generations
       this.m_completedGenerations++;
 
@@ -2820,6 +2852,16 @@ public class EA extends TSPAlgorithm {
     }
   }
 
+  /** {@inheritDoc} */
+  @Override
+  protected Serializable createCheckpoint(final ObjectiveFunction f) {
+    if (this.m_population == null) {
+      return null;
+    }
+    return new _EACheckpoint(this.m_population,
+        this.m_completedGenerations);
+  }
+
   /** {@inheritDoc} */
   @Override
   @SuppressWarnings("unchecked")
@@ -2834,6 +2876,7 @@ public class EA extends TSPAlgorithm {
     cfg.m_gpm = ((GPM<Object>) (cfg.m_gpm.clone()));
     cfg.m_selection = ((SelectionAlgorithm) (cfg.m_selection.clone()));
     cfg.m_completedGenerations = (-1);
+    cfg.m_population = null;
 
     return cfg;
   }
@@ -2860,6 +2903,7 @@ public class EA extends TSPAlgorithm {
   @SuppressWarnings("rawtypes")
   @Override
   public void endRun(final ObjectiveFunction f) {
+    this.m_population = null;
     try {
       this.m_selection.endRun(f);
     } finally {
@@ -0,0 +1,55 @@
+package org.logisticPlanning.tsp.solving.algorithms.metaheuristics.general.ea;
+
+import java.io.Serializable;
+
+import org.logisticPlanning.tsp.solving.Individual;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * The state of an {@link EA} stored in a <a href=
+ * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+ * >checkpoint</a> at the beginning of a generation: the population and
+ * the number of completed generations.
+ * </p>
+ */
+final class _EACheckpoint implements Serializable {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the population */
+  final Individual<Object>[] m_pop;
+
+  /** the number of completed generations */
+  final int m_completedGenerations;
+
+  /**
+   * create the checkpoint
+   *
+   * @param pop
+   *          the population
+   * @param completedGenerations
+   *          the number of completed generations
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  _EACheckpoint(final Individual<Object>[] pop,
+      final int completedGenerations) {
+    super();
+
+    Individual<Object> ind;
+    int i;
+
+    // copy the individuals without their producers, which are search
+    // operators and not part of the state
+    this.m_pop = new Individual[pop.length];
+    for (i = pop.length; (--i) >= 0;) {
+      this.m_pop[i] = ind = new Individual<>();
+      ind.assign(pop[i]);
+    }
+    this.m_completedGenerations = completedGenerations;
+  }
+}
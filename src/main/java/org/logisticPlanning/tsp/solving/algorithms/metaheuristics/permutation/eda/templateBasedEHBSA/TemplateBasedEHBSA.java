@@ -10,6 +10,7 @@ import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
 import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateUniform;
 import org.logisticPlanning.tsp.solving.utils.NodeManager;
 import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.tsp.solving.utils.candidates.ECandidateSetType;
 import org.logisticPlanning.tsp.solving.utils.edgeData.EdgeNumber;
 import org.logisticPlanning.utils.config.Configurable;
 import org.logisticPlanning.utils.config.Configuration;
@@ -491,6 +492,12 @@ public class TemplateBasedEHBSA extends TSPAlgorithm {
    */
   private int m_candidateSetSize;
 
+  /**
+   * the type of the candidate set, see
+   * {@link CandidateSet#PARAM_CANDIDATE_SET_TYPE} @serial serial field
+   */
+  private ECandidateSetType m_candidateSetType;
+
   /**
    * the template method deciding how many elements of a sample should come
    * from the model (the rest is copied from a template), see
@@ -563,6 +570,7 @@ public class TemplateBasedEHBSA extends TSPAlgorithm {
     this.m_populationSizeFactor = TemplateBasedEHBSA.DEFAULT_POPULATION_SIZE_FACTOR;
     this.m_histogramOrderBias = TemplateBasedEHBSA.DEFAULT_HISTOGRAM_ORDER_BIAS;
     this.m_candidateSetSize = TemplateBasedEHBSA.DEFAULT_CANDIDATE_SET_SIZE;
+    this.m_candidateSetType = ECandidateSetType.DEFAULT;
     this.m_templateMethod = TemplateBasedEHBSA.DEFAULT_TEMPLATE_METHOD;
     this.m_augmentationMethod = TemplateBasedEHBSA.DEFAULT_AUGMENTATION_METHOD;
     this.m_bias = Double.NaN;
@@ -577,6 +585,9 @@ public class TemplateBasedEHBSA extends TSPAlgorithm {
     Configurable.printKey(TemplateBasedEHBSA.PARAM_CANDIDATE_SET_SIZE, ps);
     ps.println(this.m_candidateSetSize);
 
+    Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+    Configurable.printlnObject(this.m_candidateSetType, ps);
+
     Configurable.printKey(TemplateBasedEHBSA.PARAM_GAMMA, ps);
     ps.println(this.m_gamma);
 
@@ -633,6 +644,9 @@ public class TemplateBasedEHBSA extends TSPAlgorithm {
     Configurable.printKey(TemplateBasedEHBSA.PARAM_CANDIDATE_SET_SIZE, ps);
     ps.println("the candidate set size"); //$NON-NLS-1$
 
+    Configurable.printKey(CandidateSet.PARAM_CANDIDATE_SET_TYPE, ps);
+    ps.println("the type of the candidate set: nearest, quadrant, or alpha-nearest neighbors"); //$NON-NLS-1$
+
     Configurable.printKey(TemplateBasedEHBSA.PARAM_GAMMA, ps);
     ps.println("the gamma parameter"); //$NON-NLS-1$
 
@@ -678,6 +692,10 @@ public class TemplateBasedEHBSA extends TSPAlgorithm {
         TemplateBasedEHBSA.PARAM_CANDIDATE_SET_SIZE, 0, Integer.MAX_VALUE,
         this.m_candidateSetSize);
 
+    this.m_candidateSetType = config.getConstant(
+        CandidateSet.PARAM_CANDIDATE_SET_TYPE, ECandidateSetType.class,
+        ECandidateSetType.class, this.m_candidateSetType);
+
     this.m_templateMethod = config.getConstant(
         TemplateBasedEHBSA.PARAM_TEMPLATE_METHOD, ETemplateMethod.class,
         ETemplateMethod.class, this.m_templateMethod);
@@ -1140,8 +1158,9 @@ public class TemplateBasedEHBSA extends TSPAlgorithm {
     this.m_samples = new TemplateIndividual[ps];
 
     // Initialize the candidate set holding the {@link #m_candidateSetSize}
-    // nearest neighboring nodes for each node.
-    this.m_candidateSet = CandidateSet.allocate(f,
+    // nearest neighboring nodes for each node, chosen according to the
+    // candidate set type.
+    this.m_candidateSet = this.m_candidateSetType.allocate(f,
         this.m_candidateSetSize, null);
 
     // Allocate the edge histogram model, built from ps individuals. As
@@ -1,6 +1,7 @@
 package org.logisticPlanning.tsp.solving.algorithms.metaheuristics.permutation.paco;
 
 import java.io.PrintStream;
+import java.io.Serializable;
 import java.util.Arrays;
 
 import org.logisticPlanning.tsp.benchmarking.instances.Instance;
@@ -85,6 +86,17 @@ import org.logisticPlanning.utils.math.random.Randomizer;
  * {@link #refineSolution(int[], long, ObjectiveFunction)}, which allow to
  * extend the ACO with local search capability.
  * </p>
+ * <p>
+ * pACO supports <a href=
+ * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+ * >checkpoints</a>: If a checkpoint is due after the population has been
+ * updated at the end of an iteration, the population and the generation
+ * index are checkpointed. Since the pheromone matrix is defined by the
+ * population, a resumed run rebuilds it from the checkpointed population
+ * and continues with the next iteration, without
+ * {@link #createInitialPopulation(Individual[], ObjectiveFunction)
+ * creating} an initial population.
+ * </p>
  * <h2>References</h2>
  * <ol>
  * <li><div><span id="cite_G2004AAISAMCE" /><a
@@ -415,6 +427,9 @@ public class PACO extends TSPAlgorithm {
   /** a temporary variable for the population */
   private transient PACOIndividual[] m_pop;
 
+  /** the current generation index, for checkpoints */
+  private transient long m_gen;
+
   /**
    * instantiate
    *
@@ -538,6 +553,22 @@ public class PACO extends TSPAlgorithm {
     return res;
   }
 
+  /**
+   * {@inheritDoc} The sparse pheromone matrix holds
+   * {@code n*(k+1)} node ids and pheromone values for a
+   * {@link #m_populationSize population size} {@code k}, and each
+   * individual of the population holds a tour of length {@code n}.
+   */
+  @Override
+  public long estimateMemory(final int n) {
+    final long m;
+
+    m = n;
+    return (super.estimateMemory(n) + //
+        (m * (this.m_populationSize + 1l) * 12l) + //
+    (m * (this.m_populationSize + 2l) * 4l));
+  }
+
   /**
    * Execute the population-based ACO&nbsp;[<a href="#cite_G2004AAISAMCE"
    * style="font-weight:bold">1</a>, <a href="#cite_GM2002APBAFA"
@@ -558,6 +589,7 @@ public class PACO extends TSPAlgorithm {
     final double alpha, beta, q0;
     final PACOIndividual[] pop;
     final PopulationUpdateStrategy update;
+    final Serializable state;
 
     PACOIndividual bestGen;
     int curAnt, i, j, curNode, lastNode, nodesLeft, dist, bestNode, bestDist;
@@ -597,26 +629,42 @@ public class PACO extends TSPAlgorithm {
     // the initially empty population
     pop = this.m_pop;
 
-    // Create the initial population, if initialization heuristics are
-    // used.
-    // If
-    // individuals are created, check them into the pheromone matrix.
-    this.createInitialPopulation(pop, f);// call the initialization
-    // heuristics
-    initialized = false;
-    for (final PACOIndividual ind : pop) {// check if any individuals were
-      // created
-      if (ind.tourLength != Individual.TOUR_LENGTH_NOT_SET) {
-        ind.m_birthday = gen; // ok, individuals were created, set
-        // birthday
-        initialized = true; // remember to increase generation
-        matrix.add(ind.solution);// check individuals into matrix
-      } else { // ok, no more individuals, break loop
-        break; // this is the fast exit if no initialization
+    state = this.getResumeState(f);
+    if ((state instanceof _PACOCheckpoint)
+        && (((_PACOCheckpoint) state).m_pop.length == pop.length)) {
+      // Resume from the checkpoint: restore the population and check it
+      // into the pheromone matrix.
+      gen = ((_PACOCheckpoint) state).m_gen;
+      i = 0;
+      for (final PACOIndividual ind : ((_PACOCheckpoint) state).m_pop) {
+        if (!(ind.isEmpty())) {
+          pop[i].assign(ind);
+          matrix.add(pop[i].solution);
+        }
+        i++;
+      }
+    } else {
+      // Create the initial population, if initialization heuristics are
+      // used.
+      // If
+      // individuals are created, check them into the pheromone matrix.
+      this.createInitialPopulation(pop, f);// call the initialization
+      // heuristics
+      initialized = false;
+      for (final PACOIndividual ind : pop) {// check if any individuals
+        // were created
+        if (ind.tourLength != Individual.TOUR_LENGTH_NOT_SET) {
+          ind.m_birthday = gen; // ok, individuals were created, set
+          // birthday
+          initialized = true; // remember to increase generation
+          matrix.add(ind.solution);// check individuals into matrix
+        } else { // ok, no more individuals, break loop
+          break; // this is the fast exit if no initialization
+        }
+      }
+      if (initialized) {// individuals were created by a heuristic
+        gen++;// thus, we need to increase the generation
       }
-    }
-    if (initialized) {// individuals were created by a heuristic
-      gen++;// thus, we need to increase the generation
     }
 
     bestGen = new PACOIndividual();
@@ -746,10 +794,24 @@ public class PACO extends TSPAlgorithm {
         curAnt = 0;
         gen++;
         bestGen.doclear();
+
+        // the population and matrix are consistent: take a checkpoint if
+        // one is due
+        this.m_gen = gen;
+        this.checkpoint(f);
       }
     }
   }
 
+  /** {@inheritDoc} */
+  @Override
+  protected Serializable createCheckpoint(final ObjectiveFunction f) {
+    if (this.m_pop == null) {
+      return null;
+    }
+    return new _PACOCheckpoint(this.m_pop, this.m_gen);
+  }
+
   /** {@inheritDoc} */
   @Override
   public void configure(final Configuration config) {
@@ -0,0 +1,52 @@
+package org.logisticPlanning.tsp.solving.algorithms.metaheuristics.permutation.paco;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * This class is an internal class. Please do not instantiate it, use it by
+ * yourself, or otherwise meddle with it.
+ * </p>
+ * <p>
+ * The state of a {@link PACO pACO} stored in a <a href=
+ * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+ * >checkpoint</a> at the end of an iteration: the population and the
+ * generation index. The pheromone matrix is not stored, since it is
+ * defined by the population.
+ * </p>
+ */
+final class _PACOCheckpoint implements Serializable {
+
+  /** the serial version uid */
+  private static final long serialVersionUID = 1L;
+
+  /** the population */
+  final PACOIndividual[] m_pop;
+
+  /** the generation index */
+  final long m_gen;
+
+  /**
+   * create the checkpoint
+   *
+   * @param pop
+   *          the population
+   * @param gen
+   *          the generation index
+   */
+  _PACOCheckpoint(final PACOIndividual[] pop, final long gen) {
+    super();
+
+    PACOIndividual ind;
+    int i;
+
+    this.m_pop = new PACOIndividual[pop.length];
+    for (i = pop.length; (--i) >= 0;) {
+      this.m_pop[i] = ind = new PACOIndividual();
+      if (!(pop[i].isEmpty())) {
+        ind.assign(pop[i]);
+      }
+    }
+    this.m_gen = gen;
+  }
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.Arrays;
 
 import org.logisticPlanning.tsp.solving.utils.edge.Edge;
+import org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList;
 import org.logisticPlanning.utils.utils.HashUtils;
 
 /**
@@ -85,6 +86,18 @@ import org.logisticPlanning.utils.utils.HashUtils;
  * <p>
  * </p> {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer
  * distance computers} does not support this data structure directly. </p></li>
+ * <li id="twoLevelList">
+ * <p>
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList
+ * Two-level doubly-linked lists}&nbsp;[<a href="#cite_FJMGO1995DSFTS"
+ * style="font-weight:bold">1</a>] cut a tour of a symmetric TSP into about
+ * <code>&radic;n</code> segments, each of which can be reversed as a
+ * whole. The reversal of a part of the tour then takes
+ * <em>O(&radic;n)</em> instead of <em>O(n)</em>, while the successor and
+ * predecessor of a node can still be found in <em>O(1)</em>. You can find
+ * them in the utilities package
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList twoLevelList}.
+ * </p></li>
  * <li id="edgeRepresentation">
  * <p>
  * We furthermore introduce the class
@@ -178,6 +191,22 @@ import org.logisticPlanning.utils.utils.HashUtils;
  * href="#pathRepresentation"><em>path representation</em></a>. While on
  * it, it also checks if the translation results in a feasible path. (There
  * may be infeasible satellite lists).</li>
+ * <li>
+ * {@link org.logisticPlanning.tsp.solving.utils.RepresentationUtils#pathToTwoLevelList(int[],org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList)
+ * pathToTwoLevelList} and
+ * {@link org.logisticPlanning.tsp.solving.utils.RepresentationUtils#adjacencyListToTwoLevelList(int[],org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList)
+ * adjacencyListToTwoLevelList} load a solution in <a
+ * href="#pathRepresentation"><em>path representation</em></a> or <a
+ * href="#adjacencyRepresentation"><em>adjacency representation</em></a>
+ * into a <a href="#twoLevelList">two-level list</a>.</li>
+ * <li>
+ * {@link org.logisticPlanning.tsp.solving.utils.RepresentationUtils#twoLevelListToPath(org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList,int[])
+ * twoLevelListToPath} and
+ * {@link org.logisticPlanning.tsp.solving.utils.RepresentationUtils#twoLevelListToAdjacencyList(org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList,int[])
+ * twoLevelListToAdjacencyList} translate the contents of a <a
+ * href="#twoLevelList">two-level list</a> to the <a
+ * href="#pathRepresentation"><em>path representation</em></a> or the <a
+ * href="#adjacencyRepresentation"><em>adjacency representation</em></a>.</li>
  * </ol>
  * <h2>References</h2>
  * <ol>
@@ -673,6 +702,80 @@ public final class RepresentationUtils {
     }
   }
 
+  /**
+   * Load a solution in <a href="#pathRepresentation"> <em>path
+   * representation</em></a> into a <a href="#twoLevelList">two-level
+   * doubly-linked list</a>.
+   *
+   * @param path
+   *          the source: an {@code int[]} holding a permutation
+   *          representing a solution in <a href="#pathRepresentation">
+   *          <em>path representation</em></a>
+   * @param list
+   *          the destination, a two-level list with as many nodes as
+   *          {@code path} has elements
+   * @see #twoLevelListToPath(TwoLevelList, int[])
+   */
+  public static final void pathToTwoLevelList(final int[] path,
+      final TwoLevelList list) {
+    list.fromPath(path);
+  }
+
+  /**
+   * Convert the tour represented by a <a href="#twoLevelList">two-level
+   * doubly-linked list</a> to <a href="#pathRepresentation"> <em>path
+   * representation</em></a>. The path starts at city {@code 1}.
+   *
+   * @param list
+   *          the source two-level list
+   * @param path
+   *          the destination: an {@code int[]} to receive a permutation
+   *          representing a solution in <a href="#pathRepresentation">
+   *          <em>path representation</em></a>
+   * @see #pathToTwoLevelList(int[], TwoLevelList)
+   */
+  public static final void twoLevelListToPath(final TwoLevelList list,
+      final int[] path) {
+    list.toPath(path);
+  }
+
+  /**
+   * Load a solution in <a href="#adjacencyRepresentation"> <em>adjacency
+   * representation</em></a> into a <a href="#twoLevelList">two-level
+   * doubly-linked list</a>.
+   *
+   * @param adjacencyList
+   *          the source, an {@code int[]} holding a solution in <a
+   *          href="#adjacencyRepresentation">
+   *          <em>adjacency representation</em></a>
+   * @param list
+   *          the destination, a two-level list with as many nodes as
+   *          {@code adjacencyList} has elements
+   * @see #twoLevelListToAdjacencyList(TwoLevelList, int[])
+   */
+  public static final void adjacencyListToTwoLevelList(
+      final int[] adjacencyList, final TwoLevelList list) {
+    list.fromAdjacencyList(adjacencyList);
+  }
+
+  /**
+   * Convert the tour represented by a <a href="#twoLevelList">two-level
+   * doubly-linked list</a> to <a href="#adjacencyRepresentation">
+   * <em>adjacency representation</em></a>.
+   *
+   * @param list
+   *          the source two-level list
+   * @param adjacencyList
+   *          the destination, an {@code int[]} to receive a solution in <a
+   *          href="#adjacencyRepresentation">
+   *          <em>adjacency representation</em></a>
+   * @see #adjacencyListToTwoLevelList(int[], TwoLevelList)
+   */
+  public static final void twoLevelListToAdjacencyList(
+      final TwoLevelList list, final int[] adjacencyList) {
+    list.toAdjacencyList(adjacencyList);
+  }
+
   /**
    * Convert an array of directed
    * {@link org.logisticPlanning.tsp.solving.utils.edge.Edge edges} to a
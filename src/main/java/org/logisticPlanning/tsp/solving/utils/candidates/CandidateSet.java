@@ -1,17 +1,42 @@
 package org.logisticPlanning.tsp.solving.utils.candidates;
 
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.benchmarking.objective.RawDistances;
 
 /**
  * A candidate set that presents {@code m} candidates per node, i.e., the
- * {@code m} nearest other nodes. The candidates for each node receive
+ * {@code m} nearest other nodes, {@code m}
+ * {@link #allocateQuadrant(ObjectiveFunction, int, CandidateSet)
+ * quadrant neighbors}, or the {@code m}
+ * {@link #allocateAlpha(ObjectiveFunction, int, CandidateSet)
+ * &alpha;-nearest neighbors}. The
+ * {@link ECandidateSetType type} of candidate set to be used by an
+ * algorithm can be chosen with the parameter
+ * {@link #PARAM_CANDIDATE_SET_TYPE}. The candidates for each node receive
  * &quot;pseudo-node ids&quot; ranging from {@code 1} to {@code m}.
  */
 public abstract class CandidateSet {
 
+  /**
+   * the parameter for choosing the {@link ECandidateSetType type} of
+   * candidate set used by the algorithms which use candidate sets:
+   * {@value}
+   */
+  public static final String PARAM_CANDIDATE_SET_TYPE = "candidateSetType"; //$NON-NLS-1$
+
   /** the candidate count */
   int m_m;
 
+  /**
+   * has this candidate set been
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#putSharedData(Object, Object)
+   * shared} with other runs? if so, it must not be re-initialized
+   */
+  boolean m_shared;
+
+  /** the number of distance evaluations needed to compute the candidates */
+  long m_des;
+
   /** instantiate */
   CandidateSet() {
     super();
@@ -27,7 +52,14 @@ public abstract class CandidateSet {
   }
 
   /**
-   * Allocate and initialize a candidate set.
+   * Allocate and initialize a candidate set. If the benchmark
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark#PARAM_SHARE_PRECOMPUTATIONS
+   * allows it}, a candidate set computed for the same instance in an
+   * earlier run is
+   * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#getSharedData(Object)
+   * re-used} instead of computing a new one. The distance evaluations
+   * needed to compute it are registered nevertheless, so the results of
+   * the run do not change.
    *
    * @param f
    *          the objective function
@@ -41,8 +73,84 @@ public abstract class CandidateSet {
    */
   public static final CandidateSet allocate(final ObjectiveFunction f,
       final int m, final CandidateSet old) {
+    return CandidateSet.__allocate(f, m, old,
+        ECandidateSetType.NEAREST_NEIGHBORS);
+  }
+
+  /**
+   * Allocate and initialize a candidate set of quadrant neighbors: The
+   * candidates of a node are the nearest nodes in each of the quadrants
+   * around it (octants for three-dimensional coordinates), filled up with
+   * the nearest other nodes if a quadrant does not contain enough nodes,
+   * as defined in
+   * {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer#quadrantNeighbors(int, int[])}
+   * . For instances whose distances are not computed from coordinates,
+   * this is the same as
+   * {@link #allocate(ObjectiveFunction, int, CandidateSet)}. The
+   * candidate set is shared between runs in the same way as in
+   * {@link #allocate(ObjectiveFunction, int, CandidateSet)}.
+   *
+   * @param f
+   *          the objective function
+   * @param m
+   *          the number of candidates per node
+   * @param old
+   *          an old candidate set that can maybe be re-used
+   * @return the candidate set, or {@code null} if the objective function
+   *         should always be used (if {@code m<=0} or
+   *         {@code m>=Integer.MAX_VALUE})
+   */
+  public static final CandidateSet allocateQuadrant(
+      final ObjectiveFunction f, final int m, final CandidateSet old) {
+    return CandidateSet.__allocate(f, m, old,
+        ECandidateSetType.QUADRANT_NEIGHBORS);
+  }
+
+  /**
+   * Allocate and initialize a candidate set of &alpha;-nearest neighbors:
+   * The candidates of a node are the nodes whose edges to it have the
+   * smallest &alpha;-values, i.e., which increase the cost of a minimum
+   * 1-tree the least when included. The 1-tree is computed for distances
+   * transformed by Held-Karp &pi;-values. With &alpha;-nearest neighbors,
+   * fewer candidates per node are needed than with nearest neighbors to
+   * find good tours. The candidate set is shared between runs in the same
+   * way as in {@link #allocate(ObjectiveFunction, int, CandidateSet)}.
+   *
+   * @param f
+   *          the objective function
+   * @param m
+   *          the number of candidates per node
+   * @param old
+   *          an old candidate set that can maybe be re-used
+   * @return the candidate set, or {@code null} if the objective function
+   *         should always be used (if {@code m<=0} or
+   *         {@code m>=Integer.MAX_VALUE})
+   */
+  public static final CandidateSet allocateAlpha(final ObjectiveFunction f,
+      final int m, final CandidateSet old) {
+    return CandidateSet.__allocate(f, m, old,
+        ECandidateSetType.ALPHA_NEAREST_NEIGHBORS);
+  }
+
+  /**
+   * Allocate and initialize a candidate set.
+   *
+   * @param f
+   *          the objective function
+   * @param m
+   *          the number of candidates per node
+   * @param old
+   *          an old candidate set that can maybe be re-used
+   * @param type
+   *          the type of the candidate set
+   * @return the candidate set
+   */
+  private static final CandidateSet __allocate(final ObjectiveFunction f,
+      final int m, final CandidateSet old, final ECandidateSetType type) {
     final int n, nm1, mm;
-    final CandidateSet ret;
+    final String key;
+    final Object shared;
+    CandidateSet ret;
 
     nm1 = ((n = f.n()) - 1);
     if ((m <= 0) || (m >= nm1)) {
@@ -54,11 +162,41 @@ public abstract class CandidateSet {
       }
     } else {
       mm = m;
-      if (old instanceof _CandidateSubSet) {
-        ret = old;
+      key = (CandidateSet.class.getName() + ':' + type.name() + ':' + mm);
+      ret = ((CandidateSet) (f.getSharedData(key)));
+      if (ret != null) {
+        try (final RawDistances raw = f.rawDistances()) {
+          raw.addDEs(ret.m_des);
+        }
+        return ret;
+      }
+
+      if (type == ECandidateSetType.ALPHA_NEAREST_NEIGHBORS) {
+        if ((old instanceof _AlphaCandidateSet) && (!(old.m_shared))) {
+          ret = old;
+        } else {
+          ret = new _AlphaCandidateSet();
+        }
+      } else {
+        if ((old instanceof _CandidateSubSet) && (!(old.m_shared))) {
+          ret = old;
+        } else {
+          ret = new _CandidateSubSet();
+        }
+        ((_CandidateSubSet) ret).m_quadrant = //
+        (type == ECandidateSetType.QUADRANT_NEIGHBORS);
+      }
+      ret.init(f, n, mm);
+
+      shared = f.putSharedData(key, ret);
+      if (shared == ret) {
+        ret.m_shared = true;
       } else {
-        ret = new _CandidateSubSet();
+        if (shared != null) {
+          ret = ((CandidateSet) shared);
+        }
       }
+      return ret;
     }
 
     ret.init(f, n, mm);
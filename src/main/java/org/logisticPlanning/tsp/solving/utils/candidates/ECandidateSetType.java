@@ -0,0 +1,61 @@
+package org.logisticPlanning.tsp.solving.utils.candidates;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+
+/**
+ * The type of {@link CandidateSet candidate set} used by an algorithm,
+ * which can be chosen with the parameter
+ * {@link CandidateSet#PARAM_CANDIDATE_SET_TYPE}: The candidates of a node
+ * can either be its nearest neighbors, its nearest neighbors in each
+ * quadrant around it, or the neighbors whose edges have the smallest
+ * &alpha;-values with respect to a minimum 1-tree.
+ */
+public enum ECandidateSetType {
+
+  /** the candidates are the nearest neighbors */
+  NEAREST_NEIGHBORS {
+    /** {@inheritDoc} */
+    @Override
+    public final CandidateSet allocate(final ObjectiveFunction f,
+        final int m, final CandidateSet old) {
+      return CandidateSet.allocate(f, m, old);
+    }
+  },
+
+  /** the candidates are the nearest neighbors in each quadrant */
+  QUADRANT_NEIGHBORS {
+    /** {@inheritDoc} */
+    @Override
+    public final CandidateSet allocate(final ObjectiveFunction f,
+        final int m, final CandidateSet old) {
+      return CandidateSet.allocateQuadrant(f, m, old);
+    }
+  },
+
+  /** the candidates are the &alpha;-nearest neighbors */
+  ALPHA_NEAREST_NEIGHBORS {
+    /** {@inheritDoc} */
+    @Override
+    public final CandidateSet allocate(final ObjectiveFunction f,
+        final int m, final CandidateSet old) {
+      return CandidateSet.allocateAlpha(f, m, old);
+    }
+  };
+
+  /** the default candidate set type */
+  public static final ECandidateSetType DEFAULT = ECandidateSetType.NEAREST_NEIGHBORS;
+
+  /**
+   * Allocate and initialize a candidate set of this type.
+   *
+   * @param f
+   *          the objective function
+   * @param m
+   *          the number of candidates per node
+   * @param old
+   *          an old candidate set that can maybe be re-used
+   * @return the candidate set
+   */
+  public abstract CandidateSet allocate(final ObjectiveFunction f,
+      final int m, final CandidateSet old);
+}
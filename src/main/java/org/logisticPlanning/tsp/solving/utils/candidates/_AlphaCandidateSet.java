@@ -0,0 +1,744 @@
+package org.logisticPlanning.tsp.solving.utils.candidates;
+
+import java.util.Arrays;
+
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+
+/**
+ * <p>
+ * A candidate set that presents the {@code m} &alpha;-nearest
+ * neighbors&nbsp;[<a href="#cite_H2000AEIOTLKTSH"
+ * style="font-weight:bold">1</a>] of each node instead of the {@code m}
+ * nearest ones. The candidates are stored in the same way as in the
+ * {@link _CandidateSubSet nearest-neighbor candidate set}.
+ * </p>
+ * <p>
+ * The &alpha;-value of an edge {@code (i,j)} is the increase of the cost
+ * of a minimum 1-tree if the 1-tree is required to contain
+ * {@code (i,j)}. A 1-tree is a spanning tree on the nodes
+ * {@code 2..n} plus two edges connecting node {@code 1} to it, and the
+ * minimum 1-tree is a lower bound for the length of the optimal tour.
+ * Like in the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.exact.branchAndBoundHeldCarp.BAB_HK
+ * Held-Karp branch-and-bound}, the distances are first transformed to
+ * {@code d(i,j)+&pi;(i)+&pi;(j)}, where the &pi;-values are found by a
+ * subgradient optimization which pushes the node degrees in the 1-tree
+ * towards {@code 2}. This makes the 1-tree more tour-like and the
+ * &alpha;-values of the edges of good tours small. An optimal tour
+ * usually consists of edges with low &alpha;-values, so that far fewer
+ * &alpha;-nearest candidates than nearest candidates are needed to find
+ * good tours.
+ * </p>
+ * <p>
+ * Computing the 1-tree on the complete graph would take
+ * {@code O(n<sup>2</sup>)} time in each iteration of the subgradient
+ * optimization. Therefore, the 1-trees are computed on a sparse graph of
+ * {@link CandidateSet#allocateQuadrant(ObjectiveFunction, int, CandidateSet)
+ * quadrant neighbors}, which are found in roughly {@code O(n log n)}
+ * time for most instances, and the &alpha;-nearest candidates of a node
+ * are chosen among its neighbors in this graph. The graph is made
+ * connected if necessary. For small instances, the graph is complete and
+ * the candidates are the exact &alpha;-nearest neighbors. The
+ * &alpha;-value of an edge is found with the maximum edge on the tree
+ * path between its nodes, which is computed in {@code O(log n)} steps by
+ * storing the ancestors and path maxima of each node at all powers of two
+ * distances.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_H2000AEIOTLKTSH" /><a
+ * href="http://www.akira.ruc.dk/~keld/">Keld Helsgaun</a>: <span
+ * style="font-weight:bold">&ldquo;An Effective Implementation of the
+ * Lin-Kernighan Traveling Salesman Heuristic,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">European Journal of
+ * Operational Research (EJOR)</span> 126(1):106&ndash;130, October 1,
+ * 2000; published by Amsterdam, The Netherlands: Elsevier Science
+ * Publishers B.V. and&nbsp;Amsterdam, The Netherlands: North-Holland
+ * Scientific Publishers Ltd.. doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1016/S0377-2217(99)00284-2"
+ * >10.1016/S0377-2217(99)00284-2</a>; ISSN:&nbsp;<a
+ * href="https://www.worldcat.org/issn/03772217">0377-2217</a></div></li>
+ * </ol>
+ */
+final class _AlphaCandidateSet extends CandidateSet {
+
+  /**
+   * the number of neighbors per node in the sparse graph per candidate:
+   * {@value}
+   */
+  private static final int GRAPH_FACTOR = 4;
+
+  /** the minimum number of neighbors per node in the sparse graph: {@value} */
+  private static final int MIN_GRAPH_DEGREE = 20;
+
+  /** the maximum number of subgradient iterations: {@value} */
+  private static final int MAX_ITERATIONS = 200;
+
+  /** the initial step size factor of the subgradient optimization */
+  private static final double INITIAL_STEP = 0.1d;
+
+  /** the factor by which the step size shrinks without improvement */
+  private static final double STEP_DECAY = 0.9d;
+
+  /** the step size below which the subgradient optimization stops */
+  private static final double MIN_STEP = 1e-6d;
+
+  /** the data */
+  int[] m_candidates;
+
+  /** the first edge of each node in {@link #m_adj}, indexed by node */
+  private transient int[] m_start;
+
+  /** the neighbors of the nodes in the sparse graph */
+  private transient int[] m_adj;
+
+  /** the distances of the edges in {@link #m_adj} */
+  private transient int[] m_dist;
+
+  /**
+   * the &pi;-values of the nodes found by the subgradient optimization,
+   * which define the &alpha;-values of the candidates, indexed by node
+   */
+  transient double[] m_pi;
+
+  /** the degrees of the nodes in the current 1-tree */
+  private transient int[] m_degree;
+
+  /** the parents of the nodes in the current 1-tree */
+  private transient int[] m_parent;
+
+  /** the transformed costs of the edges to the parents */
+  private transient double[] m_parentCost;
+
+  /** the nodes in the order in which they were added to the tree */
+  private transient int[] m_order;
+
+  /** the first neighbor of node {@code 1} in the 1-tree */
+  private transient int m_special1;
+
+  /** the second neighbor of node {@code 1} in the 1-tree */
+  private transient int m_special2;
+
+  /** the transformed cost of the more expensive edge at node {@code 1} */
+  private transient double m_specialCost;
+
+  /** instantiate */
+  _AlphaCandidateSet() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  final void init(final ObjectiveFunction f, final int n, final int m) {
+    final double[] bestPi;
+    final int matrixSize;
+    int[] data;
+    double lowerBound, bestBound, step, t;
+    long des, denom;
+    int i, iteration, d;
+
+    this.m_m = m;
+    matrixSize = (n * m);
+    data = this.m_candidates;
+    if ((data == null) || (data.length < matrixSize)) {
+      this.m_candidates = data = new int[matrixSize];
+    }
+
+    try {
+      des = this.__makeGraph(f, n, m);
+
+      this.m_pi = new double[n + 1];
+      this.m_degree = new int[n + 1];
+      this.m_parent = new int[n + 1];
+      this.m_parentCost = new double[n + 1];
+      this.m_order = new int[n];
+      bestPi = new double[n + 1];
+
+      // the subgradient optimization of the pi-values
+      bestBound = lowerBound = this.__oneTree(n);
+      step = _AlphaCandidateSet.INITIAL_STEP;
+      for (iteration = _AlphaCandidateSet.MAX_ITERATIONS; (--iteration) >= 0;) {
+        denom = 0l;
+        for (i = n; i > 0; i--) {
+          d = (this.m_degree[i] - 2);
+          denom += (d * d);
+        }
+        if ((denom <= 0l) || (lowerBound <= 0d)) {
+          // the 1-tree is a tour, so the pi-values cannot be improved
+          break;
+        }
+
+        // the step rule of the Held-Karp bound in BAB_HK: the textbook
+        // rule step*(UB-LB)/denom needs an upper bound, i.e., a tour,
+        // which does not exist yet, so the lower bound scales the step
+        t = ((step * lowerBound) / denom);
+        for (i = n; i > 0; i--) {
+          this.m_pi[i] += (t * (this.m_degree[i] - 2));
+        }
+
+        lowerBound = this.__oneTree(n);
+        if (lowerBound > bestBound) {
+          bestBound = lowerBound;
+          System.arraycopy(this.m_pi, 0, bestPi, 0, bestPi.length);
+        } else {
+          step *= _AlphaCandidateSet.STEP_DECAY;
+          if (step < _AlphaCandidateSet.MIN_STEP) {
+            break;
+          }
+        }
+      }
+
+      // build the 1-tree with the best pi-values and choose the
+      // candidates
+      if (lowerBound < bestBound) {
+        System.arraycopy(bestPi, 0, this.m_pi, 0, bestPi.length);
+        this.__oneTree(n);
+      }
+      this.__choose(n, m, data);
+
+      this.m_des = des;
+    } finally {
+      this.m_start = null;
+      this.m_adj = null;
+      this.m_dist = null;
+      this.m_degree = null;
+      this.m_parent = null;
+      this.m_parentCost = null;
+      this.m_order = null;
+    }
+  }
+
+  /**
+   * Build the sparse graph from the quadrant neighbors of all nodes,
+   * including the reverse edges, and make sure that the nodes
+   * {@code 2..n} are connected.
+   *
+   * @param f
+   *          the objective function
+   * @param n
+   *          the number of nodes
+   * @param m
+   *          the number of candidates per node
+   * @return the number of distance evaluations needed to build the graph
+   */
+  private final long __makeGraph(final ObjectiveFunction f, final int n,
+      final int m) {
+    final int degree;
+    final CandidateSet graph;
+    final int[] comp, start, adj, dist;
+    long[] edges;
+    long des, key;
+    int count, i, j, k, a, b, root, best, bestDist, z;
+
+    degree = Math.min((n - 1), Math.max(_AlphaCandidateSet.MIN_GRAPH_DEGREE,
+        (m * _AlphaCandidateSet.GRAPH_FACTOR)));
+    graph = CandidateSet.allocateQuadrant(f, degree, null);
+    des = graph.m_des;
+
+    // collect the edges as pairs (smaller node, larger node)
+    edges = new long[n * degree];
+    count = 0;
+    for (i = n; i > 0; i--) {
+      for (k = degree; k > 0; k--) {
+        j = graph.getCandidate(i, k);
+        edges[count++] = ((i < j) ? ((((long) i) << 32) | j)
+            : ((((long) j) << 32) | i));
+      }
+    }
+
+    // the nodes 2..n must be connected without node 1: join the
+    // components by connecting one node of each component to its nearest
+    // node in another component
+    comp = new int[n + 1];
+    for (i = n; i > 0; i--) {
+      comp[i] = i;
+    }
+    for (k = count; (--k) >= 0;) {
+      a = ((int) (edges[k] >>> 32));
+      if (a > 1) {
+        _AlphaCandidateSet.__union(comp, a, ((int) (edges[k])));
+      }
+    }
+    root = _AlphaCandidateSet.__find(comp, 2);
+    for (i = 3; i <= n; i++) {
+      a = _AlphaCandidateSet.__find(comp, i);
+      if (a == root) {
+        continue;
+      }
+      best = (-1);
+      bestDist = Integer.MAX_VALUE;
+      for (j = 2; j <= n; j++) {
+        if (_AlphaCandidateSet.__find(comp, j) != a) {
+          z = f.distance(i, j);
+          des++;
+          if (z < bestDist) {
+            bestDist = z;
+            best = j;
+          }
+        }
+      }
+      if (count >= edges.length) {
+        edges = Arrays.copyOf(edges, (edges.length << 1));
+      }
+      edges[count++] = ((i < best) ? ((((long) i) << 32) | best)
+          : ((((long) best) << 32) | i));
+      _AlphaCandidateSet.__union(comp, i, best);
+      root = _AlphaCandidateSet.__find(comp, 2);
+    }
+
+    // remove duplicate edges
+    Arrays.sort(edges, 0, count);
+    k = 0;
+    key = (-1l);
+    for (i = 0; i < count; i++) {
+      if (edges[i] != key) {
+        edges[k++] = key = edges[i];
+      }
+    }
+    count = k;
+
+    // build the adjacency lists
+    this.m_start = start = new int[n + 2];
+    for (k = count; (--k) >= 0;) {
+      start[((int) (edges[k] >>> 32)) + 1]++;
+      start[((int) (edges[k])) + 1]++;
+    }
+    for (i = 1; i < start.length; i++) {
+      start[i] += start[i - 1];
+    }
+    this.m_adj = adj = new int[count << 1];
+    this.m_dist = dist = new int[count << 1];
+    System.arraycopy(start, 0, comp, 0, (n + 1));
+    for (k = 0; k < count; k++) {
+      a = ((int) (edges[k] >>> 32));
+      b = ((int) (edges[k]));
+      z = f.distance(a, b);
+      des++;
+      adj[comp[a]] = b;
+      dist[comp[a]++] = z;
+      adj[comp[b]] = a;
+      dist[comp[b]++] = z;
+    }
+
+    return des;
+  }
+
+  /**
+   * find the representative of a node in a union-find structure
+   *
+   * @param comp
+   *          the union-find structure
+   * @param node
+   *          the node
+   * @return the representative
+   */
+  private static final int __find(final int[] comp, final int node) {
+    int i, j;
+
+    i = node;
+    while (comp[i] != i) {
+      j = comp[i];
+      comp[i] = comp[j];
+      i = j;
+    }
+    return i;
+  }
+
+  /**
+   * join the sets of two nodes in a union-find structure
+   *
+   * @param comp
+   *          the union-find structure
+   * @param a
+   *          the first node
+   * @param b
+   *          the second node
+   */
+  private static final void __union(final int[] comp, final int a,
+      final int b) {
+    final int x, y;
+
+    x = _AlphaCandidateSet.__find(comp, a);
+    y = _AlphaCandidateSet.__find(comp, b);
+    if (x < y) {
+      comp[y] = x;
+    } else {
+      if (y < x) {
+        comp[x] = y;
+      }
+    }
+  }
+
+  /**
+   * Compute the minimum 1-tree for the current &pi;-values with Prim's
+   * algorithm on the sparse graph, using a binary heap.
+   *
+   * @param n
+   *          the number of nodes
+   * @return the lower bound, i.e., the transformed cost of the 1-tree
+   *         minus twice the sum of the &pi;-values
+   */
+  private final double __oneTree(final int n) {
+    final int[] start, adj, dist, degree, parent, order, heap, pos;
+    final double[] pi, cost, key;
+    final boolean[] done;
+    double sum, c, first, second;
+    int i, k, u, v, size, orderSize;
+
+    start = this.m_start;
+    adj = this.m_adj;
+    dist = this.m_dist;
+    pi = this.m_pi;
+    degree = this.m_degree;
+    parent = this.m_parent;
+    cost = this.m_parentCost;
+    order = this.m_order;
+    Arrays.fill(degree, 0);
+
+    // Prim's algorithm on the nodes 2..n, starting at node 2
+    key = new double[n + 1];
+    Arrays.fill(key, Double.POSITIVE_INFINITY);
+    done = new boolean[n + 1];
+    heap = new int[n];
+    pos = new int[n + 1];
+    Arrays.fill(pos, -1);
+
+    sum = 0d;
+    orderSize = 0;
+    key[2] = 0d;
+    parent[2] = 0;
+    heap[0] = 2;
+    pos[2] = 0;
+    size = 1;
+    while (size > 0) {
+      u = heap[0];
+      pos[u] = -1;
+      if ((--size) > 0) {
+        _AlphaCandidateSet.__siftDown(heap, pos, key, size, heap[size], 0);
+      }
+      done[u] = true;
+      order[orderSize++] = u;
+      if (parent[u] > 0) {
+        cost[u] = key[u];
+        sum += key[u];
+        degree[u]++;
+        degree[parent[u]]++;
+      }
+
+      for (k = start[u + 1]; (--k) >= start[u];) {
+        v = adj[k];
+        if ((v <= 1) || done[v]) {
+          continue;
+        }
+        c = (dist[k] + pi[u] + pi[v]);
+        if (c < key[v]) {
+          key[v] = c;
+          parent[v] = u;
+          if (pos[v] < 0) {
+            pos[v] = size;
+            heap[size++] = v;
+          }
+          _AlphaCandidateSet.__siftUp(heap, pos, key, pos[v]);
+        }
+      }
+    }
+
+    // connect node 1 via its two cheapest edges
+    first = second = Double.POSITIVE_INFINITY;
+    this.m_special1 = this.m_special2 = 0;
+    for (k = start[2]; (--k) >= start[1];) {
+      v = adj[k];
+      c = (dist[k] + pi[1] + pi[v]);
+      if (c < second) {
+        if (c < first) {
+          second = first;
+          this.m_special2 = this.m_special1;
+          first = c;
+          this.m_special1 = v;
+        } else {
+          second = c;
+          this.m_special2 = v;
+        }
+      }
+    }
+    this.m_specialCost = second;
+    degree[1] = 2;
+    degree[this.m_special1]++;
+    degree[this.m_special2]++;
+    sum += (first + second);
+
+    for (i = n; i > 0; i--) {
+      sum -= (2d * pi[i]);
+    }
+    return sum;
+  }
+
+  /**
+   * move a heap element up
+   *
+   * @param heap
+   *          the heap
+   * @param pos
+   *          the positions of the nodes in the heap
+   * @param key
+   *          the keys of the nodes
+   * @param index
+   *          the index of the element to move
+   */
+  private static final void __siftUp(final int[] heap, final int[] pos,
+      final double[] key, final int index) {
+    final int node;
+    int i, p;
+
+    i = index;
+    node = heap[i];
+    while (i > 0) {
+      p = ((i - 1) >>> 1);
+      if (key[heap[p]] <= key[node]) {
+        break;
+      }
+      heap[i] = heap[p];
+      pos[heap[i]] = i;
+      i = p;
+    }
+    heap[i] = node;
+    pos[node] = i;
+  }
+
+  /**
+   * place a node at a position in the heap and move it down
+   *
+   * @param heap
+   *          the heap
+   * @param pos
+   *          the positions of the nodes in the heap
+   * @param key
+   *          the keys of the nodes
+   * @param size
+   *          the size of the heap
+   * @param node
+   *          the node
+   * @param index
+   *          the index to place the node at
+   */
+  private static final void __siftDown(final int[] heap, final int[] pos,
+      final double[] key, final int size, final int node, final int index) {
+    int i, c;
+
+    i = index;
+    for (;;) {
+      c = ((i << 1) + 1);
+      if (c >= size) {
+        break;
+      }
+      if (((c + 1) < size) && (key[heap[c + 1]] < key[heap[c]])) {
+        c++;
+      }
+      if (key[heap[c]] >= key[node]) {
+        break;
+      }
+      heap[i] = heap[c];
+      pos[heap[i]] = i;
+      i = c;
+    }
+    heap[i] = node;
+    pos[node] = i;
+  }
+
+  /**
+   * Choose the {@code m} candidates with the smallest &alpha;-values for
+   * each node among its neighbors in the sparse graph. Of two neighbors
+   * with the same &alpha;-value, the nearer one is preferred and of two
+   * neighbors at the same distance, the one with the smaller index.
+   *
+   * @param n
+   *          the number of nodes
+   * @param m
+   *          the number of candidates per node
+   * @param data
+   *          the destination array
+   */
+  private final void __choose(final int n, final int m, final int[] data) {
+    final int[] start, adj, dist, parent, order, depth, cand, candDist;
+    final double[] pi, cost, candAlpha;
+    final int[][] up;
+    final double[][] max;
+    int levels, l, i, k, v, u, size, j, dst;
+    double alpha, c;
+
+    start = this.m_start;
+    adj = this.m_adj;
+    dist = this.m_dist;
+    pi = this.m_pi;
+    parent = this.m_parent;
+    cost = this.m_parentCost;
+    order = this.m_order;
+
+    // the ancestors and maximum edge costs at all powers of two distances
+    levels = 1;
+    while ((1 << levels) < n) {
+      levels++;
+    }
+    up = new int[levels][n + 1];
+    max = new double[levels][n + 1];
+    depth = new int[n + 1];
+    for (i = 0; i < (n - 1); i++) {
+      v = order[i];
+      u = parent[v];
+      if (u > 0) {
+        depth[v] = (depth[u] + 1);
+        up[0][v] = u;
+        max[0][v] = cost[v];
+      }
+      for (l = 1; l < levels; l++) {
+        u = up[l - 1][v];
+        up[l][v] = up[l - 1][u];
+        max[l][v] = Math.max(max[l - 1][v], max[l - 1][u]);
+      }
+    }
+
+    cand = new int[m];
+    candDist = new int[m];
+    candAlpha = new double[m];
+    dst = 0;
+    for (i = 1; i <= n; i++) {
+      size = 0;
+      for (k = start[i]; k < start[i + 1]; k++) {
+        v = adj[k];
+        c = (dist[k] + pi[i] + pi[v]);
+        if ((i == 1) || (v == 1)) {
+          u = ((i == 1) ? v : i);
+          alpha = (((u == this.m_special1) || (u == this.m_special2)) ? 0d
+              : (c - this.m_specialCost));
+        } else {
+          alpha = (c - _AlphaCandidateSet.__pathMax(up, max, depth, i, v,
+              levels));
+        }
+
+        // insert into the sorted list of the best candidates
+        if ((size >= m)
+            && (!(_AlphaCandidateSet.__better(alpha, dist[k], v,
+                candAlpha[m - 1], candDist[m - 1], cand[m - 1])))) {
+          continue;
+        }
+        j = ((size < m) ? (size++) : (m - 1));
+        for (; (j > 0)
+            && _AlphaCandidateSet.__better(alpha, dist[k], v,
+                candAlpha[j - 1], candDist[j - 1], cand[j - 1]); j--) {
+          cand[j] = cand[j - 1];
+          candDist[j] = candDist[j - 1];
+          candAlpha[j] = candAlpha[j - 1];
+        }
+        cand[j] = v;
+        candDist[j] = dist[k];
+        candAlpha[j] = alpha;
+      }
+
+      System.arraycopy(cand, 0, data, dst, m);
+      Arrays.sort(data, dst, (dst + m));
+      dst += m;
+    }
+  }
+
+  /**
+   * Is candidate {@code a} better than candidate {@code b}?
+   *
+   * @param alphaA
+   *          the &alpha;-value of {@code a}
+   * @param distA
+   *          the distance of {@code a}
+   * @param a
+   *          the candidate {@code a}
+   * @param alphaB
+   *          the &alpha;-value of {@code b}
+   * @param distB
+   *          the distance of {@code b}
+   * @param b
+   *          the candidate {@code b}
+   * @return {@code true} if {@code a} is better, {@code false} otherwise
+   */
+  private static final boolean __better(final double alphaA,
+      final int distA, final int a, final double alphaB, final int distB,
+      final int b) {
+    if (alphaA != alphaB) {
+      return (alphaA < alphaB);
+    }
+    if (distA != distB) {
+      return (distA < distB);
+    }
+    return (a < b);
+  }
+
+  /**
+   * Find the maximum transformed edge cost on the tree path between two
+   * nodes.
+   *
+   * @param up
+   *          the ancestors
+   * @param max
+   *          the maximum edge costs on the paths to the ancestors
+   * @param depth
+   *          the depths of the nodes
+   * @param a
+   *          the first node
+   * @param b
+   *          the second node
+   * @param levels
+   *          the number of levels
+   * @return the maximum edge cost
+   */
+  private static final double __pathMax(final int[][] up,
+      final double[][] max, final int[] depth, final int a, final int b,
+      final int levels) {
+    double res;
+    int x, y, diff, l;
+
+    x = a;
+    y = b;
+    if (depth[x] < depth[y]) {
+      x = b;
+      y = a;
+    }
+
+    res = Double.NEGATIVE_INFINITY;
+    diff = (depth[x] - depth[y]);
+    for (l = 0; diff > 0; l++, diff >>>= 1) {
+      if ((diff & 1) != 0) {
+        res = Math.max(res, max[l][x]);
+        x = up[l][x];
+      }
+    }
+    if (x == y) {
+      return res;
+    }
+
+    for (l = levels; (--l) >= 0;) {
+      if (up[l][x] != up[l][y]) {
+        res = Math.max(res, Math.max(max[l][x], max[l][y]));
+        x = up[l][x];
+        y = up[l][y];
+      }
+    }
+    return Math.max(res, Math.max(max[0][x], max[0][y]));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final int getCandidate(final int node, final int id) {
+    return this.m_candidates[(((node - 1) * this.m_m) + id) - 1];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public final int getPseudoID(final int node, final int candidateNode) {
+    final int idx, start;
+
+    start = ((node - 1) * this.m_m);
+    idx = Arrays.binarySearch(this.m_candidates, start,
+        (start + this.m_m), candidateNode);
+    if (idx >= 0) {
+      return ((idx - start) + 1);
+    }
+    return -1;
+  }
+}
@@ -2,7 +2,9 @@ package org.logisticPlanning.tsp.solving.utils.candidates;
 
 import java.util.Arrays;
 
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
 import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.benchmarking.objective.RawDistances;
 
 /**
  * <p>
@@ -22,6 +24,19 @@ import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
  * (inclusive) to {@code i*m} (exclusive), i.e., in {@code O(log m)} steps.
  * </p>
  * <p>
+ * If the distance computer of the instance supports it, the candidates
+ * are found with a
+ * {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer#nearestNeighbors(int, int[])
+ * grid search} over the node coordinates in roughly {@code O(n log n)}
+ * time. Only for instances whose distances are not computed from
+ * coordinates, e.g., those with explicit distance matrices, all distances
+ * are computed and sorted, which takes {@code O(n<sup>2</sup> log n)}
+ * time. Both ways lead to exactly the same candidates. Instead of the
+ * {@code m} nearest nodes, the candidate set may also contain
+ * {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer#quadrantNeighbors(int, int[])
+ * quadrant neighbors}.
+ * </p>
+ * <p>
  * I am not sure if this representation is the most efficient one, maybe I
  * can improve on it later. However, it is relatively straightforward and
  * requires little memory.
@@ -32,6 +47,12 @@ final class _CandidateSubSet extends CandidateSet {
   /** the data */
   int[] m_candidates;
 
+  /**
+   * does this candidate set contain quadrant neighbors instead of the
+   * nearest neighbors?
+   */
+  boolean m_quadrant;
+
   /** instantiate */
   _CandidateSubSet() {
     super();
@@ -43,8 +64,10 @@ final class _CandidateSubSet extends CandidateSet {
     final int matrixSize, listLen;
     int[] data;
     final _Candidate[] list;
+    DistanceComputer dist;
     _Candidate c;
     int sourceNode, destNode, listIndex, i;
+    long des;
 
     this.m_m = m;
     matrixSize = (n * m);
@@ -55,6 +78,21 @@ final class _CandidateSubSet extends CandidateSet {
       this.m_candidates = data = new int[matrixSize];
     }
 
+    // try to find the candidates with a grid search over the coordinates
+    try (final RawDistances raw = f.rawDistances()) {
+      dist = raw.getDistanceComputer();
+      des = (this.m_quadrant ? dist.quadrantNeighbors(m, data) : //
+          dist.nearestNeighbors(m, data));
+      if (des >= 0l) {
+        raw.addDEs(des);
+      }
+    }
+    if (des >= 0l) {
+      this.m_des = des;
+      return;
+    }
+    this.m_des = (n * ((long) (n - 1)));
+
     // allocate the temporary list
     listLen = (n - 1);
     list = new _Candidate[listLen];
@@ -0,0 +1,669 @@
+package org.logisticPlanning.tsp.solving.utils.twoLevelList;
+
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
+
+/**
+ * <p>
+ * A two-level doubly-linked list&nbsp;[<a href="#cite_FJMGO1995DSFTS"
+ * style="font-weight:bold">1</a>] representing a tour of a symmetric TSP.
+ * The tour is cut into about <code>&radic;n</code> segments of consecutive
+ * nodes. Each node knows its segment, its predecessor and successor inside
+ * that segment, and a sequence number giving its position in the segment.
+ * The segments themselves form a doubly-linked ring and each of them has a
+ * &quot;reversed&quot; bit which tells whether its nodes are visited in
+ * the stored order or in the opposite one.
+ * </p>
+ * <p>
+ * {@link #next(int) next}, {@link #prev(int) prev}, and
+ * {@link #between(int, int, int) between} take <em>O(1)</em>. A
+ * {@link #flip(int, int, int, int) flip}, i.e., the reversal of a part of
+ * the tour as done by a 2-opt move, takes <em>O(&radic;n)</em>: Short
+ * reversals inside one segment just re-link the nodes there. Otherwise,
+ * the segments at both ends of the reversed part are split so that it
+ * consists of whole segments, whose order is then reversed and whose
+ * reversed bits are toggled. Since reversing a part of the tour or the
+ * rest of the tour yields the same tour, only in the other direction, the
+ * shorter of the two is always reversed. A
+ * {@link #flip(int, int, int, int) flip} may thus change the direction of
+ * the whole tour. The {@code int[]} based
+ * <a href="../RepresentationUtils.html#pathRepresentation">path
+ * representation</a>, in contrast, needs <em>O(n)</em> per reversal. This
+ * makes the two-level list the better choice for local searches based on
+ * reversals on large instances.
+ * </p>
+ * <p>
+ * Nodes are identified by their ids {@code 1..n}. The list can be
+ * converted to and from the
+ * <a href="../RepresentationUtils.html#pathRepresentation">path
+ * representation</a> and the
+ * <a href="../RepresentationUtils.html#adjacencyRepresentation">adjacency
+ * representation</a> in <em>O(n)</em>, see also
+ * {@link org.logisticPlanning.tsp.solving.utils.RepresentationUtils}.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_FJMGO1995DSFTS" /><a
+ * href="http://en.wikipedia.org/wiki/Michael_Fredman">Michael L.
+ * Fredman</a>, <a
+ * href="https://en.wikipedia.org/wiki/David_S._Johnson">David Stifler
+ * Johnson</a>, <a
+ * href="https://www.amherst.edu/people/facstaff/lamcgeoch">Lyle A.
+ * McGeoch</a>, and&nbsp;Gerard Ostheimer: <span
+ * style="font-weight:bold">&ldquo;Data Structures for Traveling
+ * Salesmen,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Journal of
+ * Algorithms</span> 18(3):432&ndash;479, May&nbsp;1995; published by
+ * Amsterdam, The Netherlands: Elsevier Science Publishers B.V..
+ * doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1006/jagm.1995.1018">10.1006/jagm
+ * .1995.1018</a></div></li>
+ * </ol>
+ */
+public final class TwoLevelList {
+
+  /** the segment of each node */
+  private final int[] m_parent;
+
+  /** the sequence number of each node inside its segment */
+  private final int[] m_seq;
+
+  /**
+   * the successor of each node in the stored order of its segment, or
+   * {@code 0} if it is the last node of the segment
+   */
+  private final int[] m_succ;
+
+  /**
+   * the predecessor of each node in the stored order of its segment, or
+   * {@code 0} if it is the first node of the segment
+   */
+  private final int[] m_pred;
+
+  /** is a segment visited in the opposite of its stored order? */
+  private final boolean[] m_reversed;
+
+  /** the first node of each segment in its stored order */
+  private final int[] m_first;
+
+  /** the last node of each segment in its stored order */
+  private final int[] m_last;
+
+  /** the number of nodes in each segment */
+  private final int[] m_size;
+
+  /** the segment following each segment in the tour */
+  private final int[] m_segNext;
+
+  /** the segment preceding each segment in the tour */
+  private final int[] m_segPrev;
+
+  /** the position of each segment in the ring of segments */
+  private final int[] m_rank;
+
+  /** a temporary array */
+  private final int[] m_temp;
+
+  /**
+   * Create a two-level list of {@code n} nodes. The list initially holds
+   * the tour {@code 1, 2, ..., n}.
+   *
+   * @param n
+   *          the number of nodes
+   */
+  public TwoLevelList(final int n) {
+    super();
+
+    final int segments;
+    int i;
+
+    segments = ((n + TwoLevelList.__groupSize(n)) - 1)
+        / TwoLevelList.__groupSize(n);
+
+    this.m_parent = new int[n + 1];
+    this.m_seq = new int[n + 1];
+    this.m_succ = new int[n + 1];
+    this.m_pred = new int[n + 1];
+    this.m_temp = new int[n + 1];
+
+    this.m_reversed = new boolean[segments];
+    this.m_first = new int[segments];
+    this.m_last = new int[segments];
+    this.m_size = new int[segments];
+    this.m_segNext = new int[segments];
+    this.m_segPrev = new int[segments];
+    this.m_rank = new int[segments];
+
+    for (i = n; i > 0; i--) {
+      this.m_temp[i - 1] = i;
+    }
+    this.__load(this.m_temp);
+  }
+
+  /**
+   * Get the number of nodes per segment for a list of {@code n} nodes
+   *
+   * @param n
+   *          the number of nodes
+   * @return the number of nodes per segment
+   */
+  private static final int __groupSize(final int n) {
+    return Math.max(1, ((int) (Math.round(Math.sqrt(n)))));
+  }
+
+  /**
+   * Get the number of nodes in the list
+   *
+   * @return the number of nodes in the list
+   */
+  public final int n() {
+    return (this.m_parent.length - 1);
+  }
+
+  /**
+   * Load a solution in path representation into this list.
+   *
+   * @param path
+   *          the solution in path representation
+   */
+  public final void fromPath(final int[] path) {
+    System.arraycopy(path, 0, this.m_temp, 0, this.n());
+    this.__load(this.m_temp);
+  }
+
+  /**
+   * Build the list from the tour stored in path representation in the
+   * first {@code n} elements of {@code path}.
+   *
+   * @param path
+   *          the solution in path representation
+   */
+  private final void __load(final int[] path) {
+    final int n, groupSize, segments;
+    int i, s, node, prev;
+
+    n = this.n();
+    groupSize = TwoLevelList.__groupSize(n);
+    segments = this.m_first.length;
+
+    prev = 0;
+    for (i = 0; i < n; i++) {
+      node = path[i];
+      s = (i / groupSize);
+      this.m_parent[node] = s;
+      this.m_seq[node] = i;
+      this.m_succ[node] = 0;
+      if ((i % groupSize) == 0) {
+        this.m_first[s] = node;
+        this.m_pred[node] = 0;
+      } else {
+        this.m_pred[node] = prev;
+        this.m_succ[prev] = node;
+      }
+      this.m_last[s] = node;
+      prev = node;
+    }
+
+    for (s = segments; (--s) >= 0;) {
+      this.m_reversed[s] = false;
+      this.m_size[s] = (Math.min(n, ((s + 1) * groupSize)) - (s * groupSize));
+      this.m_segNext[s] = ((s + 1) % segments);
+      this.m_segPrev[s] = (((s + segments) - 1) % segments);
+      this.m_rank[s] = s;
+    }
+  }
+
+  /**
+   * Store the tour represented by this list in path representation,
+   * starting at node {@code 1}.
+   *
+   * @param path
+   *          the destination
+   */
+  public final void toPath(final int[] path) {
+    int i, node;
+
+    node = 1;
+    for (i = 0; i < path.length; i++) {
+      path[i] = node;
+      node = this.next(node);
+    }
+  }
+
+  /**
+   * Load a solution in adjacency representation into this list.
+   *
+   * @param adjacencyList
+   *          the solution in adjacency representation
+   */
+  public final void fromAdjacencyList(final int[] adjacencyList) {
+    RepresentationUtils.adjacencyListToPath(adjacencyList, this.m_temp);
+    this.__load(this.m_temp);
+  }
+
+  /**
+   * Store the tour represented by this list in adjacency representation.
+   *
+   * @param adjacencyList
+   *          the destination
+   */
+  public final void toAdjacencyList(final int[] adjacencyList) {
+    int i;
+
+    for (i = adjacencyList.length; i > 0; i--) {
+      adjacencyList[i - 1] = this.next(i);
+    }
+  }
+
+  /**
+   * Get the node visited after node {@code a}
+   *
+   * @param a
+   *          the node
+   * @return the node visited after {@code a}
+   */
+  public final int next(final int a) {
+    final int s, x;
+
+    s = this.m_parent[a];
+    x = (this.m_reversed[s] ? this.m_pred[a] : this.m_succ[a]);
+    if (x != 0) {
+      return x;
+    }
+    return this.__first(this.m_segNext[s]);
+  }
+
+  /**
+   * Get the node visited before node {@code a}
+   *
+   * @param a
+   *          the node
+   * @return the node visited before {@code a}
+   */
+  public final int prev(final int a) {
+    final int s, x;
+
+    s = this.m_parent[a];
+    x = (this.m_reversed[s] ? this.m_succ[a] : this.m_pred[a]);
+    if (x != 0) {
+      return x;
+    }
+    return this.__last(this.m_segPrev[s]);
+  }
+
+  /**
+   * Check whether node {@code b} is visited on the way from node
+   * {@code a} to node {@code c} (following {@link #next(int) next}),
+   * where {@code a} and {@code c} themselves count as on the way.
+   *
+   * @param a
+   *          the start node
+   * @param b
+   *          the node to check
+   * @param c
+   *          the end node
+   * @return {@code true} if {@code b} is between {@code a} and {@code c},
+   *         {@code false} otherwise
+   */
+  public final boolean between(final int a, final int b, final int c) {
+    final int rankA, seqA, rankB, rankC;
+
+    rankA = this.m_rank[this.m_parent[a]];
+    seqA = this.__seq(a);
+    rankB = this.__relativeRank(b, rankA, seqA);
+    rankC = this.__relativeRank(c, rankA, seqA);
+    if (rankB != rankC) {
+      return (rankB < rankC);
+    }
+    // b and c are in the same segment and at the same side of a
+    return (this.__seq(b) <= this.__seq(c));
+  }
+
+  /**
+   * Replace the edges {@code (a,b)} and {@code (c,d)} with the edges
+   * {@code (a,c)} and {@code (b,d)} by reversing the part of the tour from
+   * {@code b} to {@code c}, where {@code b=}{@link #next(int) next}
+   * {@code (a)} and {@code d=}{@link #next(int) next}{@code (c)}. This is
+   * a 2-opt move. Since either the part from {@code b} to {@code c} or the
+   * rest of the tour from {@code d} to {@code a} may be reversed, the
+   * direction of the whole tour may change.
+   *
+   * @param a
+   *          the node before {@code b}
+   * @param b
+   *          the first node of the part to reverse
+   * @param c
+   *          the last node of the part to reverse
+   * @param d
+   *          the node after {@code c}
+   */
+  public final void flip(final int a, final int b, final int c,
+      final int d) {
+    final int segments;
+    int sb, sc, count;
+
+    if ((a == c) || (b == d)) {
+      return;
+    }
+
+    // if the part to reverse lies in a single segment, just reverse it
+    // there
+    sb = this.m_parent[b];
+    if ((sb == this.m_parent[c]) && (this.__seq(b) <= this.__seq(c))) {
+      this.__reverseInSegment(sb, b, c);
+      return;
+    }
+    // the same for the rest of the tour
+    if ((this.m_parent[d] == this.m_parent[a])
+        && (this.__seq(d) <= this.__seq(a))) {
+      this.__reverseInSegment(this.m_parent[d], d, a);
+      return;
+    }
+
+    // otherwise, make b..c consist of whole segments and reverse their
+    // order (or that of the rest of the tour)
+    this.__split(b, (-1));
+    this.__split(d, this.m_parent[b]);
+    sb = this.m_parent[b];
+    sc = this.m_parent[c];
+    segments = this.m_first.length;
+    count = ((((this.m_rank[sc] - this.m_rank[sb]) + segments) % segments) + 1);
+    if (count <= (segments - count)) {
+      this.__reverseSegments(sb, count);
+    } else {
+      this.__reverseSegments(this.m_parent[d], (segments - count));
+    }
+  }
+
+  /**
+   * Get the first node of a segment in tour order
+   *
+   * @param s
+   *          the segment
+   * @return the first node
+   */
+  private final int __first(final int s) {
+    return (this.m_reversed[s] ? this.m_last[s] : this.m_first[s]);
+  }
+
+  /**
+   * Get the last node of a segment in tour order
+   *
+   * @param s
+   *          the segment
+   * @return the last node
+   */
+  private final int __last(final int s) {
+    return (this.m_reversed[s] ? this.m_first[s] : this.m_last[s]);
+  }
+
+  /**
+   * Get the sequence number of a node in tour order: it increases along
+   * the tour inside a segment
+   *
+   * @param a
+   *          the node
+   * @return the sequence number
+   */
+  private final int __seq(final int a) {
+    return (this.m_reversed[this.m_parent[a]] ? (-(this.m_seq[a]))
+        : this.m_seq[a]);
+  }
+
+  /**
+   * Get the position of the segment of a node relative to the segment of
+   * a start node: {@code 0} for the same segment if the node is not
+   * before the start node, the number of segments if it is.
+   *
+   * @param x
+   *          the node
+   * @param rankA
+   *          the rank of the segment of the start node
+   * @param seqA
+   *          the sequence number of the start node in tour order
+   * @return the relative rank
+   */
+  private final int __relativeRank(final int x, final int rankA,
+      final int seqA) {
+    final int segments;
+    int r;
+
+    segments = this.m_first.length;
+    r = (this.m_rank[this.m_parent[x]] - rankA);
+    if (r < 0) {
+      r += segments;
+    }
+    if ((r == 0) && (this.__seq(x) < seqA)) {
+      return segments;
+    }
+    return r;
+  }
+
+  /**
+   * Reverse the part {@code u..v} of the tour which lies inside segment
+   * {@code s}.
+   *
+   * @param s
+   *          the segment
+   * @param u
+   *          the first node of the part in tour order
+   * @param v
+   *          the last node of the part in tour order
+   */
+  private final void __reverseInSegment(final int s, final int u,
+      final int v) {
+    final int[] temp, succ, pred, seq;
+    final int first, last, before, after, base;
+    int count, node, i;
+
+    temp = this.m_temp;
+    succ = this.m_succ;
+    pred = this.m_pred;
+    seq = this.m_seq;
+
+    // work on the stored order
+    if (this.m_reversed[s]) {
+      first = v;
+      last = u;
+    } else {
+      first = u;
+      last = v;
+    }
+
+    count = 0;
+    for (node = first;; node = succ[node]) {
+      temp[count++] = node;
+      if (node == last) {
+        break;
+      }
+    }
+
+    before = pred[first];
+    after = succ[last];
+    base = seq[first];
+    for (i = 0; i < count; i++) {
+      node = temp[count - 1 - i];
+      seq[node] = (base + i);
+      pred[node] = ((i <= 0) ? before : temp[count - i]);
+      succ[node] = ((i >= (count - 1)) ? after : temp[count - 2 - i]);
+    }
+
+    if (before != 0) {
+      succ[before] = temp[count - 1];
+    } else {
+      this.m_first[s] = temp[count - 1];
+    }
+    if (after != 0) {
+      pred[after] = temp[0];
+    } else {
+      this.m_last[s] = temp[0];
+    }
+  }
+
+  /**
+   * Split the segment of node {@code x} such that {@code x} becomes the
+   * first node of a segment in tour order: The smaller one of the parts
+   * before {@code x} and from {@code x} on is moved to the neighboring
+   * segment, unless this would move the first node of the protected
+   * segment {@code protect} away from its place.
+   *
+   * @param x
+   *          the node
+   * @param protect
+   *          the protected segment, or {@code -1} if there is none
+   */
+  private final void __split(final int x, final int protect) {
+    final int s, before;
+    final boolean rev;
+    boolean movePrefix;
+    int node, next, i;
+
+    s = this.m_parent[x];
+    if (x == this.__first(s)) {
+      return;
+    }
+
+    rev = this.m_reversed[s];
+    before = (rev ? (this.m_seq[this.m_last[s]] - this.m_seq[x])
+        : (this.m_seq[x] - this.m_seq[this.m_first[s]]));
+    movePrefix = (before <= (this.m_size[s] - before));
+    if (movePrefix) {
+      if (s == protect) {
+        movePrefix = false;
+      }
+    } else {
+      if (this.m_segNext[s] == protect) {
+        movePrefix = true;
+      }
+    }
+
+    if (movePrefix) {
+      // append the nodes before x to the end of the previous segment
+      node = this.__first(s);
+      for (i = before; (--i) >= 0;) {
+        next = (rev ? this.m_pred[node] : this.m_succ[node]);
+        this.__append(this.m_segPrev[s], node);
+        node = next;
+      }
+      if (rev) {
+        this.m_last[s] = x;
+        this.m_succ[x] = 0;
+      } else {
+        this.m_first[s] = x;
+        this.m_pred[x] = 0;
+      }
+      this.m_size[s] -= before;
+    } else {
+      // prepend the nodes from x on to the start of the next segment
+      node = this.__last(s);
+      for (i = (this.m_size[s] - before); (--i) >= 0;) {
+        next = (rev ? this.m_succ[node] : this.m_pred[node]);
+        this.__prepend(this.m_segNext[s], node);
+        node = next;
+      }
+      if (rev) {
+        this.m_first[s] = node;
+        this.m_pred[node] = 0;
+      } else {
+        this.m_last[s] = node;
+        this.m_succ[node] = 0;
+      }
+      this.m_size[s] = before;
+    }
+  }
+
+  /**
+   * Append a node to the end of a segment in tour order.
+   *
+   * @param s
+   *          the segment
+   * @param node
+   *          the node
+   */
+  private final void __append(final int s, final int node) {
+    final int end;
+
+    if (this.m_reversed[s]) {
+      end = this.m_first[s];
+      this.m_seq[node] = (this.m_seq[end] - 1);
+      this.m_pred[end] = node;
+      this.m_succ[node] = end;
+      this.m_pred[node] = 0;
+      this.m_first[s] = node;
+    } else {
+      end = this.m_last[s];
+      this.m_seq[node] = (this.m_seq[end] + 1);
+      this.m_succ[end] = node;
+      this.m_pred[node] = end;
+      this.m_succ[node] = 0;
+      this.m_last[s] = node;
+    }
+    this.m_parent[node] = s;
+    this.m_size[s]++;
+  }
+
+  /**
+   * Prepend a node to the start of a segment in tour order.
+   *
+   * @param s
+   *          the segment
+   * @param node
+   *          the node
+   */
+  private final void __prepend(final int s, final int node) {
+    final int start;
+
+    if (this.m_reversed[s]) {
+      start = this.m_last[s];
+      this.m_seq[node] = (this.m_seq[start] + 1);
+      this.m_succ[start] = node;
+      this.m_pred[node] = start;
+      this.m_succ[node] = 0;
+      this.m_last[s] = node;
+    } else {
+      start = this.m_first[s];
+      this.m_seq[node] = (this.m_seq[start] - 1);
+      this.m_pred[start] = node;
+      this.m_succ[node] = start;
+      this.m_pred[node] = 0;
+      this.m_first[s] = node;
+    }
+    this.m_parent[node] = s;
+    this.m_size[s]++;
+  }
+
+  /**
+   * Reverse the order of {@code count} consecutive segments starting at
+   * segment {@code start} and toggle their reversed bits.
+   *
+   * @param start
+   *          the first segment
+   * @param count
+   *          the number of segments
+   */
+  private final void __reverseSegments(final int start, final int count) {
+    final int[] temp;
+    final int segments, before, after, base;
+    int i, s;
+
+    temp = this.m_temp;
+    segments = this.m_first.length;
+    s = start;
+    for (i = 0; i < count; i++) {
+      temp[i] = s;
+      s = this.m_segNext[s];
+    }
+    after = s;
+    before = this.m_segPrev[start];
+    base = this.m_rank[start];
+
+    for (i = 0; i < count; i++) {
+      s = temp[count - 1 - i];
+      this.m_reversed[s] = (!(this.m_reversed[s]));
+      this.m_rank[s] = ((base + i) % segments);
+      this.m_segPrev[s] = ((i <= 0) ? before : temp[count - i]);
+      this.m_segNext[s] = ((i >= (count - 1)) ? after : temp[count - 2 - i]);
+    }
+    this.m_segNext[before] = temp[count - 1];
+    this.m_segPrev[after] = temp[0];
+  }
+}
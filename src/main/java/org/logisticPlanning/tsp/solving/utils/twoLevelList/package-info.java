@@ -0,0 +1,65 @@
+/**
+ * <p>
+ * In this package, we introduce the
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList
+ * two-level doubly-linked list} data structure&nbsp;[<a
+ * href="#cite_FJMGO1995DSFTS" style="font-weight:bold">1</a>] for
+ * representing solutions to the symmetric TSP.
+ * </p>
+ * <h2>Two-Level List Representation</h2>
+ * <p>
+ * A
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList
+ * two-level list} cuts the tour into about <code>&radic;n</code> segments.
+ * The nodes inside each segment are connected by a doubly-linked list and
+ * the segments form a doubly-linked ring themselves. Each segment carries a
+ * &quot;reversed&quot; bit, so the direction of a whole segment can be
+ * changed in <em>O(1)</em>. Querying the
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList#next(int)
+ * successor} or
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList#prev(int)
+ * predecessor} of a node or whether a node lies
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList#between(int, int, int)
+ * between} two others takes <em>O(1)</em>, while the reversal of a part of
+ * the tour (a two-opt step) takes <em>O(&radic;n)</em>. This is much faster
+ * than in the case of the <a href=
+ * "../RepresentationUtils.html#pathRepresentation"><em>path
+ * representation</em></a> or <a href=
+ * "../RepresentationUtils.html#adjacencyRepresentation"><em>adjacency
+ * representation</em></a>, which need <em>O(n)</em> for a reversal in the
+ * worst case, and therefore becomes important for large instances. A
+ * two-level list can be translated
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList#toPath(int[])
+ * to} and
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList#fromPath(int[])
+ * from} the path representation as well as
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList#toAdjacencyList(int[])
+ * to} and
+ * {@link org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList#fromAdjacencyList(int[])
+ * from} the adjacency representation in <em>O(n)</em>.
+ * </p>
+ * <h2>References</h2>
+ * <ol>
+ * <li><div><span id="cite_FJMGO1995DSFTS" /><a
+ * href="http://en.wikipedia.org/wiki/Michael_Fredman">Michael L.
+ * Fredman</a>, <a
+ * href="https://en.wikipedia.org/wiki/David_S._Johnson">David Stifler
+ * Johnson</a>, <a
+ * href="https://www.amherst.edu/people/facstaff/lamcgeoch">Lyle A.
+ * McGeoch</a>, and&nbsp;Gerard Ostheimer: <span
+ * style="font-weight:bold">&ldquo;Data Structures for Traveling
+ * Salesmen,&rdquo;</span> in <span
+ * style="font-style:italic;font-family:cursive;">Journal of
+ * Algorithms</span> 18(3):432&ndash;479, May&nbsp;1995; published by
+ * Amsterdam, The Netherlands: Elsevier Science Publishers B.V..
+ * doi:&nbsp;<a
+ * href="http://dx.doi.org/10.1006/jagm.1995.1018">10.1006/jagm
+ * .1995.1018</a>. <div>link: [<a
+ * href="ftp://dimacs.rutgers.edu/pub/dsj/temp/data.ps">1</a>];
+ * CiteSeer<sup>x</sup><sub style="font-style:italic">&#946;</sub>:&nbsp;<a
+ * href=
+ * "http://citeseerx.ist.psu.edu/viewdoc/summary?doi=10.1.1.71.170">10.1
+ * .1.71 .170</a></div></div></li>
+ * </ol>
+ */
+package org.logisticPlanning.tsp.solving.utils.twoLevelList;
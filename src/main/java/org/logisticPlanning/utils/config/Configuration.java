@@ -3,6 +3,7 @@ package org.logisticPlanning.utils.config;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -266,7 +267,7 @@ public final class Configuration {
       number = new ByteParser(min, max).parse(v);
 
       if (number != v) {
-        this.m_data.put(key, v);
+        this.m_data.put(k, v);
       }
     }
 
@@ -311,7 +312,7 @@ public final class Configuration {
       number = new ShortParser(min, max).parse(v);
 
       if (number != v) {
-        this.m_data.put(key, v);
+        this.m_data.put(k, v);
       }
     }
 
@@ -355,7 +356,7 @@ public final class Configuration {
       number = new IntParser(min, max).parse(v);
 
       if (number != v) {
-        this.m_data.put(key, v);
+        this.m_data.put(k, v);
       }
     }
 
@@ -399,7 +400,7 @@ public final class Configuration {
       number = new LongParser(min, max).parse(v);
 
       if (number != v) {
-        this.m_data.put(key, v);
+        this.m_data.put(k, v);
       }
     }
 
@@ -445,7 +446,7 @@ public final class Configuration {
       number = new FloatParser(min, max).parse(v);
 
       if (number != v) {
-        this.m_data.put(key, v);
+        this.m_data.put(k, v);
       }
     }
 
@@ -491,7 +492,7 @@ public final class Configuration {
       number = new DoubleParser(min, max).parse(v);
 
       if (number != v) {
-        this.m_data.put(key, v);
+        this.m_data.put(k, v);
       }
     }
 
@@ -639,6 +640,32 @@ public final class Configuration {
     }
   }
 
+  /**
+   * Get the contents of this configuration as command line arguments of
+   * the form {@code key=value}, which can be loaded into another
+   * configuration via {@link #putCommandLine(String[])}, e.g., in another
+   * process. The {@link #PARAM_PROPERTY_FILE configuration file} parameter
+   * is omitted, since the values loaded from the file are already
+   * contained in this configuration.
+   *
+   * @return the command line arguments
+   */
+  public final String[] toCommandLine() {
+    final ArrayList<String> list;
+
+    synchronized (this.m_data) {
+      list = new ArrayList<>(this.m_data.size());
+      for (final Map.Entry<String, Object> e : this.m_data.entrySet()) {
+        if (!(Configuration.PARAM_PROPERTY_FILE.equalsIgnoreCase(e
+            .getKey()))) {
+          list.add(e.getKey() + '=' + String.valueOf(e.getValue()));
+        }
+      }
+    }
+
+    return list.toArray(new String[list.size()]);
+  }
+
   /**
    * Store some information from a map
    *
@@ -135,6 +135,19 @@ public final class Randomizer extends Random {
     this.m_haveNextNextGaussian = false;
   }
 
+  /**
+   * Set the state of this random number generator to the state of another
+   * one, so that both will produce the same sequence of random numbers.
+   *
+   * @param copy
+   *          the random number generator whose state to copy
+   */
+  public final void assign(final Randomizer copy) {
+    this.m_seed = copy.m_seed;
+    this.m_nextNextGaussian = copy.m_nextNextGaussian;
+    this.m_haveNextNextGaussian = copy.m_haveNextNextGaussian;
+  }
+
   /** {@inheritDoc} */
   @Override
   protected final int next(final int bits) {
@@ -0,0 +1,125 @@
+package test.junit.org.logisticPlanning.tsp.benchmarking.dist;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceCache;
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+import test.junit.TestBase;
+
+/**
+ * Test the
+ * {@link org.logisticPlanning.tsp.benchmarking.dist.DistanceCache
+ * distance cache}: A cached distance computer must always return exactly
+ * the same distances as the computer it wraps, regardless of the cache
+ * capacity.
+ */
+public class DistanceCacheTest extends TestBase {
+
+  /** the number of random queries */
+  private static final int QUERIES = 100000;
+
+  /** create the test */
+  public DistanceCacheTest() {
+    super();
+  }
+
+  /**
+   * test a cache of a given capacity
+   *
+   * @param instance
+   *          the instance
+   * @param capacity
+   *          the capacity
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final void __testCache(final Instance instance,
+      final int capacity) throws Throwable {
+    final DistanceComputer raw;
+    final DistanceCache cache;
+    final Randomizer r;
+    final int n;
+    int i, a, b;
+
+    raw = instance.load(0);
+    cache = new DistanceCache(raw, capacity, instance.symmetric());
+    r = new Randomizer();
+    n = instance.n();
+
+    Assert.assertEquals(n, cache.n());
+    Assert.assertTrue(cache.capacity() >= capacity);
+
+    for (i = DistanceCacheTest.QUERIES; (--i) >= 0;) {
+      a = (1 + r.nextInt(n));
+      if (r.nextBoolean()) {
+        b = (1 + r.nextInt(n));
+      } else {
+        b = (1 + ((a + r.nextInt(5)) % n));
+      }
+      Assert.assertEquals(raw.distance(a, b), cache.distance(a, b));
+      Assert.assertEquals(raw.distance(b, a), cache.distance(b, a));
+    }
+
+    Assert.assertEquals((2l * DistanceCacheTest.QUERIES),
+        (cache.getHits() + cache.getMisses()));
+    Assert.assertTrue(cache.getHits() > 0l);
+
+    cache.resetCounters();
+    Assert.assertEquals(0l, cache.getHits());
+    Assert.assertEquals(0l, cache.getMisses());
+  }
+
+  /**
+   * test a tiny cache, where most accesses cause an eviction
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testTinyCache() throws Throwable {
+    DistanceCacheTest.__testCache(Instance.A280, 16);
+  }
+
+  /**
+   * test a cache which can hold all distances of the instance
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testLargeCache() throws Throwable {
+    DistanceCacheTest.__testCache(Instance.A280, (280 * 280));
+  }
+
+  /**
+   * test a cache wrapping an asymmetric distance computer
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testAsymmetric() throws Throwable {
+    DistanceCacheTest.__testCache(Instance.FTV70, 256);
+  }
+
+  /**
+   * test that distance matrices are not wrapped
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testWrapMatrix() throws Throwable {
+    final DistanceComputer matrix, coords;
+
+    matrix = Instance.A280.load(Integer.MAX_VALUE);
+    Assert.assertSame(matrix, DistanceCache.wrap(matrix, 1024));
+
+    coords = Instance.A280.load(0);
+    Assert.assertSame(coords, DistanceCache.wrap(coords, 0));
+    Assert.assertTrue(DistanceCache.wrap(coords, 1024) instanceof DistanceCache);
+  }
+}
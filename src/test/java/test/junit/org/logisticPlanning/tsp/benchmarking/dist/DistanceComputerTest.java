@@ -1,5 +1,7 @@
 package test.junit.org.logisticPlanning.tsp.benchmarking.dist;
 
+import java.util.Arrays;
+
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -29,6 +31,12 @@ public class DistanceComputerTest extends TestBase {
   /** the maximum number of required random tests */
   private static final int MAX_TESTS = (2 * DistanceComputerTest.MIN_TESTS);
 
+  /** the number of tours per batch in batch evaluation tests */
+  private static final int BATCH_SIZE = 16;
+
+  /** the number of neighbors per node in the neighbor tests */
+  private static final int NEIGHBORS = 10;
+
   /** the internal distance computer without matrix */
   private DistanceComputer m_distNoMatrix;
 
@@ -83,12 +91,29 @@ public class DistanceComputerTest extends TestBase {
    */
   public static final String RAW_WRONG_EVAL_ADJ = "Raw distance computer evaluates overall distance incorrectly for adjacency-list based representations."; //$NON-NLS-1$
 
+  /**
+   * the matrix-based distance computer computes wrong overall distances in
+   * batch evaluation
+   */
+  public static final String MATRIX_WRONG_EVAL_BATCH = "Matrix-based distance computer evaluates overall distance incorrectly in batch evaluation."; //$NON-NLS-1$
+  /**
+   * the raw-based distance computer computes wrong overall distances in
+   * batch evaluation
+   */
+  public static final String RAW_WRONG_EVAL_BATCH = "Raw distance computer evaluates overall distance incorrectly in batch evaluation."; //$NON-NLS-1$
+
   /**
    * the matrix and raw-based distance computer disagree about an
    * evaluation result
    */
   public static final String DISAGREE_EVAL = "Matrix-based and raw distance computer disagree about evaluation result."; //$NON-NLS-1$
 
+  /**
+   * the neighbors computed by the distance computer are not the nearest
+   * neighbors
+   */
+  public static final String WRONG_NEIGHBORS = "Distance computer computes wrong neighbors."; //$NON-NLS-1$
+
   /** the internally used randomizer */
   protected final Randomizer m_r;
 
@@ -297,6 +322,270 @@ public class DistanceComputerTest extends TestBase {
     }
   }
 
+  /**
+   * Test whether the result of batch evaluation is the same as the result
+   * of evaluating each tour directly.
+   *
+   * @throws Throwable
+   *           if loading fails
+   */
+  @Test(timeout = 3600000)
+  public final void testDistanceComputerEvaluateBatch() throws Throwable {
+    final int[][] tours;
+    final long[] out1, out2;
+    final DistanceComputer d1, d2;
+    final int n;
+    int i, z;
+
+    d1 = this.getDistanceComputerMat();
+    Assert.assertNotNull(DistanceComputerTest.MATRIX_IS_NULL, d1);
+    d2 = this.getDistanceComputerNoMat();
+    Assert.assertNotNull(DistanceComputerTest.RAW_IS_NULL, d2);
+    n = d1.n();
+    Assert
+        .assertEquals(DistanceComputerTest.DISAGREE_DIMENSION, n, d2.n());
+
+    tours = new int[DistanceComputerTest.BATCH_SIZE][];
+    for (i = tours.length; (--i) >= 0;) {
+      tours[i] = PermutationCreateCanonical.canonical(n);
+    }
+    out1 = new long[tours.length];
+    out2 = new long[tours.length];
+
+    for (z = Math.max(1, (DistanceComputerTest.getRequiredTests(n) / //
+        DistanceComputerTest.BATCH_SIZE));;) {
+      d1.evaluate(tours, out1);
+      d2.evaluate(tours, out2);
+      for (i = tours.length; (--i) >= 0;) {
+        Assert.assertEquals(DistanceComputerTest.MATRIX_WRONG_EVAL_BATCH,
+            d1.evaluate(tours[i]), out1[i]);
+        Assert.assertEquals(DistanceComputerTest.RAW_WRONG_EVAL_BATCH,
+            d2.evaluate(tours[i]), out2[i]);
+        Assert.assertEquals(DistanceComputerTest.DISAGREE_EVAL, out1[i],
+            out2[i]);
+      }
+
+      if ((--z) <= 0) {
+        break;
+      }
+
+      synchronized (this.m_r) {
+        for (i = tours.length; (--i) >= 0;) {
+          this.m_r.shuffle(tours[i], 0, n);
+        }
+      }
+    }
+  }
+
+  /**
+   * Test whether batch evaluation yields the correct results if several
+   * threads use the same distance computer at the same time, as the
+   * coordinate-based distance computers re-use their scratch buffers
+   * between batches.
+   *
+   * @throws Throwable
+   *           if loading fails
+   */
+  @Test(timeout = 3600000)
+  public final void testDistanceComputerEvaluateBatchConcurrent()
+      throws Throwable {
+    final DistanceComputer dist;
+    final Thread[] threads;
+    final Throwable[] errors;
+    final int n;
+    long seed;
+    int i;
+
+    dist = this.getDistanceComputerNoMat();
+    Assert.assertNotNull(DistanceComputerTest.RAW_IS_NULL, dist);
+    n = dist.n();
+
+    threads = new Thread[4];
+    errors = new Throwable[threads.length];
+    for (i = threads.length; (--i) >= 0;) {
+      synchronized (this.m_r) {
+        seed = this.m_r.nextLong();
+      }
+      threads[i] = new Thread(new _BatchRunner(dist, n,
+          Math.max(1, (DistanceComputerTest.getRequiredTests(n) / //
+              (DistanceComputerTest.BATCH_SIZE * threads.length))), seed,
+          errors, i));
+    }
+    for (final Thread t : threads) {
+      t.start();
+    }
+    for (final Thread t : threads) {
+      t.join();
+    }
+    for (final Throwable t : errors) {
+      if (t != null) {
+        throw t;
+      }
+    }
+  }
+
+  /** a runner performing batch evaluations in its own thread */
+  private static final class _BatchRunner implements Runnable {
+    /** the distance computer */
+    private final DistanceComputer m_dist;
+    /** the dimension */
+    private final int m_n;
+    /** the number of batches */
+    private final int m_batches;
+    /** the random seed */
+    private final long m_seed;
+    /** the errors */
+    private final Throwable[] m_errors;
+    /** the index of this runner */
+    private final int m_index;
+
+    /**
+     * create the runner
+     *
+     * @param dist
+     *          the distance computer
+     * @param n
+     *          the dimension
+     * @param batches
+     *          the number of batches
+     * @param seed
+     *          the random seed
+     * @param errors
+     *          the errors
+     * @param index
+     *          the index of this runner
+     */
+    _BatchRunner(final DistanceComputer dist, final int n,
+        final int batches, final long seed, final Throwable[] errors,
+        final int index) {
+      super();
+      this.m_dist = dist;
+      this.m_n = n;
+      this.m_batches = batches;
+      this.m_seed = seed;
+      this.m_errors = errors;
+      this.m_index = index;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void run() {
+      final Randomizer r;
+      final int[][] tours;
+      final long[] out;
+      int i, z;
+
+      try {
+        r = new Randomizer();
+        r.setSeed(this.m_seed);
+        tours = new int[DistanceComputerTest.BATCH_SIZE][];
+        for (i = tours.length; (--i) >= 0;) {
+          tours[i] = PermutationCreateCanonical.canonical(this.m_n);
+        }
+        out = new long[tours.length];
+
+        for (z = this.m_batches; (--z) >= 0;) {
+          for (i = tours.length; (--i) >= 0;) {
+            r.shuffle(tours[i], 0, this.m_n);
+          }
+          this.m_dist.evaluate(tours, out);
+          for (i = tours.length; (--i) >= 0;) {
+            Assert.assertEquals(DistanceComputerTest.RAW_WRONG_EVAL_BATCH,
+                this.m_dist.evaluate(tours[i]), out[i]);
+          }
+        }
+      } catch (final Throwable t) {
+        this.m_errors[this.m_index] = t;
+      }
+    }
+  }
+
+  /**
+   * Test whether the nearest neighbors computed by the raw distance
+   * computer, if it supports computing them, are the same as the nearest
+   * neighbors found by checking all distances, and whether the quadrant
+   * neighbors are valid neighbor lists. A matrix computed from the
+   * coordinates must compute the same neighbors as the raw distance
+   * computer.
+   *
+   * @throws Throwable
+   *           if loading fails
+   */
+  @Test(timeout = 3600000)
+  public final void testDistanceComputerNearestNeighbors()
+      throws Throwable {
+    final DistanceComputer d1, d2;
+    final int[] grid, quad, best, bestDist, matGrid, matQuad;
+    final int n, m;
+    int i, j, k, dist, size;
+    long des;
+
+    d1 = this.getDistanceComputerMat();
+    Assert.assertNotNull(DistanceComputerTest.MATRIX_IS_NULL, d1);
+    d2 = this.getDistanceComputerNoMat();
+    Assert.assertNotNull(DistanceComputerTest.RAW_IS_NULL, d2);
+    n = d1.n();
+    Assert
+        .assertEquals(DistanceComputerTest.DISAGREE_DIMENSION, n, d2.n());
+
+    m = Math.min((n - 1), DistanceComputerTest.NEIGHBORS);
+    grid = new int[n * m];
+    des = d2.nearestNeighbors(m, grid);
+    quad = new int[n * m];
+    Assert.assertEquals(DistanceComputerTest.WRONG_NEIGHBORS,
+        (des < 0l), (d2.quadrantNeighbors(m, quad) < 0l));
+    matGrid = new int[n * m];
+    matQuad = new int[n * m];
+    Assert.assertEquals(DistanceComputerTest.WRONG_NEIGHBORS, des,
+        d1.nearestNeighbors(m, matGrid));
+    Assert.assertEquals(DistanceComputerTest.WRONG_NEIGHBORS, (des < 0l),
+        (d1.quadrantNeighbors(m, matQuad) < 0l));
+    if (des < 0l) {
+      return;
+    }
+    Assert.assertArrayEquals(DistanceComputerTest.WRONG_NEIGHBORS, grid,
+        matGrid);
+    Assert.assertArrayEquals(DistanceComputerTest.WRONG_NEIGHBORS, quad,
+        matQuad);
+
+    best = new int[m];
+    bestDist = new int[m];
+    for (i = 1; i <= n; i++) {
+      // find the m nearest neighbors by insertion, preferring smaller
+      // indices for equal distances
+      size = 0;
+      for (j = 1; j <= n; j++) {
+        if (j == i) {
+          continue;
+        }
+        dist = d1.distance(i, j);
+        if ((size >= m) && (dist >= bestDist[m - 1])) {
+          continue;
+        }
+        k = ((size < m) ? (size++) : (m - 1));
+        for (; (k > 0) && (bestDist[k - 1] > dist); k--) {
+          best[k] = best[k - 1];
+          bestDist[k] = bestDist[k - 1];
+        }
+        best[k] = j;
+        bestDist[k] = dist;
+      }
+      Arrays.sort(best);
+
+      for (k = 0; k < m; k++) {
+        Assert.assertEquals(DistanceComputerTest.WRONG_NEIGHBORS,
+            best[k], grid[((i - 1) * m) + k]);
+        j = quad[((i - 1) * m) + k];
+        Assert.assertTrue(DistanceComputerTest.WRONG_NEIGHBORS,
+            (j > 0) && (j <= n) && (j != i));
+        if (k > 0) {
+          Assert.assertTrue(DistanceComputerTest.WRONG_NEIGHBORS,
+              j > quad[((i - 1) * m) + k - 1]);
+        }
+      }
+    }
+  }
+
   /**
    * get the number of required random tests
    *
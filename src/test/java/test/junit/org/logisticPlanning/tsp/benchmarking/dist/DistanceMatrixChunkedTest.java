@@ -0,0 +1,147 @@
+package test.junit.org.logisticPlanning.tsp.benchmarking.dist;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.utils.io.FileUtils;
+
+import test.junit.TestBase;
+
+/**
+ * Test the chunked symmetric distance matrix used for dimensions which
+ * are too large for a single array. Since such dimensions need gigabytes
+ * of memory, the internal matrix class is instantiated with tiny chunks
+ * so that the {@code long} index computations cross many chunk
+ * boundaries, also in the middle of matrix rows. The distances must be
+ * exactly the same as those of the unchunked matrix, also after printing
+ * the matrix or compiling it into a binary matrix file.
+ */
+public class DistanceMatrixChunkedTest extends TestBase {
+
+  /** the name of the internal class */
+  private static final String CLASS = "org.logisticPlanning.tsp.benchmarking.dist._DistanceMatrixSymmetricChunked"; //$NON-NLS-1$
+
+  /** create the test */
+  public DistanceMatrixChunkedTest() {
+    super();
+  }
+
+  /**
+   * create a chunked copy of a distance computer
+   *
+   * @param src
+   *          the source
+   * @param shift
+   *          the binary logarithm of the chunk size
+   * @return the chunked copy
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final DistanceComputer __chunked(
+      final DistanceComputer src, final int shift) throws Throwable {
+    final Class<?> clazz;
+    final Constructor<?> cons;
+    final Method fill;
+    final DistanceComputer ret;
+
+    clazz = Class.forName(DistanceMatrixChunkedTest.CLASS);
+    cons = clazz.getDeclaredConstructor(int.class, int.class);
+    cons.setAccessible(true);
+    ret = ((DistanceComputer) (cons.newInstance(Integer.valueOf(src.n()),
+        Integer.valueOf(shift))));
+
+    fill = clazz.getDeclaredMethod("fillFrom", DistanceComputer.class); //$NON-NLS-1$
+    fill.setAccessible(true);
+    fill.invoke(ret, src);
+    return ret;
+  }
+
+  /**
+   * test a given instance
+   *
+   * @param instance
+   *          the instance
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final void __testInstance(final Instance instance)
+      throws Throwable {
+    final DistanceComputer plain;
+    final File dir;
+    DistanceComputer chunked, reread, mapped;
+    StringWriter sw;
+    int shift, i, j, n;
+
+    plain = instance.load(Integer.MAX_VALUE);
+    n = plain.n();
+
+    dir = Files.createTempDirectory("chunked").toFile(); //$NON-NLS-1$
+    try {
+      for (shift = 1; shift <= 8; shift++) {
+        chunked = DistanceMatrixChunkedTest.__chunked(plain, shift);
+        Assert.assertEquals(n, chunked.n());
+
+        for (i = 1; i <= n; i++) {
+          for (j = 1; j <= n; j++) {
+            Assert.assertEquals(plain.distance(i, j),
+                chunked.distance(i, j));
+          }
+        }
+
+        sw = new StringWriter();
+        chunked.print(sw);
+        reread = DistanceComputer.read(new StringReader(sw.toString()),
+            Integer.MAX_VALUE, false, true);
+        Assert.assertEquals(n, reread.n());
+        for (i = 1; i <= n; i++) {
+          for (j = 1; j <= n; j++) {
+            Assert.assertEquals(plain.distance(i, j),
+                reread.distance(i, j));
+          }
+        }
+
+        mapped = DistanceComputer.toMatrixFile(chunked, new File(dir,
+            ("shift" + shift + ".dmat"))); //$NON-NLS-1$//$NON-NLS-2$
+        Assert.assertNotSame(chunked, mapped);
+        for (i = 1; i <= n; i++) {
+          for (j = 1; j <= n; j++) {
+            Assert.assertEquals(plain.distance(i, j),
+                mapped.distance(i, j));
+          }
+        }
+      }
+    } finally {
+      FileUtils.delete(dir);
+    }
+  }
+
+  /**
+   * test an instance given as a list of coordinates
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testCoordinates() throws Throwable {
+    DistanceMatrixChunkedTest.__testInstance(Instance.BERLIN52);
+  }
+
+  /**
+   * test an explicit symmetric matrix
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testSymmetricMatrix() throws Throwable {
+    DistanceMatrixChunkedTest.__testInstance(Instance.GR24);
+  }
+}
@@ -0,0 +1,155 @@
+package test.junit.org.logisticPlanning.tsp.benchmarking.dist;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.utils.io.FileUtils;
+
+import test.junit.TestBase;
+
+/**
+ * Test the binary, memory-mapped distance matrix files created via
+ * {@link org.logisticPlanning.tsp.benchmarking.instances.Instance#load(int, File)}
+ * . We check whether a compiled and re-opened matrix file yields exactly
+ * the same distances as the instance loaded from its text representation
+ * and, if the matrix was computed from coordinates, the same nearest
+ * neighbors as the coordinate list.
+ */
+public class DistanceMatrixFileTest extends TestBase {
+
+  /** create the test */
+  public DistanceMatrixFileTest() {
+    super();
+  }
+
+  /**
+   * test a given instance
+   *
+   * @param instance
+   *          the instance
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final void __testInstance(final Instance instance)
+      throws Throwable {
+    final File dir;
+    final DistanceComputer text, compiled, opened, raw;
+    final int[] expected, actual;
+    final int n, m;
+    int i, j;
+
+    dir = Files.createTempDirectory("dmat").toFile(); //$NON-NLS-1$
+    try {
+      text = instance.load(Integer.MAX_VALUE);
+      compiled = instance.load(Integer.MAX_VALUE, dir);
+      opened = instance.load(Integer.MAX_VALUE, dir);
+      n = instance.n();
+
+      Assert.assertEquals(n, compiled.n());
+      Assert.assertEquals(n, opened.n());
+      Assert.assertEquals(1, dir.list().length);
+      Assert.assertSame(compiled.getClass(), opened.getClass());
+
+      for (i = 1; i <= n; i++) {
+        for (j = 1; j <= n; j++) {
+          Assert.assertEquals(text.distance(i, j), compiled.distance(i, j));
+          Assert.assertEquals(text.distance(i, j), opened.distance(i, j));
+        }
+      }
+
+      raw = instance.load(0);
+      m = Math.min((n - 1), 8);
+      expected = new int[n * m];
+      actual = new int[n * m];
+      Assert.assertEquals(raw.nearestNeighbors(m, expected),
+          opened.nearestNeighbors(m, actual));
+      Assert.assertArrayEquals(expected, actual);
+      Assert.assertEquals(raw.quadrantNeighbors(m, expected),
+          opened.quadrantNeighbors(m, actual));
+      Assert.assertArrayEquals(expected, actual);
+
+      Assert.assertNull(DistanceComputer.openMatrixFile(
+          dir.listFiles()[0], (n + 1), instance.symmetric()));
+    } finally {
+      FileUtils.delete(dir);
+    }
+  }
+
+  /**
+   * test an explicit symmetric matrix
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testSymmetricMatrix() throws Throwable {
+    DistanceMatrixFileTest.__testInstance(Instance.GR24);
+  }
+
+  /**
+   * test an explicit asymmetric matrix
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testAsymmetricMatrix() throws Throwable {
+    DistanceMatrixFileTest.__testInstance(Instance.FTV33);
+  }
+
+  /**
+   * test a coordinate list converted to a matrix
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testCoordinates() throws Throwable {
+    DistanceMatrixFileTest.__testInstance(Instance.BERLIN52);
+  }
+
+  /**
+   * Test that a matrix file compiled from a coordinate list is not used if
+   * the limit for the automatic matrix conversion is lower than the
+   * dimension, while a matrix file with explicit edge weights still is.
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testMatrixLimitDim() throws Throwable {
+    final File dir;
+    final DistanceComputer compiled, coordinates, explicit, explicit2;
+    final int n;
+    int i, j;
+
+    dir = Files.createTempDirectory("dmat").toFile(); //$NON-NLS-1$
+    try {
+      n = Instance.BERLIN52.n();
+      compiled = Instance.BERLIN52.load(Integer.MAX_VALUE, dir);
+      coordinates = Instance.BERLIN52.load((n - 1), dir);
+      Assert.assertNotSame(compiled.getClass(), coordinates.getClass());
+      Assert.assertSame(Instance.BERLIN52.load((n - 1)).getClass(),
+          coordinates.getClass());
+      for (i = 1; i <= n; i++) {
+        for (j = 1; j <= n; j++) {
+          Assert.assertEquals(compiled.distance(i, j),
+              coordinates.distance(i, j));
+        }
+      }
+      Assert.assertSame(compiled.getClass(),
+          Instance.BERLIN52.load(n, dir).getClass());
+
+      explicit = Instance.GR24.load(Integer.MAX_VALUE, dir);
+      explicit2 = Instance.GR24.load(2, dir);
+      Assert.assertSame(explicit.getClass(), explicit2.getClass());
+      Assert.assertEquals(2, dir.list().length);
+    } finally {
+      FileUtils.delete(dir);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package test.junit.org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.utils.NamedObject;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the calibration of the runtime normalization: the normalization
+ * factor must be stored in a calibration file in the calibration
+ * directory, and all runs on the same instance must use the same factor.
+ */
+public class CalibrationTest extends TestBase {
+
+  /** create the test */
+  public CalibrationTest() {
+    super();
+  }
+
+  /**
+   * perform one run with a new objective function
+   *
+   * @param out
+   *          the output directory
+   * @param cal
+   *          the calibration directory
+   */
+  private static final void __run(final File out, final File cal) {
+    final Configuration cfg;
+    final Benchmark bm;
+    final ObjectiveFunction f;
+    final int[] tour;
+    int i;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_FES, "10"); //$NON-NLS-1$
+    cfg.putString(Benchmark.PARAM_DEST_DIR, out.getPath());
+    cfg.putString(Benchmark.PARAM_CALIBRATION_DIR, cal.getPath());
+    bm = new Benchmark(Instance.BERLIN52);
+    bm.configure(cfg);
+
+    tour = new int[Instance.BERLIN52.n()];
+    for (i = tour.length; (--i) >= 0;) {
+      tour[i] = (i + 1);
+    }
+
+    f = bm.createObjective();
+    try {
+      f.beginRun(new NamedObject("testDummy")); //$NON-NLS-1$
+      try {
+        f.evaluate(tour);
+      } finally {
+        f.endRun();
+      }
+    } finally {
+      f.dispose();
+    }
+  }
+
+  /**
+   * find the runtime normalization factor in a log file
+   *
+   * @param dir
+   *          the output directory
+   * @return the factor
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final String __factor(final File dir) throws Throwable {
+    final File[] fs;
+    String s;
+
+    fs = new File(new File(dir, Benchmark.SYMMETRIC),
+        Instance.BERLIN52.name()).listFiles();
+    Assert.assertNotNull(fs);
+    for (final File f : fs) {
+      if (f.getName().endsWith(".txt")) { //$NON-NLS-1$
+        try (final BufferedReader br = new BufferedReader(new FileReader(f))) {
+          while ((s = br.readLine()) != null) {
+            if (s.startsWith(ObjectiveFunction.RUNTIME_NORMALIZATION_FACTOR
+                + ':')) {
+              return s.substring(s.indexOf(':') + 1).trim();
+            }
+          }
+        }
+      }
+    }
+    Assert.fail("no runtime normalization factor found"); //$NON-NLS-1$
+    return null;
+  }
+
+  /**
+   * test that the normalization factor is stored and re-used
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testFactorReused() throws Throwable {
+    final File a, b, cal;
+    File[] fs;
+
+    try (final TempDir tempDir = new TempDir()) {
+      a = new File(tempDir.getDir(), "a"); //$NON-NLS-1$
+      b = new File(tempDir.getDir(), "b"); //$NON-NLS-1$
+      cal = new File(tempDir.getDir(), "cal"); //$NON-NLS-1$
+
+      CalibrationTest.__run(a, cal);
+      CalibrationTest.__run(b, cal);
+
+      fs = cal.listFiles();
+      Assert.assertNotNull(fs);
+      Assert.assertEquals(1, fs.length);
+      Assert.assertTrue(fs[0].getName().startsWith(".calibration_")); //$NON-NLS-1$
+
+      Assert.assertEquals(CalibrationTest.__factor(a),
+          CalibrationTest.__factor(b));
+    }
+  }
+}
@@ -0,0 +1,400 @@
+package test.junit.org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.utils.NamedObject;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the <a href=
+ * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+ * >checkpoints</a> of runs: A cancelled run must be resumed from its
+ * checkpoint with its FEs and best solution intact and must log exactly
+ * like the uninterrupted run, the algorithm must get its state back, and
+ * the checkpoint must be deleted once the run is completed.
+ */
+public class CheckpointTest extends TestBase {
+
+  /** the number of FEs performed before the checkpoint */
+  private static final int FES = 7;
+
+  /** the number of FEs performed in the runs compared to resumed runs */
+  private static final int RUN_FES = 60;
+
+  /** the seed of the tours evaluated in these runs */
+  private static final long SEED = 1254378l;
+
+  /** create the test */
+  public CheckpointTest() {
+    super();
+  }
+
+  /**
+   * create a benchmark
+   *
+   * @param dir
+   *          the output directory
+   * @return the benchmark
+   */
+  private static final Benchmark __makeBenchmark(final File dir) {
+    final Configuration cfg;
+    final Benchmark bm;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_RUNS, "1"); //$NON-NLS-1$
+    cfg.putString(Benchmark.PARAM_MAX_FES, "100"); //$NON-NLS-1$
+    cfg.putString(Benchmark.PARAM_CHECKPOINT_INTERVAL, "1"); //$NON-NLS-1$
+    cfg.putString(Benchmark.PARAM_DEST_DIR, dir.getPath());
+
+    bm = new Benchmark(Instance.BERLIN52);
+    bm.configure(cfg);
+    return bm;
+  }
+
+  /**
+   * count the files in the result directory whose name starts with a
+   * given prefix and ends with a given suffix
+   *
+   * @param dir
+   *          the output directory
+   * @param prefix
+   *          the prefix
+   * @param suffix
+   *          the suffix
+   * @return the number of files
+   */
+  private static final int __count(final File dir, final String prefix,
+      final String suffix) {
+    final File[] fs;
+    int count;
+
+    count = 0;
+    fs = new File(new File(dir, Benchmark.SYMMETRIC),
+        Instance.BERLIN52.name()).listFiles();
+    if (fs != null) {
+      for (final File f : fs) {
+        if (f.getName().startsWith(prefix)
+            && f.getName().endsWith(suffix)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * find the number of resumes in the log file
+   *
+   * @param dir
+   *          the output directory
+   * @return the number of resumes, or {@code null} if none is given
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final String __resumes(final File dir) throws Throwable {
+    final File[] fs;
+    String s;
+
+    fs = new File(new File(dir, Benchmark.SYMMETRIC),
+        Instance.BERLIN52.name()).listFiles();
+    Assert.assertNotNull(fs);
+    for (final File f : fs) {
+      if (f.getName().endsWith(".txt")) { //$NON-NLS-1$
+        try (final BufferedReader br = new BufferedReader(new FileReader(f))) {
+          while ((s = br.readLine()) != null) {
+            if (s.startsWith(ObjectiveFunction.RESUMES + ':')) {
+              return s.substring(s.indexOf(':') + 1).trim();
+            }
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * load the log data of a run, without the time columns
+   *
+   * @param dir
+   *          the output directory
+   * @return the log data
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final ArrayList<String> __log(final File dir)
+      throws Throwable {
+    final File[] fs;
+    final ArrayList<String> res;
+    String[] cols;
+    String s;
+    boolean in;
+
+    fs = new File(new File(dir, Benchmark.SYMMETRIC),
+        Instance.BERLIN52.name()).listFiles();
+    Assert.assertNotNull(fs);
+    res = new ArrayList<>();
+    for (final File f : fs) {
+      if (f.getName().endsWith(".txt")) { //$NON-NLS-1$
+        try (final BufferedReader br = new BufferedReader(new FileReader(f))) {
+          in = false;
+          while ((s = br.readLine()) != null) {
+            s = s.trim();
+            if (s.equals(ObjectiveFunction.LOG_DATA_SECTION)) {
+              in = true;
+            } else {
+              if (s.equals(ObjectiveFunction.SECTION_END)) {
+                in = false;
+              } else {
+                if (in && (s.length() > 0)
+                    && (!(s.startsWith(ObjectiveFunction.COMMENT_START)))) {
+                  cols = s.split("\\s+"); //$NON-NLS-1$
+                  // skip the time and normalized time columns
+                  res.add(cols[0] + ' ' + cols[1] + ' ' + cols[4] + ' '
+                      + cols[5] + ' ' + cols[6]);
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    Assert.assertFalse(res.isEmpty());
+    return res;
+  }
+
+  /**
+   * Perform a run of a simple hill climber which swaps two nodes of its
+   * tour in each step and evaluates {@link #RUN_FES} tours with random
+   * numbers drawn from a generator seeded with {@link #SEED}. A resumed
+   * run continues from the best tour of its checkpoint and skips the
+   * steps performed before the checkpoint. The small improvements of the
+   * hill climber often do not reach an objective value threshold, so the
+   * log points are pending for several FEs.
+   *
+   * @param dir
+   *          the output directory
+   * @param cancelAfter
+   *          the number of FEs after which a checkpoint is taken and the
+   *          run is cancelled, or {@code -1} to complete the run
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final void __run(final File dir, final int cancelAfter)
+      throws Throwable {
+    final NamedObject algo;
+    final Benchmark bm;
+    final ObjectiveFunction f;
+    final Random r;
+    final int[] tour;
+    final long fes;
+    long best, v;
+    int i, j, k, t;
+
+    algo = new NamedObject("testDummy"); //$NON-NLS-1$
+    r = new Random(CheckpointTest.SEED);
+    tour = new int[Instance.BERLIN52.n()];
+    for (j = tour.length; (--j) >= 0;) {
+      tour[j] = (j + 1);
+    }
+    for (j = tour.length; j > 1;) {
+      k = r.nextInt(j--);
+      t = tour[j];
+      tour[j] = tour[k];
+      tour[k] = t;
+    }
+
+    bm = CheckpointTest.__makeBenchmark(dir);
+    f = bm.createObjective();
+    try {
+      Assert.assertTrue(bm.reserveRun());
+      f.beginRun(algo);
+      fes = f.getCurrentLogPoint().getConsumedFEs();
+      best = Long.MAX_VALUE;
+      if (fes > 0l) {
+        f.getCopyOfBest(tour);
+        best = f.getCurrentLogPoint().getBestF();
+      }
+
+      for (i = 0; i < CheckpointTest.RUN_FES; i++) {
+        j = k = 0;
+        if (i > 0) {
+          j = r.nextInt(tour.length);
+          k = r.nextInt(tour.length);
+        }
+        if (i >= fes) {
+          t = tour[j];
+          tour[j] = tour[k];
+          tour[k] = t;
+          v = f.evaluate(tour);
+          if (v < best) {
+            best = v;
+          } else {
+            tour[k] = tour[j];
+            tour[j] = t;
+          }
+        }
+        if (i == cancelAfter) {
+          f.checkpoint(algo, null);
+          f.cancelRun();
+          break;
+        }
+      }
+      f.endRun();
+    } finally {
+      f.dispose();
+    }
+  }
+
+  /**
+   * Test that a run resumed from a checkpoint taken after any FE produces
+   * exactly the same log as the uninterrupted run. This includes
+   * checkpoints taken while a log point is pending, i.e., after an FE
+   * check point has been passed but before the next improvement.
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testResumedRunIsExact() throws Throwable {
+    final ArrayList<String> plain;
+    File dir;
+    int i;
+
+    try (final TempDir tempDir = new TempDir()) {
+      dir = new File(tempDir.getDir(), "plain"); //$NON-NLS-1$
+      CheckpointTest.__run(dir, -1);
+      plain = CheckpointTest.__log(dir);
+
+      for (i = 0; i < CheckpointTest.RUN_FES; i++) {
+        dir = new File(tempDir.getDir(), ("resumed" + i)); //$NON-NLS-1$
+        CheckpointTest.__run(dir, i);
+        CheckpointTest.__run(dir, -1);
+        Assert.assertEquals(("checkpoint after FE " + (i + 1)), //$NON-NLS-1$
+            plain, CheckpointTest.__log(dir));
+      }
+    }
+  }
+
+  /**
+   * test that a cancelled run is resumed from its checkpoint
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testResumeCancelledRun() throws Throwable {
+    final NamedObject algo;
+    final Benchmark bm;
+    final ObjectiveFunction f;
+    final int[] tour, best;
+    final String state;
+    long bestF;
+    int i;
+
+    algo = new NamedObject("testDummy"); //$NON-NLS-1$
+    state = "testState"; //$NON-NLS-1$
+    tour = new int[Instance.BERLIN52.n()];
+    best = new int[tour.length];
+    for (i = tour.length; (--i) >= 0;) {
+      tour[i] = (i + 1);
+    }
+
+    try (final TempDir tempDir = new TempDir()) {
+      bm = CheckpointTest.__makeBenchmark(tempDir.getDir());
+
+      f = bm.createObjective();
+      try {
+        Assert.assertTrue(bm.reserveRun());
+        f.beginRun(algo);
+        Assert.assertEquals(0, f.getResumeCount());
+        Assert.assertNull(f.getResumeState(algo));
+        for (i = 0; i < CheckpointTest.FES; i++) {
+          f.evaluate(tour);
+          f.getRandom().shuffle(tour);
+        }
+        bestF = f.getCurrentLogPoint().getBestF();
+
+        Thread.sleep(10l);
+        Assert.assertFalse(f.isCheckpointDue(new NamedObject("other"))); //$NON-NLS-1$
+        Assert.assertTrue(f.isCheckpointDue(algo));
+        f.checkpoint(algo, state);
+
+        f.cancelRun();
+        f.endRun();
+        Assert.assertEquals(1, bm.remainingRunCount());
+
+        // the run is performed again and resumed from the checkpoint
+        Assert.assertTrue(bm.reserveRun());
+        f.beginRun(algo);
+        Assert.assertEquals(1, f.getResumeCount());
+        Assert.assertEquals(state, f.getResumeState(algo));
+        Assert.assertNull(f.getResumeState(new NamedObject("other"))); //$NON-NLS-1$
+        Assert.assertEquals(CheckpointTest.FES, f.getCurrentLogPoint()
+            .getConsumedFEs());
+        Assert.assertEquals(bestF, f.getCurrentLogPoint().getBestF());
+        f.getCopyOfBest(best);
+        Assert.assertEquals(bestF, f.evaluate(best));
+        f.endRun();
+        Assert.assertEquals(0, bm.remainingRunCount());
+      } finally {
+        f.dispose();
+      }
+
+      Assert.assertEquals("1", CheckpointTest.__resumes(tempDir.getDir())); //$NON-NLS-1$
+      Assert.assertEquals(1,
+          CheckpointTest.__count(tempDir.getDir(), "", ".txt")); //$NON-NLS-1$//$NON-NLS-2$
+      Assert.assertEquals(0, CheckpointTest.__count(tempDir.getDir(),
+          ".", ".checkpoint")); //$NON-NLS-1$//$NON-NLS-2$
+    }
+  }
+
+  /**
+   * test that a run without checkpoint is not resumed
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testNoCheckpoint() throws Throwable {
+    final NamedObject algo;
+    final Benchmark bm;
+    final ObjectiveFunction f;
+
+    algo = new NamedObject("testDummy"); //$NON-NLS-1$
+
+    try (final TempDir tempDir = new TempDir()) {
+      bm = CheckpointTest.__makeBenchmark(tempDir.getDir());
+
+      f = bm.createObjective();
+      try {
+        Assert.assertTrue(bm.reserveRun());
+        f.beginRun(algo);
+        f.cancelRun();
+        f.endRun();
+
+        Assert.assertTrue(bm.reserveRun());
+        f.beginRun(algo);
+        Assert.assertEquals(0, f.getResumeCount());
+        Assert.assertNull(f.getResumeState(algo));
+        Assert.assertEquals(0l, f.getCurrentLogPoint().getConsumedFEs());
+        f.endRun();
+      } finally {
+        f.dispose();
+      }
+
+      Assert.assertNull(CheckpointTest.__resumes(tempDir.getDir()));
+    }
+  }
+}
@@ -0,0 +1,277 @@
+package test.junit.org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateCanonical;
+import org.logisticPlanning.utils.NamedObject;
+import org.logisticPlanning.utils.config.Configuration;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the streaming of log points to the log file during a run: The log
+ * data written in batches must be exactly the same as the log data
+ * written from the in-memory log points at the end of the run, also if
+ * the run ends with an exception, and the log points must already be in
+ * the file while the run is still going on.
+ */
+public class LogStreamTest extends TestBase {
+
+  /** the number of function evaluations */
+  private static final int FES = 20000;
+
+  /** the random seed */
+  private static final long SEED = 92318l;
+
+  /** create the test */
+  public LogStreamTest() {
+    super();
+  }
+
+  /**
+   * create an objective function
+   *
+   * @param dir
+   *          the output directory
+   * @param batchSize
+   *          the log stream batch size, {@code 0} for writing the log
+   *          from memory at the end of the run
+   * @return the objective function
+   */
+  private static final ObjectiveFunction __makeObjective(final File dir,
+      final int batchSize) {
+    final Configuration cfg;
+    final Benchmark bm;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_RUNS, "1"); //$NON-NLS-1$
+    cfg.putString(Benchmark.PARAM_MAX_FES,
+        String.valueOf(LogStreamTest.FES));
+    cfg.putString(Benchmark.PARAM_LOG_STREAM_BATCH_SIZE,
+        String.valueOf(batchSize));
+    cfg.putString(Benchmark.PARAM_DEST_DIR, dir.getPath());
+    bm = new Benchmark(Instance.BERLIN52);
+    bm.configure(cfg);
+    return bm.createObjective();
+  }
+
+  /**
+   * get the log file of the run
+   *
+   * @param dir
+   *          the output directory
+   * @return the log file
+   */
+  private static final File __file(final File dir) {
+    final File[] fs;
+
+    fs = new File(new File(dir, Benchmark.SYMMETRIC),
+        Instance.BERLIN52.name()).listFiles();
+    Assert.assertNotNull(fs);
+    for (final File f : fs) {
+      if (f.getName().endsWith(".txt")) { //$NON-NLS-1$
+        return f;
+      }
+    }
+    Assert.fail("no log file found"); //$NON-NLS-1$
+    return null;
+  }
+
+  /**
+   * load the log data of a log file, without the time columns
+   *
+   * @param file
+   *          the log file
+   * @param complete
+   *          must the log data section be complete?
+   * @return the log data
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final ArrayList<String> __log(final File file,
+      final boolean complete) throws Throwable {
+    final ArrayList<String> res;
+    String[] cols;
+    String s;
+    boolean in, ended;
+
+    res = new ArrayList<>();
+    in = ended = false;
+    try (final BufferedReader br = new BufferedReader(new FileReader(file))) {
+      while ((s = br.readLine()) != null) {
+        s = s.trim();
+        if (s.equals(ObjectiveFunction.LOG_DATA_SECTION)) {
+          in = true;
+        } else {
+          if (in) {
+            if (s.equals(ObjectiveFunction.SECTION_END)) {
+              in = false;
+              ended = true;
+            } else {
+              if ((s.length() > 0)
+                  && (!(s.startsWith(ObjectiveFunction.COMMENT_START)))) {
+                cols = s.split("\\s+"); //$NON-NLS-1$
+                // skip the time and normalized time columns
+                res.add(cols[0] + ' ' + cols[1] + ' ' + cols[4] + ' '
+                    + cols[5] + ' ' + cols[6]);
+              }
+            }
+          }
+        }
+      }
+    }
+    Assert.assertEquals(Boolean.valueOf(complete), Boolean.valueOf(ended));
+    return res;
+  }
+
+  /**
+   * perform a random sampling run
+   *
+   * @param dir
+   *          the output directory
+   * @param batchSize
+   *          the log stream batch size
+   * @param failAt
+   *          the FE at which an exception is thrown, or {@code -1}
+   * @return the logged data
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final ArrayList<String> __run(final File dir,
+      final int batchSize, final int failAt) throws Throwable {
+    final ObjectiveFunction f;
+    final Randomizer r;
+    final int[] tour;
+    int fe;
+
+    tour = PermutationCreateCanonical.canonical(Instance.BERLIN52.n());
+    r = new Randomizer();
+    r.setSeed(LogStreamTest.SEED);
+
+    f = LogStreamTest.__makeObjective(dir, batchSize);
+    try {
+      f.beginRun(new NamedObject("testDummy")); //$NON-NLS-1$
+      try {
+        for (fe = 0; !(f.shouldTerminate()); fe++) {
+          if (fe == failAt) {
+            throw new IllegalStateException("failure"); //$NON-NLS-1$
+          }
+          r.shuffle(tour, 0, tour.length);
+          f.evaluate(tour);
+        }
+      } catch (final IllegalStateException ise) {
+        Assert.assertTrue(failAt >= 0);
+      } finally {
+        f.endRun();
+      }
+    } finally {
+      f.dispose();
+    }
+
+    return LogStreamTest.__log(LogStreamTest.__file(dir), true);
+  }
+
+  /**
+   * compare streamed log files with log files written from memory
+   *
+   * @param failAt
+   *          the FE at which an exception is thrown, or {@code -1}
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final void __compare(final int failAt) throws Throwable {
+    final ArrayList<String> memory;
+    ArrayList<String> streamed;
+
+    try (final TempDir tempDir = new TempDir()) {
+      memory = LogStreamTest.__run(new File(tempDir.getDir(), "0"), //$NON-NLS-1$
+          0, failAt);
+      Assert.assertTrue(memory.size() > 10);
+
+      for (final int batchSize : new int[] { 1, 3, 50 }) {
+        streamed = LogStreamTest.__run(
+            new File(tempDir.getDir(), String.valueOf(batchSize)),
+            batchSize, failAt);
+        Assert.assertEquals(memory, streamed);
+      }
+    }
+  }
+
+  /**
+   * test that the streamed log is the same as the log written from memory
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testStreamedSameAsMemory() throws Throwable {
+    LogStreamTest.__compare(-1);
+  }
+
+  /**
+   * test that the streamed log is the same as the log written from memory
+   * if the run ends with an exception
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testStreamedSameAsMemoryAfterFailure() throws Throwable {
+    LogStreamTest.__compare(LogStreamTest.FES / 3);
+  }
+
+  /**
+   * test that the log points are in the log file while the run is still
+   * going on
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testStreamedDuringRun() throws Throwable {
+    final ObjectiveFunction f;
+    final Randomizer r;
+    final int[] tour;
+    final File dir;
+    ArrayList<String> during, after;
+    int fe;
+
+    tour = PermutationCreateCanonical.canonical(Instance.BERLIN52.n());
+    r = new Randomizer();
+    r.setSeed(LogStreamTest.SEED);
+
+    try (final TempDir tempDir = new TempDir()) {
+      dir = tempDir.getDir();
+      f = LogStreamTest.__makeObjective(dir, 1);
+      try {
+        f.beginRun(new NamedObject("testDummy")); //$NON-NLS-1$
+        try {
+          for (fe = (LogStreamTest.FES / 2); (--fe) >= 0;) {
+            r.shuffle(tour, 0, tour.length);
+            f.evaluate(tour);
+          }
+          during = LogStreamTest.__log(LogStreamTest.__file(dir), false);
+          Assert.assertTrue(during.size() > 10);
+        } finally {
+          f.endRun();
+        }
+      } finally {
+        f.dispose();
+      }
+
+      after = LogStreamTest.__log(LogStreamTest.__file(dir), true);
+      Assert.assertTrue(after.size() > during.size());
+      Assert.assertEquals(during, after.subList(0, during.size()));
+    }
+  }
+}
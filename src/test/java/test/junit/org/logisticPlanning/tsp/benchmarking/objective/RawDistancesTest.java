@@ -0,0 +1,291 @@
+package test.junit.org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.LogPoint;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.benchmarking.objective.RawDistances;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateCanonical;
+import org.logisticPlanning.utils.NamedObject;
+import org.logisticPlanning.utils.config.Configuration;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the raw distance scopes: Distance evaluations (DEs) counted inside
+ * a scope and registered in bulk when it is closed must have exactly the
+ * same effect on the consumed DEs, the log points, and the DE-based
+ * termination criterion as the same number of calls to
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction#distance(int, int)}
+ * .
+ */
+public class RawDistancesTest extends TestBase {
+
+  /** the number of distance evaluations per step */
+  private static final int DES_PER_STEP = 97;
+
+  /** the number of steps */
+  private static final int STEPS = 3000;
+
+  /** the random seed */
+  private static final long SEED = 7742353l;
+
+  /** create the test */
+  public RawDistancesTest() {
+    super();
+  }
+
+  /**
+   * perform a run which alternates between distance evaluations and
+   * function evaluations
+   *
+   * @param dir
+   *          the output directory
+   * @param raw
+   *          should the distances be evaluated in raw distance scopes?
+   * @param maxDEs
+   *          the maximum number of DEs
+   * @return the DEs, FEs, and best objective values after each step
+   */
+  private static final ArrayList<long[]> __run(final File dir,
+      final boolean raw, final long maxDEs) {
+    final Configuration cfg;
+    final Benchmark bm;
+    final ObjectiveFunction f;
+    final Randomizer r;
+    final int[] tour;
+    final int n;
+    final ArrayList<long[]> res;
+    DistanceComputer dist;
+    LogPoint lp;
+    long sum;
+    int step, i;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_RUNS, "1"); //$NON-NLS-1$
+    cfg.putString(Benchmark.PARAM_MAX_DES, String.valueOf(maxDEs));
+    cfg.putString(Benchmark.PARAM_DEST_DIR, dir.getPath());
+    bm = new Benchmark(Instance.BERLIN52);
+    bm.configure(cfg);
+
+    n = Instance.BERLIN52.n();
+    tour = PermutationCreateCanonical.canonical(n);
+    r = new Randomizer();
+    r.setSeed(RawDistancesTest.SEED);
+    res = new ArrayList<>();
+
+    f = bm.createObjective();
+    try {
+      f.beginRun(new NamedObject("testDummy")); //$NON-NLS-1$
+      try {
+        for (step = 0; (step < RawDistancesTest.STEPS)
+            && (!(f.shouldTerminate())); step++) {
+          sum = 0l;
+          if (raw) {
+            try (final RawDistances scope = f.rawDistances()) {
+              dist = scope.getDistanceComputer();
+              for (i = RawDistancesTest.DES_PER_STEP; (--i) >= 0;) {
+                sum += dist.distance((1 + r.nextInt(n)), (1 + r.nextInt(n)));
+              }
+              scope.addDEs(RawDistancesTest.DES_PER_STEP);
+              Assert.assertEquals(RawDistancesTest.DES_PER_STEP,
+                  scope.getDEs());
+            }
+          } else {
+            for (i = RawDistancesTest.DES_PER_STEP; (--i) >= 0;) {
+              sum += f.distance((1 + r.nextInt(n)), (1 + r.nextInt(n)));
+            }
+          }
+
+          r.shuffle(tour, 0, n);
+          f.evaluate(tour);
+
+          lp = f.getCurrentLogPoint();
+          res.add(new long[] { lp.getConsumedDEs(), lp.getConsumedFEs(),
+              lp.getBestF(), sum });
+        }
+      } finally {
+        f.endRun();
+      }
+    } finally {
+      f.dispose();
+    }
+
+    return res;
+  }
+
+  /**
+   * load the log data of the run, without the time columns
+   *
+   * @param dir
+   *          the output directory
+   * @return the log data
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final ArrayList<String> __log(final File dir)
+      throws Throwable {
+    final File[] fs;
+    final ArrayList<String> res;
+    String[] cols;
+    String s;
+    boolean in;
+
+    fs = new File(new File(dir, Benchmark.SYMMETRIC),
+        Instance.BERLIN52.name()).listFiles();
+    Assert.assertNotNull(fs);
+    res = new ArrayList<>();
+    for (final File f : fs) {
+      if (f.getName().endsWith(".txt")) { //$NON-NLS-1$
+        try (final BufferedReader br = new BufferedReader(new FileReader(f))) {
+          in = false;
+          while ((s = br.readLine()) != null) {
+            s = s.trim();
+            if (s.equals(ObjectiveFunction.LOG_DATA_SECTION)) {
+              in = true;
+            } else {
+              if (s.equals(ObjectiveFunction.SECTION_END)) {
+                in = false;
+              } else {
+                if (in && (s.length() > 0)
+                    && (!(s.startsWith(ObjectiveFunction.COMMENT_START)))) {
+                  cols = s.split("\\s+"); //$NON-NLS-1$
+                  // skip the time and normalized time columns
+                  res.add(cols[0] + ' ' + cols[1] + ' ' + cols[4] + ' '
+                      + cols[5] + ' ' + cols[6]);
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    Assert.assertFalse(res.isEmpty());
+    return res;
+  }
+
+  /**
+   * compare runs with and without raw distance scopes
+   *
+   * @param maxDEs
+   *          the maximum number of DEs
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final void __compare(final long maxDEs) throws Throwable {
+    final File a, b;
+    final ArrayList<long[]> ra, rb;
+    int i;
+
+    try (final TempDir tempDir = new TempDir()) {
+      a = new File(tempDir.getDir(), "a"); //$NON-NLS-1$
+      b = new File(tempDir.getDir(), "b"); //$NON-NLS-1$
+
+      ra = RawDistancesTest.__run(a, false, maxDEs);
+      rb = RawDistancesTest.__run(b, true, maxDEs);
+
+      Assert.assertEquals(ra.size(), rb.size());
+      for (i = 0; i < ra.size(); i++) {
+        Assert.assertArrayEquals(ra.get(i), rb.get(i));
+      }
+      Assert.assertEquals(RawDistancesTest.__log(a),
+          RawDistancesTest.__log(b));
+    }
+  }
+
+  /**
+   * test that bulk-registered DEs yield the same DE counts and log points
+   * as DEs registered one by one
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testBulkDEsSameAsSingleDEs() throws Throwable {
+    RawDistancesTest.__compare(Long.MAX_VALUE);
+  }
+
+  /**
+   * test that bulk-registered DEs trigger the DE-based termination
+   * criterion in the same step as DEs registered one by one
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testBulkDEsTerminate() throws Throwable {
+    RawDistancesTest.__compare(12345l);
+  }
+
+  /**
+   * test the misuse of raw distance scopes
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testScopeMisuse() throws Throwable {
+    final Configuration cfg;
+    final Benchmark bm;
+    final ObjectiveFunction f;
+    RawDistances scope;
+
+    try (final TempDir tempDir = new TempDir()) {
+      cfg = new Configuration();
+      cfg.putString(Benchmark.PARAM_DEST_DIR, tempDir.getDir().getPath());
+      bm = new Benchmark(Instance.BERLIN52);
+      bm.configure(cfg);
+
+      f = bm.createWarmUpObjective(100000l);
+      try {
+        try {
+          f.rawDistances();
+          Assert.fail("raw distances outside of a run"); //$NON-NLS-1$
+        } catch (final IllegalStateException ise) {
+          // expected
+        }
+
+        f.beginRun(new NamedObject("testDummy")); //$NON-NLS-1$
+        try {
+          scope = f.rawDistances();
+          try {
+            f.rawDistances();
+            Assert.fail("nested raw distance scopes"); //$NON-NLS-1$
+          } catch (final IllegalStateException ise) {
+            // expected
+          }
+          try {
+            scope.addDEs(-1l);
+            Assert.fail("negative DEs"); //$NON-NLS-1$
+          } catch (final IllegalArgumentException iae) {
+            // expected
+          }
+          scope.addDEs(5l);
+          scope.close();
+          scope.close();
+          Assert.assertEquals(5l, f.getCurrentLogPoint().getConsumedDEs());
+          try {
+            scope.getDistanceComputer();
+            Assert.fail("raw distances after close"); //$NON-NLS-1$
+          } catch (final IllegalStateException ise) {
+            // expected
+          }
+        } finally {
+          f.endRun();
+        }
+      } finally {
+        f.dispose();
+      }
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package test.junit.org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.utils.NamedObject;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the run ledger which keeps track of the runs of a
+ * {@link org.logisticPlanning.tsp.benchmarking.objective.Benchmark
+ * benchmark}: The number of remaining runs must decrease with each
+ * reserved run, no more than the maximum number of runs can be reserved,
+ * and files already present in a result directory must be counted as
+ * finished runs.
+ */
+public class RunLedgerTest extends TestBase {
+
+  /** the number of runs */
+  private static final int RUNS = 5;
+
+  /** create the test */
+  public RunLedgerTest() {
+    super();
+  }
+
+  /**
+   * create a benchmark
+   *
+   * @param dir
+   *          the output directory
+   * @return the benchmark
+   */
+  private static final Benchmark __makeBenchmark(final File dir) {
+    final Configuration cfg;
+    final Benchmark bm;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_RUNS,
+        String.valueOf(RunLedgerTest.RUNS));
+    cfg.putString(Benchmark.PARAM_MAX_FES, "100"); //$NON-NLS-1$
+    cfg.putString(Benchmark.PARAM_DEST_DIR, dir.getPath());
+
+    bm = new Benchmark(Instance.BERLIN52);
+    bm.configure(cfg);
+    return bm;
+  }
+
+  /**
+   * get the result directory of a benchmark
+   *
+   * @param dir
+   *          the output directory
+   * @return the result directory
+   */
+  private static final File __resultDir(final File dir) {
+    return new File(new File(dir, Benchmark.SYMMETRIC),
+        Instance.BERLIN52.name());
+  }
+
+  /**
+   * count the log files in a directory
+   *
+   * @param dir
+   *          the directory
+   * @return the number of log files
+   */
+  private static final int __countLogs(final File dir) {
+    final File[] fs;
+    int count;
+
+    count = 0;
+    fs = dir.listFiles();
+    if (fs != null) {
+      for (final File f : fs) {
+        if (f.getName().endsWith(".txt")) { //$NON-NLS-1$
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * test reserving and performing all runs of a benchmark
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testReserveRuns() throws Throwable {
+    final NamedObject algo;
+    final Benchmark bm;
+    final int[] tour;
+    ObjectiveFunction f;
+    int i;
+
+    algo = new NamedObject("testDummy"); //$NON-NLS-1$
+    tour = new int[Instance.BERLIN52.n()];
+    for (i = tour.length; (--i) >= 0;) {
+      tour[i] = (i + 1);
+    }
+
+    try (final TempDir tempDir = new TempDir()) {
+      bm = RunLedgerTest.__makeBenchmark(tempDir.getDir());
+      Assert.assertEquals(RunLedgerTest.RUNS, bm.remainingRunCount());
+
+      f = bm.createObjective();
+      try {
+        for (i = 0; i < RunLedgerTest.RUNS; i++) {
+          Assert.assertTrue(bm.reserveRun());
+          Assert.assertEquals((RunLedgerTest.RUNS - i - 1),
+              bm.remainingRunCount());
+          f.beginRun(algo);
+          try {
+            f.evaluate(tour);
+          } finally {
+            f.endRun();
+          }
+          Assert.assertEquals((RunLedgerTest.RUNS - i - 1),
+              bm.remainingRunCount());
+        }
+
+        Assert.assertFalse(bm.reserveRun());
+        Assert.assertEquals(0, bm.remainingRunCount());
+      } finally {
+        f.dispose();
+      }
+
+      Assert.assertEquals(RunLedgerTest.RUNS, RunLedgerTest
+          .__countLogs(RunLedgerTest.__resultDir(tempDir.getDir())));
+      Assert.assertEquals(0, RunLedgerTest.__makeBenchmark(tempDir.getDir())
+          .remainingRunCount());
+    }
+  }
+
+  /**
+   * test that a cancelled run does not count as finished and is
+   * performed again
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testCancelledRun() throws Throwable {
+    final NamedObject algo;
+    final Benchmark bm;
+    final ObjectiveFunction f;
+
+    algo = new NamedObject("testDummy"); //$NON-NLS-1$
+
+    try (final TempDir tempDir = new TempDir()) {
+      bm = RunLedgerTest.__makeBenchmark(tempDir.getDir());
+
+      f = bm.createObjective();
+      try {
+        Assert.assertTrue(bm.reserveRun());
+        f.beginRun(algo);
+        Assert.assertFalse(f.shouldTerminate());
+        f.cancelRun();
+        Assert.assertTrue(f.shouldTerminate());
+        f.endRun();
+        Assert.assertTrue(f.isRunCancelled());
+        Assert.assertEquals(RunLedgerTest.RUNS, bm.remainingRunCount());
+
+        Assert.assertTrue(bm.reserveRun());
+        bm.releaseRun();
+        Assert.assertEquals(RunLedgerTest.RUNS, bm.remainingRunCount());
+
+        Assert.assertTrue(bm.reserveRun());
+        f.beginRun(algo);
+        Assert.assertFalse(f.isRunCancelled());
+        f.endRun();
+        Assert.assertEquals((RunLedgerTest.RUNS - 1),
+            bm.remainingRunCount());
+      } finally {
+        f.dispose();
+      }
+
+      Assert.assertEquals(1, RunLedgerTest.__countLogs(RunLedgerTest
+          .__resultDir(tempDir.getDir())));
+    }
+  }
+
+  /**
+   * test that runs on a warm-up objective function are neither counted
+   * nor logged
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testWarmUpRun() throws Throwable {
+    final NamedObject algo;
+    final Benchmark bm;
+    final ObjectiveFunction f;
+
+    algo = new NamedObject("testDummy"); //$NON-NLS-1$
+
+    try (final TempDir tempDir = new TempDir()) {
+      bm = RunLedgerTest.__makeBenchmark(tempDir.getDir());
+
+      f = bm.createWarmUpObjective(100l);
+      try {
+        Assert.assertTrue(f.isWarmUp());
+        f.beginRun(algo);
+        f.endRun();
+      } finally {
+        f.dispose();
+      }
+
+      Assert.assertEquals(RunLedgerTest.RUNS, bm.remainingRunCount());
+      Assert.assertEquals(0, RunLedgerTest.__countLogs(RunLedgerTest
+          .__resultDir(tempDir.getDir())));
+    }
+  }
+
+  /**
+   * test that files present before the ledger is created count as
+   * finished runs
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testExistingFiles() throws Throwable {
+    final File dir;
+    final Benchmark bm;
+
+    try (final TempDir tempDir = new TempDir()) {
+      dir = RunLedgerTest.__resultDir(tempDir.getDir());
+      Assert.assertTrue(dir.mkdirs());
+      Assert.assertTrue(new File(dir, "old_1.txt").createNewFile()); //$NON-NLS-1$
+      Assert.assertTrue(new File(dir, "old_2.txt").createNewFile()); //$NON-NLS-1$
+
+      bm = RunLedgerTest.__makeBenchmark(tempDir.getDir());
+      Assert.assertEquals((RunLedgerTest.RUNS - 2), bm.remainingRunCount());
+      Assert.assertTrue(bm.reserveRun());
+      Assert.assertEquals((RunLedgerTest.RUNS - 3), bm.remainingRunCount());
+    }
+  }
+}
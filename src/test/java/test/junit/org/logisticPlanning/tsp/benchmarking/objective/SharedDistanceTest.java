@@ -0,0 +1,151 @@
+package test.junit.org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the reference counting of the distance data shared by all
+ * objective functions for the same problem instance: Objective functions
+ * created for the same instance must see the same shared data, the data
+ * must survive as long as at least one of them has not been disposed, and
+ * the last disposal must evict it so that a new objective function starts
+ * from scratch.
+ */
+public class SharedDistanceTest extends TestBase {
+
+  /** the key of the shared data */
+  private static final String KEY = "sharedDistanceTest"; //$NON-NLS-1$
+
+  /** create the test */
+  public SharedDistanceTest() {
+    super();
+  }
+
+  /**
+   * create a benchmark
+   *
+   * @param inst
+   *          the problem instance
+   * @param dir
+   *          the output directory
+   * @return the benchmark
+   */
+  private static final Benchmark __makeBenchmark(final Instance inst,
+      final File dir) {
+    final Configuration cfg;
+    final Benchmark bm;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_FES, "10"); //$NON-NLS-1$
+    cfg.putString(Benchmark.PARAM_DEST_DIR, dir.getPath());
+    cfg.putString(Benchmark.PARAM_SHARE_PRECOMPUTATIONS, "true"); //$NON-NLS-1$
+
+    bm = new Benchmark(inst);
+    bm.configure(cfg);
+    return bm;
+  }
+
+  /**
+   * test that objective functions created for the same instance share
+   * their data until the last one is disposed
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testAcquireRelease() throws Throwable {
+    final Benchmark a, b;
+    final ObjectiveFunction f1, f2, f3;
+    final Object data, other;
+
+    try (final TempDir tempDir = new TempDir()) {
+      a = SharedDistanceTest.__makeBenchmark(Instance.BERLIN52,
+          tempDir.getDir());
+      b = SharedDistanceTest.__makeBenchmark(Instance.BERLIN52,
+          tempDir.getDir());
+      data = new Object();
+      other = new Object();
+
+      f1 = a.createWarmUpObjective(1000l);
+      f2 = b.createWarmUpObjective(1000l);
+      try {
+        Assert.assertNull(f1.getSharedData(SharedDistanceTest.KEY));
+        Assert.assertSame(data,
+            f1.putSharedData(SharedDistanceTest.KEY, data));
+        Assert.assertSame(data, f2.getSharedData(SharedDistanceTest.KEY));
+        // the data stored first is kept
+        Assert.assertSame(data,
+            f2.putSharedData(SharedDistanceTest.KEY, other));
+        Assert.assertEquals(f1.distance(1, 2), f2.distance(1, 2));
+      } finally {
+        f1.dispose();
+      }
+
+      // one reference is left: the shared data must survive
+      Assert.assertNull(f1.getSharedData(SharedDistanceTest.KEY));
+      f1.dispose();
+      Assert.assertSame(data, f2.getSharedData(SharedDistanceTest.KEY));
+      Assert.assertEquals(Instance.BERLIN52.load(0).distance(3, 7),
+          f2.distance(3, 7));
+
+      // the last release evicts the shared data
+      f2.dispose();
+      Assert.assertNull(f2.getSharedData(SharedDistanceTest.KEY));
+
+      f3 = a.createWarmUpObjective(1000l);
+      try {
+        Assert.assertNull(f3.getSharedData(SharedDistanceTest.KEY));
+        Assert.assertEquals(Instance.BERLIN52.load(0).distance(3, 7),
+            f3.distance(3, 7));
+      } finally {
+        f3.dispose();
+      }
+    }
+  }
+
+  /**
+   * test that objective functions for different instances do not share
+   * their data
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testDifferentInstances() throws Throwable {
+    final Benchmark a, b;
+    final ObjectiveFunction f1, f2;
+    final Object data;
+
+    try (final TempDir tempDir = new TempDir()) {
+      a = SharedDistanceTest.__makeBenchmark(Instance.BERLIN52,
+          tempDir.getDir());
+      b = SharedDistanceTest.__makeBenchmark(Instance.EIL51,
+          tempDir.getDir());
+      data = new Object();
+
+      f1 = a.createWarmUpObjective(1000l);
+      try {
+        f2 = b.createWarmUpObjective(1000l);
+        try {
+          Assert.assertSame(data,
+              f1.putSharedData(SharedDistanceTest.KEY, data));
+          Assert.assertNull(f2.getSharedData(SharedDistanceTest.KEY));
+        } finally {
+          f2.dispose();
+        }
+        Assert.assertSame(data, f1.getSharedData(SharedDistanceTest.KEY));
+      } finally {
+        f1.dispose();
+      }
+    }
+  }
+}
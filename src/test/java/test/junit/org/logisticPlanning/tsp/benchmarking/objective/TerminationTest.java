@@ -0,0 +1,235 @@
+package test.junit.org.logisticPlanning.tsp.benchmarking.objective;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.utils.NamedObject;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the runtime limit of runs, which is enforced by the timer wheel of
+ * the termination thread: A run must not be told to terminate before its
+ * time limit, it must be told to terminate soon after the limit (also for
+ * limits longer than one revolution of the wheel and for many runs in
+ * parallel), and the deadline of a run which ended early must not
+ * terminate the following run.
+ */
+public class TerminationTest extends TestBase {
+
+  /**
+   * the tolerated delay of the termination in milliseconds, which is
+   * generous as the tests may run on a busy machine
+   */
+  private static final long SLACK = 2000l;
+
+  /** the algorithm */
+  private static final NamedObject ALGORITHM = new NamedObject(
+      "testDummy"); //$NON-NLS-1$
+
+  /** create the test */
+  public TerminationTest() {
+    super();
+  }
+
+  /**
+   * create a warm-up objective function, i.e., one whose runs are limited
+   * only by their runtime
+   *
+   * @param dir
+   *          the output directory
+   * @param maxTime
+   *          the runtime limit
+   * @return the objective function
+   */
+  private static final ObjectiveFunction __makeObjective(final File dir,
+      final long maxTime) {
+    final Configuration cfg;
+    final Benchmark bm;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_DEST_DIR, dir.getPath());
+    bm = new Benchmark(Instance.BERLIN52);
+    bm.configure(cfg);
+    return bm.createWarmUpObjective(maxTime);
+  }
+
+  /**
+   * perform one run and wait until it is told to terminate
+   *
+   * @param f
+   *          the objective function
+   * @param maxTime
+   *          the runtime limit
+   */
+  private static final void __runUntilTerminated(final ObjectiveFunction f,
+      final long maxTime) {
+    final long start;
+    final long end;
+
+    start = System.currentTimeMillis();
+    f.beginRun(TerminationTest.ALGORITHM);
+    try {
+      while (!(f.shouldTerminate())) {
+        Thread.yield();
+      }
+      end = System.currentTimeMillis();
+    } finally {
+      f.endRun();
+    }
+
+    Assert.assertTrue(((end - start) >= maxTime));
+    Assert.assertTrue(((end - start) <= (maxTime + TerminationTest.SLACK)));
+  }
+
+  /**
+   * test that runs are terminated after their time limit, both for short
+   * limits and for limits longer than one revolution of the timer wheel
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testTerminatesAfterLimit() throws Throwable {
+    ObjectiveFunction f;
+
+    try (final TempDir tempDir = new TempDir()) {
+      for (final long maxTime : new long[] { 1l, 50l, 300l, 1500l }) {
+        f = TerminationTest.__makeObjective(tempDir.getDir(), maxTime);
+        try {
+          TerminationTest.__runUntilTerminated(f, maxTime);
+          TerminationTest.__runUntilTerminated(f, maxTime);
+        } finally {
+          f.dispose();
+        }
+      }
+    }
+  }
+
+  /**
+   * test that the deadline of a run which has ended early does not
+   * terminate the following run
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testCancelledDeadlineDoesNotFire() throws Throwable {
+    final long maxTime;
+    final ObjectiveFunction f;
+    int i;
+
+    maxTime = 300l;
+    try (final TempDir tempDir = new TempDir()) {
+      f = TerminationTest.__makeObjective(tempDir.getDir(), maxTime);
+      try {
+        for (i = 0; i < 5; i++) {
+          f.beginRun(TerminationTest.ALGORITHM);
+          try {
+            Thread.sleep(20l * i);
+            Assert.assertFalse(f.shouldTerminate());
+          } finally {
+            f.endRun();
+          }
+        }
+        TerminationTest.__runUntilTerminated(f, maxTime);
+      } finally {
+        f.dispose();
+      }
+    }
+  }
+
+  /**
+   * test that many runs with different time limits can be performed in
+   * parallel
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testParallelRuns() throws Throwable {
+    final Thread[] threads;
+    final Throwable[] errors;
+    int i;
+
+    try (final TempDir tempDir = new TempDir()) {
+      threads = new Thread[8];
+      errors = new Throwable[threads.length];
+      for (i = threads.length; (--i) >= 0;) {
+        threads[i] = new Thread(new _Runner(tempDir.getDir(),
+            (20l + (i * 57l)), errors, i));
+      }
+      for (final Thread t : threads) {
+        t.start();
+      }
+      for (final Thread t : threads) {
+        t.join();
+      }
+    }
+
+    for (final Throwable t : errors) {
+      if (t != null) {
+        throw t;
+      }
+    }
+  }
+
+  /** a runner performing runs in its own thread */
+  private static final class _Runner implements Runnable {
+    /** the output directory */
+    private final File m_dir;
+    /** the runtime limit */
+    private final long m_maxTime;
+    /** the errors */
+    private final Throwable[] m_errors;
+    /** the index of this runner */
+    private final int m_index;
+
+    /**
+     * create the runner
+     *
+     * @param dir
+     *          the output directory
+     * @param maxTime
+     *          the runtime limit
+     * @param errors
+     *          the errors
+     * @param index
+     *          the index of this runner
+     */
+    _Runner(final File dir, final long maxTime, final Throwable[] errors,
+        final int index) {
+      super();
+      this.m_dir = dir;
+      this.m_maxTime = maxTime;
+      this.m_errors = errors;
+      this.m_index = index;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void run() {
+      final ObjectiveFunction f;
+      int i;
+
+      try {
+        f = TerminationTest.__makeObjective(this.m_dir, this.m_maxTime);
+        try {
+          for (i = 0; i < 3; i++) {
+            TerminationTest.__runUntilTerminated(f, this.m_maxTime);
+          }
+        } finally {
+          f.dispose();
+        }
+      } catch (final Throwable t) {
+        this.m_errors[this.m_index] = t;
+      }
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package test.junit.org.logisticPlanning.tsp.solving;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.TSPCampaignRunner;
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.mst.MSTHeuristic;
+import org.logisticPlanning.tsp.solving.algorithms.heuristics.nearestNeighbor.NearestNeighborHeuristic;
+import org.logisticPlanning.utils.collections.lists.ArrayListView;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the {@link org.logisticPlanning.tsp.solving.TSPCampaignRunner
+ * campaign runner}: all runs of all algorithm configurations must be
+ * performed and stored in the output directories of the configurations.
+ */
+public class TSPCampaignRunnerTest extends TestBase {
+
+  /** the number of runs */
+  private static final int RUNS = 3;
+
+  /** the instances */
+  private static final ArrayListView<Instance> INSTANCES = ArrayListView
+      .makeArrayListView(new Instance[] { Instance.BERLIN52,
+          Instance.EIL76 });
+
+  /** create the test */
+  public TSPCampaignRunnerTest() {
+    super();
+  }
+
+  /**
+   * create the configuration of a campaign
+   *
+   * @param dir
+   *          the output directory
+   * @return the configuration
+   */
+  private static final Configuration __makeConfig(final File dir) {
+    final Configuration cfg;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_RUNS,
+        String.valueOf(TSPCampaignRunnerTest.RUNS));
+    cfg.putString(Benchmark.PARAM_DEST_DIR, dir.getPath());
+    cfg.putString(TSPAlgorithmRunner.PARAM_MAX_THREADS, "2"); //$NON-NLS-1$
+    cfg.putString(TSPAlgorithmRunner.PARAM_CANCEL_ON_SHUTDOWN, "false"); //$NON-NLS-1$
+    return cfg;
+  }
+
+  /**
+   * count the log files in a result directory
+   *
+   * @param dir
+   *          the output directory of a configuration
+   * @param inst
+   *          the instance
+   * @return the number of log files
+   */
+  private static final int __countLogs(final File dir, final Instance inst) {
+    final File[] fs;
+    int count;
+
+    count = 0;
+    fs = new File(new File(dir, Benchmark.SYMMETRIC), inst.name())
+        .listFiles();
+    if (fs != null) {
+      for (final File f : fs) {
+        if (f.getName().endsWith(".txt")) { //$NON-NLS-1$
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * test performing a campaign with two algorithms
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testCampaign() throws Throwable {
+    final TSPCampaignRunner r;
+    final File other;
+
+    try (final TempDir tempDir = new TempDir()) {
+      other = new File(tempDir.getDir(), "other"); //$NON-NLS-1$
+
+      r = new TSPCampaignRunner(TSPCampaignRunnerTest.INSTANCES);
+      r.addAlgorithm(NearestNeighborHeuristic.class, new String[0]);
+      r.addAlgorithm(MSTHeuristic.class, new String[0]);
+      r.addAlgorithm(MSTHeuristic.class, new String[] { //
+          Benchmark.PARAM_DEST_DIR + '=' + other.getPath() });
+      r.configure(TSPCampaignRunnerTest.__makeConfig(tempDir.getDir()));
+      r.benchmark();
+
+      for (final Instance inst : TSPCampaignRunnerTest.INSTANCES) {
+        Assert.assertEquals(TSPCampaignRunnerTest.RUNS,
+            TSPCampaignRunnerTest.__countLogs(new File(tempDir.getDir(),
+                NearestNeighborHeuristic.class.getSimpleName()), inst));
+        Assert.assertEquals(TSPCampaignRunnerTest.RUNS,
+            TSPCampaignRunnerTest.__countLogs(new File(tempDir.getDir(),
+                MSTHeuristic.class.getSimpleName()), inst));
+        Assert.assertEquals(TSPCampaignRunnerTest.RUNS,
+            TSPCampaignRunnerTest.__countLogs(other, inst));
+      }
+    }
+  }
+
+  /**
+   * test that all runs are performed, one after the other, if the memory
+   * limit is smaller than the estimated memory of a single run
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testRunMemoryLimit() throws Throwable {
+    final TSPCampaignRunner r;
+    final Configuration cfg;
+
+    try (final TempDir tempDir = new TempDir()) {
+      r = new TSPCampaignRunner(TSPCampaignRunnerTest.INSTANCES);
+      r.addAlgorithm(NearestNeighborHeuristic.class, new String[0]);
+      r.addAlgorithm(MSTHeuristic.class, new String[0]);
+      cfg = TSPCampaignRunnerTest.__makeConfig(tempDir.getDir());
+      cfg.putString(TSPAlgorithmRunner.PARAM_MAX_RUN_MEMORY, "1"); //$NON-NLS-1$
+      r.configure(cfg);
+      r.benchmark();
+
+      for (final Instance inst : TSPCampaignRunnerTest.INSTANCES) {
+        Assert.assertEquals(TSPCampaignRunnerTest.RUNS,
+            TSPCampaignRunnerTest.__countLogs(new File(tempDir.getDir(),
+                NearestNeighborHeuristic.class.getSimpleName()), inst));
+        Assert.assertEquals(TSPCampaignRunnerTest.RUNS,
+            TSPCampaignRunnerTest.__countLogs(new File(tempDir.getDir(),
+                MSTHeuristic.class.getSimpleName()), inst));
+      }
+    }
+  }
+
+  /**
+   * test that two configurations cannot use the same output directory
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000, expected = IllegalArgumentException.class)
+  public void testSameDirectory() throws Throwable {
+    final TSPCampaignRunner r;
+
+    try (final TempDir tempDir = new TempDir()) {
+      r = new TSPCampaignRunner(TSPCampaignRunnerTest.INSTANCES);
+      r.addAlgorithm(MSTHeuristic.class, new String[0]);
+      r.addAlgorithm(MSTHeuristic.class, new String[0]);
+      r.configure(TSPCampaignRunnerTest.__makeConfig(tempDir.getDir()));
+    }
+  }
+}
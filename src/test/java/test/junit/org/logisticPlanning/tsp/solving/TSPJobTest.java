@@ -0,0 +1,352 @@
+package test.junit.org.logisticPlanning.tsp.solving;
+
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the jobs of the queue of the campaign runner: Runs are claimed
+ * without locking, so when many threads claim runs at the same time, each
+ * run must be handed out exactly once, the setups of the runs must follow
+ * the round-robin schedule, and exactly one thread must be told that it
+ * finished the last run. The objective function prefetched for a job
+ * must be handed to the first run of the first setup only and must not
+ * be handed out after the job has been disposed.
+ */
+public class TSPJobTest extends TestBase {
+
+  /** the name of the internal class */
+  private static final String CLASS = "org.logisticPlanning.tsp.solving._TSPJob"; //$NON-NLS-1$
+
+  /** the number of threads claiming runs in parallel */
+  private static final int THREADS = 8;
+
+  /** create the test */
+  public TSPJobTest() {
+    super();
+  }
+
+  /**
+   * create a job
+   *
+   * @param dir
+   *          the output directory
+   * @param runs
+   *          the number of runs per setup
+   * @return the job
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final Object __makeJob(final File dir, final int[] runs)
+      throws Throwable {
+    final Constructor<?> cons;
+    final Benchmark[] bms;
+    Configuration cfg;
+    int i;
+
+    bms = new Benchmark[runs.length];
+    for (i = 0; i < bms.length; i++) {
+      cfg = new Configuration();
+      cfg.putString(Benchmark.PARAM_MAX_RUNS, String.valueOf(runs[i]));
+      cfg.putString(Benchmark.PARAM_DEST_DIR,
+          new File(dir, String.valueOf(i)).getPath());
+      bms[i] = new Benchmark(Instance.BERLIN52);
+      bms[i].configure(cfg);
+    }
+
+    cons = Class.forName(TSPJobTest.CLASS).getDeclaredConstructor(
+        Benchmark[].class, int[].class, long[].class, int.class);
+    cons.setAccessible(true);
+    return cons.newInstance(bms, runs.clone(), new long[runs.length],
+        Integer.valueOf(0));
+  }
+
+  /**
+   * invoke a method of a job
+   *
+   * @param job
+   *          the job
+   * @param name
+   *          the method name
+   * @param arg
+   *          the {@code int} argument, or {@code null} if the method has
+   *          no parameters
+   * @return the result
+   * @throws Throwable
+   *           if something fails
+   */
+  static final Object _invoke(final Object job, final String name,
+      final Integer arg) throws Throwable {
+    final Method m;
+
+    if (arg == null) {
+      m = job.getClass().getDeclaredMethod(name);
+      m.setAccessible(true);
+      return m.invoke(job);
+    }
+    m = job.getClass().getDeclaredMethod(name, int.class);
+    m.setAccessible(true);
+    return m.invoke(job, arg);
+  }
+
+  /**
+   * test that runs claimed by many threads in parallel are handed out
+   * exactly once and that exactly one thread finishes the job
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testParallelClaim() throws Throwable {
+    final int[] runs;
+    final Object job;
+    final Thread[] threads;
+    final _Claimer[] claimers;
+    final ArrayList<Integer> claimed;
+    int i, total, last;
+
+    runs = new int[] { 400, 7, 250 };
+    total = 0;
+    for (final int r : runs) {
+      total += r;
+    }
+
+    try (final TempDir tempDir = new TempDir()) {
+      job = TSPJobTest.__makeJob(tempDir.getDir(), runs);
+
+      claimers = new _Claimer[TSPJobTest.THREADS];
+      threads = new Thread[claimers.length];
+      for (i = threads.length; (--i) >= 0;) {
+        threads[i] = new Thread(claimers[i] = new _Claimer(job));
+      }
+      for (final Thread t : threads) {
+        t.start();
+      }
+      for (final Thread t : threads) {
+        t.join();
+      }
+
+      claimed = new ArrayList<>();
+      last = 0;
+      for (final _Claimer c : claimers) {
+        if (c.m_error != null) {
+          throw c.m_error;
+        }
+        claimed.addAll(c.m_claimed);
+        last += c.m_last;
+      }
+
+      // every run has been claimed exactly once and finished once
+      Collections.sort(claimed);
+      Assert.assertEquals(total, claimed.size());
+      for (i = 0; i < total; i++) {
+        Assert.assertEquals(i, claimed.get(i).intValue());
+      }
+      Assert.assertEquals(1, last);
+      Assert.assertEquals(Integer.valueOf(-1),
+          TSPJobTest._invoke(job, "_claim", null)); //$NON-NLS-1$
+    }
+  }
+
+  /**
+   * test that the runs of the setups are interleaved round-robin
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testSchedule() throws Throwable {
+    final Object job;
+    final int[] expected;
+    final int[] count;
+    Object remaining;
+    int i;
+
+    try (final TempDir tempDir = new TempDir()) {
+      job = TSPJobTest.__makeJob(tempDir.getDir(), new int[] { 3, 0, 1, 2 });
+
+      expected = new int[] { 0, 2, 3, 0, 3, 0 };
+      count = new int[4];
+      for (i = 0; i < expected.length; i++) {
+        remaining = TSPJobTest._invoke(job, "_claim", null); //$NON-NLS-1$
+        Assert.assertEquals(Integer.valueOf(expected.length - 1 - i),
+            remaining);
+        Assert.assertEquals(Integer.valueOf(expected[i]), //
+            TSPJobTest._invoke(job, "_getSetup", ((Integer) remaining))); //$NON-NLS-1$
+        count[expected[i]]++;
+      }
+      Assert.assertArrayEquals(new int[] { 3, 0, 1, 2 }, count);
+      Assert.assertEquals(Integer.valueOf(-1),
+          TSPJobTest._invoke(job, "_claim", null)); //$NON-NLS-1$
+
+      for (i = expected.length; (--i) > 0;) {
+        Assert.assertEquals(Boolean.FALSE,
+            TSPJobTest._invoke(job, "_finish", null)); //$NON-NLS-1$
+      }
+      Assert.assertEquals(Boolean.TRUE,
+          TSPJobTest._invoke(job, "_finish", null)); //$NON-NLS-1$
+    }
+  }
+
+  /**
+   * test that an exhausted job hands out no more runs and is finished
+   * when its claimed runs are finished
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testExhaust() throws Throwable {
+    final Object job;
+
+    try (final TempDir tempDir = new TempDir()) {
+      job = TSPJobTest.__makeJob(tempDir.getDir(), new int[] { 5 });
+
+      Assert.assertEquals(Integer.valueOf(4),
+          TSPJobTest._invoke(job, "_claim", null)); //$NON-NLS-1$
+      Assert.assertEquals(Integer.valueOf(3),
+          TSPJobTest._invoke(job, "_claim", null)); //$NON-NLS-1$
+      TSPJobTest._invoke(job, "_exhaust", null); //$NON-NLS-1$
+      Assert.assertEquals(Integer.valueOf(-1),
+          TSPJobTest._invoke(job, "_claim", null)); //$NON-NLS-1$
+      Assert.assertEquals(Boolean.FALSE,
+          TSPJobTest._invoke(job, "_finish", null)); //$NON-NLS-1$
+      Assert.assertEquals(Boolean.TRUE,
+          TSPJobTest._invoke(job, "_finish", null)); //$NON-NLS-1$
+    }
+  }
+
+  /**
+   * test that the prefetched objective function is handed out once, to
+   * the setup of the first run
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testPrefetch() throws Throwable {
+    final Object job;
+    final ObjectiveFunction f;
+
+    try (final TempDir tempDir = new TempDir()) {
+      job = TSPJobTest.__makeJob(tempDir.getDir(), new int[] { 0, 2, 2 });
+
+      TSPJobTest._invoke(job, "_prefetch", null); //$NON-NLS-1$
+      TSPJobTest._invoke(job, "_prefetch", null); //$NON-NLS-1$
+      Assert.assertNull(TSPJobTest._invoke(job,
+          "_takePrefetched", Integer.valueOf(2))); //$NON-NLS-1$
+
+      f = ((ObjectiveFunction) (TSPJobTest._invoke(job,
+          "_takePrefetched", Integer.valueOf(1)))); //$NON-NLS-1$
+      Assert.assertNotNull(f);
+      try {
+        Assert.assertEquals(Instance.BERLIN52.n(), f.n());
+        Assert.assertEquals(Instance.BERLIN52.load(0).distance(3, 7),
+            f.distance(3, 7));
+      } finally {
+        f.dispose();
+      }
+
+      Assert.assertNull(TSPJobTest._invoke(job,
+          "_takePrefetched", Integer.valueOf(1))); //$NON-NLS-1$
+      TSPJobTest._invoke(job, "_prefetch", null); //$NON-NLS-1$
+      Assert.assertNull(TSPJobTest._invoke(job,
+          "_takePrefetched", Integer.valueOf(1))); //$NON-NLS-1$
+    }
+  }
+
+  /**
+   * test that a disposed prefetched objective function is not handed out
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testDisposePrefetched() throws Throwable {
+    Object job;
+
+    try (final TempDir tempDir = new TempDir()) {
+      // dispose while the objective function may still be created
+      job = TSPJobTest.__makeJob(tempDir.getDir(), new int[] { 1 });
+      TSPJobTest._invoke(job, "_prefetch", null); //$NON-NLS-1$
+      TSPJobTest._invoke(job, "_disposePrefetched", null); //$NON-NLS-1$
+      Assert.assertNull(TSPJobTest._invoke(job,
+          "_takePrefetched", Integer.valueOf(0))); //$NON-NLS-1$
+
+      // dispose after the objective function has been created
+      job = TSPJobTest.__makeJob(tempDir.getDir(), new int[] { 1 });
+      TSPJobTest._invoke(job, "_prefetch", null); //$NON-NLS-1$
+      Thread.sleep(200l);
+      TSPJobTest._invoke(job, "_disposePrefetched", null); //$NON-NLS-1$
+      Assert.assertNull(TSPJobTest._invoke(job,
+          "_takePrefetched", Integer.valueOf(0))); //$NON-NLS-1$
+
+      // dispose without prefetching
+      job = TSPJobTest.__makeJob(tempDir.getDir(), new int[] { 1 });
+      TSPJobTest._invoke(job, "_disposePrefetched", null); //$NON-NLS-1$
+      TSPJobTest._invoke(job, "_prefetch", null); //$NON-NLS-1$
+      Assert.assertNull(TSPJobTest._invoke(job,
+          "_takePrefetched", Integer.valueOf(0))); //$NON-NLS-1$
+    }
+  }
+
+  /** a thread claiming and finishing runs until the job is exhausted */
+  private static final class _Claimer implements Runnable {
+    /** the job */
+    private final Object m_job;
+    /** the remaining run counts returned by the claims */
+    final ArrayList<Integer> m_claimed;
+    /** the number of times this thread finished the last run */
+    int m_last;
+    /** the error */
+    Throwable m_error;
+
+    /**
+     * create the claimer
+     *
+     * @param job
+     *          the job
+     */
+    _Claimer(final Object job) {
+      super();
+      this.m_job = job;
+      this.m_claimed = new ArrayList<>();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void run() {
+      Integer remaining;
+
+      try {
+        for (;;) {
+          remaining = ((Integer) (TSPJobTest._invoke(this.m_job,
+              "_claim", null))); //$NON-NLS-1$
+          if (remaining.intValue() < 0) {
+            return;
+          }
+          this.m_claimed.add(remaining);
+          Thread.yield();
+          if (((Boolean) (TSPJobTest._invoke(this.m_job,
+              "_finish", null))).booleanValue()) { //$NON-NLS-1$
+            this.m_last++;
+          }
+        }
+      } catch (final Throwable t) {
+        this.m_error = t;
+      }
+    }
+  }
+}
@@ -0,0 +1,257 @@
+package test.junit.org.logisticPlanning.tsp.solving;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.TSPAlgorithm;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateCanonical;
+import org.logisticPlanning.utils.collections.lists.ArrayListView;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the
+ * {@link org.logisticPlanning.tsp.solving.TSPAlgorithmRunner#PARAM_MAX_PROCESSES
+ * process mode} of the runner with an algorithm which kills its worker
+ * JVM in the middle of a run a given number of times: The killed workers
+ * must be restarted and the runs they were performing must be performed
+ * again, re-using their log files, as long as the maximum number of
+ * restarts is not exceeded. If it is exceeded, the runner must give up
+ * instead of restarting the workers forever.
+ */
+public class TSPProcessTest extends TestBase {
+
+  /**
+   * the system property passed to the worker JVMs which holds the
+   * directory of the crash marker files
+   */
+  static final String CRASH_DIR = "tspProcessTest.crashDir"; //$NON-NLS-1$
+
+  /**
+   * the system property passed to the worker JVMs which holds the number
+   * of crashes
+   */
+  static final String CRASHES = "tspProcessTest.crashes"; //$NON-NLS-1$
+
+  /** the number of runs */
+  private static final int RUNS = 4;
+
+  /** the instances */
+  private static final ArrayListView<Instance> INSTANCES = ArrayListView
+      .makeArrayListView(new Instance[] { Instance.BERLIN52 });
+
+  /** create the test */
+  public TSPProcessTest() {
+    super();
+  }
+
+  /**
+   * benchmark the crashing algorithm in a worker process
+   *
+   * @param dir
+   *          the directory
+   * @param crashes
+   *          the number of times a worker JVM is killed
+   * @param maxRestarts
+   *          the maximum number of restarts
+   * @return the output directory
+   */
+  private static final File __benchmark(final File dir,
+      final int crashes, final int maxRestarts) {
+    final TSPAlgorithmRunner r;
+    final Configuration cfg;
+    final File out, crashDir;
+
+    out = new File(dir, "out"); //$NON-NLS-1$
+    crashDir = new File(dir, "crashes"); //$NON-NLS-1$
+    Assert.assertTrue(crashDir.mkdirs());
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_RUNS,
+        String.valueOf(TSPProcessTest.RUNS));
+    cfg.putString(Benchmark.PARAM_DEST_DIR, out.getPath());
+    cfg.putString(TSPAlgorithmRunner.PARAM_MAX_PROCESSES, "1"); //$NON-NLS-1$
+    cfg.putString(TSPAlgorithmRunner.PARAM_MAX_THREADS, "1"); //$NON-NLS-1$
+    cfg.putString(TSPAlgorithmRunner.PARAM_MAX_PROCESS_RESTARTS,
+        String.valueOf(maxRestarts));
+    cfg.putString(TSPAlgorithmRunner.PARAM_CANCEL_ON_SHUTDOWN, "false"); //$NON-NLS-1$
+    cfg.putString(TSPAlgorithmRunner.PARAM_PROCESS_JVM_ARGS, //
+        ("-D" + TSPProcessTest.CRASH_DIR + '=' + crashDir.getPath() + //$NON-NLS-1$
+            " -D" + TSPProcessTest.CRASHES + '=' + crashes)); //$NON-NLS-1$
+
+    r = new TSPAlgorithmRunner(TSPProcessTest.INSTANCES, Crasher.class,
+        null);
+    r.configure(cfg);
+    r.benchmark();
+
+    Assert.assertEquals(Math.min(crashes, (maxRestarts + 1)),
+        TSPProcessTest.__count(crashDir, ""));//$NON-NLS-1$
+    return out;
+  }
+
+  /**
+   * count the files in a directory
+   *
+   * @param dir
+   *          the directory
+   * @param suffix
+   *          the suffix of the files to count
+   * @return the number of files
+   */
+  private static final int __count(final File dir, final String suffix) {
+    final File[] fs;
+    int count;
+
+    count = 0;
+    fs = dir.listFiles();
+    if (fs != null) {
+      for (final File f : fs) {
+        if (f.getName().endsWith(suffix)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * count the log files of the instance
+   *
+   * @param out
+   *          the output directory
+   * @return the number of log files
+   */
+  private static final int __countLogs(final File out) {
+    return TSPProcessTest.__count(new File(new File(out,
+        Benchmark.SYMMETRIC), Instance.BERLIN52.name()), ".txt"); //$NON-NLS-1$
+  }
+
+  /**
+   * count the remaining runs
+   *
+   * @param out
+   *          the output directory
+   * @return the number of remaining runs
+   */
+  private static final int __remaining(final File out) {
+    final Configuration cfg;
+    final Benchmark bm;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_RUNS,
+        String.valueOf(TSPProcessTest.RUNS));
+    cfg.putString(Benchmark.PARAM_DEST_DIR, out.getPath());
+    bm = new Benchmark(Instance.BERLIN52);
+    bm.configure(cfg);
+    return bm.remainingRunCount();
+  }
+
+  /**
+   * test that all runs are performed by a worker process which does not
+   * crash
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testNoCrash() throws Throwable {
+    final File out;
+
+    try (final TempDir tempDir = new TempDir()) {
+      out = TSPProcessTest.__benchmark(tempDir.getDir(), 0, 0);
+      Assert.assertEquals(TSPProcessTest.RUNS,
+          TSPProcessTest.__countLogs(out));
+      Assert.assertEquals(0, TSPProcessTest.__remaining(out));
+    }
+  }
+
+  /**
+   * test that crashed worker processes are restarted and that the runs
+   * they were performing are performed again
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testRestart() throws Throwable {
+    final File out;
+
+    try (final TempDir tempDir = new TempDir()) {
+      out = TSPProcessTest.__benchmark(tempDir.getDir(), 2, 3);
+      // the interrupted runs re-use their log files
+      Assert.assertEquals(TSPProcessTest.RUNS,
+          TSPProcessTest.__countLogs(out));
+      Assert.assertEquals(0, TSPProcessTest.__remaining(out));
+    }
+  }
+
+  /**
+   * test that the runner gives up once the maximum number of restarts is
+   * exceeded
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testTooManyCrashes() throws Throwable {
+    final File out;
+
+    try (final TempDir tempDir = new TempDir()) {
+      out = TSPProcessTest.__benchmark(tempDir.getDir(),
+          (TSPProcessTest.RUNS + 10), 2);
+      Assert.assertEquals(TSPProcessTest.RUNS,
+          TSPProcessTest.__remaining(out));
+    }
+  }
+
+  /**
+   * An algorithm which kills its JVM at the beginning of a run if fewer
+   * crashes than given by the system property {@link #CRASHES} have
+   * happened so far, which is recorded by marker files in the directory
+   * given by the system property {@link #CRASH_DIR}. This class must be
+   * public so that the worker processes can instantiate it.
+   */
+  public static final class Crasher extends TSPAlgorithm {
+    /** the serial version uid */
+    private static final long serialVersionUID = 1L;
+
+    /** create */
+    public Crasher() {
+      super("Crasher"); //$NON-NLS-1$
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void solve(final ObjectiveFunction f) {
+      final String dir;
+      final int crashes;
+      int i;
+
+      f.evaluate(PermutationCreateCanonical.canonical(f.n()));
+
+      dir = System.getProperty(TSPProcessTest.CRASH_DIR);
+      if (dir != null) {
+        crashes = Integer.parseInt(System
+            .getProperty(TSPProcessTest.CRASHES));
+        for (i = 0; i < crashes; i++) {
+          try {
+            if (new File(dir, String.valueOf(i)).createNewFile()) {
+              // kill the JVM without running the shutdown hooks
+              Runtime.getRuntime().halt(3);
+            }
+          } catch (final IOException ioe) {
+            throw new IllegalStateException(ioe);
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,512 @@
+package test.junit.org.logisticPlanning.tsp.solving;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.TSPAlgorithm;
+import org.logisticPlanning.tsp.solving.TSPAlgorithmRunner;
+import org.logisticPlanning.tsp.solving.TSPCampaignRunner;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateCanonical;
+import org.logisticPlanning.utils.collections.lists.ArrayListView;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the queue of the
+ * {@link org.logisticPlanning.tsp.solving.TSPCampaignRunner campaign
+ * runner} with an algorithm which records the instances of its runs: If
+ * many threads claim runs at the same time, every run of every setup must
+ * be performed exactly once. The jobs must be performed in the order of
+ * decreasing estimated cost if they are scheduled longest-first and in
+ * the order of the instance list otherwise. If the memory for the
+ * distance data is limited, runs on a new instance must not begin before
+ * the runs on the previous instance have ended, and a job whose runs are
+ * all performed by another process must not block the admission of the
+ * following jobs.
+ */
+public class TSPQueueTest extends TestBase {
+
+  /** the number of runs */
+  private static final int RUNS = 5;
+
+  /** the instances */
+  private static final ArrayListView<Instance> INSTANCES = ArrayListView
+      .makeArrayListView(new Instance[] { Instance.GR24, Instance.EIL51,
+          Instance.BERLIN52, Instance.ST70, Instance.EIL101 });
+
+  /** create the test */
+  public TSPQueueTest() {
+    super();
+  }
+
+  /**
+   * create a campaign with two setups of the recording algorithm
+   *
+   * @param dir
+   *          the output directory
+   * @param threads
+   *          the number of threads
+   * @param params
+   *          additional parameters of the campaign
+   * @return the campaign runner
+   */
+  private static final TSPCampaignRunner __makeCampaign(final File dir,
+      final int threads, final String... params) {
+    final TSPCampaignRunner r;
+    final Configuration cfg;
+    String[] kv;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_RUNS,
+        String.valueOf(TSPQueueTest.RUNS));
+    cfg.putString(Benchmark.PARAM_DEST_DIR, dir.getPath());
+    cfg.putString(TSPAlgorithmRunner.PARAM_MAX_THREADS,
+        String.valueOf(threads));
+    cfg.putString(TSPAlgorithmRunner.PARAM_CANCEL_ON_SHUTDOWN, "false"); //$NON-NLS-1$
+    for (final String p : params) {
+      kv = p.split("="); //$NON-NLS-1$
+      cfg.putString(kv[0], kv[1]);
+    }
+
+    Recorder._reset();
+    r = new TSPCampaignRunner(TSPQueueTest.INSTANCES);
+    r.addAlgorithm(Recorder.class, new String[] {//
+        Benchmark.PARAM_DEST_DIR + '=' + new File(dir, "a").getPath() }); //$NON-NLS-1$
+    r.addAlgorithm(Recorder.class, new String[] {//
+        Benchmark.PARAM_DEST_DIR + '=' + new File(dir, "b").getPath() }); //$NON-NLS-1$
+    r.configure(cfg);
+    return r;
+  }
+
+  /**
+   * perform a campaign with two setups of the recording algorithm
+   *
+   * @param dir
+   *          the output directory
+   * @param threads
+   *          the number of threads
+   * @param params
+   *          additional parameters of the campaign
+   * @return the dimensions of the instances of the runs, in the order in
+   *         which the runs were begun
+   */
+  private static final ArrayList<Integer> __campaign(final File dir,
+      final int threads, final String... params) {
+    TSPQueueTest.__makeCampaign(dir, threads, params).benchmark();
+    return Recorder._getRuns();
+  }
+
+  /**
+   * check that every run of every setup has been performed exactly once
+   *
+   * @param dir
+   *          the output directory
+   * @param runs
+   *          the recorded runs
+   */
+  private static final void __checkAllRuns(final File dir,
+      final ArrayList<Integer> runs) {
+    int count;
+
+    Assert.assertEquals((2 * TSPQueueTest.RUNS * TSPQueueTest.INSTANCES
+        .size()), runs.size());
+    for (final Instance inst : TSPQueueTest.INSTANCES) {
+      count = 0;
+      for (final Integer n : runs) {
+        if (n.intValue() == inst.n()) {
+          count++;
+        }
+      }
+      Assert.assertEquals((2 * TSPQueueTest.RUNS), count);
+      Assert.assertEquals(TSPQueueTest.RUNS,
+          TSPQueueTest.__countLogs(new File(dir, "a"), inst)); //$NON-NLS-1$
+      Assert.assertEquals(TSPQueueTest.RUNS,
+          TSPQueueTest.__countLogs(new File(dir, "b"), inst)); //$NON-NLS-1$
+    }
+  }
+
+  /**
+   * count the log files in a result directory
+   *
+   * @param dir
+   *          the output directory of a configuration
+   * @param inst
+   *          the instance
+   * @return the number of log files
+   */
+  private static final int __countLogs(final File dir, final Instance inst) {
+    final File[] fs;
+    int count;
+
+    count = 0;
+    fs = new File(new File(dir, Benchmark.SYMMETRIC), inst.name())
+        .listFiles();
+    if (fs != null) {
+      for (final File f : fs) {
+        if (f.getName().endsWith(".txt")) { //$NON-NLS-1$
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * test that every run is performed exactly once if many threads claim
+   * runs in parallel
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testEachRunOnce() throws Throwable {
+    try (final TempDir tempDir = new TempDir()) {
+      TSPQueueTest.__checkAllRuns(tempDir.getDir(),
+          TSPQueueTest.__campaign(tempDir.getDir(), 8));
+    }
+  }
+
+  /**
+   * get the dimensions of the instances in the order in which their runs
+   * were begun, assuming that they are performed by a single thread
+   *
+   * @param runs
+   *          the recorded runs
+   * @return the dimensions of the instances
+   */
+  private static final ArrayList<Integer> __order(
+      final ArrayList<Integer> runs) {
+    final ArrayList<Integer> order;
+    Integer last;
+
+    order = new ArrayList<>();
+    last = null;
+    for (final Integer n : runs) {
+      if (!(n.equals(last))) {
+        Assert.assertFalse(order.contains(n));
+        order.add(n);
+        last = n;
+      }
+    }
+    return order;
+  }
+
+  /**
+   * test that the jobs are performed longest-first, i.e., in the order of
+   * decreasing estimated run cost
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testLongestFirst() throws Throwable {
+    final ArrayList<Benchmark> bms;
+    final ArrayList<Integer> expected, listOrder;
+    final Configuration cfg;
+    Benchmark bm;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_FES, "1000000"); //$NON-NLS-1$
+    bms = new ArrayList<>();
+    listOrder = new ArrayList<>();
+    for (final Instance inst : TSPQueueTest.INSTANCES) {
+      bm = new Benchmark(inst);
+      bm.configure(cfg);
+      bms.add(bm);
+      listOrder.add(Integer.valueOf(inst.n()));
+    }
+    Collections.sort(bms, new Comparator<Benchmark>() {
+      @Override
+      public final int compare(final Benchmark a, final Benchmark b) {
+        return Long.compare(b.estimateRunCost(), a.estimateRunCost());
+      }
+    });
+    expected = new ArrayList<>();
+    for (final Benchmark b : bms) {
+      expected.add(Integer.valueOf(b.getInstance().n()));
+    }
+    Assert.assertFalse(listOrder.equals(expected));
+
+    try (final TempDir tempDir = new TempDir()) {
+      Assert.assertEquals(expected, TSPQueueTest.__order(TSPQueueTest
+          .__campaign(tempDir.getDir(), 1, //
+              Benchmark.PARAM_MAX_FES + "=1000000"))); //$NON-NLS-1$
+    }
+  }
+
+  /**
+   * test that the jobs are performed in the order of the instance list if
+   * they are not scheduled longest-first
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testListOrder() throws Throwable {
+    final ArrayList<Integer> expected;
+
+    expected = new ArrayList<>();
+    for (final Instance inst : TSPQueueTest.INSTANCES) {
+      expected.add(Integer.valueOf(inst.n()));
+    }
+
+    try (final TempDir tempDir = new TempDir()) {
+      Assert.assertEquals(expected, TSPQueueTest.__order(TSPQueueTest
+          .__campaign(tempDir.getDir(), 1, //
+              Benchmark.PARAM_MAX_FES + "=1000000", //$NON-NLS-1$
+              TSPAlgorithmRunner.PARAM_SCHEDULE_LONGEST_FIRST + "=false"))); //$NON-NLS-1$
+    }
+  }
+
+  /**
+   * test that runs on different instances are not performed at the same
+   * time if the memory for the distance data only suffices for one
+   * instance
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testMemoryAdmission() throws Throwable {
+    final ArrayList<Integer> runs;
+
+    try (final TempDir tempDir = new TempDir()) {
+      runs = TSPQueueTest.__campaign(tempDir.getDir(), 4, //
+          TSPAlgorithmRunner.PARAM_MAX_MATRIX_MEMORY + "=1"); //$NON-NLS-1$
+      TSPQueueTest.__checkAllRuns(tempDir.getDir(), runs);
+      Assert.assertEquals(1, Recorder._getMaxInstances());
+      Assert.assertEquals(TSPQueueTest.INSTANCES.size(),
+          TSPQueueTest.__order(runs).size());
+    }
+  }
+
+  /**
+   * test that a job whose runs are all reserved by another process after
+   * the schedule has been created is skipped without blocking the
+   * admission of the following jobs if the memory for the distance data
+   * is limited
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testSkipWholeJob() throws Throwable {
+    final TSPCampaignRunner r;
+    final Thread t;
+    final _Reserver reserver;
+    final Throwable[] error;
+    final File dir;
+    final ArrayList<Integer> runs;
+
+    try (final TempDir tempDir = new TempDir()) {
+      dir = tempDir.getDir();
+      reserver = new _Reserver(dir, Instance.EIL51);
+      error = new Throwable[1];
+      r = TSPQueueTest.__makeCampaign(dir, 1, //
+          TSPAlgorithmRunner.PARAM_MAX_MATRIX_MEMORY + "=1", //$NON-NLS-1$
+          TSPAlgorithmRunner.PARAM_SCHEDULE_LONGEST_FIRST + "=false"); //$NON-NLS-1$
+      Recorder.s_hook = reserver;
+      t = new Thread(new Runnable() {
+        @Override
+        public final void run() {
+          try {
+            r.benchmark();
+          } catch (final Throwable tt) {
+            error[0] = tt;
+          }
+        }
+      });
+      t.start();
+      try {
+        t.join(120000l);
+        Assert.assertFalse("the campaign is stuck", t.isAlive()); //$NON-NLS-1$
+      } finally {
+        Recorder.s_hook = null;
+        if (t.isAlive()) {
+          r.cancel();
+          t.join();
+        }
+        reserver._release();
+      }
+      if (error[0] != null) {
+        throw error[0];
+      }
+
+      runs = Recorder._getRuns();
+      Assert.assertEquals((2 * TSPQueueTest.RUNS * //
+          (TSPQueueTest.INSTANCES.size() - 1)), runs.size());
+      Assert.assertFalse(runs.contains(Integer.valueOf(Instance.EIL51.n())));
+      Assert.assertEquals(0, TSPQueueTest.__countLogs(new File(dir, "a"), //$NON-NLS-1$
+          Instance.EIL51));
+      Assert.assertEquals(0, TSPQueueTest.__countLogs(new File(dir, "b"), //$NON-NLS-1$
+          Instance.EIL51));
+    }
+  }
+
+  /**
+   * a hook reserving all runs of an instance in the result directories of
+   * both setups, as if they were performed by another process
+   */
+  private static final class _Reserver implements Runnable {
+    /** the benchmarks */
+    private final Benchmark[] m_bms;
+    /** the number of reserved runs per benchmark */
+    private int m_reserved;
+
+    /**
+     * create the reserver
+     *
+     * @param dir
+     *          the output directory
+     * @param inst
+     *          the instance
+     */
+    _Reserver(final File dir, final Instance inst) {
+      super();
+      Configuration cfg;
+      int i;
+
+      this.m_bms = new Benchmark[2];
+      for (i = 0; i < this.m_bms.length; i++) {
+        cfg = new Configuration();
+        cfg.putString(Benchmark.PARAM_MAX_RUNS,
+            String.valueOf(TSPQueueTest.RUNS));
+        cfg.putString(Benchmark.PARAM_DEST_DIR, new File(dir,
+            ((i == 0) ? "a" : "b")).getPath()); //$NON-NLS-1$//$NON-NLS-2$
+        this.m_bms[i] = new Benchmark(inst);
+        this.m_bms[i].configure(cfg);
+      }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void run() {
+      int i;
+
+      for (i = 0; i < TSPQueueTest.RUNS; i++) {
+        for (final Benchmark bm : this.m_bms) {
+          Assert.assertTrue(bm.reserveRun());
+        }
+      }
+      this.m_reserved = TSPQueueTest.RUNS;
+    }
+
+    /** release the reserved runs */
+    final void _release() {
+      for (; this.m_reserved > 0; this.m_reserved--) {
+        for (final Benchmark bm : this.m_bms) {
+          bm.releaseRun();
+        }
+      }
+    }
+  }
+
+  /**
+   * An algorithm which records the dimension of the instance of each run
+   * and performs a single function evaluation. This class must be public
+   * so that the campaign runner can instantiate it.
+   */
+  public static final class Recorder extends TSPAlgorithm {
+    /** the serial version uid */
+    private static final long serialVersionUID = 1L;
+
+    /** the synchronization object */
+    private static final Object SYNC = new Object();
+
+    /** the dimensions of the instances of the runs */
+    private static ArrayList<Integer> s_runs;
+
+    /** the dimensions of the instances of the runs in progress */
+    private static ArrayList<Integer> s_active;
+
+    /**
+     * the maximum number of different instances of the runs in progress
+     * at the same time
+     */
+    private static int s_maxInstances;
+
+    /** a hook to be executed once, at the beginning of the next run */
+    static volatile Runnable s_hook;
+
+    /** create */
+    public Recorder() {
+      super("Recorder"); //$NON-NLS-1$
+    }
+
+    /** reset the records */
+    static final void _reset() {
+      synchronized (Recorder.SYNC) {
+        Recorder.s_runs = new ArrayList<>();
+        Recorder.s_active = new ArrayList<>();
+        Recorder.s_maxInstances = 0;
+      }
+    }
+
+    /**
+     * get the maximum number of different instances of the runs in
+     * progress at the same time
+     *
+     * @return the maximum number of different instances
+     */
+    static final int _getMaxInstances() {
+      synchronized (Recorder.SYNC) {
+        return Recorder.s_maxInstances;
+      }
+    }
+
+    /**
+     * get the recorded runs
+     *
+     * @return the dimensions of the instances of the runs, in the order in
+     *         which the runs were begun
+     */
+    static final ArrayList<Integer> _getRuns() {
+      synchronized (Recorder.SYNC) {
+        return new ArrayList<>(Recorder.s_runs);
+      }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void solve(final ObjectiveFunction f) {
+      final Integer n;
+      final Runnable hook;
+
+      hook = Recorder.s_hook;
+      if (hook != null) {
+        Recorder.s_hook = null;
+        hook.run();
+      }
+
+      n = Integer.valueOf(f.n());
+      synchronized (Recorder.SYNC) {
+        Recorder.s_runs.add(n);
+        Recorder.s_active.add(n);
+        Recorder.s_maxInstances = Math.max(Recorder.s_maxInstances,
+            new HashSet<>(Recorder.s_active).size());
+      }
+      try {
+        try {
+          Thread.sleep(3l);
+        } catch (final InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+        f.evaluate(PermutationCreateCanonical.canonical(n.intValue()));
+      } finally {
+        synchronized (Recorder.SYNC) {
+          Recorder.s_active.remove(n);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,360 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.TSPAlgorithm;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.multiNeighborhoodSearch.MultiNeighborhoodSearch;
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns.PermutationVNS;
+import org.logisticPlanning.tsp.solving.algorithms.metaheuristics.permutation.ea.PermutationEA;
+import org.logisticPlanning.tsp.solving.algorithms.metaheuristics.permutation.paco.PACO;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test that the algorithms supporting <a href=
+ * "{@docRoot}/org/logisticPlanning/tsp/benchmarking/objective/ObjectiveFunction.html#checkpoints"
+ * >checkpoints</a> continue exactly where they left off: A run which is
+ * cancelled after a checkpoint and then resumed by a new instance of the
+ * algorithm must produce the same log data and the same best tour as the
+ * same run performed without interruption, and taking checkpoints must
+ * not change the run either, i.e., a run with checkpoints must follow the
+ * random seed of the run exactly like a run without them.
+ */
+public class CheckpointResumeTest extends TestBase {
+
+  /** the random seed */
+  private static final long SEED = 5437712l;
+
+  /** the instance */
+  private static final Instance INSTANCE = Instance.BERLIN52;
+
+  /** create the test */
+  public CheckpointResumeTest() {
+    super();
+  }
+
+  /**
+   * create a benchmark
+   *
+   * @param dir
+   *          the output directory
+   * @param maxFEs
+   *          the maximum number of FEs
+   * @param interval
+   *          the checkpoint interval, {@code 0} for no checkpoints
+   * @return the benchmark
+   */
+  private static final Benchmark __makeBenchmark(final File dir,
+      final long maxFEs, final long interval) {
+    final Configuration cfg;
+    final Benchmark bm;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_MAX_RUNS, "1"); //$NON-NLS-1$
+    cfg.putString(Benchmark.PARAM_MAX_FES, String.valueOf(maxFEs));
+    cfg.putString(Benchmark.PARAM_CHECKPOINT_INTERVAL,
+        String.valueOf(interval));
+    cfg.putString(Benchmark.PARAM_DEST_DIR, dir.getPath());
+
+    bm = new Benchmark(CheckpointResumeTest.INSTANCE);
+    bm.configure(cfg);
+    return bm;
+  }
+
+  /**
+   * get the directory with the log and checkpoint files
+   *
+   * @param dir
+   *          the output directory
+   * @return the directory with the log and checkpoint files
+   */
+  static final File _instanceDir(final File dir) {
+    return new File(new File(dir, Benchmark.SYMMETRIC),
+        CheckpointResumeTest.INSTANCE.name());
+  }
+
+  /**
+   * perform a run
+   *
+   * @param proto
+   *          the prototype of the algorithm, which is cloned
+   * @param dir
+   *          the output directory
+   * @param maxFEs
+   *          the maximum number of FEs
+   * @param interval
+   *          the checkpoint interval, {@code 0} for no checkpoints
+   * @param seed
+   *          the seed of the random number generator of the objective
+   *          function from which the seed of the run is drawn
+   * @param cancel
+   *          should the run be cancelled after the first checkpoint?
+   * @return the best tour found
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final int[] __run(final TSPAlgorithm proto,
+      final File dir, final long maxFEs, final long interval,
+      final long seed, final boolean cancel) throws Throwable {
+    final Benchmark bm;
+    final ObjectiveFunction f;
+    final TSPAlgorithm algo;
+    final int[] best;
+    final _Canceller canceller;
+    final Thread t;
+
+    bm = CheckpointResumeTest.__makeBenchmark(dir, maxFEs, interval);
+    best = new int[CheckpointResumeTest.INSTANCE.n()];
+    algo = proto.clone();
+
+    f = bm.createObjective();
+    try {
+      f.getRandom().setSeed(seed);
+      Assert.assertTrue(bm.reserveRun());
+      f.beginRun(algo);
+      try {
+        if (cancel) {
+          canceller = new _Canceller(f, dir);
+          t = new Thread(canceller);
+          t.start();
+          try {
+            algo.call(f);
+          } finally {
+            canceller.m_done = true;
+            t.join();
+          }
+          Assert.assertTrue("the run ended before a checkpoint", //$NON-NLS-1$
+              f.isRunCancelled());
+        } else {
+          algo.call(f);
+          Assert.assertFalse(f.isRunCancelled());
+        }
+        f.getCopyOfBest(best);
+      } finally {
+        f.endRun();
+      }
+    } finally {
+      f.dispose();
+    }
+    return best;
+  }
+
+  /**
+   * load the log data and the random seed of a run, without the time
+   * columns
+   *
+   * @param dir
+   *          the output directory
+   * @return the log data
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final ArrayList<String> __log(final File dir)
+      throws Throwable {
+    final File[] fs;
+    final ArrayList<String> res;
+    String[] cols;
+    String s;
+    boolean in;
+
+    fs = CheckpointResumeTest._instanceDir(dir).listFiles();
+    Assert.assertNotNull(fs);
+    res = new ArrayList<>();
+    for (final File f : fs) {
+      if (f.getName().endsWith(".txt")) { //$NON-NLS-1$
+        try (final BufferedReader br = new BufferedReader(new FileReader(f))) {
+          in = false;
+          while ((s = br.readLine()) != null) {
+            s = s.trim();
+            if (s.equals(ObjectiveFunction.LOG_DATA_SECTION)) {
+              in = true;
+            } else {
+              if (s.equals(ObjectiveFunction.SECTION_END)) {
+                in = false;
+              } else {
+                if (in && (s.length() > 0)
+                    && (!(s.startsWith(ObjectiveFunction.COMMENT_START)))) {
+                  cols = s.split("\\s+"); //$NON-NLS-1$
+                  // skip the time and normalized time columns
+                  res.add(cols[0] + ' ' + cols[1] + ' ' + cols[4] + ' '
+                      + cols[5] + ' ' + cols[6]);
+                } else {
+                  if (s.startsWith(ObjectiveFunction.RAND_SEED + ':')) {
+                    res.add(s);
+                  }
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    Assert.assertFalse(res.isEmpty());
+    return res;
+  }
+
+  /**
+   * compare an uninterrupted run without checkpoints, an uninterrupted
+   * run with checkpoints, and a run which is cancelled after a checkpoint
+   * and then resumed
+   *
+   * @param proto
+   *          the prototype of the algorithm
+   * @param maxFEs
+   *          the maximum number of FEs
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final void __compare(final TSPAlgorithm proto,
+      final long maxFEs) throws Throwable {
+    final File plain, checkpointed, resumed;
+    final int[] plainBest, checkpointedBest, resumedBest;
+    final ArrayList<String> plainLog;
+    final File[] fs;
+
+    try (final TempDir tempDir = new TempDir()) {
+      plain = new File(tempDir.getDir(), "plain"); //$NON-NLS-1$
+      checkpointed = new File(tempDir.getDir(), "checkpointed"); //$NON-NLS-1$
+      resumed = new File(tempDir.getDir(), "resumed"); //$NON-NLS-1$
+
+      plainBest = CheckpointResumeTest.__run(proto, plain, maxFEs, 0l,
+          CheckpointResumeTest.SEED, false);
+      plainLog = CheckpointResumeTest.__log(plain);
+
+      checkpointedBest = CheckpointResumeTest.__run(proto, checkpointed,
+          maxFEs, 1l, CheckpointResumeTest.SEED, false);
+      Assert.assertEquals(plainLog, CheckpointResumeTest.__log(checkpointed));
+      Assert.assertArrayEquals(plainBest, checkpointedBest);
+
+      CheckpointResumeTest.__run(proto, resumed, maxFEs, 1l,
+          CheckpointResumeTest.SEED, true);
+      // the seed drawn for the resumed run does not matter
+      resumedBest = CheckpointResumeTest.__run(proto, resumed, maxFEs, 1l,
+          (~CheckpointResumeTest.SEED), false);
+      Assert.assertEquals(plainLog, CheckpointResumeTest.__log(resumed));
+      Assert.assertArrayEquals(plainBest, resumedBest);
+
+      // the checkpoint has been deleted
+      fs = CheckpointResumeTest._instanceDir(resumed).listFiles();
+      Assert.assertNotNull(fs);
+      for (final File f : fs) {
+        Assert.assertFalse(Arrays.toString(fs),
+            f.getName().endsWith(".checkpoint")); //$NON-NLS-1$
+      }
+    }
+  }
+
+  /**
+   * test resuming the variable neighborhood search
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testPermutationVNS() throws Throwable {
+    CheckpointResumeTest.__compare(new PermutationVNS(), 3000000l);
+  }
+
+  /**
+   * test resuming the multi-neighborhood search
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testMultiNeighborhoodSearch() throws Throwable {
+    CheckpointResumeTest.__compare(new MultiNeighborhoodSearch(),
+        3000000l);
+  }
+
+  /**
+   * test resuming the population-based ant colony optimization
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testPACO() throws Throwable {
+    CheckpointResumeTest.__compare(new PACO(), 20000l);
+  }
+
+  /**
+   * test resuming the evolutionary algorithm
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testPermutationEA() throws Throwable {
+    final PermutationEA ea;
+
+    ea = new PermutationEA();
+    ea.setMu(16);
+    ea.setLambda(64);
+    ea.setCrossoverRate(0.5d);
+    CheckpointResumeTest.__compare(ea, 100000l);
+  }
+
+  /**
+   * a thread which cancels a run once its first checkpoint has been
+   * written
+   */
+  private static final class _Canceller implements Runnable {
+    /** the objective function */
+    private final ObjectiveFunction m_f;
+    /** the output directory */
+    private final File m_dir;
+    /** has the run ended? */
+    volatile boolean m_done;
+
+    /**
+     * create the canceller
+     *
+     * @param f
+     *          the objective function
+     * @param dir
+     *          the output directory
+     */
+    _Canceller(final ObjectiveFunction f, final File dir) {
+      super();
+      this.m_f = f;
+      this.m_dir = dir;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void run() {
+      final File dir;
+      File[] fs;
+
+      dir = CheckpointResumeTest._instanceDir(this.m_dir);
+      while (!(this.m_done)) {
+        fs = dir.listFiles();
+        if (fs != null) {
+          for (final File f : fs) {
+            if (f.getName().endsWith(".checkpoint")) { //$NON-NLS-1$
+              this.m_f.cancelRun();
+              return;
+            }
+          }
+        }
+        try {
+          Thread.sleep(1l);
+        } catch (final InterruptedException ie) {
+          return;
+        }
+      }
+    }
+  }
+}
@@ -74,6 +74,19 @@ public class TSPAlgorithmSymmetricTest extends ObjectiveFunctionValidator {
     return this.m_init;
   }
 
+  /**
+   * Should only one short run be performed per instance? This is meant
+   * for tests of variants of an algorithm whose full test is already
+   * performed by another class, so that they do not take as long as the
+   * full test.
+   *
+   * @return {@code true} if only one short run should be performed per
+   *         instance, {@code false} for the full test
+   */
+  protected boolean isShortTest() {
+    return false;
+  }
+
   /** check whether the optimization method is created correctly */
   @Test(timeout = 3600000)
   public final void testAlgorithmNotNull() {
@@ -84,7 +97,9 @@ public class TSPAlgorithmSymmetricTest extends ObjectiveFunctionValidator {
   /**
    * Run the algorithm on a given benchmark instance. We perform one long
    * test (with at most 40s runtime), one medium test with at most 12s
-   * runtime, and five short tests of at most 5s.
+   * runtime, and five short tests of at most 5s. If
+   * {@link #isShortTest()} returns {@code true}, only one test of at most
+   * 2s is performed.
    *
    * @param inst
    *          the instance
@@ -97,6 +112,14 @@ public class TSPAlgorithmSymmetricTest extends ObjectiveFunctionValidator {
     n = inst.n();
     Assert.assertNotNull("No instance given.", inst); //$NON-NLS-1$
 
+    if (this.isShortTest()) {
+      this.performObjectiveTest(inst, this.m_test,//
+          (n * (n * (n * (n * 100l)))),//
+          1000l * 2l,//
+          1, true);
+      return;
+    }
+
     // one very long test
     this.performObjectiveTest(inst, this.m_test,//
         (n * (n * (n * (n * 100l)))),//
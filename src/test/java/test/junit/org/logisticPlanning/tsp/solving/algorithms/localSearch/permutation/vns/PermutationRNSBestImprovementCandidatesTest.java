@@ -0,0 +1,33 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns.PermutationRNS;
+
+/**
+ * the test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns.PermutationRNS
+ * random neighborhood search} for permutations which only tests the moves
+ * towards the candidates of the nodes
+ */
+public class PermutationRNSBestImprovementCandidatesTest extends
+    PermutationRNSBestImprovementTest {
+
+  /** create */
+  public PermutationRNSBestImprovementCandidatesTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected PermutationRNS createAlgorithm() {
+    final PermutationRNS r;
+    r = super.createAlgorithm();
+    r.setCandidateCount(8);
+    return r;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected boolean isShortTest() {
+    return true;
+  }
+}
@@ -0,0 +1,33 @@
+package test.junit.org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns;
+
+import org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns.PermutationVNS;
+
+/**
+ * the test of the
+ * {@link org.logisticPlanning.tsp.solving.algorithms.localSearch.permutation.vns.PermutationVNS
+ * variable neighborhood search} for permutations which only tests the moves
+ * towards the candidates of the nodes
+ */
+public class PermutationVNSBestImprovementCandidatesTest extends
+    PermutationVNSBestImprovementTest {
+
+  /** create */
+  public PermutationVNSBestImprovementCandidatesTest() {
+    super();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected PermutationVNS createAlgorithm() {
+    final PermutationVNS r;
+    r = super.createAlgorithm();
+    r.setCandidateCount(8);
+    return r;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected boolean isShortTest() {
+    return true;
+  }
+}
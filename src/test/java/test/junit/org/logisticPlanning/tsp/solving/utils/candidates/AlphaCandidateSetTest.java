@@ -0,0 +1,416 @@
+package test.junit.org.logisticPlanning.tsp.solving.utils.candidates;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.benchmarking.dist.DistanceComputer;
+import org.logisticPlanning.tsp.benchmarking.instances.Instance;
+import org.logisticPlanning.tsp.benchmarking.objective.Benchmark;
+import org.logisticPlanning.tsp.benchmarking.objective.ObjectiveFunction;
+import org.logisticPlanning.tsp.solving.TSPAlgorithm;
+import org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet;
+import org.logisticPlanning.utils.config.Configuration;
+
+import test.junit.TempDir;
+import test.junit.TestBase;
+
+/**
+ * Test the &alpha;-nearest neighbor candidate sets created by
+ * {@link org.logisticPlanning.tsp.solving.utils.candidates.CandidateSet#allocateAlpha(ObjectiveFunction, int, CandidateSet)}
+ * : For small instances, the sparse graph is complete, so the candidates
+ * of each node must have exactly the {@code m} smallest &alpha;-values,
+ * which we compute by brute force as the increase of the cost of a
+ * minimum 1-tree under the &pi;-values of the candidate set if the 1-tree
+ * must contain the edge. For all instances, the candidates must be valid,
+ * sorted, and distinct, and a candidate set taken from the shared data of
+ * an instance must cost exactly as many distance evaluations as computing
+ * it anew.
+ */
+public class AlphaCandidateSetTest extends TestBase {
+
+  /** the small instances, for which the candidates are exact */
+  private static final Instance[] SMALL = { Instance.BURMA14,
+      Instance.ULYSSES16, Instance.GR17, Instance.GR21 };
+
+  /** the numbers of candidates */
+  private static final int[] M = { 1, 2, 5, 10 };
+
+  /** the tolerance for comparing &alpha;-values */
+  private static final double EPS = 1e-6d;
+
+  /** create the test */
+  public AlphaCandidateSetTest() {
+    super();
+  }
+
+  /**
+   * create a benchmark
+   *
+   * @param inst
+   *          the problem instance
+   * @param dir
+   *          the output directory
+   * @param share
+   *          should precomputations be shared?
+   * @return the benchmark
+   */
+  private static final Benchmark __makeBenchmark(final Instance inst,
+      final File dir, final boolean share) {
+    final Configuration cfg;
+    final Benchmark bm;
+
+    cfg = new Configuration();
+    cfg.putString(Benchmark.PARAM_DEST_DIR, dir.getPath());
+    cfg.putString(Benchmark.PARAM_SHARE_PRECOMPUTATIONS,
+        String.valueOf(share));
+
+    bm = new Benchmark(inst);
+    bm.configure(cfg);
+    return bm;
+  }
+
+  /**
+   * allocate an &alpha;-nearest neighbor candidate set during a run and
+   * get the number of distance evaluations this took
+   *
+   * @param f
+   *          the objective function
+   * @param m
+   *          the number of candidates
+   * @param dest
+   *          the destination for the candidate set
+   * @return the number of distance evaluations
+   */
+  private static final long __allocate(final ObjectiveFunction f,
+      final int m, final CandidateSet[] dest) {
+    final long before, des;
+
+    f.beginRun(new _Dummy());
+    try {
+      before = f.getCurrentLogPoint().getConsumedDEs();
+      dest[0] = CandidateSet.allocateAlpha(f, m, null);
+      des = (f.getCurrentLogPoint().getConsumedDEs() - before);
+    } finally {
+      f.endRun();
+    }
+    Assert.assertEquals("_AlphaCandidateSet", //$NON-NLS-1$
+        dest[0].getClass().getSimpleName());
+    return des;
+  }
+
+  /**
+   * check that the candidates of all nodes are valid, sorted, and
+   * distinct
+   *
+   * @param cs
+   *          the candidate set
+   * @param n
+   *          the number of nodes
+   * @param m
+   *          the number of candidates
+   */
+  private static final void __checkValid(final CandidateSet cs,
+      final int n, final int m) {
+    int i, k, c;
+
+    Assert.assertEquals(m, cs.m());
+    for (i = 1; i <= n; i++) {
+      for (k = 1; k <= m; k++) {
+        c = cs.getCandidate(i, k);
+        Assert.assertTrue((c > 0) && (c <= n) && (c != i));
+        if (k > 1) {
+          Assert.assertTrue(c > cs.getCandidate(i, (k - 1)));
+        }
+        Assert.assertEquals(k, cs.getPseudoID(i, c));
+      }
+    }
+  }
+
+  /**
+   * find the representative of a node in a union-find structure
+   *
+   * @param comp
+   *          the union-find structure
+   * @param node
+   *          the node
+   * @return the representative
+   */
+  private static final int __find(final int[] comp, final int node) {
+    int i;
+
+    i = node;
+    while (comp[i] != i) {
+      i = comp[i];
+    }
+    return i;
+  }
+
+  /**
+   * Compute the cost of a minimum 1-tree with Kruskal's algorithm on the
+   * complete graph, where the 1-tree may be forced to contain a given
+   * edge.
+   *
+   * @param c
+   *          the transformed costs
+   * @param n
+   *          the number of nodes
+   * @param a
+   *          the smaller node of the forced edge, or {@code 0} if no edge
+   *          is forced
+   * @param b
+   *          the larger node of the forced edge
+   * @return the cost of the 1-tree
+   */
+  private static final double __oneTree(final double[][] c, final int n,
+      final int a, final int b) {
+    final int[] comp, from, to;
+    double sum, first, second;
+    int count, i, j, k, x, y;
+
+    // the edges between the nodes 2..n, sorted by their costs
+    from = new int[((n - 1) * (n - 2)) >>> 1];
+    to = new int[from.length];
+    count = 0;
+    for (i = 2; i <= n; i++) {
+      for (j = (i + 1); j <= n; j++) {
+        for (k = count++; (k > 0) && (c[from[k - 1]][to[k - 1]] > c[i][j]); k--) {
+          from[k] = from[k - 1];
+          to[k] = to[k - 1];
+        }
+        from[k] = i;
+        to[k] = j;
+      }
+    }
+
+    comp = new int[n + 1];
+    for (i = n; i > 0; i--) {
+      comp[i] = i;
+    }
+
+    sum = 0d;
+    if (a > 1) {
+      comp[AlphaCandidateSetTest.__find(comp, b)] = AlphaCandidateSetTest
+          .__find(comp, a);
+      sum += c[a][b];
+    }
+    for (k = 0; k < count; k++) {
+      x = AlphaCandidateSetTest.__find(comp, from[k]);
+      y = AlphaCandidateSetTest.__find(comp, to[k]);
+      if (x != y) {
+        comp[y] = x;
+        sum += c[from[k]][to[k]];
+      }
+    }
+
+    // connect node 1 via its two cheapest edges, one of which may be
+    // forced
+    first = second = Double.POSITIVE_INFINITY;
+    for (i = 2; i <= n; i++) {
+      if ((a == 1) && (i == b)) {
+        continue;
+      }
+      if (c[1][i] < second) {
+        if (c[1][i] < first) {
+          second = first;
+          first = c[1][i];
+        } else {
+          second = c[1][i];
+        }
+      }
+    }
+    return (sum + ((a == 1) ? (c[1][b] + first) : (first + second)));
+  }
+
+  /**
+   * test that the candidates of the small instances have exactly the
+   * smallest &alpha;-values
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testExactAlpha() throws Throwable {
+    final CandidateSet[] cs;
+    final Field piField;
+    double[][] c, alpha;
+    double[] pi, all, chosen;
+    DistanceComputer dist;
+    ObjectiveFunction f;
+    double base;
+    int n, i, j, k;
+
+    cs = new CandidateSet[1];
+    piField = Class.forName(
+        "org.logisticPlanning.tsp.solving.utils.candidates._AlphaCandidateSet") //$NON-NLS-1$
+        .getDeclaredField("m_pi"); //$NON-NLS-1$
+    piField.setAccessible(true);
+
+    try (final TempDir tempDir = new TempDir()) {
+      for (final Instance inst : AlphaCandidateSetTest.SMALL) {
+        n = inst.n();
+        Assert.assertTrue(n <= 21);
+        dist = inst.load(0);
+
+        for (final int m : AlphaCandidateSetTest.M) {
+          if (m >= (n - 1)) {
+            continue;
+          }
+
+          f = AlphaCandidateSetTest.__makeBenchmark(inst,
+              tempDir.getDir(), false).createWarmUpObjective(1000l);
+          try {
+            AlphaCandidateSetTest.__allocate(f, m, cs);
+          } finally {
+            f.dispose();
+          }
+          AlphaCandidateSetTest.__checkValid(cs[0], n, m);
+
+          // the alpha-values by brute force
+          pi = ((double[]) (piField.get(cs[0])));
+          c = new double[n + 1][n + 1];
+          for (i = 1; i <= n; i++) {
+            for (j = 1; j <= n; j++) {
+              c[i][j] = (dist.distance(i, j) + pi[i] + pi[j]);
+            }
+          }
+          base = AlphaCandidateSetTest.__oneTree(c, n, 0, 0);
+          alpha = new double[n + 1][n + 1];
+          for (i = 1; i <= n; i++) {
+            for (j = (i + 1); j <= n; j++) {
+              alpha[i][j] = alpha[j][i] = //
+              (AlphaCandidateSetTest.__oneTree(c, n, i, j) - base);
+              Assert.assertTrue(alpha[i][j] >= (-AlphaCandidateSetTest.EPS));
+            }
+          }
+
+          // the candidates must have the m smallest alpha-values
+          all = new double[n - 1];
+          chosen = new double[m];
+          for (i = 1; i <= n; i++) {
+            k = 0;
+            for (j = 1; j <= n; j++) {
+              if (j != i) {
+                all[k++] = alpha[i][j];
+              }
+            }
+            for (k = m; k > 0; k--) {
+              chosen[k - 1] = alpha[i][cs[0].getCandidate(i, k)];
+            }
+            Arrays.sort(all);
+            Arrays.sort(chosen);
+            for (k = 0; k < m; k++) {
+              Assert.assertEquals(inst.name() + ", m=" + m + ", node " + i, //$NON-NLS-1$//$NON-NLS-2$
+                  all[k], chosen[k], AlphaCandidateSetTest.EPS);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * test that a candidate set taken from the shared data costs as many
+   * distance evaluations as computing it anew
+   *
+   * @param inst
+   *          the instance
+   * @param m
+   *          the number of candidates
+   * @throws Throwable
+   *           if something fails
+   */
+  private static final void __testSharedDEs(final Instance inst,
+      final int m) throws Throwable {
+    final CandidateSet[] cs1, cs2, cs3;
+    final ObjectiveFunction f1, f2, f3;
+    final long des1, des2, des3;
+    int i, k;
+
+    cs1 = new CandidateSet[1];
+    cs2 = new CandidateSet[1];
+    cs3 = new CandidateSet[1];
+    try (final TempDir tempDir = new TempDir()) {
+      f1 = AlphaCandidateSetTest.__makeBenchmark(inst, tempDir.getDir(),
+          true).createWarmUpObjective(1000l);
+      try {
+        des1 = AlphaCandidateSetTest.__allocate(f1, m, cs1);
+
+        f2 = AlphaCandidateSetTest.__makeBenchmark(inst,
+            tempDir.getDir(), true).createWarmUpObjective(1000l);
+        try {
+          des2 = AlphaCandidateSetTest.__allocate(f2, m, cs2);
+        } finally {
+          f2.dispose();
+        }
+      } finally {
+        f1.dispose();
+      }
+
+      f3 = AlphaCandidateSetTest.__makeBenchmark(inst, tempDir.getDir(),
+          false).createWarmUpObjective(1000l);
+      try {
+        des3 = AlphaCandidateSetTest.__allocate(f3, m, cs3);
+      } finally {
+        f3.dispose();
+      }
+    }
+
+    Assert.assertSame(cs1[0], cs2[0]);
+    Assert.assertNotSame(cs1[0], cs3[0]);
+    Assert.assertTrue(des1 > 0l);
+    Assert.assertEquals(des1, des2);
+    Assert.assertEquals(des1, des3);
+
+    AlphaCandidateSetTest.__checkValid(cs1[0], inst.n(), m);
+    for (i = inst.n(); i > 0; i--) {
+      for (k = m; k > 0; k--) {
+        Assert.assertEquals(cs1[0].getCandidate(i, k),
+            cs3[0].getCandidate(i, k));
+      }
+    }
+  }
+
+  /**
+   * test the distance evaluations of shared candidate sets of an instance
+   * with coordinates
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testSharedDEsCoordinates() throws Throwable {
+    AlphaCandidateSetTest.__testSharedDEs(Instance.BERLIN52, 5);
+  }
+
+  /**
+   * test the distance evaluations of shared candidate sets of an instance
+   * with explicit edge weights
+   *
+   * @throws Throwable
+   *           if something fails
+   */
+  @Test(timeout = 3600000)
+  public void testSharedDEsMatrix() throws Throwable {
+    AlphaCandidateSetTest.__testSharedDEs(Instance.GR24, 5);
+  }
+
+  /** the algorithm of the runs during which the candidates are allocated */
+  private static final class _Dummy extends TSPAlgorithm {
+    /** the serial version uid */
+    private static final long serialVersionUID = 1L;
+
+    /** create */
+    _Dummy() {
+      super("Dummy"); //$NON-NLS-1$
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final void solve(final ObjectiveFunction f) {
+      //
+    }
+  }
+}
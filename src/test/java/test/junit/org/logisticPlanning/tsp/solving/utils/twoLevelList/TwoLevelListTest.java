@@ -0,0 +1,201 @@
+package test.junit.org.logisticPlanning.tsp.solving.utils.twoLevelList;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.logisticPlanning.tsp.solving.operators.permutation.creation.PermutationCreateUniform;
+import org.logisticPlanning.tsp.solving.utils.RepresentationUtils;
+import org.logisticPlanning.tsp.solving.utils.twoLevelList.TwoLevelList;
+import org.logisticPlanning.utils.math.random.Randomizer;
+
+import test.junit.TestBase;
+
+/**
+ * Test the two-level doubly-linked list.
+ */
+public class TwoLevelListTest extends TestBase {
+
+  /** create */
+  public TwoLevelListTest() {
+    super();
+  }
+
+  /**
+   * check that the list represents the given path in one of the two
+   * directions and that its successor, predecessor, and between queries
+   * are consistent
+   *
+   * @param list
+   *          the list
+   * @param path
+   *          the path
+   * @param r
+   *          the randomizer
+   */
+  private static final void __check(final TwoLevelList list,
+      final int[] path, final Randomizer r) {
+    final int n;
+    final int[] b, pos;
+    int i, x, y, z;
+
+    n = list.n();
+    b = new int[n];
+    list.toPath(b);
+    Assert.assertTrue(RepresentationUtils.arePathsEquivalentSTSP(path, b));
+
+    pos = new int[n + 1];
+    for (i = 0; i < n; i++) {
+      pos[b[i]] = i;
+      Assert.assertEquals(b[(i + 1) % n], list.next(b[i]));
+      Assert.assertEquals(b[i], list.prev(b[(i + 1) % n]));
+    }
+
+    for (i = 100; (--i) >= 0;) {
+      x = (1 + r.nextInt(n));
+      y = (1 + r.nextInt(n));
+      z = (1 + r.nextInt(n));
+      Assert.assertEquals(
+          ((((pos[y] - pos[x]) + n) % n) <= (((pos[z] - pos[x]) + n) % n)),
+          list.between(x, y, z));
+    }
+  }
+
+  /** test the path conversation */
+  @Test(timeout = 3600000)
+  public void testFromToPath() {
+    final Randomizer r;
+    TwoLevelList list;
+    int i, j, n;
+    int[] a;
+
+    r = new Randomizer();
+
+    for (i = 1; i <= 300; i++) {
+      if (i < 40) {
+        n = i;
+      } else {
+        n = (1 + r.nextInt(1000));
+      }
+
+      list = new TwoLevelList(n);
+      a = new int[n];
+      for (j = n; j > 0; j--) {
+        a[j - 1] = j;
+      }
+      TwoLevelListTest.__check(list, a, r);
+
+      for (j = 10; (--j) >= 0;) {
+        a = PermutationCreateUniform.create(n, r);
+        RepresentationUtils.pathToTwoLevelList(a, list);
+        TwoLevelListTest.__check(list, a, r);
+      }
+    }
+  }
+
+  /** test the adjacency list conversation */
+  @Test(timeout = 3600000)
+  public void testFromToAdjacencyList() {
+    final Randomizer r;
+    TwoLevelList list;
+    int i, j, n;
+    int[] a, adj, adj2;
+
+    r = new Randomizer();
+
+    for (i = 1; i <= 300; i++) {
+      if (i < 40) {
+        n = i;
+      } else {
+        n = (1 + r.nextInt(1000));
+      }
+
+      list = new TwoLevelList(n);
+      adj = new int[n];
+      adj2 = new int[n];
+      for (j = 10; (--j) >= 0;) {
+        a = PermutationCreateUniform.create(n, r);
+        RepresentationUtils.pathToAdjacencyList(a, adj);
+        RepresentationUtils.adjacencyListToTwoLevelList(adj, list);
+        TwoLevelListTest.__check(list, a, r);
+        RepresentationUtils.twoLevelListToAdjacencyList(list, adj2);
+        Assert.assertTrue(RepresentationUtils
+            .areAdjacencyListsEquivalentSTSP(adj, adj2));
+      }
+    }
+  }
+
+  /** test flipping parts of the tour against reversals in a path */
+  @Test(timeout = 3600000)
+  public void testFlip() {
+    final Randomizer r;
+    TwoLevelList list;
+    int i, j, n, a, c;
+    int[] path;
+
+    r = new Randomizer();
+
+    for (i = 3; i <= 200; i++) {
+      if (i < 50) {
+        n = i;
+      } else {
+        n = (3 + r.nextInt(2000));
+      }
+
+      list = new TwoLevelList(n);
+      path = PermutationCreateUniform.create(n, r);
+      list.fromPath(path);
+
+      for (j = 300; (--j) >= 0;) {
+        a = (1 + r.nextInt(n));
+        do {
+          c = (1 + r.nextInt(n));
+        } while (c == a);
+
+        // do the same flip in the path representation of the current tour
+        list.toPath(path);
+        TwoLevelListTest.__flip(path, a, c);
+        list.flip(a, list.next(a), c, list.next(c));
+        TwoLevelListTest.__check(list, path, r);
+      }
+    }
+  }
+
+  /**
+   * Replace the edges {@code (a, b)} and {@code (c, d)} with
+   * {@code (a, c)} and {@code (b, d)} in a tour in path representation by
+   * reversing the part from {@code b} to {@code c}, where {@code b} and
+   * {@code d} are the successors of {@code a} and {@code c}
+   *
+   * @param path
+   *          the path
+   * @param a
+   *          the node {@code a}
+   * @param c
+   *          the node {@code c}
+   */
+  private static final void __flip(final int[] path, final int a,
+      final int c) {
+    final int n;
+    int i, j, pa, pc, t, v;
+
+    n = path.length;
+    pa = pc = (-1);
+    for (i = n; (--i) >= 0;) {
+      if (path[i] == a) {
+        pa = i;
+      }
+      if (path[i] == c) {
+        pc = i;
+      }
+    }
+
+    i = ((pa + 1) % n);
+    j = pc;
+    for (t = ((((j - i) + n) % n) + 1) / 2; (--t) >= 0;) {
+      v = path[i];
+      path[i] = path[j];
+      path[j] = v;
+      i = ((i + 1) % n);
+      j = (((j - 1) + n) % n);
+    }
+  }
+}